@@ -17,16 +17,19 @@ public class NotificationController {
     private NotificationService notificationService;
 
     @PostMapping("/send")
-    public ResponseEntity<SendNotificationResponse> sendNotification(@RequestBody SendNotificationRequest request) {
+    public ResponseEntity<SendNotificationResponse> sendNotification(
+            @RequestBody SendNotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             Notification notification;
             
             if ("EMAIL".equalsIgnoreCase(request.getChannel())) {
-                notification = notificationService.sendEmailNotification(
+                notification = notificationService.queueEmailNotification(
                     request.getRecipientEmail(),
                     request.getSubject(),
                     request.getMessage(),
-                    request.getAlertId()
+                    request.getAlertId(),
+                    idempotencyKey
                 );
             } else {
                 return ResponseEntity.badRequest().body(
@@ -34,10 +37,11 @@ public class NotificationController {
                 );
             }
             
-            return ResponseEntity.ok(new SendNotificationResponse(
+            // Accepted for delivery; the email is sent in the background
+            return ResponseEntity.accepted().body(new SendNotificationResponse(
                 notification.getId(),
-                notification.getStatus() == Notification.NotificationStatus.SENT,
-                notification.getStatus() == Notification.NotificationStatus.SENT ? "Notification sent successfully" : "Failed to send notification",
+                true,
+                "Notification queued for delivery",
                 notification.getStatus().toString()
             ));
         } catch (Exception e) {
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,7 +14,7 @@ public class SendNotificationRequest {
     private String subject;
     private String message;
     private String channel; // EMAIL, SMS, PUSH
-    private Long alertId; // Optional: reference to alert
+    private UUID alertId; // Optional: reference to alert
 }
 
 
@@ -6,9 +6,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+    indexes = {
+        @Index(name = "idx_notifications_due", columnList = "status, next_attempt_at"),
+        // Finds the open digest of a recipient when a notification is queued
+        @Index(name = "idx_notifications_recipient_status", columnList = "recipient_email, status, created_at")
+    })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,7 +42,7 @@ public class Notification {
     private NotificationChannel channel;
     
     @Column(nullable = true)
-    private Long alertId; // Reference to alert that triggered this notification
+    private UUID alertId; // Reference to alert that triggered this notification
     
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -47,8 +53,23 @@ public class Notification {
     @Column(nullable = true, columnDefinition = "TEXT")
     private String errorMessage;
     
+    @Column(nullable = false)
+    private Integer attempts = 0; // Delivery attempts so far
+    
+    @Column(name = "next_attempt_at", nullable = true)
+    private LocalDateTime nextAttemptAt; // When a PENDING or FAILED notification is due, or a SENDING lease ends; null once final
+    
+    @Column(nullable = false)
+    private Integer coalescedCount = 1; // Notifications delivered by this email; more than 1 for a digest
+    
+    @Column(nullable = true)
+    private Long digestId; // Digest that delivers this notification when it was COALESCED
+    
+    @Column(nullable = true, unique = true, length = 64)
+    private String idempotencyKey; // Sender's key for this notification; a retried request returns the same row
+    
     public enum NotificationStatus {
-        PENDING, SENT, FAILED
+        PENDING, SENDING, SENT, FAILED, COALESCED
     }
     
     public enum NotificationChannel {
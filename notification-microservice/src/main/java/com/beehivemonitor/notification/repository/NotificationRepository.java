@@ -1,16 +1,52 @@
 package com.beehivemonitor.notification.repository;
 
 import com.beehivemonitor.notification.entity.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientEmailOrderByCreatedAtDesc(String email);
-    List<Notification> findByAlertId(Long alertId);
+    List<Notification> findByAlertId(UUID alertId);
     List<Notification> findByStatus(Notification.NotificationStatus status);
-}
+    long countByStatus(Notification.NotificationStatus status);
+    Optional<Notification> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Locks the notifications due for delivery, oldest due first
+     * (SELECT ... FOR UPDATE SKIP LOCKED on databases that support it).
+     * Rows locked by another worker are skipped instead of waited for, so several workers
+     * and instances drain the queue in parallel without delivering a notification twice.
+     * Must be called inside a transaction; the locks are held until it ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status IN :statuses AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt")
+    List<Notification> lockDueForDelivery(@Param("statuses") Collection<Notification.NotificationStatus> statuses,
+                                          @Param("now") LocalDateTime now,
+                                          Pageable pageable);
 
+    /**
+     * Locks the oldest digest for the recipient that has not been sent yet, if any.
+     * New notifications for the recipient are coalesced into it; the lock keeps a worker
+     * from sending the digest while a notification is being added.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Notification> findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(String recipientEmail,
+                                                                                 Notification.NotificationStatus status);
 
+    List<Notification> findByDigestIdInOrderByCreatedAtAsc(Collection<Long> digestIds);
+}
@@ -0,0 +1,397 @@
+package com.beehivemonitor.notification.service;
+
+import com.beehivemonitor.notification.entity.Notification;
+import com.beehivemonitor.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Delivers queued email notifications in the background.
+ *
+ * A pool of workers drains the notifications table. Each worker claims a batch of due PENDING or FAILED rows
+ * in a short transaction (SKIP LOCKED, so workers and service instances never pick the same row), marking
+ * them SENDING with a lease; it then sends the batch over one SMTP connection outside any transaction, so
+ * no row lock or database connection is held while the mail server responds, and records the outcome in a
+ * second transaction. A batch whose worker died is claimed again once its lease has ended. Failed
+ * notifications are retried with exponential backoff until the attempts run out.
+ *
+ * A digest (a notification other notifications were coalesced into) is sent as one email listing all of them;
+ * its COALESCED members take its outcome once it is SENT or has FAILED for good.
+ * Recipients over their {@link RecipientRateLimiter} limit are deferred until their next token; notifications
+ * queued for them meanwhile are coalesced into the deferred digest. The token of an email that could not be
+ * sent is given back.
+ */
+@Service
+public class EmailDeliveryWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDeliveryWorker.class);
+
+    // SENDING rows are only due once their lease has ended
+    private static final List<Notification.NotificationStatus> DUE_STATUSES = List.of(
+        Notification.NotificationStatus.PENDING, Notification.NotificationStatus.FAILED, Notification.NotificationStatus.SENDING);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private RecipientRateLimiter rateLimiter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of workers draining the queue in parallel.
+     * Configurable via application.properties: notification.delivery.workers
+     */
+    @Value("${notification.delivery.workers:2}")
+    private int workers;
+
+    /**
+     * Maximum number of emails a worker sends over one SMTP connection.
+     * Configurable via application.properties: notification.delivery.batch.size
+     */
+    @Value("${notification.delivery.batch.size:20}")
+    private int batchSize;
+
+    /**
+     * Delivery attempts before a notification stays FAILED for good.
+     * Configurable via application.properties: notification.delivery.max-attempts
+     */
+    @Value("${notification.delivery.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Delay before the first retry; doubled after every further failure up to the maximum.
+     * Configurable via application.properties: notification.delivery.backoff.ms, notification.delivery.max-backoff.ms
+     */
+    @Value("${notification.delivery.backoff.ms:30000}")
+    private long backoffMs;
+
+    @Value("${notification.delivery.max-backoff.ms:3600000}")
+    private long maxBackoffMs;
+
+    /**
+     * Time a claimed batch is reserved for its worker; must exceed the time to send a batch.
+     * Configurable via application.properties: notification.delivery.lease.seconds
+     */
+    @Value("${notification.delivery.lease.seconds:300}")
+    private long leaseSeconds;
+
+    private ExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Counter throttled;
+    private Timer batchTimer;
+    private Timer deliveryDelay;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "email-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sent = outcomeCounter("sent");
+        retried = outcomeCounter("retried");
+        failed = outcomeCounter("failed");
+        throttled = Counter.builder("notification.delivery.throttled")
+            .description("Emails deferred because the recipient exceeded the rate limit")
+            .register(meterRegistry);
+        for (Notification.NotificationStatus status : Notification.NotificationStatus.values()) {
+            Gauge.builder("notification.delivery.queue", notificationRepository, repository -> repository.countByStatus(status))
+                .description("Notifications by delivery status")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+        batchTimer = Timer.builder("notification.delivery.batch")
+            .description("Time to send one batch of emails over a single SMTP connection")
+            .register(meterRegistry);
+        deliveryDelay = Timer.builder("notification.delivery.delay")
+            .description("Time from queuing a notification until its email was sent")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Lets every worker drain due notifications until the queue is empty.
+     * Runs with a fixed delay, so runs never overlap on one instance.
+     */
+    @Scheduled(fixedDelayString = "${notification.delivery.poll.ms:1000}")
+    public void drain() {
+        List<Callable<Integer>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            tasks.add(this::drainQueue);
+        }
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (Exception e) {
+                    // A batch claimed but not recorded is picked up again once its lease has ended
+                    logger.error("Email delivery worker failed: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drainQueue() {
+        int total = 0;
+        int delivered;
+        do {
+            delivered = deliverBatch();
+            total += delivered;
+        } while (delivered >= batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    /**
+     * Claims one batch of due notifications, sends it and records the outcome
+     *
+     * @return Number of notifications attempted or deferred
+     */
+    int deliverBatch() {
+        Batch batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.deliverable().isEmpty()) {
+            return batch != null ? batch.size() : 0;
+        }
+
+        Map<Long, String> failures;
+        try {
+            failures = batchTimer.record(() -> emailService.sendEmails(batch.emails()));
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (Notification notification : batch.deliverable()) {
+                failures.put(notification.getId(), "Failed to send email: " + e.getMessage());
+            }
+        }
+
+        Map<Long, String> errors = failures;
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime finishedAt = LocalDateTime.now();
+            List<Notification> updated = new ArrayList<>(batch.deliverable());
+            for (Notification notification : batch.deliverable()) {
+                List<Notification> members = batch.members().getOrDefault(notification.getId(), List.of());
+                String error = errors.get(notification.getId());
+                if (error == null) {
+                    markSent(notification, finishedAt);
+                } else {
+                    rateLimiter.refund(notification.getRecipientEmail());
+                    markFailed(notification, error, finishedAt);
+                }
+                if (updateMembers(notification, members)) {
+                    updated.addAll(members);
+                }
+            }
+            notificationRepository.saveAll(updated);
+        });
+        return batch.size();
+    }
+
+    /**
+     * Locks the due notifications, defers those over their recipient's rate limit and leases the others
+     * to this worker (status SENDING), which also keeps new notifications from being coalesced into them
+     *
+     * @return The claimed batch, or null if nothing is due
+     */
+    private Batch claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> batch = new ArrayList<>();
+        for (Notification notification : notificationRepository.lockDueForDelivery(DUE_STATUSES, now, PageRequest.of(0, batchSize))) {
+            // Without SKIP LOCKED (e.g. H2) a worker may wait for a row another worker has just claimed
+            if (notification.getNextAttemptAt() != null && !notification.getNextAttemptAt().isAfter(now)
+                    && DUE_STATUSES.contains(notification.getStatus())) {
+                batch.add(notification);
+            }
+        }
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        List<Notification> deliverable = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            long waitMs = rateLimiter.tryAcquire(notification.getRecipientEmail());
+            if (waitMs > 0) {
+                // Not an attempt; a pending digest keeps collecting notifications until then
+                if (notification.getStatus() == Notification.NotificationStatus.SENDING) {
+                    // Lease of a worker that died
+                    notification.setStatus(Notification.NotificationStatus.PENDING);
+                }
+                notification.setNextAttemptAt(now.plus(waitMs, ChronoUnit.MILLIS));
+                throttled.increment();
+            } else {
+                notification.setStatus(Notification.NotificationStatus.SENDING);
+                notification.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+                deliverable.add(notification);
+            }
+        }
+        Map<Long, List<Notification>> members = findMembers(deliverable);
+        List<Notification> emails = toEmails(deliverable, members);
+        notificationRepository.saveAll(batch);
+        return new Batch(batch.size(), deliverable, members, emails);
+    }
+
+    /**
+     * @return The notifications still waiting in each of the digests, by digest id
+     */
+    private Map<Long, List<Notification>> findMembers(List<Notification> notifications) {
+        List<Long> digestIds = new ArrayList<>();
+        for (Notification notification : notifications) {
+            if (notification.getCoalescedCount() > 1) {
+                digestIds.add(notification.getId());
+            }
+        }
+        if (digestIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, List<Notification>> coalesced = new HashMap<>();
+        for (Notification member : notificationRepository.findByDigestIdInOrderByCreatedAtAsc(digestIds)) {
+            if (member.getStatus() == Notification.NotificationStatus.COALESCED) {
+                coalesced.computeIfAbsent(member.getDigestId(), id -> new ArrayList<>()).add(member);
+            }
+        }
+        return coalesced;
+    }
+
+    /**
+     * Replaces digests by an email listing every notification coalesced into them
+     */
+    private List<Notification> toEmails(List<Notification> notifications, Map<Long, List<Notification>> coalesced) {
+        if (coalesced.isEmpty()) {
+            return notifications;
+        }
+        List<Notification> emails = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            List<Notification> members = coalesced.get(notification.getId());
+            emails.add(members == null ? notification : digest(notification, members));
+        }
+        return emails;
+    }
+
+    private static Notification digest(Notification first, List<Notification> coalesced) {
+        StringBuilder message = new StringBuilder()
+            .append(coalesced.size() + 1).append(" notifications:\n\n")
+            .append(first.getSubject()).append('\n').append(first.getMessage()).append('\n');
+        for (Notification notification : coalesced) {
+            message.append('\n').append(notification.getSubject()).append('\n').append(notification.getMessage()).append('\n');
+        }
+
+        Notification email = new Notification();
+        email.setId(first.getId());
+        email.setRecipientEmail(first.getRecipientEmail());
+        email.setSubject(first.getSubject() + " (+" + coalesced.size() + " more)");
+        email.setMessage(message.toString());
+        return email;
+    }
+
+    private void markSent(Notification notification, LocalDateTime sentAt) {
+        notification.setAttempts(notification.getAttempts() + 1);
+        notification.setStatus(Notification.NotificationStatus.SENT);
+        notification.setSentAt(sentAt);
+        notification.setNextAttemptAt(null);
+        notification.setErrorMessage(null);
+        sent.increment();
+        if (notification.getCreatedAt() != null) {
+            deliveryDelay.record(Duration.between(notification.getCreatedAt(), sentAt));
+        }
+    }
+
+    /**
+     * Gives the digest's members its outcome once it is final; while the digest is retried they stay COALESCED
+     *
+     * @return Whether the members were changed
+     */
+    private static boolean updateMembers(Notification digest, List<Notification> members) {
+        boolean sent = digest.getStatus() == Notification.NotificationStatus.SENT;
+        if (members.isEmpty() || (!sent && digest.getNextAttemptAt() != null)) {
+            return false;
+        }
+        for (Notification member : members) {
+            member.setStatus(digest.getStatus());
+            member.setSentAt(digest.getSentAt());
+            member.setErrorMessage(digest.getErrorMessage());
+        }
+        return true;
+    }
+
+    private void markFailed(Notification notification, String error, LocalDateTime failedAt) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setStatus(Notification.NotificationStatus.FAILED);
+        notification.setErrorMessage(error);
+        if (attempts >= maxAttempts) {
+            notification.setNextAttemptAt(null);
+            failed.increment();
+            logger.error("Notification {} to {} failed after {} attempts: {}",
+                notification.getId(), notification.getRecipientEmail(), attempts, error);
+        } else {
+            notification.setNextAttemptAt(failedAt.plus(backoffMs(attempts), ChronoUnit.MILLIS));
+            retried.increment();
+            logger.warn("Notification {} to {} failed (attempt {}), retrying: {}",
+                notification.getId(), notification.getRecipientEmail(), attempts, error);
+        }
+    }
+
+    /**
+     * @return Delay before the next attempt after the given number of failed attempts
+     */
+    long backoffMs(int attempts) {
+        return Math.min(backoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("notification.delivery.emails")
+            .description("Email delivery attempts by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Notifications claimed by one worker, the members of the digests among them and the emails sending them
+     */
+    private record Batch(int size, List<Notification> deliverable, Map<Long, List<Notification>> members,
+                         List<Notification> emails) {
+    }
+}
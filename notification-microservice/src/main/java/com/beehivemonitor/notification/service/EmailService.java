@@ -1,11 +1,18 @@
 package com.beehivemonitor.notification.service;
 
+import com.beehivemonitor.notification.entity.Notification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class EmailService {
 
@@ -20,17 +27,52 @@ public class EmailService {
 
     public void sendEmail(String to, String subject, String message) {
         try {
-            SimpleMailMessage email = new SimpleMailMessage();
-            email.setFrom(fromEmail);
-            email.setTo(to);
-            email.setSubject(subject);
-            email.setText(message);
-            
-            mailSender.send(email);
+            mailSender.send(createEmail(to, subject, message));
         } catch (Exception e) {
             throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * Sends the emails of several notifications over a single SMTP connection.
+     * A rejected message does not stop the others.
+     *
+     * @return Error message per id of a notification that could not be sent; empty if all were sent
+     */
+    public Map<Long, String> sendEmails(List<Notification> notifications) {
+        SimpleMailMessage[] emails = new SimpleMailMessage[notifications.size()];
+        for (int i = 0; i < emails.length; i++) {
+            Notification notification = notifications.get(i);
+            emails[i] = createEmail(notification.getRecipientEmail(), notification.getSubject(), notification.getMessage());
+        }
 
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            mailSender.send(emails);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < emails.length; i++) {
+                // Without per-message details the whole batch failed
+                Exception failure = failedMessages.isEmpty() ? e : failedMessages.get(emails[i]);
+                if (failure != null) {
+                    failures.put(notifications.get(i).getId(), "Failed to send email: " + failure.getMessage());
+                }
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing was sent
+            for (Notification notification : notifications) {
+                failures.put(notification.getId(), "Failed to send email: " + e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage createEmail(String to, String subject, String message) {
+        SimpleMailMessage email = new SimpleMailMessage();
+        email.setFrom(fromEmail);
+        email.setTo(to);
+        email.setSubject(subject);
+        email.setText(message);
+        return email;
+    }
+}
@@ -2,11 +2,15 @@ package com.beehivemonitor.notification.service;
 
 import com.beehivemonitor.notification.entity.Notification;
 import com.beehivemonitor.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class NotificationService {
@@ -15,38 +19,74 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private EmailService emailService;
+    private MeterRegistry meterRegistry;
 
+    /**
+     * How long a new notification waits for further notifications to the same recipient
+     * before it is sent; those are coalesced into it and delivered as one digest email.
+     * 0 sends every notification on its own, immediately.
+     * Configurable via application.properties: notification.coalesce.window.seconds
+     */
+    @Value("${notification.coalesce.window.seconds:30}")
+    private long coalesceWindowSeconds;
+
+    /**
+     * Queues an email notification; it is sent in the background by {@link EmailDeliveryWorker},
+     * so the caller does not wait for the mail server.
+     * While a digest for the recipient is still waiting to be sent, the notification is coalesced into it.
+     */
+    @Transactional
+    public Notification queueEmailNotification(String recipientEmail, String subject, String message, UUID alertId) {
+        return queueEmailNotification(recipientEmail, subject, message, alertId, null);
+    }
+
+    /**
+     * Queues an email notification at most once per idempotency key: a request repeated with the key of
+     * a notification already queued (e.g. a retry after a lost response) returns that notification.
+     */
     @Transactional
-    public Notification sendEmailNotification(String recipientEmail, String subject, String message, Long alertId) {
-        // Create notification record
+    public Notification queueEmailNotification(String recipientEmail, String subject, String message, UUID alertId,
+                                               String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<Notification> existing = notificationRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                meterRegistry.counter("notification.duplicates").increment();
+                return existing.get();
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
         Notification notification = new Notification();
         notification.setRecipientEmail(recipientEmail);
         notification.setSubject(subject);
         notification.setMessage(message);
         notification.setChannel(Notification.NotificationChannel.EMAIL);
-        notification.setStatus(Notification.NotificationStatus.PENDING);
         notification.setAlertId(alertId);
-        notification.setCreatedAt(LocalDateTime.now());
-        
-        notification = notificationRepository.save(notification);
+        notification.setCreatedAt(now);
+        notification.setAttempts(0);
+        notification.setIdempotencyKey(idempotencyKey);
         
-        try {
-            // Send email
-            emailService.sendEmail(recipientEmail, subject, message);
-            
-            // Update status to SENT
-            notification.setStatus(Notification.NotificationStatus.SENT);
-            notification.setSentAt(LocalDateTime.now());
-            
-        } catch (Exception e) {
-            // Update status to FAILED
-            notification.setStatus(Notification.NotificationStatus.FAILED);
-            notification.setErrorMessage(e.getMessage());
+        if (coalesceWindowSeconds > 0) {
+            Optional<Notification> digest = notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                recipientEmail, Notification.NotificationStatus.PENDING);
+            // Re-check after the lock: a worker may have sent the digest while we waited for it
+            if (digest.isPresent() && digest.get().getStatus() == Notification.NotificationStatus.PENDING) {
+                return coalesce(notification, digest.get());
+            }
         }
         
+        notification.setStatus(Notification.NotificationStatus.PENDING);
+        notification.setNextAttemptAt(now.plusSeconds(coalesceWindowSeconds)); // Due once the window has passed
         return notificationRepository.save(notification);
     }
-}
-
 
+    private Notification coalesce(Notification notification, Notification digest) {
+        digest.setCoalescedCount(digest.getCoalescedCount() + 1);
+        notificationRepository.save(digest);
+        
+        notification.setStatus(Notification.NotificationStatus.COALESCED);
+        notification.setDigestId(digest.getId());
+        meterRegistry.counter("notification.coalesced").increment();
+        return notificationRepository.save(notification);
+    }
+}
@@ -0,0 +1,110 @@
+package com.beehivemonitor.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per recipient limiting how many emails one recipient gets.
+ * A recipient may receive a burst of up to capacity emails; after that the bucket refills
+ * at a steady rate. Buckets are kept in memory, so with several service instances
+ * the limit applies per instance.
+ */
+@Component
+public class RecipientRateLimiter {
+
+    // Beyond this many tracked recipients, buckets that have refilled completely are dropped
+    private static final int MAX_TRACKED_RECIPIENTS = 10_000;
+
+    /**
+     * Emails a recipient may receive in a burst; 0 disables rate limiting.
+     * Configurable via application.properties: notification.rate-limit.capacity
+     */
+    @Value("${notification.rate-limit.capacity:5}")
+    private int capacity;
+
+    /**
+     * Emails per hour a recipient may receive once the burst is used up.
+     * Configurable via application.properties: notification.rate-limit.per-hour
+     */
+    @Value("${notification.rate-limit.per-hour:12}")
+    private double refillPerHour;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Takes a token from the recipient's bucket
+     *
+     * @return 0 if an email may be sent to the recipient now, otherwise milliseconds until the next token
+     */
+    public long tryAcquire(String recipientEmail) {
+        if (capacity <= 0 || refillPerHour <= 0) {
+            return 0;
+        }
+        long now = clock.millis();
+        if (buckets.size() > MAX_TRACKED_RECIPIENTS) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        Bucket bucket = buckets.computeIfAbsent(recipientEmail.toLowerCase(Locale.ROOT), key -> new Bucket(now));
+        return bucket.take(now);
+    }
+
+    /**
+     * Gives back a token taken for an email that could not be sent
+     */
+    public void refund(String recipientEmail) {
+        if (capacity <= 0 || refillPerHour <= 0) {
+            return;
+        }
+        Bucket bucket = buckets.get(recipientEmail.toLowerCase(Locale.ROOT));
+        if (bucket != null) {
+            bucket.give(clock.millis());
+        }
+    }
+
+    private double millisPerToken() {
+        return 3_600_000d / refillPerHour;
+    }
+
+    private final class Bucket {
+
+        private double tokens = capacity;
+        private long updatedAt;
+
+        private Bucket(long now) {
+            this.updatedAt = now;
+        }
+
+        synchronized long take(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * millisPerToken());
+        }
+
+        synchronized void give(long now) {
+            refill(now);
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) / millisPerToken());
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -13,9 +13,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,7 +40,6 @@ class NotificationControllerApiTest {
 
     private SendNotificationRequest validRequest;
     private Notification successNotification;
-    private Notification failedNotification;
 
     @BeforeEach
     void setUp() {
@@ -47,7 +48,7 @@ class NotificationControllerApiTest {
         validRequest.setSubject("Test Alert");
         validRequest.setMessage("Temperature is above threshold");
         validRequest.setChannel("EMAIL");
-        validRequest.setAlertId(1L);
+        validRequest.setAlertId(UUID.randomUUID());
 
         successNotification = new Notification();
         successNotification.setId(1L);
@@ -55,59 +56,68 @@ class NotificationControllerApiTest {
         successNotification.setSubject("Test Alert");
         successNotification.setMessage("Temperature is above threshold");
         successNotification.setChannel(Notification.NotificationChannel.EMAIL);
-        successNotification.setStatus(Notification.NotificationStatus.SENT);
-        successNotification.setAlertId(1L);
+        successNotification.setStatus(Notification.NotificationStatus.PENDING);
+        successNotification.setAlertId(validRequest.getAlertId());
         successNotification.setCreatedAt(LocalDateTime.now());
-        successNotification.setSentAt(LocalDateTime.now());
-
-        failedNotification = new Notification();
-        failedNotification.setId(2L);
-        failedNotification.setRecipientEmail("test@example.com");
-        failedNotification.setSubject("Test Alert");
-        failedNotification.setMessage("Temperature is above threshold");
-        failedNotification.setChannel(Notification.NotificationChannel.EMAIL);
-        failedNotification.setStatus(Notification.NotificationStatus.FAILED);
-        failedNotification.setAlertId(1L);
-        failedNotification.setCreatedAt(LocalDateTime.now());
-        failedNotification.setErrorMessage("Mail server error");
+        successNotification.setNextAttemptAt(LocalDateTime.now());
     }
 
     @Test
-    void testSendNotification_EmailChannel_Success() throws Exception {
+    void testSendNotification_EmailChannel_ReturnsAcceptedAndQueued() throws Exception {
         // Arrange
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.notificationId").value(1L))
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.message").value("Notification sent successfully"))
-                .andExpect(jsonPath("$.status").value("SENT"));
+                .andExpect(jsonPath("$.message").value("Notification queued for delivery"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
     @Test
-    void testSendNotification_EmailChannelFailed_ReturnsSuccessWithFailedStatus() throws Exception {
+    void testSendNotification_PassesIdempotencyKey() throws Exception {
         // Arrange
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
-                .thenReturn(failedNotification);
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), eq("outbox-1")))
+                .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "outbox-1")
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.notificationId").value(2L))
-                .andExpect(jsonPath("$.success").value(false))
-                .andExpect(jsonPath("$.message").value("Failed to send notification"))
-                .andExpect(jsonPath("$.status").value("FAILED"));
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.notificationId").value(1L));
+    }
+
+    @Test
+    void testSendNotification_MainApplicationRequest_ReturnsAccepted() throws Exception {
+        // Arrange - The body as serialized from the main application's NotificationRequest, with a UUID alert id
+        UUID alertId = UUID.fromString("3f2b8c1e-6d4a-4b7e-9a2f-1c5d8e7f6a90");
+        String outboxId = "0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b";
+        String json = """
+                {"recipientEmail":"test@example.com","subject":"Alert Triggered",\
+                "message":"Alert triggered: High Temperature","channel":"EMAIL",\
+                "alertId":"3f2b8c1e-6d4a-4b7e-9a2f-1c5d8e7f6a90"}""";
+        when(notificationService.queueEmailNotification(
+                eq("test@example.com"), eq("Alert Triggered"), eq("Alert triggered: High Temperature"),
+                eq(alertId), eq(outboxId)))
+                .thenReturn(successNotification);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/notifications/send")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", outboxId)
+                .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.success").value(true));
     }
 
     @Test
@@ -142,8 +152,8 @@ class NotificationControllerApiTest {
     @Test
     void testSendNotification_EmailServiceThrowsException_ReturnsInternalServerError() throws Exception {
         // Arrange
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenThrow(new RuntimeException("Mail server connection failed"));
 
         // Act & Assert
@@ -161,15 +171,15 @@ class NotificationControllerApiTest {
     void testSendNotification_NullAlertId_Success() throws Exception {
         // Arrange
         validRequest.setAlertId(null);
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -177,15 +187,15 @@ class NotificationControllerApiTest {
     void testSendNotification_EmptyMessage_Success() throws Exception {
         // Arrange
         validRequest.setMessage("");
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -218,15 +228,15 @@ class NotificationControllerApiTest {
     void testSendNotification_CaseInsensitiveChannel_Success() throws Exception {
         // Arrange - Test case insensitive channel
         validRequest.setChannel("email"); // lowercase
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -234,54 +244,32 @@ class NotificationControllerApiTest {
     void testSendNotification_MixedCaseChannel_Success() throws Exception {
         // Arrange - Test mixed case channel
         validRequest.setChannel("Email"); // mixed case
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
-    @Test
-    void testSendNotification_PendingStatus_ReturnsPendingStatus() throws Exception {
-        // Arrange
-        Notification pendingNotification = new Notification();
-        pendingNotification.setId(3L);
-        pendingNotification.setStatus(Notification.NotificationStatus.PENDING);
-        pendingNotification.setChannel(Notification.NotificationChannel.EMAIL);
-
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
-                .thenReturn(pendingNotification);
-
-        // Act & Assert
-        mockMvc.perform(post("/api/notifications/send")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("PENDING"))
-                .andExpect(jsonPath("$.success").value(false))
-                .andExpect(jsonPath("$.message").value("Failed to send notification"));
-    }
-
     @Test
     void testSendNotification_LongMessage_Success() throws Exception {
         // Arrange
         String longMessage = "A".repeat(10000);
         validRequest.setMessage(longMessage);
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -289,15 +277,15 @@ class NotificationControllerApiTest {
     void testSendNotification_SpecialCharactersInSubject_Success() throws Exception {
         // Arrange
         validRequest.setSubject("Alert: Temperature > 30°C & Humidity < 50%");
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -344,15 +332,15 @@ class NotificationControllerApiTest {
     void testSendNotification_EmptySubject_Success() throws Exception {
         // Arrange
         validRequest.setSubject("");
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.success").value(true));
     }
 
@@ -393,8 +381,8 @@ class NotificationControllerApiTest {
     @Test
     void testSendNotification_DifferentExceptionTypes_ReturnsInternalServerError() throws Exception {
         // Arrange - Test different exception types
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenThrow(new IllegalArgumentException("Invalid email format"));
 
         // Act & Assert
@@ -409,15 +397,15 @@ class NotificationControllerApiTest {
     @Test
     void testSendNotification_ResponseContainsCorrectFields() throws Exception {
         // Arrange
-        when(notificationService.sendEmailNotification(
-                anyString(), anyString(), anyString(), any()))
+        when(notificationService.queueEmailNotification(
+                anyString(), anyString(), anyString(), any(), any()))
                 .thenReturn(successNotification);
 
         // Act & Assert
         mockMvc.perform(post("/api/notifications/send")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.notificationId").exists())
                 .andExpect(jsonPath("$.success").exists())
                 .andExpect(jsonPath("$.message").exists())
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -12,6 +14,8 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class SendNotificationRequestTest {
 
+    private static final UUID ALERT_ID = UUID.fromString("3f2b8c1e-6d4a-4b7e-9a2f-1c5d8e7f6a90");
+
     private SendNotificationRequest request;
     private ObjectMapper objectMapper;
 
@@ -42,7 +46,7 @@ class SendNotificationRequestTest {
         String subject = "Test Subject";
         String message = "Test Message";
         String channel = "EMAIL";
-        Long alertId = 1L;
+        UUID alertId = ALERT_ID;
 
         // Act
         SendNotificationRequest request = new SendNotificationRequest(
@@ -64,7 +68,7 @@ class SendNotificationRequestTest {
         String subject = "Test Subject";
         String message = "Test Message";
         String channel = "EMAIL";
-        Long alertId = 1L;
+        UUID alertId = ALERT_ID;
 
         // Act
         request.setRecipientEmail(recipientEmail);
@@ -85,10 +89,10 @@ class SendNotificationRequestTest {
     void testEquals_SameValues() {
         // Arrange
         SendNotificationRequest request1 = new SendNotificationRequest(
-                "test@example.com", "Subject", "Message", "EMAIL", 1L
+                "test@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
         SendNotificationRequest request2 = new SendNotificationRequest(
-                "test@example.com", "Subject", "Message", "EMAIL", 1L
+                "test@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
 
         // Act & Assert
@@ -100,10 +104,10 @@ class SendNotificationRequestTest {
     void testEquals_DifferentValues() {
         // Arrange
         SendNotificationRequest request1 = new SendNotificationRequest(
-                "test@example.com", "Subject", "Message", "EMAIL", 1L
+                "test@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
         SendNotificationRequest request2 = new SendNotificationRequest(
-                "other@example.com", "Subject", "Message", "EMAIL", 1L
+                "other@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
 
         // Act & Assert
@@ -128,10 +132,10 @@ class SendNotificationRequestTest {
     void testHashCode_SameValues() {
         // Arrange
         SendNotificationRequest request1 = new SendNotificationRequest(
-                "test@example.com", "Subject", "Message", "EMAIL", 1L
+                "test@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
         SendNotificationRequest request2 = new SendNotificationRequest(
-                "test@example.com", "Subject", "Message", "EMAIL", 1L
+                "test@example.com", "Subject", "Message", "EMAIL", ALERT_ID
         );
 
         // Act & Assert
@@ -145,7 +149,7 @@ class SendNotificationRequestTest {
         request.setSubject("Test Subject");
         request.setMessage("Test Message");
         request.setChannel("EMAIL");
-        request.setAlertId(1L);
+        request.setAlertId(ALERT_ID);
 
         // Act
         String toString = request.toString();
@@ -164,7 +168,7 @@ class SendNotificationRequestTest {
         request.setSubject("Test Subject");
         request.setMessage("Test Message");
         request.setChannel("EMAIL");
-        request.setAlertId(1L);
+        request.setAlertId(ALERT_ID);
 
         // Act
         String json = objectMapper.writeValueAsString(request);
@@ -189,7 +193,7 @@ class SendNotificationRequestTest {
                     "subject": "Test Subject",
                     "message": "Test Message",
                     "channel": "EMAIL",
-                    "alertId": 1
+                    "alertId": "3f2b8c1e-6d4a-4b7e-9a2f-1c5d8e7f6a90"
                 }
                 """;
 
@@ -201,7 +205,7 @@ class SendNotificationRequestTest {
         assertEquals("Test Subject", deserialized.getSubject());
         assertEquals("Test Message", deserialized.getMessage());
         assertEquals("EMAIL", deserialized.getChannel());
-        assertEquals(1L, deserialized.getAlertId());
+        assertEquals(ALERT_ID, deserialized.getAlertId());
     }
 
     @Test
@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +31,9 @@ class NotificationRepositoryIntegrationTest {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Notification testNotification;
 
     @BeforeEach
@@ -38,7 +44,7 @@ class NotificationRepositoryIntegrationTest {
         testNotification.setMessage("Test Message");
         testNotification.setChannel(Notification.NotificationChannel.EMAIL);
         testNotification.setStatus(Notification.NotificationStatus.PENDING);
-        testNotification.setAlertId(1L);
+        testNotification.setAlertId(UUID.randomUUID());
         testNotification.setCreatedAt(LocalDateTime.now());
         testNotification = entityManager.persistAndFlush(testNotification);
     }
@@ -52,7 +58,7 @@ class NotificationRepositoryIntegrationTest {
         notification2.setMessage("Test Message 2");
         notification2.setChannel(Notification.NotificationChannel.EMAIL);
         notification2.setStatus(Notification.NotificationStatus.SENT);
-        notification2.setAlertId(2L);
+        notification2.setAlertId(UUID.randomUUID());
         notification2.setCreatedAt(LocalDateTime.now());
         entityManager.persistAndFlush(notification2);
 
@@ -160,7 +166,7 @@ class NotificationRepositoryIntegrationTest {
     @Test
     void testFindByAlertId() {
         // Arrange - Create multiple notifications for same alert
-        Long alertId = 100L;
+        UUID alertId = UUID.randomUUID();
         
         Notification notification1 = new Notification();
         notification1.setRecipientEmail("user1@example.com");
@@ -271,5 +277,113 @@ class NotificationRepositoryIntegrationTest {
         Notification found = entityManager.find(Notification.class, notificationId);
         assertNull(found);
     }
-}
 
+    @Test
+    void testLockDueForDelivery_ReturnsDueRowsOldestFirst() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Notification later = persistDue(Notification.NotificationStatus.PENDING, now.minusMinutes(1));
+        Notification earlier = persistDue(Notification.NotificationStatus.FAILED, now.minusMinutes(5));
+        persistDue(Notification.NotificationStatus.PENDING, now.plusMinutes(1)); // Not due yet
+        persistDue(Notification.NotificationStatus.SENT, now.minusMinutes(10));
+
+        // Act
+        List<Notification> due = notificationRepository.lockDueForDelivery(
+                List.of(Notification.NotificationStatus.PENDING, Notification.NotificationStatus.FAILED),
+                now, PageRequest.of(0, 10));
+
+        // Assert - testNotification has no next attempt and is never due
+        assertEquals(List.of(earlier.getId(), later.getId()), due.stream().map(Notification::getId).toList());
+    }
+
+    @Test
+    void testLockDueForDelivery_LimitsBatchSize() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            persistDue(Notification.NotificationStatus.PENDING, now.minusMinutes(i));
+        }
+
+        // Act
+        List<Notification> due = notificationRepository.lockDueForDelivery(
+                List.of(Notification.NotificationStatus.PENDING), now, PageRequest.of(0, 3));
+
+        // Assert
+        assertEquals(3, due.size());
+    }
+
+    @Test
+    void testCountByStatus() {
+        // Arrange
+        persistDue(Notification.NotificationStatus.FAILED, LocalDateTime.now());
+
+        // Act & Assert
+        assertEquals(1, notificationRepository.countByStatus(Notification.NotificationStatus.PENDING));
+        assertEquals(1, notificationRepository.countByStatus(Notification.NotificationStatus.FAILED));
+        assertEquals(0, notificationRepository.countByStatus(Notification.NotificationStatus.SENT));
+    }
+
+    @Test
+    void testFindFirstByRecipientEmailAndStatus_ReturnsOldestOpenDigest() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Notification newer = persistDue(Notification.NotificationStatus.PENDING, now.plusSeconds(30));
+        newer.setCreatedAt(now);
+        Notification older = persistDue(Notification.NotificationStatus.PENDING, now.plusSeconds(10));
+        older.setCreatedAt(now.minusSeconds(20));
+        persistDue(Notification.NotificationStatus.SENT, null).setCreatedAt(now.minusMinutes(5));
+        entityManager.flush();
+
+        // Act
+        Optional<Notification> digest = notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                "due@example.com", Notification.NotificationStatus.PENDING);
+
+        // Assert
+        assertTrue(digest.isPresent());
+        assertEquals(older.getId(), digest.get().getId());
+        assertTrue(notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                "nobody@example.com", Notification.NotificationStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    void testFindByDigestIdIn_ReturnsCoalescedNotifications() {
+        // Arrange
+        Notification digest = persistDue(Notification.NotificationStatus.PENDING, LocalDateTime.now());
+        Notification coalesced = persistDue(Notification.NotificationStatus.COALESCED, null);
+        coalesced.setDigestId(digest.getId());
+        digest.setCoalescedCount(2);
+        entityManager.flush();
+
+        // Act
+        List<Notification> found = notificationRepository.findByDigestIdInOrderByCreatedAtAsc(List.of(digest.getId()));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals(coalesced.getId(), found.get(0).getId());
+        assertEquals(Notification.NotificationStatus.COALESCED, found.get(0).getStatus());
+    }
+
+    @Test
+    void testSchema_DeclaresRecipientStatusIndex() {
+        // Act
+        List<String> columns = jdbcTemplate.queryForList(
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE INDEX_NAME = 'IDX_NOTIFICATIONS_RECIPIENT_STATUS' ORDER BY ORDINAL_POSITION",
+            String.class);
+
+        // Assert
+        assertEquals(List.of("RECIPIENT_EMAIL", "STATUS", "CREATED_AT"), columns);
+    }
+
+    private Notification persistDue(Notification.NotificationStatus status, LocalDateTime nextAttemptAt) {
+        Notification notification = new Notification();
+        notification.setRecipientEmail("due@example.com");
+        notification.setSubject("Due Subject");
+        notification.setMessage("Due Message");
+        notification.setChannel(Notification.NotificationChannel.EMAIL);
+        notification.setStatus(status);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setNextAttemptAt(nextAttemptAt);
+        return entityManager.persistAndFlush(notification);
+    }
+}
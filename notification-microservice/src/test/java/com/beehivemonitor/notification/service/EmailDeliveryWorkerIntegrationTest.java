@@ -0,0 +1,118 @@
+package com.beehivemonitor.notification.service;
+
+import com.beehivemonitor.notification.entity.Notification;
+import com.beehivemonitor.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration Test for EmailDeliveryWorker
+ * Tests coalescing and digest delivery against the H2 in-memory database, with the mail server mocked
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "notification.coalesce.window.seconds=30",
+    "notification.delivery.max-attempts=1"
+})
+@Import({NotificationService.class, EmailDeliveryWorker.class, RecipientRateLimiter.class,
+    EmailDeliveryWorkerIntegrationTest.Metrics.class})
+class EmailDeliveryWorkerIntegrationTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailDeliveryWorker deliveryWorker;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void deliverBatch_SentDigestMarksCoalescedNotificationsSent() {
+        // Arrange
+        Notification digest = queueThreeAndMakeDue();
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(1, attempted);
+        verify(emailService, times(1)).sendEmails(anyList());
+        entityManager.flush();
+        entityManager.clear();
+        List<Notification> all = notificationRepository.findByRecipientEmailOrderByCreatedAtDesc("test@example.com");
+        assertEquals(3, all.size());
+        for (Notification notification : all) {
+            assertEquals(Notification.NotificationStatus.SENT, notification.getStatus());
+            assertNotNull(notification.getSentAt());
+        }
+        assertEquals(0, notificationRepository.countByStatus(Notification.NotificationStatus.COALESCED));
+        assertEquals(3, notificationRepository.findById(digest.getId()).orElseThrow().getCoalescedCount());
+    }
+
+    @Test
+    void deliverBatch_DigestFailedForGoodMarksCoalescedNotificationsFailed() {
+        // Arrange
+        queueThreeAndMakeDue();
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            List<Notification> emails = invocation.getArgument(0);
+            return Map.of(emails.get(0).getId(), "Failed to send email: Mailbox unavailable");
+        });
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(3, notificationRepository.countByStatus(Notification.NotificationStatus.FAILED));
+        assertEquals(0, notificationRepository.countByStatus(Notification.NotificationStatus.COALESCED));
+    }
+
+    private Notification queueThreeAndMakeDue() {
+        Notification digest = notificationService.queueEmailNotification("test@example.com", "Hive 1", "Temperature above 35", UUID.randomUUID());
+        notificationService.queueEmailNotification("test@example.com", "Hive 2", "Temperature above 35", UUID.randomUUID());
+        notificationService.queueEmailNotification("test@example.com", "Hive 3", "Temperature above 35", UUID.randomUUID());
+
+        // End the coalescing window
+        digest.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        notificationRepository.saveAndFlush(digest);
+        assertEquals(2, notificationRepository.countByStatus(Notification.NotificationStatus.COALESCED));
+        return digest;
+    }
+}
@@ -0,0 +1,386 @@
+package com.beehivemonitor.notification.service;
+
+import com.beehivemonitor.notification.entity.Notification;
+import com.beehivemonitor.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for EmailDeliveryWorker
+ * Tests batch delivery of queued notifications with retries, exponential backoff, digests and rate limiting
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailDeliveryWorkerTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private RecipientRateLimiter rateLimiter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private EmailDeliveryWorker deliveryWorker;
+
+    private Notification first;
+    private Notification second;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(deliveryWorker, "workers", 2);
+        ReflectionTestUtils.setField(deliveryWorker, "batchSize", 10);
+        ReflectionTestUtils.setField(deliveryWorker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(deliveryWorker, "backoffMs", 1000L);
+        ReflectionTestUtils.setField(deliveryWorker, "maxBackoffMs", 5000L);
+        ReflectionTestUtils.setField(deliveryWorker, "leaseSeconds", 300L);
+        deliveryWorker.start();
+
+        first = queued(1L, "first@example.com");
+        second = queued(2L, "second@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryWorker.stop();
+    }
+
+    @Test
+    void deliverBatch_SendsBatchAndMarksNotificationsSent() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first, second));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(2, attempted);
+        verify(emailService, times(1)).sendEmails(List.of(first, second));
+        verify(notificationRepository, times(2)).saveAll(List.of(first, second)); // Claim, then outcome
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertNotNull(first.getSentAt());
+        assertNull(first.getNextAttemptAt());
+        assertEquals(2.0, meterRegistry.get("notification.delivery.emails").tag("outcome", "sent").counter().count());
+        assertEquals(1, meterRegistry.get("notification.delivery.batch").timer().count());
+        assertEquals(2, meterRegistry.get("notification.delivery.delay").timer().count());
+    }
+
+    @Test
+    void deliverBatch_FailedEmailIsRetriedWithBackoff() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first, second));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of(2L, "Failed to send email: 550 No such user"));
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+        assertEquals(Notification.NotificationStatus.FAILED, second.getStatus());
+        assertEquals(1, second.getAttempts());
+        assertEquals("Failed to send email: 550 No such user", second.getErrorMessage());
+        assertFalse(second.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+        assertEquals(1.0, meterRegistry.get("notification.delivery.emails").tag("outcome", "retried").counter().count());
+        verify(rateLimiter).refund("second@example.com");
+        verify(rateLimiter, never()).refund("first@example.com");
+    }
+
+    @Test
+    void deliverBatch_LastAttemptFailsForGood() {
+        // Arrange
+        first.setStatus(Notification.NotificationStatus.FAILED);
+        first.setAttempts(2);
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of(1L, "Failed to send email: Connection refused"));
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.FAILED, first.getStatus());
+        assertEquals(3, first.getAttempts());
+        assertNull(first.getNextAttemptAt());
+        assertEquals(1.0, meterRegistry.get("notification.delivery.emails").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void deliverBatch_NothingDue() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of());
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(0, attempted);
+        verifyNoInteractions(emailService);
+        verify(notificationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void deliverBatch_SkipsNotificationsDeliveredMeanwhile() {
+        // Arrange - Row returned after waiting for another worker's lock
+        first.setStatus(Notification.NotificationStatus.SENT);
+        first.setNextAttemptAt(null);
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(0, attempted);
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void deliverBatch_RecipientOverRateLimit_IsDeferredWithoutAttempt() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first, second));
+        when(rateLimiter.tryAcquire("first@example.com")).thenReturn(60_000L);
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        int handled = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(2, handled);
+        verify(emailService).sendEmails(List.of(second));
+        verify(notificationRepository).saveAll(List.of(first, second));
+        verify(notificationRepository).saveAll(List.of(second));
+        assertEquals(Notification.NotificationStatus.PENDING, first.getStatus());
+        assertEquals(0, first.getAttempts());
+        assertFalse(first.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+        assertEquals(Notification.NotificationStatus.SENT, second.getStatus());
+        assertEquals(1.0, meterRegistry.get("notification.delivery.throttled").counter().count());
+    }
+
+    @Test
+    void deliverBatch_SendsOutsideTheClaimTransaction() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            // The claim is committed before the mail server is contacted
+            verify(transactionManager, times(1)).commit(any());
+            assertEquals(Notification.NotificationStatus.SENDING, first.getStatus());
+            assertTrue(first.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(299)));
+            return Map.of();
+        });
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+    }
+
+    @Test
+    void deliverBatch_SendThrows_MarksBatchFailed() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first, second));
+        when(emailService.sendEmails(anyList())).thenThrow(new IllegalStateException("Mail session closed"));
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.FAILED, first.getStatus());
+        assertEquals(Notification.NotificationStatus.FAILED, second.getStatus());
+        assertEquals("Failed to send email: Mail session closed", first.getErrorMessage());
+        assertNotNull(first.getNextAttemptAt());
+        verify(rateLimiter).refund("first@example.com");
+        verify(rateLimiter).refund("second@example.com");
+    }
+
+    @Test
+    void deliverBatch_ExpiredLeaseIsClaimedAgain() {
+        // Arrange - A worker died after claiming the notification
+        first.setStatus(Notification.NotificationStatus.SENDING);
+        first.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(1, attempted);
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+    }
+
+    @Test
+    void deliverBatch_SkipsNotificationsLeasedMeanwhile() {
+        // Arrange - Row returned after waiting for the lock of a worker that has just claimed it
+        first.setStatus(Notification.NotificationStatus.SENDING);
+        first.setNextAttemptAt(LocalDateTime.now().plusSeconds(300));
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+
+        // Act
+        int attempted = deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(0, attempted);
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void deliverBatch_DigestIsSentAsOneEmailListingCoalescedNotifications() {
+        // Arrange
+        first.setCoalescedCount(3);
+        Notification coalesced1 = coalescedInto(first, 11L, "Hive 2: Temperature above 35");
+        Notification coalesced2 = coalescedInto(first, 12L, "Hive 3: Temperature above 35");
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(notificationRepository.findByDigestIdInOrderByCreatedAtAsc(List.of(1L)))
+                .thenReturn(List.of(coalesced1, coalesced2));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailService).sendEmails(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        Notification email = captor.getValue().get(0);
+        assertEquals(1L, email.getId());
+        assertEquals("first@example.com", email.getRecipientEmail());
+        assertEquals("Alert Triggered (+2 more)", email.getSubject());
+        assertTrue(email.getMessage().startsWith("3 notifications:"));
+        assertTrue(email.getMessage().contains("Alert triggered: Test Alert"));
+        assertTrue(email.getMessage().contains("Hive 2: Temperature above 35"));
+        assertTrue(email.getMessage().contains("Hive 3: Temperature above 35"));
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+        assertEquals(Notification.NotificationStatus.SENT, coalesced1.getStatus());
+        assertEquals(first.getSentAt(), coalesced2.getSentAt());
+        verify(notificationRepository).saveAll(List.of(first, coalesced1, coalesced2));
+    }
+
+    @Test
+    void deliverBatch_DigestRetried_MembersStayCoalesced() {
+        // Arrange
+        first.setCoalescedCount(2);
+        Notification coalesced = coalescedInto(first, 11L, "Hive 2: Temperature above 35");
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(notificationRepository.findByDigestIdInOrderByCreatedAtAsc(List.of(1L))).thenReturn(List.of(coalesced));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of(1L, "Failed to send email: Connection refused"));
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.FAILED, first.getStatus());
+        assertEquals(Notification.NotificationStatus.COALESCED, coalesced.getStatus());
+    }
+
+    @Test
+    void deliverBatch_DigestFailedForGood_MembersFailToo() {
+        // Arrange
+        first.setCoalescedCount(2);
+        first.setAttempts(2);
+        Notification coalesced = coalescedInto(first, 11L, "Hive 2: Temperature above 35");
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first));
+        when(notificationRepository.findByDigestIdInOrderByCreatedAtAsc(List.of(1L))).thenReturn(List.of(coalesced));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of(1L, "Failed to send email: Connection refused"));
+
+        // Act
+        deliveryWorker.deliverBatch();
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.FAILED, coalesced.getStatus());
+        assertEquals("Failed to send email: Connection refused", coalesced.getErrorMessage());
+        assertNull(coalesced.getSentAt());
+        verify(notificationRepository).saveAll(List.of(first, coalesced));
+    }
+
+    @Test
+    void drain_WorkersDrainQueueInBatches() {
+        // Arrange
+        when(notificationRepository.lockDueForDelivery(anyCollection(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(first), List.of(second), List.of());
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+
+        // Act
+        deliveryWorker.drain();
+
+        // Assert
+        verify(emailService, times(2)).sendEmails(anyList());
+        assertEquals(Notification.NotificationStatus.SENT, first.getStatus());
+        assertEquals(Notification.NotificationStatus.SENT, second.getStatus());
+    }
+
+    @Test
+    void backoffMs_DoublesUpToMaximum() {
+        // Act & Assert
+        assertEquals(1000, deliveryWorker.backoffMs(1));
+        assertEquals(2000, deliveryWorker.backoffMs(2));
+        assertEquals(4000, deliveryWorker.backoffMs(3));
+        assertEquals(5000, deliveryWorker.backoffMs(4));
+        assertEquals(5000, deliveryWorker.backoffMs(40));
+    }
+
+    private Notification queued(Long id, String recipientEmail) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setRecipientEmail(recipientEmail);
+        notification.setSubject("Alert Triggered");
+        notification.setMessage("Alert triggered: Test Alert");
+        notification.setChannel(Notification.NotificationChannel.EMAIL);
+        notification.setStatus(Notification.NotificationStatus.PENDING);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setNextAttemptAt(LocalDateTime.now());
+        return notification;
+    }
+
+    private Notification coalescedInto(Notification digest, Long id, String message) {
+        Notification notification = queued(id, digest.getRecipientEmail());
+        notification.setMessage(message);
+        notification.setStatus(Notification.NotificationStatus.COALESCED);
+        notification.setNextAttemptAt(null);
+        notification.setDigestId(digest.getId());
+        return notification;
+    }
+}
@@ -0,0 +1,107 @@
+package com.beehivemonitor.notification.service;
+
+import com.beehivemonitor.notification.entity.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for EmailService
+ * Tests batch sending against a local fake SMTP server
+ */
+class EmailServiceSmtpTest {
+
+    private FakeSmtpServer smtpServer;
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(smtpServer.getHost());
+        mailSender.setPort(smtpServer.getPort());
+
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "test@beehivemonitor.com");
+        ReflectionTestUtils.setField(emailService, "fromName", "Beehive Monitor Test");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void sendEmails_SendsWholeBatchOverOneConnection() {
+        // Arrange
+        List<Notification> batch = List.of(
+                notification(1L, "first@example.com"),
+                notification(2L, "second@example.com"),
+                notification(3L, "third@example.com"));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        assertEquals(1, smtpServer.getConnectionCount());
+        assertEquals(3, smtpServer.getMessages().size());
+        assertTrue(smtpServer.getMessages().get(0).contains("Alert for first@example.com"));
+    }
+
+    @Test
+    void sendEmails_RejectedRecipientDoesNotStopTheBatch() {
+        // Arrange
+        List<Notification> batch = List.of(
+                notification(1L, "first@example.com"),
+                notification(2L, "reject@example.com"),
+                notification(3L, "third@example.com"));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(2L));
+        assertTrue(failures.get(2L).startsWith("Failed to send email"));
+        assertEquals(1, smtpServer.getConnectionCount());
+        assertEquals(2, smtpServer.getMessages().size());
+    }
+
+    @Test
+    void sendEmails_ServerUnavailable_FailsWholeBatch() throws Exception {
+        // Arrange
+        smtpServer.close();
+        List<Notification> batch = List.of(
+                notification(1L, "first@example.com"),
+                notification(2L, "second@example.com"));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertEquals(2, failures.size());
+        assertEquals(0, smtpServer.getMessages().size());
+    }
+
+    private Notification notification(Long id, String recipientEmail) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setRecipientEmail(recipientEmail);
+        notification.setSubject("Alert Triggered");
+        notification.setMessage("Alert for " + recipientEmail);
+        notification.setChannel(Notification.NotificationChannel.EMAIL);
+        notification.setStatus(Notification.NotificationStatus.PENDING);
+        return notification;
+    }
+}
@@ -1,15 +1,22 @@
 package com.beehivemonitor.notification.service;
 
+import com.beehivemonitor.notification.entity.Notification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -146,5 +153,73 @@ class EmailServiceTest {
         // Assert
         verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
     }
-}
 
+    @Test
+    void sendEmails_SendsAllMessagesInOneCall() {
+        // Arrange
+        List<Notification> batch = List.of(notification(1L, "first@example.com"), notification(2L, "second@example.com"));
+
+        doAnswer(invocation -> {
+            SimpleMailMessage[] emails = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            assertEquals(2, emails.length);
+            assertEquals("first@example.com", emails[0].getTo()[0]);
+            assertEquals("second@example.com", emails[1].getTo()[0]);
+            assertEquals(fromEmail, emails[1].getFrom());
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void sendEmails_ReportsOnlyFailedMessages() {
+        // Arrange
+        List<Notification> batch = List.of(notification(1L, "first@example.com"), notification(2L, "second@example.com"));
+
+        doAnswer(invocation -> {
+            SimpleMailMessage[] emails = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+            failedMessages.put(emails[1], new RuntimeException("550 No such user"));
+            throw new MailSendException(failedMessages);
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(2L).contains("550 No such user"));
+    }
+
+    @Test
+    void sendEmails_ConnectionFailure_FailsWholeBatch() {
+        // Arrange
+        List<Notification> batch = List.of(notification(1L, "first@example.com"), notification(2L, "second@example.com"));
+
+        doThrow(new MailAuthenticationException("Authentication failed"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        // Act
+        Map<Long, String> failures = emailService.sendEmails(batch);
+
+        // Assert
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(1L).contains("Authentication failed"));
+        assertTrue(failures.get(2L).contains("Authentication failed"));
+    }
+
+    private Notification notification(Long id, String recipientEmail) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setRecipientEmail(recipientEmail);
+        notification.setSubject("Test Subject");
+        notification.setMessage("Test Message");
+        return notification;
+    }
+}
@@ -2,15 +2,19 @@ package com.beehivemonitor.notification.service;
 
 import com.beehivemonitor.notification.entity.Notification;
 import com.beehivemonitor.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -18,7 +22,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * Unit Test for NotificationService
- * Tests notification sending and status management using Mockito
+ * Tests queuing and per-recipient coalescing of notifications using Mockito
  */
 @ExtendWith(MockitoExtension.class)
 class NotificationServiceTest {
@@ -26,8 +30,8 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
-    @Mock
-    private EmailService emailService;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private NotificationService notificationService;
@@ -35,178 +39,148 @@ class NotificationServiceTest {
     private String recipientEmail;
     private String subject;
     private String message;
-    private Long alertId;
+    private UUID alertId;
 
     @BeforeEach
     void setUp() {
         recipientEmail = "test@example.com";
         subject = "Test Alert";
         message = "Temperature is above threshold";
-        alertId = 1L;
+        alertId = UUID.randomUUID();
+
+        when(notificationRepository.save(any(Notification.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     @Test
-    void sendEmailNotification_Success() {
+    void queueEmailNotification_SavesPendingNotificationDueNow() {
         // Arrange
-        Notification savedNotification = new Notification();
-        savedNotification.setId(1L);
-        savedNotification.setRecipientEmail(recipientEmail);
-        savedNotification.setSubject(subject);
-        savedNotification.setMessage(message);
-        savedNotification.setChannel(Notification.NotificationChannel.EMAIL);
-        savedNotification.setStatus(Notification.NotificationStatus.PENDING);
-        savedNotification.setAlertId(alertId);
-        savedNotification.setCreatedAt(LocalDateTime.now());
-
-        Notification sentNotification = new Notification();
-        sentNotification.setId(1L);
-        sentNotification.setStatus(Notification.NotificationStatus.SENT);
-        sentNotification.setSentAt(LocalDateTime.now());
-
-        when(notificationRepository.save(any(Notification.class)))
-                .thenReturn(savedNotification, sentNotification);
-        doNothing().when(emailService).sendEmail(anyString(), anyString(), anyString());
+        LocalDateTime before = LocalDateTime.now();
 
         // Act
-        Notification result = notificationService.sendEmailNotification(recipientEmail, subject, message, alertId);
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId);
 
         // Assert
         assertNotNull(result);
-        assertEquals(Notification.NotificationStatus.SENT, result.getStatus());
-        assertNotNull(result.getSentAt());
-        verify(notificationRepository, times(2)).save(any(Notification.class));
-        verify(emailService, times(1)).sendEmail(recipientEmail, subject, message);
+        assertEquals(Notification.NotificationStatus.PENDING, result.getStatus());
+        assertEquals(Notification.NotificationChannel.EMAIL, result.getChannel());
+        assertEquals(recipientEmail, result.getRecipientEmail());
+        assertEquals(subject, result.getSubject());
+        assertEquals(message, result.getMessage());
+        assertEquals(alertId, result.getAlertId());
+        assertEquals(0, result.getAttempts());
+        assertNull(result.getSentAt());
+        assertFalse(result.getNextAttemptAt().isBefore(before));
+        assertFalse(result.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(notificationRepository, times(1)).save(any(Notification.class));
     }
 
     @Test
-    void sendEmailNotification_EmailServiceThrowsException_SetsStatusToFailed() {
-        // Arrange
-        Notification savedNotification = new Notification();
-        savedNotification.setId(1L);
-        savedNotification.setRecipientEmail(recipientEmail);
-        savedNotification.setSubject(subject);
-        savedNotification.setMessage(message);
-        savedNotification.setChannel(Notification.NotificationChannel.EMAIL);
-        savedNotification.setStatus(Notification.NotificationStatus.PENDING);
-        savedNotification.setAlertId(alertId);
-        savedNotification.setCreatedAt(LocalDateTime.now());
-
-        Notification failedNotification = new Notification();
-        failedNotification.setId(1L);
-        failedNotification.setStatus(Notification.NotificationStatus.FAILED);
-        failedNotification.setErrorMessage("Mail server error");
+    void queueEmailNotification_NullAlertId_Success() {
+        // Act
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, message, null);
 
-        when(notificationRepository.save(any(Notification.class)))
-                .thenReturn(savedNotification, failedNotification);
-        doThrow(new RuntimeException("Mail server error"))
-                .when(emailService).sendEmail(anyString(), anyString(), anyString());
+        // Assert
+        assertNotNull(result);
+        assertNull(result.getAlertId());
+        assertEquals(Notification.NotificationStatus.PENDING, result.getStatus());
+    }
 
+    @Test
+    void queueEmailNotification_EmptyMessage_Success() {
         // Act
-        Notification result = notificationService.sendEmailNotification(recipientEmail, subject, message, alertId);
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, "", alertId);
 
         // Assert
         assertNotNull(result);
-        assertEquals(Notification.NotificationStatus.FAILED, result.getStatus());
-        assertNotNull(result.getErrorMessage());
-        assertTrue(result.getErrorMessage().contains("Mail server error"));
-        verify(notificationRepository, times(2)).save(any(Notification.class));
-        verify(emailService, times(1)).sendEmail(recipientEmail, subject, message);
+        assertEquals("", result.getMessage());
+        assertEquals(Notification.NotificationStatus.PENDING, result.getStatus());
     }
 
     @Test
-    void sendEmailNotification_NullAlertId_Success() {
+    void queueEmailNotification_NoOpenDigest_WaitsForCoalescingWindow() {
         // Arrange
-        Notification savedNotification = new Notification();
-        savedNotification.setId(1L);
-        savedNotification.setRecipientEmail(recipientEmail);
-        savedNotification.setSubject(subject);
-        savedNotification.setMessage(message);
-        savedNotification.setChannel(Notification.NotificationChannel.EMAIL);
-        savedNotification.setStatus(Notification.NotificationStatus.PENDING);
-        savedNotification.setAlertId(null);
-
-        Notification sentNotification = new Notification();
-        sentNotification.setId(1L);
-        sentNotification.setStatus(Notification.NotificationStatus.SENT);
-        sentNotification.setSentAt(LocalDateTime.now());
-
-        when(notificationRepository.save(any(Notification.class)))
-                .thenReturn(savedNotification, sentNotification);
-        doNothing().when(emailService).sendEmail(anyString(), anyString(), anyString());
+        ReflectionTestUtils.setField(notificationService, "coalesceWindowSeconds", 30L);
+        when(notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                recipientEmail, Notification.NotificationStatus.PENDING)).thenReturn(Optional.empty());
+        LocalDateTime before = LocalDateTime.now();
 
         // Act
-        Notification result = notificationService.sendEmailNotification(recipientEmail, subject, message, null);
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId);
 
         // Assert
-        assertNotNull(result);
-        assertNull(result.getAlertId());
-        assertEquals(Notification.NotificationStatus.SENT, result.getStatus());
-        verify(notificationRepository, times(2)).save(any(Notification.class));
-        verify(emailService, times(1)).sendEmail(recipientEmail, subject, message);
+        assertEquals(Notification.NotificationStatus.PENDING, result.getStatus());
+        assertEquals(1, result.getCoalescedCount());
+        assertFalse(result.getNextAttemptAt().isBefore(before.plusSeconds(30)));
     }
 
     @Test
-    void sendEmailNotification_EmptyMessage_Success() {
+    void queueEmailNotification_OpenDigest_CoalescesIntoDigest() {
         // Arrange
-        String emptyMessage = "";
-        Notification savedNotification = new Notification();
-        savedNotification.setId(1L);
-        savedNotification.setMessage(emptyMessage);
-        savedNotification.setStatus(Notification.NotificationStatus.PENDING);
+        ReflectionTestUtils.setField(notificationService, "coalesceWindowSeconds", 30L);
+        Notification digest = new Notification();
+        digest.setId(7L);
+        digest.setRecipientEmail(recipientEmail);
+        digest.setStatus(Notification.NotificationStatus.PENDING);
+        digest.setCoalescedCount(2);
+        when(notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                recipientEmail, Notification.NotificationStatus.PENDING)).thenReturn(Optional.of(digest));
 
-        Notification sentNotification = new Notification();
-        sentNotification.setId(1L);
-        sentNotification.setStatus(Notification.NotificationStatus.SENT);
-        sentNotification.setSentAt(LocalDateTime.now());
+        // Act
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId);
 
-        when(notificationRepository.save(any(Notification.class)))
-                .thenReturn(savedNotification, sentNotification);
-        doNothing().when(emailService).sendEmail(anyString(), anyString(), anyString());
+        // Assert
+        assertEquals(Notification.NotificationStatus.COALESCED, result.getStatus());
+        assertEquals(7L, result.getDigestId());
+        assertNull(result.getNextAttemptAt());
+        assertEquals(alertId, result.getAlertId());
+        assertEquals(3, digest.getCoalescedCount());
+        verify(notificationRepository).save(digest);
+        assertEquals(1.0, meterRegistry.get("notification.coalesced").counter().count());
+    }
+
+    @Test
+    void queueEmailNotification_DigestSentWhileWaitingForLock_StartsNewDigest() {
+        // Arrange
+        ReflectionTestUtils.setField(notificationService, "coalesceWindowSeconds", 30L);
+        Notification digest = new Notification();
+        digest.setId(7L);
+        digest.setStatus(Notification.NotificationStatus.SENT);
+        when(notificationRepository.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(
+                recipientEmail, Notification.NotificationStatus.PENDING)).thenReturn(Optional.of(digest));
 
         // Act
-        Notification result = notificationService.sendEmailNotification(recipientEmail, subject, emptyMessage, alertId);
+        Notification result = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(Notification.NotificationStatus.SENT, result.getStatus());
-        verify(notificationRepository, times(2)).save(any(Notification.class));
-        verify(emailService, times(1)).sendEmail(recipientEmail, subject, emptyMessage);
+        assertEquals(Notification.NotificationStatus.PENDING, result.getStatus());
+        assertNull(result.getDigestId());
+        verify(notificationRepository, times(1)).save(any(Notification.class));
     }
 
     @Test
-    void sendEmailNotification_CreatesPendingNotificationFirst() {
-        // Arrange
-        Notification savedNotification = new Notification();
-        savedNotification.setId(1L);
-        savedNotification.setStatus(Notification.NotificationStatus.PENDING);
+    void queueEmailNotification_CoalescingDisabled_DoesNotLookForDigest() {
+        // Act
+        notificationService.queueEmailNotification(recipientEmail, subject, message, alertId);
 
-        Notification sentNotification = new Notification();
-        sentNotification.setId(1L);
-        sentNotification.setStatus(Notification.NotificationStatus.SENT);
+        // Assert
+        verify(notificationRepository, never()).findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(any(), any());
+    }
 
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> {
-                    Notification notif = invocation.getArgument(0);
-                    if (notif.getStatus() == Notification.NotificationStatus.PENDING) {
-                        return savedNotification;
-                    } else {
-                        return sentNotification;
-                    }
-                });
-        doNothing().when(emailService).sendEmail(anyString(), anyString(), anyString());
+    @Test
+    void queueEmailNotification_RepeatedIdempotencyKey_ReturnsQueuedNotification() {
+        // Arrange
+        when(notificationRepository.findByIdempotencyKey("outbox-1")).thenReturn(Optional.empty());
+        Notification first = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId, "outbox-1");
+        when(notificationRepository.findByIdempotencyKey("outbox-1")).thenReturn(Optional.of(first));
 
         // Act
-        Notification result = notificationService.sendEmailNotification(recipientEmail, subject, message, alertId);
+        Notification retried = notificationService.queueEmailNotification(recipientEmail, subject, message, alertId, "outbox-1");
 
         // Assert
-        assertNotNull(result);
-        verify(notificationRepository, times(2)).save(any(Notification.class));
-        // Verify that the first save has PENDING status
-        verify(notificationRepository).save(argThat(notif -> 
-            notif.getStatus() == Notification.NotificationStatus.PENDING &&
-            notif.getChannel() == Notification.NotificationChannel.EMAIL &&
-            notif.getRecipientEmail().equals(recipientEmail)
-        ));
+        assertSame(first, retried);
+        assertEquals("outbox-1", first.getIdempotencyKey());
+        verify(notificationRepository, times(1)).save(any(Notification.class));
+        assertEquals(1.0, meterRegistry.counter("notification.duplicates").count());
     }
 }
-
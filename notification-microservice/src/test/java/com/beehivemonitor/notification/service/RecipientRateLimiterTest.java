@@ -0,0 +1,100 @@
+package com.beehivemonitor.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for RecipientRateLimiter
+ * Tests the per-recipient token bucket: bursts, refill and disabling
+ */
+class RecipientRateLimiterTest {
+
+    private RecipientRateLimiter rateLimiter;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RecipientRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "capacity", 2);
+        ReflectionTestUtils.setField(rateLimiter, "refillPerHour", 6.0); // One token every 10 minutes
+        now = Instant.parse("2024-06-01T12:00:00Z");
+        setTime(now);
+    }
+
+    @Test
+    void tryAcquire_AllowsBurstThenReturnsWaitForNextToken() {
+        // Act & Assert
+        assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        assertEquals(Duration.ofMinutes(10).toMillis(), rateLimiter.tryAcquire("test@example.com"));
+    }
+
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        // Arrange
+        rateLimiter.tryAcquire("test@example.com");
+        rateLimiter.tryAcquire("test@example.com");
+
+        // Act
+        setTime(now.plus(Duration.ofMinutes(4)));
+        long waitMs = rateLimiter.tryAcquire("test@example.com");
+        setTime(now.plus(Duration.ofMinutes(10)));
+
+        // Assert
+        assertEquals(Duration.ofMinutes(6).toMillis(), waitMs);
+        assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        assertTrue(rateLimiter.tryAcquire("test@example.com") > 0);
+    }
+
+    @Test
+    void tryAcquire_RecipientsHaveSeparateBucketsIgnoringCase() {
+        // Arrange
+        rateLimiter.tryAcquire("test@example.com");
+        rateLimiter.tryAcquire("Test@Example.com");
+
+        // Act & Assert
+        assertTrue(rateLimiter.tryAcquire("TEST@example.com") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("other@example.com"));
+    }
+
+    @Test
+    void refund_GivesTokenBackUpToCapacity() {
+        // Arrange
+        rateLimiter.tryAcquire("test@example.com");
+        rateLimiter.tryAcquire("test@example.com");
+
+        // Act
+        rateLimiter.refund("Test@example.com");
+        rateLimiter.refund("test@example.com");
+        rateLimiter.refund("test@example.com");
+
+        // Assert - Two tokens back, not three
+        assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        assertTrue(rateLimiter.tryAcquire("test@example.com") > 0);
+    }
+
+    @Test
+    void tryAcquire_ZeroCapacity_DisablesLimit() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimiter, "capacity", 0);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("test@example.com"));
+        }
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(rateLimiter, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
@@ -5,6 +5,7 @@ import com.beehivemonitor.dto.NotificationResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 /**
  * Feign Client for communicating with the Notification Microservice
@@ -16,10 +17,12 @@ public interface NotificationMicroserviceClient {
      * Send a notification (email, SMS, push)
      * 
      * @param request Notification request with recipient, subject, message, etc.
+     * @param idempotencyKey Key identifying the notification; a retry with the same key is not sent twice
      * @return Notification response with status and details
      */
     @PostMapping("/api/notifications/send")
-    NotificationResponse sendNotification(@RequestBody NotificationRequest request);
+    NotificationResponse sendNotification(@RequestBody NotificationRequest request,
+                                          @RequestHeader("Idempotency-Key") String idempotencyKey);
 }
 
 
@@ -1,6 +1,9 @@
 package com.beehivemonitor.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,5 +18,18 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedHeaders("*")
             .allowCredentials(true);
     }
+
+    /**
+     * Adds an ETag to the alert list so that polling clients get 304 Not Modified
+     * when nothing has changed
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> alertsEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+            new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/alerts");
+        registration.setName("alertsEtagFilter");
+        return registration;
+    }
 }
 
@@ -1,10 +1,12 @@
 package com.beehivemonitor.controller;
 
 import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.AlertService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,7 +26,7 @@ public class AlertController {
     private JwtTokenProvider tokenProvider;
 
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
 
     @GetMapping
@@ -44,7 +46,10 @@ public class AlertController {
             ))
             .collect(Collectors.toList());
         
-        return ResponseEntity.ok(responses);
+        // Let clients store the list but revalidate it with the ETag on every poll
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(responses);
     }
 
     @GetMapping("/{id}")
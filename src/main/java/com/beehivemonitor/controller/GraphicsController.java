@@ -1,13 +1,23 @@
 package com.beehivemonitor.controller;
 
-import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
+import com.beehivemonitor.service.LttbDownsampler;
 import com.beehivemonitor.service.SensorService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,45 +26,136 @@ import java.util.UUID;
 @CrossOrigin(origins = "http://localhost:5173")
 public class GraphicsController {
 
+    private static final int METRIC_COUNT = 6;
+
     @Autowired
     private SensorService sensorService;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
 
+    /**
+     * Historical chart data for the last N days, one row per bucket.
+     * With maxPoints, the response is one series per metric instead, each downsampled separately
+     * with LTTB to at most maxPoints points; a metric without samples is an empty series.
+     * The rows to downsample come from a finer resolution than the plain chart, so maxPoints is not
+     * limited by the resolution chosen for graphics.max.points.
+     */
     @GetMapping("/historical-data")
-    public ResponseEntity<List<HiveSensorDataResponse>> getHistoricalData(
+    public ResponseEntity<?> getHistoricalData(
             @RequestParam UUID hiveId,
             @RequestParam int days,
+            @RequestParam(required = false) Integer maxPoints,
             @RequestHeader("Authorization") String token) {
+        if (maxPoints != null && maxPoints < 3) {
+            throw new RuntimeException("maxPoints must be at least 3");
+        }
         String email = getEmailFromToken(token);
         
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusDays(days);
         
-        List<HiveSensorData> data = sensorService.getHistoricalData(hiveId, startDate, endDate, email);
+        // Bucket averages from the rollups; the resolution is chosen so the row count stays bounded
+        if (maxPoints != null) {
+            List<HiveSensorRollup> rows = sensorService.getHistoricalRollupsForDownsampling(hiveId, startDate, endDate, email);
+            return ResponseEntity.ok(downsample(hiveId, rows, maxPoints));
+        }
+        List<HiveSensorRollup> data = sensorService.getHistoricalRollups(hiveId, startDate, endDate, email);
         
         List<HiveSensorDataResponse> responses = data.stream()
             .map(item -> new HiveSensorDataResponse(
                 item.getId(),
-                item.getHive().getId(),
-                item.getTemperature(),
-                item.getExternalTemperature(),
-                item.getHumidity(),
-                item.getCo2(),
-                item.getSoundLevel(),
-                item.getWeight(),
-                item.getTimestamp().toString()
+                item.getHiveId(),
+                item.average(item.getTemperature()),
+                item.average(item.getExternalTemperature()),
+                item.average(item.getHumidity()),
+                item.average(item.getCo2()),
+                item.average(item.getSoundLevel()),
+                item.average(item.getWeight()),
+                item.getBucketStart().toString()
             ))
             .collect(java.util.stream.Collectors.toList());
         
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Exports every raw sample of the last N days as a JSON array.
+     * Rows are streamed from the database and written one by one, so long periods run in constant heap.
+     */
+    @GetMapping(value = "/historical-data/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistoricalData(
+            @RequestParam UUID hiveId,
+            @RequestParam int days,
+            @RequestHeader("Authorization") String token) {
+        String email = getEmailFromToken(token);
+        
+        LocalDateTime endDate = LocalDateTime.now();
+        LocalDateTime startDate = endDate.minusDays(days);
+        
+        StreamingResponseBody body = outputStream -> {
+            // Not closed on failure: the generator buffers its output, so an ownership error thrown
+            // before the first row leaves the response untouched for the exception handler
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+            sensorService.streamHistoricalData(hiveId, startDate, endDate, email, sample -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("timestamp", sample.timestamp().toString());
+                    generator.writeNumberField("temperature", sample.temperature());
+                    generator.writeNumberField("externalTemperature", sample.externalTemperature());
+                    generator.writeNumberField("humidity", sample.humidity());
+                    generator.writeNumberField("co2", sample.co2());
+                    generator.writeNumberField("soundLevel", sample.soundLevel());
+                    generator.writeNumberField("weight", sample.weight());
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.close();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    private DownsampledDataResponse downsample(UUID hiveId, List<HiveSensorRollup> data, int maxPoints) {
+        int size = data.size();
+        long[] times = new long[size];
+        double[][] values = new double[METRIC_COUNT][size];
+        for (int i = 0; i < size; i++) {
+            HiveSensorRollup item = data.get(i);
+            times[i] = item.getBucketStart().toEpochSecond(ZoneOffset.UTC);
+            values[0][i] = item.average(item.getTemperature());
+            values[1][i] = item.average(item.getExternalTemperature());
+            values[2][i] = item.average(item.getHumidity());
+            values[3][i] = item.average(item.getCo2());
+            values[4][i] = item.average(item.getSoundLevel());
+            values[5][i] = item.average(item.getWeight());
+        }
+
+        List<List<SeriesPoint>> series = new ArrayList<>(METRIC_COUNT);
+        for (int metric = 0; metric < METRIC_COUNT; metric++) {
+            int[] kept = LttbDownsampler.select(times, values[metric], maxPoints);
+            List<SeriesPoint> points = new ArrayList<>(kept.length);
+            for (int index : kept) {
+                points.add(new SeriesPoint(data.get(index).getBucketStart().toString(), values[metric][index]));
+            }
+            series.add(points);
+        }
+        return new DownsampledDataResponse(hiveId, series.get(0), series.get(1), series.get(2),
+            series.get(3), series.get(4), series.get(5));
+    }
+
     public static class HiveSensorDataResponse {
         public UUID id;
         public UUID hiveId;
@@ -79,5 +180,39 @@ public class GraphicsController {
             this.timestamp = timestamp;
         }
     }
-}
 
+    /**
+     * One series per metric; every series is present, empty if the metric has no samples
+     */
+    public static class DownsampledDataResponse {
+        public UUID hiveId;
+        public List<SeriesPoint> temperature;
+        public List<SeriesPoint> externalTemperature;
+        public List<SeriesPoint> humidity;
+        public List<SeriesPoint> co2;
+        public List<SeriesPoint> soundLevel;
+        public List<SeriesPoint> weight;
+
+        public DownsampledDataResponse(UUID hiveId, List<SeriesPoint> temperature, List<SeriesPoint> externalTemperature,
+                                       List<SeriesPoint> humidity, List<SeriesPoint> co2, List<SeriesPoint> soundLevel,
+                                       List<SeriesPoint> weight) {
+            this.hiveId = hiveId;
+            this.temperature = temperature;
+            this.externalTemperature = externalTemperature;
+            this.humidity = humidity;
+            this.co2 = co2;
+            this.soundLevel = soundLevel;
+            this.weight = weight;
+        }
+    }
+
+    public static class SeriesPoint {
+        public String timestamp;
+        public double value;
+
+        public SeriesPoint(String timestamp, double value) {
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.beehivemonitor.controller;
 
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
-import com.beehivemonitor.repository.UserRepository;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.HiveService;
+import com.beehivemonitor.service.UserCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,14 +27,14 @@ public class HiveController {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
     
     private User.Role getUserRole(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.findByEmail(email)
             .map(User::getRole)
             .orElseThrow(() -> new RuntimeException("User not found"));
     }
@@ -3,6 +3,7 @@ package com.beehivemonitor.controller;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.Inspection;
 import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.InspectionService;
 import jakarta.validation.Valid;
@@ -30,7 +31,7 @@ public class InspectionController {
     private HiveRepository hiveRepository;
 
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
 
     @GetMapping
@@ -1,15 +1,21 @@
 package com.beehivemonitor.controller;
 
 import com.beehivemonitor.dto.SensorReadingDTO;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
+import com.beehivemonitor.security.StreamTicketProvider;
 import com.beehivemonitor.service.SensorService;
+import com.beehivemonitor.service.SensorStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,11 +29,17 @@ public class SensorController {
     @Autowired
     private SensorService sensorService;
 
+    @Autowired
+    private SensorStreamService sensorStreamService;
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private StreamTicketProvider streamTicketProvider;
+
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
 
     @GetMapping("/last-readings")
@@ -55,6 +67,26 @@ public class SensorController {
         return ResponseEntity.ok(sensorService.getRealtimeSensorDataForHive(hiveId, email));
     }
 
+    /**
+     * Server-Sent Events stream: "sensor-data" events carry new samples per hive,
+     * "alert" events carry state changes of the user's alerts. Browsers cannot set headers on EventSource,
+     * so the stream is opened with a ticket from {@code POST /api/sensors/stream/ticket}
+     * passed as the "ticket" query parameter.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSensorData(Principal principal) {
+        return sensorStreamService.subscribe(principal.getName());
+    }
+
+    /**
+     * Issues a short-lived, single-use ticket for opening the stream
+     */
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<StreamTicketResponse> createStreamTicket(Principal principal) {
+        String ticket = streamTicketProvider.issue(principal.getName());
+        return ResponseEntity.ok(new StreamTicketResponse(ticket, streamTicketProvider.getTtlSeconds()));
+    }
+
     /**
      * Update all sensor data for all user's beehives by calling the sensor microservice
      * This endpoint explicitly triggers a refresh of sensor data from the microservice
@@ -110,5 +142,14 @@ public class SensorController {
             this.weight = weight;
         }
     }
-}
 
+    public static class StreamTicketResponse {
+        public String ticket;
+        public long expiresInSeconds;
+
+        public StreamTicketResponse(String ticket, long expiresInSeconds) {
+            this.ticket = ticket;
+            this.expiresInSeconds = expiresInSeconds;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.beehivemonitor.controller;
 
 import com.beehivemonitor.entity.UserSettings;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.SettingsService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +22,7 @@ public class SettingsController {
     private JwtTokenProvider tokenProvider;
 
     private String getEmailFromToken(String authHeader) {
-        return tokenProvider.getEmailFromToken(authHeader.substring(7));
+        return CurrentUser.getEmail(authHeader, tokenProvider);
     }
 
     @GetMapping
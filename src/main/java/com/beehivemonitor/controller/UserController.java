@@ -2,6 +2,7 @@ package com.beehivemonitor.controller;
 
 import com.beehivemonitor.dto.AuthResponse;
 import com.beehivemonitor.entity.User;
+import com.beehivemonitor.security.CurrentUser;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,7 +27,7 @@ public class UserController {
 
     @GetMapping("/me")
     public ResponseEntity<AuthResponse.UserResponse> getCurrentUser(@RequestHeader("Authorization") String token) {
-        String email = tokenProvider.getEmailFromToken(token.substring(7));
+        String email = CurrentUser.getEmail(token, tokenProvider);
         return ResponseEntity.ok(userService.getCurrentUser(email));
     }
 
@@ -45,7 +46,7 @@ public class UserController {
     public ResponseEntity<AuthResponse.UserResponse> updateEmailNotificationPreference(
             @RequestHeader("Authorization") String token,
             @RequestBody EmailNotificationRequest request) {
-        String email = tokenProvider.getEmailFromToken(token.substring(7));
+        String email = CurrentUser.getEmail(token, tokenProvider);
         userService.updateEmailNotificationPreference(email, request.enabled);
         return ResponseEntity.ok(userService.getCurrentUser(email));
     }
@@ -56,7 +57,7 @@ public class UserController {
             @PathVariable UUID userId,
             @RequestHeader("Authorization") String token,
             @RequestBody UpdateRoleRequest request) {
-        String email = tokenProvider.getEmailFromToken(token.substring(7));
+        String email = CurrentUser.getEmail(token, tokenProvider);
         return ResponseEntity.ok(userService.updateUserRole(userId, request.role, email));
     }
 
@@ -64,7 +65,7 @@ public class UserController {
     public ResponseEntity<Map<String, String>> changePassword(
             @RequestHeader("Authorization") String token,
             @RequestBody ChangePasswordRequest request) {
-        String email = tokenProvider.getEmailFromToken(token.substring(7));
+        String email = CurrentUser.getEmail(token, tokenProvider);
         userService.changePassword(email, request.currentPassword, request.newPassword);
         Map<String, String> response = new java.util.HashMap<>();
         response.put("message", "Password changed successfully");
@@ -0,0 +1,20 @@
+package com.beehivemonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Projection row used by the scheduled sensor ingest: one hive together with
+ * its owner and the owner's measurement interval
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HiveIngestTarget {
+    private UUID userId;
+    private Integer measurementIntervalMinutes;
+    private UUID hiveId;
+}
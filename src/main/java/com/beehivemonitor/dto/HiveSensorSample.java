@@ -0,0 +1,18 @@
+package com.beehivemonitor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of one historical hive sensor data row.
+ * Unlike the HiveSensorData entity it is not tracked by the persistence context and holds no hive proxy.
+ */
+public record HiveSensorSample(
+    LocalDateTime timestamp,
+    double temperature,
+    double externalTemperature,
+    double humidity,
+    double co2,
+    double soundLevel,
+    double weight
+) {
+}
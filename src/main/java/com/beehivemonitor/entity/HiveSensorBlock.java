@@ -0,0 +1,62 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * One hour of a hive's raw sensor samples packed into a single row.
+ * Used instead of one HiveSensorData row per sample when sensor.storage.blocks.enabled is set;
+ * the samples are encoded by SensorBlockCodec (fixed-point, delta-encoded columns).
+ */
+@Entity
+@Table(name = "hive_sensor_block",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"hive_id", "block_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "data")
+public class HiveSensorBlock {
+
+    public static final int BLOCK_MINUTES = 60;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // Plain column instead of an association: blocks are always read by hive id
+    @Column(name = "hive_id", nullable = false)
+    private UUID hiveId;
+
+    @Column(name = "block_start", nullable = false)
+    private LocalDateTime blockStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] data;
+
+    @Version
+    private Long version;
+
+    /**
+     * @return Start of the block containing the timestamp
+     */
+    public static LocalDateTime blockStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public LocalDateTime getBlockEnd() {
+        return blockStart.plusMinutes(BLOCK_MINUTES);
+    }
+}
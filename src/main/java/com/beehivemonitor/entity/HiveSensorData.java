@@ -12,8 +12,15 @@ import lombok.ToString;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Raw historical sensor sample of one hive.
+ * Every read is "one hive, time range", which the (hive_id, timestamp) index serves directly.
+ * On MySQL the table can optionally be partitioned by month (see db/mysql/hive_sensor_data_partitioning.sql
+ * and HiveSensorDataPartitionManager).
+ */
 @Entity
-@Table(name = "hive_sensor_data")
+@Table(name = "hive_sensor_data",
+    indexes = @Index(name = "idx_hive_sensor_data_hive_timestamp", columnList = "hive_id, timestamp"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +30,7 @@ import java.util.UUID;
 public class HiveSensorData {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
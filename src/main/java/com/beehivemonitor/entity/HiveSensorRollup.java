@@ -0,0 +1,172 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated hive sensor data for one time bucket at one resolution.
+ * Maintained incrementally as historical data is written, so that charts over long
+ * periods read a bounded number of rows instead of every raw sample.
+ */
+@Entity
+@Table(name = "hive_sensor_rollup",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"hive_id", "resolution", "bucket_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString
+public class HiveSensorRollup {
+
+    public enum Resolution {
+        FIVE_MINUTES(5),
+        HOURLY(60),
+        DAILY(24 * 60);
+
+        private final int minutes;
+
+        Resolution(int minutes) {
+            this.minutes = minutes;
+        }
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        /**
+         * @return Start of the bucket containing the timestamp
+         */
+        public LocalDateTime bucketStart(LocalDateTime timestamp) {
+            return switch (this) {
+                case FIVE_MINUTES -> {
+                    LocalDateTime minute = timestamp.truncatedTo(ChronoUnit.MINUTES);
+                    yield minute.minusMinutes(minute.getMinute() % 5);
+                }
+                case HOURLY -> timestamp.truncatedTo(ChronoUnit.HOURS);
+                case DAILY -> timestamp.truncatedTo(ChronoUnit.DAYS);
+            };
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // Plain column instead of an association: rollups are always read by hive id
+    @Column(name = "hive_id", nullable = false)
+    private UUID hiveId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Resolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "temperature_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "temperature_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "temperature_sum", nullable = false))
+    })
+    private MetricRollup temperature;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "external_temperature_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "external_temperature_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "external_temperature_sum", nullable = false))
+    })
+    private MetricRollup externalTemperature;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "humidity_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "humidity_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "humidity_sum", nullable = false))
+    })
+    private MetricRollup humidity;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "co2_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "co2_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "co2_sum", nullable = false))
+    })
+    private MetricRollup co2;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "sound_level_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "sound_level_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "sound_level_sum", nullable = false))
+    })
+    private MetricRollup soundLevel;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "min", column = @Column(name = "weight_min", nullable = false)),
+        @AttributeOverride(name = "max", column = @Column(name = "weight_max", nullable = false)),
+        @AttributeOverride(name = "sum", column = @Column(name = "weight_sum", nullable = false))
+    })
+    private MetricRollup weight;
+
+    @Version
+    private Long version;
+
+    /**
+     * Creates a bucket holding a single sample
+     */
+    public static HiveSensorRollup of(UUID hiveId, Resolution resolution, HiveSensorData sample) {
+        HiveSensorRollup rollup = new HiveSensorRollup();
+        rollup.hiveId = hiveId;
+        rollup.resolution = resolution;
+        rollup.bucketStart = resolution.bucketStart(sample.getTimestamp());
+        rollup.sampleCount = 1L;
+        rollup.temperature = MetricRollup.of(sample.getTemperature());
+        rollup.externalTemperature = MetricRollup.of(sample.getExternalTemperature());
+        rollup.humidity = MetricRollup.of(sample.getHumidity());
+        rollup.co2 = MetricRollup.of(sample.getCo2());
+        rollup.soundLevel = MetricRollup.of(sample.getSoundLevel());
+        rollup.weight = MetricRollup.of(sample.getWeight());
+        return rollup;
+    }
+
+    public void add(HiveSensorData sample) {
+        sampleCount++;
+        temperature.add(sample.getTemperature());
+        externalTemperature.add(sample.getExternalTemperature());
+        humidity.add(sample.getHumidity());
+        co2.add(sample.getCo2());
+        soundLevel.add(sample.getSoundLevel());
+        weight.add(sample.getWeight());
+    }
+
+    public void merge(HiveSensorRollup other) {
+        sampleCount += other.sampleCount;
+        temperature.merge(other.temperature);
+        externalTemperature.merge(other.externalTemperature);
+        humidity.merge(other.humidity);
+        co2.merge(other.co2);
+        soundLevel.merge(other.soundLevel);
+        weight.merge(other.weight);
+    }
+
+    /**
+     * @return Average of the metric over the bucket
+     */
+    public double average(MetricRollup metric) {
+        return metric.getSum() / sampleCount;
+    }
+}
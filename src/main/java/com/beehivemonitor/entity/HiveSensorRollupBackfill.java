@@ -0,0 +1,53 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of the one-off rollup of raw data written before rollups were introduced.
+ * A single row; the cursor (hive, timestamp, id) is advanced in the same transaction as the rollups
+ * of each page, so a backfill interrupted by a restart resumes after the last rolled up row.
+ */
+@Entity
+@Table(name = "hive_sensor_rollup_backfill")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString
+public class HiveSensorRollupBackfill {
+
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id = SINGLETON_ID;
+
+    // Raw data before this time is rolled up by the backfill, later data by the write path
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    // Hive being backfilled; null before the first page
+    @Column(name = "hive_id")
+    private UUID hiveId;
+
+    // Last rolled up row of the hive; null when the hive has not been started
+    @Column(name = "last_timestamp")
+    private LocalDateTime lastTimestamp;
+
+    @Column(name = "last_id")
+    private UUID lastId;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public HiveSensorRollupBackfill(LocalDateTime cutoff) {
+        this.cutoff = cutoff;
+    }
+}
@@ -0,0 +1,69 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The newest sensor reading of one hive and sensor type.
+ * Maintained whenever readings are saved, so that the last readings of a hive are a primary key
+ * range lookup instead of a scan of sensor_readings.
+ */
+@Entity
+@Table(name = "latest_sensor_readings")
+@IdClass(LatestSensorReading.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = {"hiveId", "type"})
+@ToString
+public class LatestSensorReading {
+
+    // Plain column instead of an association: latest readings are always read by hive id
+    @Id
+    @Column(name = "hive_id", nullable = false)
+    private UUID hiveId;
+
+    @Id
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "reading_id", nullable = false)
+    private UUID readingId;
+
+    @Column(name = "reading_value", nullable = false)
+    private Double value;
+
+    @Column(nullable = false)
+    private String unit;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    @Version
+    private Long version;
+
+    public void update(SensorReading reading) {
+        readingId = reading.getId();
+        value = reading.getValue();
+        unit = reading.getUnit();
+        timestamp = reading.getTimestamp();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID hiveId;
+        private String type;
+    }
+}
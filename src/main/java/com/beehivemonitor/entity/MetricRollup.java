@@ -0,0 +1,45 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Minimum, maximum and sum of one sensor metric within a rollup bucket.
+ * The average is derived from the sum and the bucket's sample count.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricRollup {
+
+    @Column(nullable = false)
+    private Double min;
+
+    @Column(nullable = false)
+    private Double max;
+
+    @Column(nullable = false)
+    private Double sum;
+
+    public static MetricRollup of(double value) {
+        return new MetricRollup(value, value, value);
+    }
+
+    public void add(double value) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    public void merge(MetricRollup other) {
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+    }
+}
@@ -0,0 +1,77 @@
+package com.beehivemonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A notification waiting to be sent to the notification microservice.
+ * Written in the transaction that decides to notify and delivered later by
+ * NotificationOutboxService.dispatchDue(); delivered rows are deleted, rows that cannot be delivered
+ * stay as DEAD for inspection. The id is sent as idempotency key, so a retried delivery is not sent twice.
+ */
+@Entity
+@Table(name = "notification_outbox",
+    indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString
+public class NotificationOutbox {
+
+    public static final int MAX_SUBJECT_LENGTH = 255;
+    public static final int MAX_MESSAGE_LENGTH = 2000;
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    public enum Status {
+        PENDING,
+        DEAD
+    }
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(length = MAX_SUBJECT_LENGTH)
+    private String subject;
+
+    @Column(length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    @Column(length = 16)
+    private String channel;
+
+    @Column(name = "alert_id")
+    private UUID alertId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // When the row is next due; moved forward while a dispatcher holds it and after each failed attempt
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Token of the dispatcher run that last claimed this row
+    @Column(length = 36)
+    private String claim;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
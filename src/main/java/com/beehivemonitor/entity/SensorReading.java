@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "sensor_readings")
+@Table(name = "sensor_readings",
+    indexes = @Index(name = "idx_sensor_readings_timestamp", columnList = "timestamp"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +24,7 @@ import java.util.UUID;
 public class SensorReading {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
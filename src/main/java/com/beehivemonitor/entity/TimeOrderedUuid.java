@@ -0,0 +1,19 @@
+package com.beehivemonitor.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID id with {@link TimeOrderedUuidGenerator} (UUIDv7).
+ * Used instead of GenerationType.UUID (random v4) on the high-write time-series tables, so that new rows
+ * are appended at the end of the primary key index instead of being inserted at random positions.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
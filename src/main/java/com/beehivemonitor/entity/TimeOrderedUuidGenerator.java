@@ -0,0 +1,71 @@
+package com.beehivemonitor.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * UUIDv7 (RFC 9562): 48 bits of Unix epoch milliseconds, a 12 bit counter and 62 random bits.
+ * The counter is reset to a random value every millisecond and incremented within it, so ids of one
+ * application instance are strictly increasing; ids of different instances are ordered by millisecond.
+ * Big-endian BINARY(16) columns (MySQL) and the UUID type (H2) sort them by creation time.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    // Leaves room to increment before the counter overflows into the next millisecond
+    private static final int COUNTER_SEED_BITS = 11;
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        long millis;
+        int sequence;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                if (++counter >= 1 << COUNTER_BITS) {
+                    // Counter exhausted: borrow the next millisecond
+                    millis++;
+                    counter = RANDOM.nextInt(1 << COUNTER_SEED_BITS);
+                }
+            } else {
+                counter = RANDOM.nextInt(1 << COUNTER_SEED_BITS);
+            }
+            lastMillis = millis;
+            sequence = counter;
+        }
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return Creation time of a UUIDv7
+     */
+    public static Instant timestampOf(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a time-ordered UUID: " + uuid);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+}
@@ -1,5 +1,6 @@
 package com.beehivemonitor.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
@@ -32,4 +34,14 @@ public class UserSettings {
     
     @Column(name = "measurement_interval_minutes", nullable = false)
     private Integer measurementIntervalMinutes = 1; // Default 1 minute
+    
+    // When the scheduled ingest is next due for this user; null means due now
+    @JsonIgnore
+    @Column(name = "next_due_at")
+    private LocalDateTime nextDueAt;
+    
+    // Token of the ingest run that last claimed this user
+    @JsonIgnore
+    @Column(name = "ingest_claim", length = 36)
+    private String ingestClaim;
 }
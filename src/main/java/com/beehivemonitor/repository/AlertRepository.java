@@ -2,17 +2,33 @@ package com.beehivemonitor.repository;
 
 import com.beehivemonitor.entity.Alert;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, UUID> {
-    @Query("SELECT a FROM Alert a WHERE a.hive.user.id = :userId")
+    @Query("SELECT a FROM Alert a JOIN FETCH a.hive h WHERE h.user.id = :userId")
     List<Alert> findByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT a FROM Alert a JOIN FETCH a.hive h JOIN FETCH h.user")
+    List<Alert> findAllWithHiveAndUser();
+
+    /**
+     * Sets the triggered state only if it differs from the stored one (a missing state counts as not triggered),
+     * so that of two evaluations racing on the same change only one sees it
+     *
+     * @return 1 if this call changed the state, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Alert a SET a.isTriggered = :triggered WHERE a.id = :id AND COALESCE(a.isTriggered, false) <> :triggered")
+    int updateTriggered(@Param("id") UUID id, @Param("triggered") Boolean triggered);
 }
 
 
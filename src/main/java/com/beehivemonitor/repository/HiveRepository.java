@@ -1,8 +1,11 @@
 package com.beehivemonitor.repository;
 
+import com.beehivemonitor.dto.HiveIngestTarget;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +15,17 @@ import java.util.UUID;
 public interface HiveRepository extends JpaRepository<Hive, UUID> {
     List<Hive> findByUser(User user);
     List<Hive> findByUserId(UUID userId);
-}
 
+    /**
+     * Returns (userId, measurementIntervalMinutes, hiveId) for every hive whose owner
+     * was claimed by the given ingest run, in a single query.
+     * Ordered by owner so that the hives of one user end up in as few ingest chunks as possible.
+     */
+    @Query("SELECT new com.beehivemonitor.dto.HiveIngestTarget(u.id, s.measurementIntervalMinutes, h.id) " +
+           "FROM Hive h JOIN h.user u JOIN UserSettings s ON s.user = u WHERE s.ingestClaim = :claim " +
+           "ORDER BY u.id, h.id")
+    List<HiveIngestTarget> findIngestTargetsByClaim(@Param("claim") String claim);
 
+    @Query("SELECT h.id FROM Hive h")
+    List<UUID> findAllIds();
+}
@@ -0,0 +1,70 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.HiveSensorBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HiveSensorBlockRepository extends JpaRepository<HiveSensorBlock, UUID> {
+
+    /**
+     * Loads the existing blocks touched by a write batch in one query
+     */
+    @Query("SELECT b FROM HiveSensorBlock b WHERE b.hiveId IN :hiveIds AND b.blockStart IN :blockStarts")
+    List<HiveSensorBlock> findBlocks(
+        @Param("hiveIds") Collection<UUID> hiveIds,
+        @Param("blockStarts") Collection<LocalDateTime> blockStarts
+    );
+
+    /**
+     * The hive's blocks starting in [fromBlock, toBlock], oldest first
+     */
+    @Query("SELECT b FROM HiveSensorBlock b WHERE b.hiveId = :hiveId " +
+           "AND b.blockStart >= :fromBlock AND b.blockStart <= :toBlock ORDER BY b.blockStart ASC")
+    List<HiveSensorBlock> findRange(
+        @Param("hiveId") UUID hiveId,
+        @Param("fromBlock") LocalDateTime fromBlock,
+        @Param("toBlock") LocalDateTime toBlock,
+        Pageable pageable
+    );
+
+    /**
+     * The hive's blocks starting at or before toBlock, oldest first
+     */
+    @Query("SELECT b FROM HiveSensorBlock b WHERE b.hiveId = :hiveId AND b.blockStart <= :toBlock " +
+           "ORDER BY b.blockStart ASC")
+    List<HiveSensorBlock> findUpTo(
+        @Param("hiveId") UUID hiveId,
+        @Param("toBlock") LocalDateTime toBlock,
+        Pageable pageable
+    );
+
+    /**
+     * Ids of the hive's oldest blocks starting at or before lastBlockStart; retention deletes them chunk by chunk
+     */
+    @Query("SELECT b.id FROM HiveSensorBlock b WHERE b.hiveId = :hiveId AND b.blockStart <= :lastBlockStart " +
+           "ORDER BY b.blockStart ASC")
+    List<UUID> findIdsUpTo(
+        @Param("hiveId") UUID hiveId,
+        @Param("lastBlockStart") LocalDateTime lastBlockStart,
+        Pageable pageable
+    );
+
+    @Query("SELECT DISTINCT b.hiveId FROM HiveSensorBlock b")
+    List<UUID> findDistinctHiveIds();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM HiveSensorBlock b WHERE b.hiveId = :hiveId")
+    int deleteByHiveId(@Param("hiveId") UUID hiveId);
+}
@@ -1,28 +1,89 @@
 package com.beehivemonitor.repository;
 
+import com.beehivemonitor.dto.HiveSensorSample;
 import com.beehivemonitor.entity.HiveSensorData;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface HiveSensorDataRepository extends JpaRepository<HiveSensorData, UUID> {
     
     List<HiveSensorData> findByHiveIdOrderByTimestampAsc(UUID hiveId);
     
-    @Query("SELECT hsd FROM HiveSensorData hsd WHERE hsd.hive.id = :hiveId " +
+    /**
+     * Streams the hive's samples in the period as projections, fetched from the database in chunks.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.beehivemonitor.dto.HiveSensorSample(hsd.timestamp, hsd.temperature, " +
+           "hsd.externalTemperature, hsd.humidity, hsd.co2, hsd.soundLevel, hsd.weight) " +
+           "FROM HiveSensorData hsd WHERE hsd.hive.id = :hiveId " +
            "AND hsd.timestamp >= :startDate AND hsd.timestamp <= :endDate " +
            "ORDER BY hsd.timestamp ASC")
-    List<HiveSensorData> findByHiveIdAndTimestampBetween(
+    Stream<HiveSensorSample> streamByHiveIdAndTimestampBetween(
         @Param("hiveId") UUID hiveId,
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    /**
+     * Streams the hive's samples before the cutoff in timestamp order, for archival.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.beehivemonitor.dto.HiveSensorSample(hsd.timestamp, hsd.temperature, " +
+           "hsd.externalTemperature, hsd.humidity, hsd.co2, hsd.soundLevel, hsd.weight) " +
+           "FROM HiveSensorData hsd WHERE hsd.hive.id = :hiveId AND hsd.timestamp < :cutoffDate " +
+           "ORDER BY hsd.timestamp ASC")
+    Stream<HiveSensorSample> streamByHiveIdAndTimestampBefore(
+        @Param("hiveId") UUID hiveId,
+        @Param("cutoffDate") LocalDateTime cutoffDate
+    );
+
+    /**
+     * The hive's samples before the cutoff that follow the given (timestamp, id), for keyset paging
+     * through the (hive_id, timestamp) index
+     */
+    @Query("SELECT hsd FROM HiveSensorData hsd WHERE hsd.hive.id = :hiveId AND hsd.timestamp < :cutoffDate " +
+           "AND (hsd.timestamp > :lastTimestamp OR (hsd.timestamp = :lastTimestamp AND hsd.id > :lastId)) " +
+           "ORDER BY hsd.timestamp ASC, hsd.id ASC")
+    List<HiveSensorData> findByHiveIdAndTimestampBeforeAfter(
+        @Param("hiveId") UUID hiveId,
+        @Param("cutoffDate") LocalDateTime cutoffDate,
+        @Param("lastTimestamp") LocalDateTime lastTimestamp,
+        @Param("lastId") UUID lastId,
+        Pageable pageable
+    );
+
+    /**
+     * Hives that have historical data, including rows whose hive no longer exists
+     */
+    @Query("SELECT DISTINCT hsd.hive.id FROM HiveSensorData hsd")
+    List<UUID> findDistinctHiveIds();
+
+    /**
+     * The hive's oldest samples before the cutoff, served by the (hive_id, timestamp) index;
+     * retention deletes them chunk by chunk
+     */
+    @Query("SELECT hsd FROM HiveSensorData hsd WHERE hsd.hive.id = :hiveId AND hsd.timestamp < :cutoffDate " +
+           "ORDER BY hsd.timestamp ASC, hsd.id ASC")
+    List<HiveSensorData> findByHiveIdAndTimestampBefore(
+        @Param("hiveId") UUID hiveId,
+        @Param("cutoffDate") LocalDateTime cutoffDate,
+        Pageable pageable
+    );
 }
 
 
@@ -0,0 +1,22 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.HiveSensorRollupBackfill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HiveSensorRollupBackfillRepository extends JpaRepository<HiveSensorRollupBackfill, Long> {
+
+    /**
+     * Locks the backfill progress, so that instances running the backfill process one page at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM HiveSensorRollupBackfill b WHERE b.id = :id")
+    Optional<HiveSensorRollupBackfill> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,43 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.HiveSensorRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HiveSensorRollupRepository extends JpaRepository<HiveSensorRollup, UUID> {
+
+    /**
+     * Loads the existing buckets touched by a write batch in one query per resolution
+     */
+    @Query("SELECT r FROM HiveSensorRollup r WHERE r.resolution = :resolution " +
+           "AND r.hiveId IN :hiveIds AND r.bucketStart IN :bucketStarts")
+    List<HiveSensorRollup> findBuckets(
+        @Param("resolution") HiveSensorRollup.Resolution resolution,
+        @Param("hiveIds") Collection<UUID> hiveIds,
+        @Param("bucketStarts") Collection<LocalDateTime> bucketStarts
+    );
+
+    @Query("SELECT r FROM HiveSensorRollup r WHERE r.hiveId = :hiveId AND r.resolution = :resolution " +
+           "AND r.bucketStart >= :startDate AND r.bucketStart <= :endDate ORDER BY r.bucketStart ASC")
+    List<HiveSensorRollup> findForChart(
+        @Param("hiveId") UUID hiveId,
+        @Param("resolution") HiveSensorRollup.Resolution resolution,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM HiveSensorRollup r WHERE r.hiveId = :hiveId")
+    int deleteByHiveId(@Param("hiveId") UUID hiveId);
+}
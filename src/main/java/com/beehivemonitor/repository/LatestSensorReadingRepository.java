@@ -0,0 +1,26 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.LatestSensorReading;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LatestSensorReadingRepository extends JpaRepository<LatestSensorReading, LatestSensorReading.Key> {
+
+    /**
+     * The hive's latest reading per sensor type; a range of the (hive_id, type) primary key
+     */
+    List<LatestSensorReading> findByHiveIdOrderByTypeAsc(UUID hiveId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LatestSensorReading l WHERE l.hiveId = :hiveId")
+    int deleteByHiveId(@Param("hiveId") UUID hiveId);
+}
@@ -0,0 +1,48 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+
+    /**
+     * Ids of pending notifications due at the given time, oldest due first
+     */
+    @Query("SELECT o.id FROM NotificationOutbox o " +
+           "WHERE o.status = PENDING AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt")
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Atomically claims the given notifications that are still due: stamps them with the claim token
+     * and moves next_attempt_at to the end of the lease. The conditional update makes the claim safe
+     * across several application instances; a notification whose dispatcher dies is due again after the lease.
+     *
+     * @return Number of notifications claimed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.claim = :claim, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id IN :ids AND o.status = PENDING " +
+           "AND o.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<UUID> ids,
+              @Param("claim") String claim,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<NotificationOutbox> findByClaim(String claim);
+
+    long countByStatus(NotificationOutbox.Status status);
+}
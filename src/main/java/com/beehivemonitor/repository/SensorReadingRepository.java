@@ -2,8 +2,8 @@ package com.beehivemonitor.repository;
 
 import com.beehivemonitor.entity.Sensor;
 import com.beehivemonitor.entity.SensorReading;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,25 +16,22 @@ import java.util.UUID;
 public interface SensorReadingRepository extends JpaRepository<SensorReading, UUID> {
     List<SensorReading> findBySensor(Sensor sensor);
     
-    @Query("SELECT sr FROM SensorReading sr WHERE sr.sensor.hive.id = :hiveId " +
-           "AND sr.id IN (SELECT MAX(sr2.id) FROM SensorReading sr2 WHERE sr2.sensor.hive.id = :hiveId " +
-           "GROUP BY sr2.sensor.type)")
+    /**
+     * The hive's readings with the newest timestamp of their type (several on a tie).
+     * Scans the hive's readings; only used to fill latest_sensor_readings, which serves the reads.
+     */
+    @Query("SELECT sr FROM SensorReading sr JOIN FETCH sr.sensor s WHERE s.hive.id = :hiveId " +
+           "AND sr.timestamp = (SELECT MAX(sr2.timestamp) FROM SensorReading sr2 " +
+           "WHERE sr2.sensor.hive.id = :hiveId AND sr2.type = sr.type)")
     List<SensorReading> findLatestReadingsByHiveId(@Param("hiveId") UUID hiveId);
     
     List<SensorReading> findBySensorId(UUID sensorId);
     
     /**
-     * Delete all sensor readings older than the specified timestamp
-     */
-    @Modifying
-    @Query("DELETE FROM SensorReading sr WHERE sr.timestamp < :cutoffDate")
-    void deleteByTimestampBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
-    
-    /**
-     * Count sensor readings older than the specified timestamp
+     * Ids of the oldest sensor readings before the cutoff; retention deletes them chunk by chunk
      */
-    @Query("SELECT COUNT(sr) FROM SensorReading sr WHERE sr.timestamp < :cutoffDate")
-    long countByTimestampBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Query("SELECT sr.id FROM SensorReading sr WHERE sr.timestamp < :cutoffDate ORDER BY sr.timestamp ASC, sr.id ASC")
+    List<UUID> findIdsByTimestampBefore(@Param("cutoffDate") LocalDateTime cutoffDate, Pageable pageable);
 }
 
 
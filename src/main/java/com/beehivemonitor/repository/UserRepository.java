@@ -2,8 +2,10 @@ package com.beehivemonitor.repository;
 
 import com.beehivemonitor.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +13,9 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u FROM User u WHERE NOT EXISTS (SELECT s FROM UserSettings s WHERE s.user = u)")
+    List<User> findUsersWithoutSettings();
 }
 
 
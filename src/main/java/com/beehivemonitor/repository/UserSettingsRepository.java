@@ -3,8 +3,14 @@ package com.beehivemonitor.repository;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.entity.UserSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,5 +18,46 @@ import java.util.UUID;
 public interface UserSettingsRepository extends JpaRepository<UserSettings, UUID> {
     Optional<UserSettings> findByUser(User user);
     Optional<UserSettings> findByUserId(UUID userId);
-}
 
+    /**
+     * Atomically claims every user whose ingest is due at the cutoff: stamps the rows with the
+     * claim token and moves next_due_at forward by the user's measurement interval.
+     * The conditional update makes the claim safe across several application instances;
+     * a row claimed by one instance is no longer due for the others.
+     *
+     * @return Number of users claimed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserSettings s " +
+           "SET s.nextDueAt = cast(:now as LocalDateTime) + (s.measurementIntervalMinutes) minute, s.ingestClaim = :claim " +
+           "WHERE s.nextDueAt IS NULL OR s.nextDueAt <= :cutoff")
+    int claimDueUsers(@Param("claim") String claim,
+                      @Param("now") LocalDateTime now,
+                      @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Makes the given users of a claim due again at dueAt, undoing the advance of next_due_at
+     * made by {@link #claimDueUsers} when their ingest failed. Rows claimed by a later run
+     * (another claim token) are left alone.
+     *
+     * @return Number of users released
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserSettings s SET s.nextDueAt = :dueAt " +
+           "WHERE s.ingestClaim = :claim AND s.user.id IN :userIds")
+    int releaseClaim(@Param("claim") String claim,
+                     @Param("userIds") Collection<UUID> userIds,
+                     @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * Makes every user of a claim due again at dueAt, used when an ingest run fails as a whole
+     *
+     * @return Number of users released
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserSettings s SET s.nextDueAt = :dueAt WHERE s.ingestClaim = :claim")
+    int releaseClaim(@Param("claim") String claim, @Param("dueAt") LocalDateTime dueAt);
+}
@@ -0,0 +1,34 @@
+package com.beehivemonitor.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the user authenticated by {@link JwtAuthenticationFilter} for the current request,
+ * so that controllers do not verify the token a second time.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * @return The email of the authenticated user, or null if the request is not authenticated
+     */
+    public static String getEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
+
+    /**
+     * @param authHeader The Authorization header of the request, verified only if the filter did not authenticate it
+     * @return The email of the authenticated user
+     */
+    public static String getEmail(String authHeader, JwtTokenProvider tokenProvider) {
+        String email = getEmail();
+        return email != null ? email : tokenProvider.getEmailFromToken(authHeader.substring(7));
+    }
+}
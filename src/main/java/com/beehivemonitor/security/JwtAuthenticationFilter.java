@@ -7,8 +7,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,27 +22,45 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // EventSource cannot send an Authorization header, so the stream is opened with a single-use ticket instead
+    private static final String STREAM_PATH = "/api/sensors/stream";
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private StreamTicketProvider streamTicketProvider;
+
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+            // One verification per request (none for a token verified before); controllers read the result
+            // from the security context
+            String email = null;
+            if (StringUtils.hasText(jwt)) {
+                email = tokenProvider.authenticate(jwt);
+            } else if (STREAM_PATH.equals(request.getRequestURI())) {
+                email = streamTicketProvider.redeem(request.getParameter("ticket"));
+            }
+            if (email != null) {
                 CustomUserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userDetails.getRole())));
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContext context = SecurityContextHolder.getContext();
+                context.setAuthentication(authentication);
+                // Async dispatches of this request (streams) are not filtered again and read the context from here
+                securityContextRepository.saveContext(context, request, response);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
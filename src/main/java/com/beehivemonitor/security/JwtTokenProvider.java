@@ -2,24 +2,59 @@ package com.beehivemonitor.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Issues and verifies JWTs.
+ * The signing key and parser are built once; verified tokens are cached by their SHA-256 hash until
+ * they expire, so a client sending the same token on every request is verified once, not per request.
+ * The cache is bounded; when full, room is made in batches so inserts stay O(1) amortized.
+ */
 @Component
 public class JwtTokenProvider {
 
+    // Minimum time between two scans for expired tokens, and the share of entries evicted when none expired
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Maximum number of verified tokens kept; 0 disables the cache. When full, expired tokens are dropped
+     * (at most once per sweep interval) and, if that is not enough, a batch of arbitrary entries.
+     * Configurable via application.properties: jwt.cache.max-size
+     */
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private volatile long nextSweepAt;
+
+    // Token hash -> subject and expiry of a verified token
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(String email) {
@@ -30,30 +65,98 @@ public class JwtTokenProvider {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the token once and returns its subject
+     *
+     * @return The email of the token, or null if the token is invalid or expired
+     */
+    public String authenticate(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String hash = hash(token);
+        VerifiedToken cached = verifiedTokens.get(hash);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                return cached.email();
+            }
+            verifiedTokens.remove(hash);
+        }
 
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        cache(hash, claims);
         return claims.getSubject();
     }
 
+    /**
+     * @throws JwtException If the token is invalid or expired
+     */
+    public String getEmailFromToken(String token) {
+        String email = authenticate(token);
+        if (email == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return email;
+    }
+
     public boolean validateToken(String token) {
+        return authenticate(token) != null;
+    }
+
+    int getCachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private void cache(String hash, Claims claims) {
+        // Tokens without an expiry are verified every time
+        if (claims.getExpiration() == null || claims.getSubject() == null) {
+            return;
+        }
+        if (cacheMaxSize <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            makeRoom();
+        }
+        verifiedTokens.put(hash, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+    }
+
+    /**
+     * Frees at least a batch of entries, so the next inserts do not scan the cache again
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        if (now >= nextSweepAt) {
+            nextSweepAt = now + SWEEP_INTERVAL_MS;
+            verifiedTokens.values().removeIf(token -> token.expiresAt() <= now);
+        }
+        int excess = verifiedTokens.size() - cacheMaxSize + Math.max(1, cacheMaxSize / EVICTION_BATCH_DIVISOR);
+        Iterator<VerifiedToken> iterator = verifiedTokens.values().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            // An evicted token is simply verified again on its next use
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
 
+    private record VerifiedToken(String email, long expiresAt) {
+    }
+}
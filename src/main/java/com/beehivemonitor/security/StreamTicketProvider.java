@@ -0,0 +1,85 @@
+package com.beehivemonitor.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues short-lived, single-use tickets for opening the {@code /api/sensors/stream} push stream.
+ * EventSource cannot send an Authorization header, so the browser exchanges its JWT for a ticket
+ * (a random value, not a credential for any other endpoint) and passes that in the query string instead.
+ * Tickets are kept in memory, so the stream must be opened on the instance that issued the ticket.
+ */
+@Component
+public class StreamTicketProvider {
+
+    private static final int TICKET_BYTES = 32;
+
+    /**
+     * Time within which a ticket must be redeemed.
+     * Configurable via application.properties: sensor.stream.ticket.ttl.seconds
+     */
+    @Value("${sensor.stream.ticket.ttl.seconds:30}")
+    private long ttlSeconds;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Ticket -> email and expiry of a ticket not redeemed yet
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private volatile long nextPurgeAt;
+
+    /**
+     * @return A new ticket for the user
+     */
+    public String issue(String email) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(email, now + ttlSeconds * 1000));
+        return ticket;
+    }
+
+    /**
+     * Redeems a ticket; a ticket can be redeemed once
+     *
+     * @return The email the ticket was issued to, or null if the ticket is unknown, used or expired
+     */
+    public String redeem(String ticket) {
+        if (ticket == null || ticket.isEmpty()) {
+            return null;
+        }
+        Ticket redeemed = tickets.remove(ticket);
+        if (redeemed == null || redeemed.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return redeemed.email();
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    int getPendingTicketCount() {
+        return tickets.size();
+    }
+
+    private void purgeExpired(long now) {
+        // At most once per ticket lifetime, so issuing stays O(1) on average
+        if (now < nextPurgeAt) {
+            return;
+        }
+        nextPurgeAt = now + ttlSeconds * 1000;
+        tickets.values().removeIf(ticket -> ticket.expiresAt() <= now);
+    }
+
+    private record Ticket(String email, long expiresAt) {
+    }
+}
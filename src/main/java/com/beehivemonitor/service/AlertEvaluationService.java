@@ -0,0 +1,163 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-driven alert evaluation.
+ * When new sensor samples are ingested, only the alerts of the sampled hives are evaluated,
+ * using the in-memory {@link AlertIndex}. Evaluation runs on its own single thread so that
+ * the ingest path is never blocked; if the queue is full the event is dropped and the
+ * periodic {@link AlertMonitoringScheduler} run reconciles the state.
+ */
+@Service
+public class AlertEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEvaluationService.class);
+
+    @Autowired
+    private AlertIndex alertIndex;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Maximum number of ingest events waiting for evaluation.
+     * Configurable via application.properties: alert.evaluation.queue.capacity
+     */
+    @Value("${alert.evaluation.queue.capacity:1000}")
+    private int queueCapacity;
+
+    private TransactionTemplate transactionTemplate;
+    private ThreadPoolExecutor executor;
+    private Counter droppedEvents;
+    private Timer evaluationTimer;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "alert-evaluation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        droppedEvents = Counter.builder("alert.evaluation.events.dropped")
+            .description("Sensor ingest events not evaluated because the queue was full")
+            .register(meterRegistry);
+        evaluationTimer = Timer.builder("alert.evaluation")
+            .description("Latency of evaluating the alerts of one ingest event")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @EventListener
+    public void onSensorDataIngested(SensorDataIngestedEvent event) {
+        try {
+            executor.execute(() -> evaluationTimer.record(() -> evaluate(event.getSensorData())));
+        } catch (RejectedExecutionException e) {
+            droppedEvents.increment();
+            logger.warn("Alert evaluation queue is full, skipping {} hives until the next monitoring run",
+                event.getSensorData().size());
+        }
+    }
+
+    /**
+     * Evaluates the alerts of every hive in the map against its new sample
+     *
+     * @return Number of alerts whose triggered state changed
+     */
+    int evaluate(Map<UUID, SensorController.HiveSensorData> sensorData) {
+        int changed = 0;
+        for (Map.Entry<UUID, SensorController.HiveSensorData> entry : sensorData.entrySet()) {
+            List<Alert> alerts = alertIndex.getAlertsForHive(entry.getKey());
+            for (Alert alert : alerts) {
+                try {
+                    if (evaluate(alert, entry.getValue())) {
+                        changed++;
+                    }
+                } catch (Exception e) {
+                    logger.error("Error evaluating alert {}: {}", alert.getId(), e.getMessage(), e);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean evaluate(Alert alert, SensorController.HiveSensorData sensorData) {
+        boolean previousTriggered = alert.getIsTriggered() != null ? alert.getIsTriggered() : false;
+        boolean currentlyTriggered = alertService.checkAlertTriggered(alert, sensorData);
+        if (previousTriggered == currentlyTriggered) {
+            return false;
+        }
+
+        User user = alert.getHive().getUser();
+        boolean notify = !previousTriggered && currentlyTriggered && user != null
+            && user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled();
+        // The state change and its notification are committed together; only the evaluation
+        // whose compare-and-set changed the stored state notifies
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (alertRepository.updateTriggered(alert.getId(), currentlyTriggered) != 1) {
+                return false;
+            }
+            if (notify) {
+                alertService.queueEmailNotification(user, alert);
+            }
+            return true;
+        });
+        alert.setIsTriggered(currentlyTriggered);
+        if (!Boolean.TRUE.equals(applied)) {
+            logger.debug("Alert '{}' (ID: {}) state change on ingest was already applied",
+                alert.getName(), alert.getId());
+            return false;
+        }
+        logger.info("Alert '{}' (ID: {}) status changed on ingest: {} -> {}",
+            alert.getName(), alert.getId(), previousTriggered, currentlyTriggered);
+
+        eventPublisher.publishEvent(new AlertStateChangedEvent(user != null ? user.getId() : null,
+            alert.getId(), alert.getHive().getId(), alert.getName(), currentlyTriggered));
+        return true;
+    }
+}
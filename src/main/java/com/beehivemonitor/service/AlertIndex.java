@@ -0,0 +1,88 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.repository.AlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of alerts by hive, used for event-driven alert evaluation.
+ * Holds the alerts (with hive and owner loaded) as of the last build; it is built lazily
+ * with one query and rebuilt after any change to alerts, hives or notification settings.
+ */
+@Service
+public class AlertIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertIndex.class);
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private volatile Map<UUID, List<Alert>> alertsByHive;
+
+    // Incremented on every invalidation so that a build racing with a change is not kept
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @return The alerts of the hive (empty if it has none)
+     */
+    public List<Alert> getAlertsForHive(UUID hiveId) {
+        Map<UUID, List<Alert>> index = alertsByHive;
+        if (index == null) {
+            index = build();
+        }
+        return index.getOrDefault(hiveId, Collections.emptyList());
+    }
+
+    /**
+     * Discards the index; the next lookup rebuilds it from the database.
+     * Inside a transaction the index is discarded again after commit, so a rebuild running
+     * before the commit cannot keep the old rows.
+     */
+    public void invalidate() {
+        discard();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard();
+                }
+            });
+        }
+    }
+
+    private void discard() {
+        version.incrementAndGet();
+        alertsByHive = null;
+    }
+
+    private synchronized Map<UUID, List<Alert>> build() {
+        Map<UUID, List<Alert>> index = alertsByHive;
+        if (index != null) {
+            return index;
+        }
+
+        long buildVersion = version.get();
+        index = new HashMap<>();
+        for (Alert alert : alertRepository.findAllWithHiveAndUser()) {
+            index.computeIfAbsent(alert.getHive().getId(), id -> new ArrayList<>()).add(alert);
+        }
+        if (version.get() == buildVersion) {
+            alertsByHive = index;
+        }
+        logger.debug("Alert index built for {} hives", index.size());
+        return index;
+    }
+}
@@ -2,16 +2,20 @@ package com.beehivemonitor.service;
 
 import com.beehivemonitor.controller.SensorController;
 import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.AlertRepository;
 import com.beehivemonitor.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -38,95 +42,128 @@ public class AlertMonitoringScheduler {
     @Autowired
     private SensorService sensorService;
 
+    @Autowired
+    private AlertIndex alertIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Monitors all alerts and checks if they should be triggered.
-     * Runs every 5 minutes using cron expression.
+     * Alerts are evaluated as soon as new sensor data is ingested (see AlertEvaluationService);
+     * this run is a periodic reconciliation that catches anything missed and refreshes the alert index.
+     * 
+     * Alerts are loaded with their hive and owner in one query and grouped by hive;
+     * sensor data for all alerted hives is taken as one snapshot per run
+     * (at most one batched microservice call).
      * 
      * Cron format: second minute hour day month weekday
-     * Default expression means: at second 0, every 5 minutes, every hour, every day
+     * Default expression means: at second 0, every 15 minutes, every hour, every day
      * 
      * Can be configured via application.properties: alert.monitoring.cron
-     * Default: every 5 minutes
+     * Default: every 15 minutes
      */
-    @Scheduled(cron = "${alert.monitoring.cron:0 */5 * * * ?}")
+    @Scheduled(cron = "${alert.monitoring.cron:0 */15 * * * ?}")
     @Transactional
     public void monitorAlerts() {
         logger.info("Starting scheduled alert monitoring check...");
         
         try {
-            // Get all alerts from the database
-            List<Alert> allAlerts = alertRepository.findAll();
+            // Get all alerts with their hive and owner from the database
+            List<Alert> allAlerts = alertRepository.findAllWithHiveAndUser();
             logger.debug("Found {} alerts to check", allAlerts.size());
+            if (allAlerts.isEmpty()) {
+                return;
+            }
 
-            int triggeredCount = 0;
-            int notificationSentCount = 0;
-
+            // Group alerts by hive
+            Map<UUID, List<Alert>> alertsByHive = new HashMap<>();
+            Map<UUID, Hive> hives = new HashMap<>();
             for (Alert alert : allAlerts) {
-                try {
-                    // Get the user who owns this alert through the hive
-                    User user = alert.getHive().getUser();
-                    if (user == null) {
-                        logger.warn("Alert {} has no associated user, skipping", alert.getId());
-                        continue;
-                    }
+                Hive hive = alert.getHive();
+                hives.putIfAbsent(hive.getId(), hive);
+                alertsByHive.computeIfAbsent(hive.getId(), id -> new ArrayList<>()).add(alert);
+            }
 
-                    // Get current sensor data for all hives of this user
-                    Map<UUID, SensorController.HiveSensorData> sensorDataMap = 
-                        sensorService.getRealtimeDataForAllHives(user.getEmail());
+            // One sensor snapshot for every alerted hive
+            Map<UUID, SensorController.HiveSensorData> sensorDataMap = 
+                sensorService.getRealtimeDataForHives(hives.values());
 
-                    // Get sensor data for this alert's hive
-                    SensorController.HiveSensorData sensorData = 
-                        sensorDataMap.get(alert.getHive().getId());
+            int triggeredCount = 0;
+            int notificationQueuedCount = 0;
+            List<AlertStateChangedEvent> stateChanges = new ArrayList<>();
+
+            for (Map.Entry<UUID, List<Alert>> hiveAlerts : alertsByHive.entrySet()) {
+                SensorController.HiveSensorData sensorData = sensorDataMap.get(hiveAlerts.getKey());
+                if (sensorData == null) {
+                    logger.debug("No sensor data available for hive {}, skipping {} alerts", 
+                        hiveAlerts.getKey(), hiveAlerts.getValue().size());
+                    continue;
+                }
 
-                    if (sensorData == null) {
-                        logger.debug("No sensor data available for hive {}, skipping alert {}", 
-                            alert.getHive().getId(), alert.getId());
-                        continue;
-                    }
+                for (Alert alert : hiveAlerts.getValue()) {
+                    try {
+                        // Get the user who owns this alert through the hive
+                        User user = alert.getHive().getUser();
+                        if (user == null) {
+                            logger.warn("Alert {} has no associated user, skipping", alert.getId());
+                            continue;
+                        }
 
-                    // Check if alert conditions are met
-                    boolean previousTriggered = alert.getIsTriggered() != null ? alert.getIsTriggered() : false;
-                    boolean currentlyTriggered = alertService.checkAlertTriggered(alert, sensorData);
-
-                    // Update alert trigger status if changed
-                    if (previousTriggered != currentlyTriggered) {
-                        alert.setIsTriggered(currentlyTriggered);
-                        alertRepository.save(alert);
-                        logger.info("Alert '{}' (ID: {}) status changed: {} -> {}", 
-                            alert.getName(), alert.getId(), previousTriggered, currentlyTriggered);
-
-                        // If alert was just triggered (went from false to true) and user has email notifications enabled
-                        if (!previousTriggered && currentlyTriggered) {
-                            triggeredCount++;
-                            
-                            if (user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled()) {
-                                try {
-                                    alertService.sendEmailNotification(user, alert);
-                                    notificationSentCount++;
-                                    logger.info("Email notification sent for alert '{}' to user {}", 
-                                        alert.getName(), user.getEmail());
-                                } catch (Exception e) {
-                                    logger.error("Failed to send email notification for alert {} to user {}: {}", 
-                                        alert.getId(), user.getEmail(), e.getMessage());
+                        // Check if alert conditions are met
+                        boolean previousTriggered = alert.getIsTriggered() != null ? alert.getIsTriggered() : false;
+                        boolean currentlyTriggered = alertService.checkAlertTriggered(alert, sensorData);
+
+                        // Update alert trigger status if changed. The write is a compare-and-set, so a change
+                        // already applied by ingest-time evaluation is neither written nor notified twice
+                        if (previousTriggered != currentlyTriggered) {
+                            if (alertRepository.updateTriggered(alert.getId(), currentlyTriggered) != 1) {
+                                logger.debug("Alert '{}' (ID: {}) status change was already applied", 
+                                    alert.getName(), alert.getId());
+                                continue;
+                            }
+                            stateChanges.add(new AlertStateChangedEvent(user.getId(), alert.getId(),
+                                alert.getHive().getId(), alert.getName(), currentlyTriggered));
+                            logger.info("Alert '{}' (ID: {}) status changed: {} -> {}", 
+                                alert.getName(), alert.getId(), previousTriggered, currentlyTriggered);
+
+                            // If alert was just triggered (went from false to true) and user has email notifications enabled
+                            if (!previousTriggered && currentlyTriggered) {
+                                triggeredCount++;
+                                
+                                if (user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled()) {
+                                    try {
+                                        alertService.queueEmailNotification(user, alert);
+                                        notificationQueuedCount++;
+                                        logger.info("Email notification queued for alert '{}' to user {}", 
+                                            alert.getName(), user.getEmail());
+                                    } catch (Exception e) {
+                                        logger.error("Failed to queue email notification for alert {} to user {}: {}", 
+                                            alert.getId(), user.getEmail(), e.getMessage());
+                                    }
+                                } else {
+                                    logger.debug("Email notifications disabled for user {}, skipping notification", 
+                                        user.getEmail());
                                 }
-                            } else {
-                                logger.debug("Email notifications disabled for user {}, skipping notification", 
-                                    user.getEmail());
                             }
                         }
+                    } catch (Exception e) {
+                        logger.error("Error processing alert {}: {}", alert.getId(), e.getMessage(), e);
+                        // Continue processing other alerts even if one fails
                     }
-                } catch (Exception e) {
-                    logger.error("Error processing alert {}: {}", alert.getId(), e.getMessage(), e);
-                    // Continue processing other alerts even if one fails
                 }
             }
 
-            logger.info("Alert monitoring completed. Triggered: {}, Notifications sent: {}, Total checked: {}", 
-                triggeredCount, notificationSentCount, allAlerts.size());
+            for (AlertStateChangedEvent stateChange : stateChanges) {
+                eventPublisher.publishEvent(stateChange);
+            }
+            alertIndex.invalidate();
+
+            logger.info("Alert monitoring completed. Triggered: {}, Notifications queued: {}, Total checked: {}, Hives: {}", 
+                triggeredCount, notificationQueuedCount, allAlerts.size(), hives.size());
 
         } catch (Exception e) {
             logger.error("Error in scheduled alert monitoring: {}", e.getMessage(), e);
         }
     }
 }
-
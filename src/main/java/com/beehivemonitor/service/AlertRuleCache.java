@@ -0,0 +1,65 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Alert;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compiled alert rules by alert id.
+ * Entries are evicted when an alert is created, updated or deleted, and a cached rule
+ * is only used if it was compiled from the alert's current trigger conditions.
+ */
+@Service
+public class AlertRuleCache {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<UUID, CompiledAlertRule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * @return The compiled rule for the alert, compiling and caching it if needed
+     */
+    public CompiledAlertRule get(Alert alert) {
+        String triggerConditions = alert.getTriggerConditions();
+        if (alert.getId() == null) {
+            // Not saved yet - nothing to key the cache on
+            return CompiledAlertRule.compile(triggerConditions, objectMapper);
+        }
+
+        CompiledAlertRule rule = rules.get(alert.getId());
+        if (rule == null || !rule.isCompiledFrom(triggerConditions)) {
+            rule = CompiledAlertRule.compile(triggerConditions, objectMapper);
+            rules.put(alert.getId(), rule);
+        }
+        return rule;
+    }
+
+    /**
+     * Drops the compiled rule of the alert. Inside a transaction the rule is dropped again after commit,
+     * so a rule compiled from the old conditions before the commit is not kept.
+     */
+    public void evict(UUID alertId) {
+        if (alertId == null) {
+            return;
+        }
+        rules.remove(alertId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rules.remove(alertId);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return rules.size();
+    }
+}
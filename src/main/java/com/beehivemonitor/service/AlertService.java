@@ -1,6 +1,5 @@
 package com.beehivemonitor.service;
 
-import com.beehivemonitor.client.NotificationMicroserviceClient;
 import com.beehivemonitor.controller.SensorController;
 import com.beehivemonitor.dto.NotificationRequest;
 import com.beehivemonitor.entity.Alert;
@@ -8,10 +7,6 @@ import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.AlertRepository;
 import com.beehivemonitor.repository.HiveRepository;
-import com.beehivemonitor.repository.UserRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,7 +26,7 @@ public class AlertService {
     private AlertRepository alertRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Autowired
     private HiveRepository hiveRepository;
@@ -40,29 +35,22 @@ public class AlertService {
     private SensorService sensorService;
 
     @Autowired
-    private NotificationMicroserviceClient notificationMicroserviceClient;
+    private NotificationOutboxService notificationOutbox;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private AlertRuleCache alertRuleCache;
+
+    @Autowired
+    private AlertIndex alertIndex;
 
+    /**
+     * Returns the user's alerts with their hives and the persisted trigger state.
+     * Read-only: alerts are evaluated on sensor ingest and by AlertMonitoringScheduler.
+     */
     public List<Alert> getAllAlertsByUser(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
-        List<Alert> alerts = alertRepository.findByUserId(user.getId());
-        
-        // Check and update trigger status for each alert
-        Map<UUID, SensorController.HiveSensorData> sensorData = sensorService.getRealtimeDataForAllHives(email);
-        for (Alert alert : alerts) {
-            boolean previousTriggered = alert.getIsTriggered() != null ? alert.getIsTriggered() : false;
-            boolean triggered = checkAlertTriggered(alert, sensorData.get(alert.getHive().getId()));
-            alert.setIsTriggered(triggered);
-            
-            // Send notification if alert was just triggered (was false, now true) and user has email notifications enabled
-            if (!previousTriggered && triggered && user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled()) {
-                sendEmailNotification(user, alert);
-            }
-        }
-        
-        return alerts;
+        return alertRepository.findByUserId(user.getId());
     }
 
     public Alert getAlertById(UUID id, String email) {
@@ -97,11 +85,13 @@ public class AlertService {
         alert.setIsTriggered(triggered);
         
         Alert savedAlert = alertRepository.save(alert);
+        alertRuleCache.evict(savedAlert.getId());
+        alertIndex.invalidate();
         
-        // Send notification if alert is triggered and user has email notifications enabled
+        // Queue notification if alert is triggered and user has email notifications enabled
         User user = hive.getUser();
         if (triggered && user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled()) {
-            sendEmailNotification(user, savedAlert);
+            queueEmailNotification(user, savedAlert);
         }
         
         return savedAlert;
@@ -114,6 +104,7 @@ public class AlertService {
         alert.setName(updatedAlert.getName());
         alert.setHive(updatedAlert.getHive());
         alert.setTriggerConditions(updatedAlert.getTriggerConditions());
+        alertRuleCache.evict(id);
         
         // Re-check trigger status
         Map<UUID, SensorController.HiveSensorData> sensorData = sensorService.getRealtimeDataForAllHives(email);
@@ -121,11 +112,12 @@ public class AlertService {
         alert.setIsTriggered(triggered);
         
         Alert savedAlert = alertRepository.save(alert);
+        alertIndex.invalidate();
         
-        // Send notification if alert was just triggered (was false, now true) and user has email notifications enabled
+        // Queue notification if alert was just triggered (was false, now true) and user has email notifications enabled
         User user = alert.getHive().getUser();
         if (!previousTriggered && triggered && user.getEmailNotificationEnabled() != null && user.getEmailNotificationEnabled()) {
-            sendEmailNotification(user, savedAlert);
+            queueEmailNotification(user, savedAlert);
         }
         
         return savedAlert;
@@ -135,90 +127,42 @@ public class AlertService {
     public void deleteAlert(UUID id, String email) {
         Alert alert = getAlertById(id, email);
         alertRepository.delete(alert);
+        alertRuleCache.evict(id);
+        alertIndex.invalidate();
     }
 
     @Transactional
     public Alert resetAlert(UUID id, String email) {
         Alert alert = getAlertById(id, email);
         alert.setIsTriggered(false);
-        return alertRepository.save(alert);
+        Alert savedAlert = alertRepository.save(alert);
+        alertIndex.invalidate();
+        return savedAlert;
     }
 
     // Package-private to allow access from AlertMonitoringScheduler
     boolean checkAlertTriggered(Alert alert, SensorController.HiveSensorData sensorData) {
-        if (sensorData == null || alert.getTriggerConditions() == null || alert.getTriggerConditions().isEmpty()) {
-            return false;
-        }
-
-        try {
-            List<Map<String, Object>> conditions = objectMapper.readValue(
-                alert.getTriggerConditions(),
-                new TypeReference<>() {}
-            );
-
-            // All conditions must be met (AND logic)
-            for (Map<String, Object> condition : conditions) {
-                String parameter = (String) condition.get("parameter");
-                String operator = (String) condition.get("operator");
-                Double threshold = ((Number) condition.get("value")).doubleValue();
-                Double currentValue = getParameterValue(sensorData, parameter);
-
-                if (currentValue == null) {
-                    return false;
-                }
-
-                boolean conditionMet = switch (operator) {
-                    case ">" -> currentValue > threshold;
-                    case ">=" -> currentValue >= threshold;
-                    case "<" -> currentValue < threshold;
-                    case "<=" -> currentValue <= threshold;
-                    default -> false;
-                };
-
-                if (!conditionMet) {
-                    return false; // One condition failed, alert not triggered
-                }
-            }
-
-            return true; // All conditions met
-        } catch (Exception e) {
+        if (sensorData == null) {
             return false;
         }
-    }
-
-    private Double getParameterValue(SensorController.HiveSensorData sensorData, String parameter) {
-        return switch (parameter.toLowerCase()) {
-            case "temperature", "int. temperature", "int temperature" -> sensorData.temperature;
-            case "externaltemperature", "ext. temperature", "ext temperature" -> sensorData.externalTemperature;
-            case "humidity" -> sensorData.humidity;
-            case "co2" -> sensorData.co2;
-            case "sound", "soundlevel" -> sensorData.soundLevel;
-            case "weight" -> sensorData.weight;
-            default -> null;
-        };
+        return alertRuleCache.get(alert).matches(sensorData);
     }
 
     /**
-     * Sends email notification via notification microservice
-     * Package-private to allow access from AlertMonitoringScheduler
+     * Queues an email notification in the notification outbox, in the caller's transaction.
+     * Delivery to the notification microservice happens asynchronously (see NotificationOutboxService).
+     * Package-private to allow access from AlertMonitoringScheduler and AlertEvaluationService
      */
-    void sendEmailNotification(User user, Alert alert) {
-        try {
-            NotificationRequest request = new NotificationRequest(
-                user.getEmail(),
-                "Alert Triggered",
-                "Alert triggered: " + alert.getName(),
-                "EMAIL",
-                alert.getId()
-            );
-            
-            notificationMicroserviceClient.sendNotification(request);
-            logger.debug("Email notification sent for alert {} to user {}", alert.getId(), user.getEmail());
-        } catch (FeignException e) {
-            // Log error but don't fail the alert check
-            logger.error("Failed to send email notification for alert {} to user {}: {}", 
-                alert.getId(), user.getEmail(), e.getMessage());
-        }
+    void queueEmailNotification(User user, Alert alert) {
+        NotificationRequest request = new NotificationRequest(
+            user.getEmail(),
+            "Alert Triggered",
+            "Alert triggered: " + alert.getName(),
+            "EMAIL",
+            alert.getId()
+        );
+        notificationOutbox.enqueue(request);
+        logger.debug("Email notification queued for alert {} to user {}", alert.getId(), user.getEmail());
     }
 }
 
@@ -0,0 +1,43 @@
+package com.beehivemonitor.service;
+
+import java.util.UUID;
+
+/**
+ * Published after the triggered state of an alert has been changed by alert evaluation
+ */
+public class AlertStateChangedEvent {
+
+    private final UUID userId;
+    private final UUID alertId;
+    private final UUID hiveId;
+    private final String name;
+    private final boolean triggered;
+
+    public AlertStateChangedEvent(UUID userId, UUID alertId, UUID hiveId, String name, boolean triggered) {
+        this.userId = userId;
+        this.alertId = alertId;
+        this.hiveId = hiveId;
+        this.name = name;
+        this.triggered = triggered;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getAlertId() {
+        return alertId;
+    }
+
+    public UUID getHiveId() {
+        return hiveId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isTriggered() {
+        return triggered;
+    }
+}
@@ -30,6 +30,9 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserCache userCache;
+
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -45,6 +48,7 @@ public class AuthService {
         user.setTelephone(request.getTelephone()); // Set telephone if provided
 
         user = userRepository.save(user);
+        userCache.invalidate(user.getEmail());
 
         String token = tokenProvider.generateToken(user.getEmail());
 
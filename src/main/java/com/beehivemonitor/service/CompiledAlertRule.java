@@ -0,0 +1,174 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Locale;
+
+/**
+ * Immutable, pre-parsed form of Alert.triggerConditions.
+ * The JSON (e.g. [{"parameter":"temperature","operator":">","value":25}]) is parsed once;
+ * evaluation only compares primitive values. All conditions must be met (AND logic).
+ *
+ * Conditions that cannot be evaluated (invalid JSON, unknown parameter or operator,
+ * missing value) compile to a rule that never matches, as before.
+ */
+public final class CompiledAlertRule {
+
+    private static final CompiledAlertRule NEVER = new CompiledAlertRule(null, new Parameter[0], new Operator[0], new double[0], false);
+
+    public enum Parameter {
+        TEMPERATURE,
+        EXTERNAL_TEMPERATURE,
+        HUMIDITY,
+        CO2,
+        SOUND_LEVEL,
+        WEIGHT;
+
+        double valueOf(SensorController.HiveSensorData sensorData) {
+            return switch (this) {
+                case TEMPERATURE -> sensorData.temperature;
+                case EXTERNAL_TEMPERATURE -> sensorData.externalTemperature;
+                case HUMIDITY -> sensorData.humidity;
+                case CO2 -> sensorData.co2;
+                case SOUND_LEVEL -> sensorData.soundLevel;
+                case WEIGHT -> sensorData.weight;
+            };
+        }
+
+        static Parameter fromName(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "temperature", "int. temperature", "int temperature" -> TEMPERATURE;
+                case "externaltemperature", "ext. temperature", "ext temperature" -> EXTERNAL_TEMPERATURE;
+                case "humidity" -> HUMIDITY;
+                case "co2" -> CO2;
+                case "sound", "soundlevel" -> SOUND_LEVEL;
+                case "weight" -> WEIGHT;
+                default -> null;
+            };
+        }
+    }
+
+    public enum Operator {
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL;
+
+        boolean test(double value, double threshold) {
+            return switch (this) {
+                case GREATER_THAN -> value > threshold;
+                case GREATER_THAN_OR_EQUAL -> value >= threshold;
+                case LESS_THAN -> value < threshold;
+                case LESS_THAN_OR_EQUAL -> value <= threshold;
+            };
+        }
+
+        static Operator fromSymbol(String symbol) {
+            return switch (symbol) {
+                case ">" -> GREATER_THAN;
+                case ">=" -> GREATER_THAN_OR_EQUAL;
+                case "<" -> LESS_THAN;
+                case "<=" -> LESS_THAN_OR_EQUAL;
+                default -> null;
+            };
+        }
+    }
+
+    private final String source;
+    private final Parameter[] parameters;
+    private final Operator[] operators;
+    private final double[] thresholds;
+    private final boolean valid;
+
+    private CompiledAlertRule(String source, Parameter[] parameters, Operator[] operators, double[] thresholds, boolean valid) {
+        this.source = source;
+        this.parameters = parameters;
+        this.operators = operators;
+        this.thresholds = thresholds;
+        this.valid = valid;
+    }
+
+    /**
+     * Parses trigger conditions JSON into a compiled rule
+     *
+     * @param triggerConditions JSON array of {parameter, operator, value} objects
+     * @param objectMapper Mapper used to read the JSON
+     * @return The compiled rule; a never-matching rule if the conditions are missing or invalid
+     */
+    public static CompiledAlertRule compile(String triggerConditions, ObjectMapper objectMapper) {
+        if (triggerConditions == null || triggerConditions.isEmpty()) {
+            return NEVER;
+        }
+
+        try {
+            JsonNode conditions = objectMapper.readTree(triggerConditions);
+            if (conditions == null || !conditions.isArray()) {
+                return invalid(triggerConditions);
+            }
+
+            int count = conditions.size();
+            Parameter[] parameters = new Parameter[count];
+            Operator[] operators = new Operator[count];
+            double[] thresholds = new double[count];
+
+            for (int i = 0; i < count; i++) {
+                JsonNode condition = conditions.get(i);
+                JsonNode parameter = condition.get("parameter");
+                JsonNode operator = condition.get("operator");
+                JsonNode value = condition.get("value");
+                if (parameter == null || !parameter.isTextual()
+                        || operator == null || !operator.isTextual()
+                        || value == null || !value.isNumber()) {
+                    return invalid(triggerConditions);
+                }
+
+                parameters[i] = Parameter.fromName(parameter.asText());
+                operators[i] = Operator.fromSymbol(operator.asText());
+                if (parameters[i] == null || operators[i] == null) {
+                    return invalid(triggerConditions);
+                }
+                thresholds[i] = value.doubleValue();
+            }
+
+            return new CompiledAlertRule(triggerConditions, parameters, operators, thresholds, true);
+        } catch (Exception e) {
+            return invalid(triggerConditions);
+        }
+    }
+
+    private static CompiledAlertRule invalid(String source) {
+        return new CompiledAlertRule(source, NEVER.parameters, NEVER.operators, NEVER.thresholds, false);
+    }
+
+    /**
+     * @return true if every condition is met by the sensor data
+     */
+    public boolean matches(SensorController.HiveSensorData sensorData) {
+        if (!valid || sensorData == null) {
+            return false;
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            if (!operators[i].test(parameters[i].valueOf(sensorData), thresholds[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether this rule was compiled from the given trigger conditions JSON
+     */
+    public boolean isCompiledFrom(String triggerConditions) {
+        return source == null ? triggerConditions == null || triggerConditions.isEmpty() : source.equals(triggerConditions);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public int getConditionCount() {
+        return parameters.length;
+    }
+}
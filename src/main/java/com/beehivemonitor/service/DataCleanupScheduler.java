@@ -1,14 +1,11 @@
 package com.beehivemonitor.service;
 
-import com.beehivemonitor.entity.SensorReading;
-import com.beehivemonitor.repository.SensorReadingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -23,7 +20,10 @@ public class DataCleanupScheduler {
     private static final Logger logger = LoggerFactory.getLogger(DataCleanupScheduler.class);
 
     @Autowired
-    private SensorReadingRepository sensorReadingRepository;
+    private DataRetentionService dataRetentionService;
+
+    @Autowired
+    private HiveSensorDataPartitionManager partitionManager;
 
     /**
      * Retention period in days for sensor readings.
@@ -33,6 +33,14 @@ public class DataCleanupScheduler {
     @Value("${data.retention.days:30}")
     private int retentionDays;
 
+    /**
+     * Retention period in days for raw hive sensor data (charts keep using the rollups afterwards).
+     * Configurable via application.properties: sensor.data.retention.days
+     * Default: 365 days
+     */
+    @Value("${sensor.data.retention.days:365}")
+    private int hiveSensorDataRetentionDays;
+
     /**
      * Cleanup interval in milliseconds.
      * Configurable via application.properties: data.cleanup.interval.ms
@@ -57,7 +65,6 @@ public class DataCleanupScheduler {
      * - Run again
      */
     @Scheduled(fixedDelayString = "${data.cleanup.interval.ms:86400000}", initialDelay = 3600000)
-    @Transactional
     public void cleanupOldSensorReadings() {
         logger.info("Starting scheduled cleanup of old sensor readings (retention: {} days)...", retentionDays);
         
@@ -66,23 +73,35 @@ public class DataCleanupScheduler {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
             logger.debug("Cutoff date for cleanup: {}", cutoffDate);
 
-            // Count readings that will be deleted
-            long countBeforeDeletion = sensorReadingRepository.countByTimestampBefore(cutoffDate);
+            // Deleted in bounded chunks, each in its own transaction
+            long deleted = dataRetentionService.purgeSensorReadings(cutoffDate);
             
-            if (countBeforeDeletion > 0) {
-                // Delete all sensor readings older than the cutoff date
-                sensorReadingRepository.deleteByTimestampBefore(cutoffDate);
-                
-                logger.info("Cleanup completed. Deleted {} old sensor readings (older than {} days)", 
-                    countBeforeDeletion, retentionDays);
-            } else {
-                logger.debug("Cleanup completed. No old sensor readings found to delete (retention: {} days)", 
-                    retentionDays);
-            }
+            logger.info("Cleanup completed. Deleted {} old sensor readings (older than {} days)", 
+                deleted, retentionDays);
 
         } catch (Exception e) {
             logger.error("Error during scheduled sensor readings cleanup: {}", e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * Removes raw hive sensor data older than the retention period.
+     * When hive_sensor_data is partitioned (sensor.data.partitioning.enabled), whole expired months are
+     * dropped first; the remaining expired rows are deleted in bounded chunks, rolling up any day that
+     * has no rollup yet.
+     */
+    @Scheduled(fixedDelayString = "${data.cleanup.interval.ms:86400000}", initialDelay = 3600000)
+    public void cleanupOldHiveSensorData() {
+        logger.info("Starting scheduled cleanup of old hive sensor data (retention: {} days)...", hiveSensorDataRetentionDays);
+
+        try {
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(hiveSensorDataRetentionDays);
+            int dropped = partitionManager.dropPartitionsBefore(cutoffDate);
+            long deleted = dataRetentionService.purgeHiveSensorData(cutoffDate);
+            logger.info("Cleanup completed. Dropped {} monthly partitions and deleted {} rows of hive sensor data "
+                + "(older than {} days)", dropped, deleted, hiveSensorDataRetentionDays);
+        } catch (Exception e) {
+            logger.error("Error during scheduled hive sensor data cleanup: {}", e.getMessage(), e);
+        }
+    }
+}
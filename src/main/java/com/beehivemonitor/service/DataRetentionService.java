@@ -0,0 +1,283 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.HiveSensorBlock;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import com.beehivemonitor.repository.SensorReadingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes expired rows of sensor_readings, hive_sensor_data and hive_sensor_block in bounded chunks.
+ * Every chunk is selected oldest first through an index, deleted by id in its own short transaction,
+ * and followed by a pause, so retention never holds long locks or builds a large undo log.
+ * Raw hive sensor data whose days have no rollup yet is rolled up before it is deleted,
+ * so charts keep covering the period. Blocks are only written with rollups in place and are deleted
+ * once they end before the cutoff.
+ */
+@Service
+public class DataRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataRetentionService.class);
+
+    static final String SENSOR_READINGS = "sensor_readings";
+    static final String HIVE_SENSOR_DATA = "hive_sensor_data";
+    static final String HIVE_SENSOR_BLOCK = "hive_sensor_block";
+
+    @Autowired
+    private SensorReadingRepository sensorReadingRepository;
+
+    @Autowired
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Autowired
+    private HiveSensorBlockRepository blockRepository;
+
+    @Autowired
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Autowired
+    private HiveSensorRollupService rollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Maximum number of rows deleted in one transaction.
+     * Configurable via application.properties: data.retention.chunk.size
+     */
+    @Value("${data.retention.chunk.size:1000}")
+    private int chunkSize;
+
+    /**
+     * Pause between two chunks in milliseconds, leaving room for the regular write load.
+     * Configurable via application.properties: data.retention.chunk.pause.ms
+     */
+    @Value("${data.retention.chunk.pause.ms:100}")
+    private long chunkPauseMs;
+
+    /**
+     * Whether hive sensor data of days without a rollup is rolled up before it is deleted.
+     * Configurable via application.properties: data.retention.rollup-before-delete
+     */
+    @Value("${data.retention.rollup-before-delete:true}")
+    private boolean rollupBeforeDelete;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter sensorReadingsDeleted;
+    private Counter hiveSensorDataDeleted;
+    private Counter hiveSensorBlocksDeleted;
+    private Counter hiveSensorDataRolledUp;
+    private Timer sensorReadingsTimer;
+    private Timer hiveSensorDataTimer;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sensorReadingsDeleted = deletedCounter(SENSOR_READINGS);
+        hiveSensorDataDeleted = deletedCounter(HIVE_SENSOR_DATA);
+        hiveSensorBlocksDeleted = deletedCounter(HIVE_SENSOR_BLOCK);
+        hiveSensorDataRolledUp = Counter.builder("data.retention.rows.rolled.up")
+            .description("Expired hive sensor data rows rolled up before deletion")
+            .register(meterRegistry);
+        sensorReadingsTimer = runTimer(SENSOR_READINGS);
+        hiveSensorDataTimer = runTimer(HIVE_SENSOR_DATA);
+    }
+
+    /**
+     * Deletes all sensor readings older than the cutoff, chunk by chunk
+     *
+     * @return Number of deleted rows
+     */
+    public long purgeSensorReadings(LocalDateTime cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long deleted = 0;
+        try {
+            while (true) {
+                Integer count = transactionTemplate.execute(status -> {
+                    List<UUID> ids = sensorReadingRepository.findIdsByTimestampBefore(cutoff, PageRequest.of(0, chunkSize));
+                    sensorReadingRepository.deleteAllByIdInBatch(ids);
+                    return ids.size();
+                });
+                deleted += count;
+                sensorReadingsDeleted.increment(count);
+                if (count < chunkSize || !pause()) {
+                    break;
+                }
+            }
+        } finally {
+            sample.stop(sensorReadingsTimer);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes all hive sensor data older than the cutoff, hive by hive and chunk by chunk
+     *
+     * @return Number of deleted rows (blocks not included)
+     */
+    public long purgeHiveSensorData(LocalDateTime cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long deleted = 0;
+        try {
+            for (UUID hiveId : findHiveIds()) {
+                deleted += purgeHive(hiveId, cutoff);
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        } finally {
+            sample.stop(hiveSensorDataTimer);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the hive's data older than the cutoff, chunk by chunk
+     *
+     * @return Number of deleted rows (blocks not included)
+     */
+    public long purgeHiveSensorData(UUID hiveId, LocalDateTime cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return purgeHive(hiveId, cutoff);
+        } finally {
+            sample.stop(hiveSensorDataTimer);
+        }
+    }
+
+    /**
+     * @return Ids of the hives with raw sensor data, stored as rows or as blocks
+     */
+    public Set<UUID> findHiveIds() {
+        Set<UUID> hiveIds = new LinkedHashSet<>(hiveSensorDataRepository.findDistinctHiveIds());
+        hiveIds.addAll(blockRepository.findDistinctHiveIds());
+        return hiveIds;
+    }
+
+    private long purgeHive(UUID hiveId, LocalDateTime cutoff) {
+        long deleted = purgeRows(hiveId, cutoff);
+        if (!Thread.currentThread().isInterrupted()) {
+            purgeBlocks(hiveId, cutoff);
+        }
+        return deleted;
+    }
+
+    private long purgeRows(UUID hiveId, LocalDateTime cutoff) {
+        // Days rolled up during this run: their later chunks must be rolled up too,
+        // although a bucket exists for them by then
+        Set<LocalDateTime> rolledUpDays = new HashSet<>();
+        long deleted = 0;
+        while (true) {
+            List<HiveSensorData> chunk = hiveSensorDataRepository.findByHiveIdAndTimestampBefore(
+                hiveId, cutoff, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return deleted;
+            }
+            if (rollupBeforeDelete) {
+                rollUpMissing(hiveId, chunk, rolledUpDays);
+            }
+            List<UUID> ids = chunk.stream().map(HiveSensorData::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> hiveSensorDataRepository.deleteAllByIdInBatch(ids));
+            deleted += ids.size();
+            hiveSensorDataDeleted.increment(ids.size());
+            if (chunk.size() < chunkSize || !pause()) {
+                return deleted;
+            }
+        }
+    }
+
+    private void purgeBlocks(UUID hiveId, LocalDateTime cutoff) {
+        // Only blocks ending at or before the cutoff
+        LocalDateTime lastBlockStart = cutoff.minusMinutes(HiveSensorBlock.BLOCK_MINUTES);
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<UUID> ids = blockRepository.findIdsUpTo(hiveId, lastBlockStart, PageRequest.of(0, chunkSize));
+                blockRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            hiveSensorBlocksDeleted.increment(count);
+            if (count < chunkSize || !pause()) {
+                return;
+            }
+        }
+    }
+
+    private void rollUpMissing(UUID hiveId, List<HiveSensorData> chunk, Set<LocalDateTime> rolledUpDays) {
+        HiveSensorRollup.Resolution daily = HiveSensorRollup.Resolution.DAILY;
+        Set<LocalDateTime> days = chunk.stream()
+            .map(data -> daily.bucketStart(data.getTimestamp()))
+            .filter(day -> !rolledUpDays.contains(day))
+            .collect(Collectors.toSet());
+        if (!days.isEmpty()) {
+            Set<LocalDateTime> existing = rollupRepository.findBuckets(daily, Set.of(hiveId), days).stream()
+                .map(HiveSensorRollup::getBucketStart)
+                .collect(Collectors.toSet());
+            days.removeAll(existing);
+            rolledUpDays.addAll(days);
+        }
+
+        List<HiveSensorData> missing = chunk.stream()
+            .filter(data -> rolledUpDays.contains(daily.bucketStart(data.getTimestamp())))
+            .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            rollupService.apply(missing);
+            hiveSensorDataRolledUp.increment(missing.size());
+        }
+    }
+
+    /**
+     * @return false if the thread was interrupted and the purge should stop
+     */
+    private boolean pause() {
+        if (chunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Retention interrupted, remaining rows are deleted on the next run");
+            return false;
+        }
+    }
+
+    private Counter deletedCounter(String table) {
+        return Counter.builder("data.retention.rows.deleted")
+            .description("Rows deleted by retention")
+            .tag("table", table)
+            .register(meterRegistry);
+    }
+
+    private Timer runTimer(String table) {
+        return Timer.builder("data.retention.run")
+            .description("Duration of one retention run")
+            .tag("table", table)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,231 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.entity.HiveSensorBlock;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Block storage mode for raw hive sensor data (sensor.storage.blocks.enabled).
+ * Written samples are grouped per hive and hour and merged into one {@link HiveSensorBlock} row each,
+ * encoded with {@link SensorBlockCodec}; reads decode the blocks of the requested period.
+ * Rows written before the mode was switched on stay in hive_sensor_data and are merged on read.
+ */
+@Service
+public class HiveSensorBlockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorBlockService.class);
+
+    // One week of hourly blocks per query
+    private static final int READ_PAGE_SIZE = 168;
+
+    @Autowired
+    private HiveSensorBlockRepository blockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Whether raw hive sensor data is written as hourly blocks instead of one row per sample.
+     * Configurable via application.properties: sensor.storage.blocks.enabled
+     */
+    @Value("${sensor.storage.blocks.enabled:false}")
+    private boolean enabled;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds written samples to their hourly blocks in one transaction, retrying once when a concurrent
+     * writer changed one of the blocks
+     */
+    public void append(List<HiveSensorData> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> merge(samples));
+        } catch (RuntimeException first) {
+            // A concurrent writer created or updated one of the blocks; retry once against fresh rows
+            logger.debug("Retrying hive sensor block update after conflict: {}", first.getMessage());
+            transactionTemplate.executeWithoutResult(status -> merge(samples));
+        }
+    }
+
+    private void merge(List<HiveSensorData> samples) {
+        Map<BlockKey, List<HiveSensorSample>> grouped = new HashMap<>();
+        for (HiveSensorData sample : samples) {
+            BlockKey key = new BlockKey(sample.getHive().getId(), HiveSensorBlock.blockStart(sample.getTimestamp()));
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(toSample(sample));
+        }
+
+        Set<UUID> hiveIds = new HashSet<>();
+        Set<LocalDateTime> blockStarts = new HashSet<>();
+        grouped.keySet().forEach(key -> {
+            hiveIds.add(key.hiveId());
+            blockStarts.add(key.blockStart());
+        });
+        Map<BlockKey, HiveSensorBlock> blocks = new HashMap<>();
+        for (HiveSensorBlock existing : blockRepository.findBlocks(hiveIds, blockStarts)) {
+            blocks.put(new BlockKey(existing.getHiveId(), existing.getBlockStart()), existing);
+        }
+
+        List<HiveSensorBlock> toSave = new ArrayList<>(grouped.size());
+        for (Map.Entry<BlockKey, List<HiveSensorSample>> entry : grouped.entrySet()) {
+            HiveSensorBlock block = blocks.get(entry.getKey());
+            List<HiveSensorSample> blockSamples = entry.getValue();
+            if (block == null) {
+                block = new HiveSensorBlock();
+                block.setHiveId(entry.getKey().hiveId());
+                block.setBlockStart(entry.getKey().blockStart());
+            } else {
+                blockSamples.addAll(SensorBlockCodec.decode(block.getBlockStart(), block.getData()));
+            }
+            blockSamples.sort(Comparator.comparing(HiveSensorSample::timestamp));
+            block.setSampleCount(blockSamples.size());
+            block.setData(SensorBlockCodec.encode(block.getBlockStart(), blockSamples));
+            toSave.add(block);
+        }
+        blockRepository.saveAll(toSave);
+    }
+
+    private static HiveSensorSample toSample(HiveSensorData data) {
+        return new HiveSensorSample(data.getTimestamp(), data.getTemperature(), data.getExternalTemperature(),
+            data.getHumidity(), data.getCo2(), data.getSoundLevel(), data.getWeight());
+    }
+
+    /**
+     * Streams the hive's samples in [startDate, endDate] in timestamp order, loading a week of blocks at a time.
+     * Must be consumed inside a transaction.
+     *
+     * @param startDate Start of the period, or null to read from the first block
+     */
+    public Stream<HiveSensorSample> stream(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime toBlock = HiveSensorBlock.blockStart(endDate);
+        Function<Pageable, List<HiveSensorBlock>> pages = startDate == null
+            ? page -> blockRepository.findUpTo(hiveId, toBlock, page)
+            : page -> blockRepository.findRange(hiveId, HiveSensorBlock.blockStart(startDate), toBlock, page);
+        Iterator<HiveSensorSample> iterator = new BlockIterator(pages, startDate, endDate);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Merges two iterators that are each in timestamp order into one
+     */
+    public static Iterator<HiveSensorSample> mergeByTimestamp(Iterator<HiveSensorSample> first,
+                                                              Iterator<HiveSensorSample> second) {
+        return new Iterator<>() {
+            private HiveSensorSample nextFirst = first.hasNext() ? first.next() : null;
+            private HiveSensorSample nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public HiveSensorSample next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                HiveSensorSample result;
+                if (nextSecond == null || (nextFirst != null && !nextFirst.timestamp().isAfter(nextSecond.timestamp()))) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    private static final class BlockIterator implements Iterator<HiveSensorSample> {
+
+        private final Function<Pageable, List<HiveSensorBlock>> pages;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private int page;
+        private boolean lastPage;
+        private Iterator<HiveSensorBlock> blocks = List.<HiveSensorBlock>of().iterator();
+        private Iterator<HiveSensorSample> samples = List.<HiveSensorSample>of().iterator();
+        private HiveSensorSample next;
+
+        BlockIterator(Function<Pageable, List<HiveSensorBlock>> pages, LocalDateTime startDate, LocalDateTime endDate) {
+            this.pages = pages;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (samples.hasNext()) {
+                    HiveSensorSample sample = samples.next();
+                    if ((startDate == null || !sample.timestamp().isBefore(startDate)) && !sample.timestamp().isAfter(endDate)) {
+                        next = sample;
+                    }
+                } else if (blocks.hasNext()) {
+                    HiveSensorBlock block = blocks.next();
+                    samples = SensorBlockCodec.decode(block.getBlockStart(), block.getData()).iterator();
+                } else if (!lastPage) {
+                    List<HiveSensorBlock> loaded = pages.apply(PageRequest.of(page++, READ_PAGE_SIZE));
+                    lastPage = loaded.size() < READ_PAGE_SIZE;
+                    blocks = loaded.iterator();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public HiveSensorSample next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            HiveSensorSample result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private record BlockKey(UUID hiveId, LocalDateTime blockStart) {
+    }
+}
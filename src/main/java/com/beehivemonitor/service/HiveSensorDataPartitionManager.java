@@ -0,0 +1,164 @@
+package com.beehivemonitor.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Manages the optional monthly RANGE partitions of hive_sensor_data on MySQL.
+ * The table is converted once with db/mysql/hive_sensor_data_partitioning.sql; from then on this
+ * service keeps partitions for the coming months available by splitting the catch-all partition
+ * (pmax), and retention drops whole expired months instead of deleting rows.
+ * Partitions are named p + yyyyMM of the month they hold.
+ */
+@Service
+public class HiveSensorDataPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorDataPartitionManager.class);
+
+    static final String TABLE = "hive_sensor_data";
+    static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter BOUNDARY = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether hive_sensor_data is partitioned by month (MySQL only, after running the migration).
+     * Configurable via application.properties: sensor.data.partitioning.enabled
+     */
+    @Value("${sensor.data.partitioning.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Number of future months that always have their own partition.
+     * Configurable via application.properties: sensor.data.partitioning.months-ahead
+     */
+    @Value("${sensor.data.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${sensor.data.partitioning.cron:0 30 2 * * ?}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int created = createUpcomingPartitions(YearMonth.now());
+            if (created > 0) {
+                logger.info("Created {} monthly partitions of {}", created, TABLE);
+            }
+        } catch (Exception e) {
+            logger.error("Error creating partitions of {}: {}", TABLE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Splits pmax so that every month up to currentMonth + monthsAhead has its own partition
+     *
+     * @return Number of partitions created
+     */
+    int createUpcomingPartitions(YearMonth currentMonth) {
+        List<YearMonth> months = getPartitionMonths();
+        if (months.isEmpty()) {
+            logger.warn("{} has no monthly partitions; run db/mysql/hive_sensor_data_partitioning.sql "
+                + "or disable sensor.data.partitioning.enabled", TABLE);
+            return 0;
+        }
+
+        YearMonth last = months.get(months.size() - 1);
+        YearMonth target = currentMonth.plusMonths(monthsAhead);
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + partitionName(month)
+                + " VALUES LESS THAN ('" + upperBound(month).format(BOUNDARY) + "')");
+        }
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+            + " INTO (" + String.join(", ", definitions) + ")");
+        return definitions.size() - 1;
+    }
+
+    /**
+     * Drops the monthly partitions whose rows are all older than the cutoff.
+     * Dropping a partition is a metadata operation, independent of the number of rows it holds.
+     *
+     * @return Number of partitions dropped; 0 when partitioning is disabled
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        if (!enabled) {
+            return 0;
+        }
+        List<YearMonth> expired = getPartitionMonths().stream()
+            .filter(month -> !upperBound(month).isAfter(cutoff))
+            .collect(Collectors.toList());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        String names = expired.stream().map(HiveSensorDataPartitionManager::partitionName)
+            .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + names);
+        logger.info("Dropped partitions {} of {} (older than {})", names, TABLE, cutoff);
+        return expired.size();
+    }
+
+    /**
+     * Months that have their own partition, oldest first (pmax and foreign names are ignored)
+     */
+    List<YearMonth> getPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                + "ORDER BY PARTITION_ORDINAL_POSITION",
+            String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            try {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            } catch (DateTimeParseException e) {
+                logger.debug("Ignoring partition {} of {}", name, TABLE);
+            }
+        }
+        return months;
+    }
+
+    static String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+
+    /**
+     * Exclusive upper bound of a month's partition: the first instant of the next month
+     */
+    static LocalDateTime upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,258 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous write pipeline for historical hive sensor data.
+ * Rows are buffered in a bounded in-memory queue and written in JDBC batches
+ * by a single background flusher thread. A batch is flushed as soon as it is full
+ * or when the flush interval has elapsed since its first row was taken.
+ *
+ * When the queue is full, producers wait up to the configured offer timeout
+ * (backpressure); rows that still cannot be queued are dropped and counted.
+ */
+@Service
+public class HiveSensorDataWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorDataWriter.class);
+
+    @Autowired
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Autowired
+    private HiveSensorRollupService rollupService;
+
+    @Autowired
+    private HiveSensorBlockService blockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Maximum number of rows waiting to be written.
+     * Configurable via application.properties: sensor.ingest.queue.capacity
+     */
+    @Value("${sensor.ingest.queue.capacity:10000}")
+    private int queueCapacity;
+
+    /**
+     * Maximum number of rows written in one transaction.
+     * Should match spring.jpa.properties.hibernate.jdbc.batch_size
+     */
+    @Value("${sensor.ingest.batch.size:500}")
+    private int batchSize;
+
+    /**
+     * Maximum time a queued row waits before its batch is flushed
+     */
+    @Value("${sensor.ingest.flush.interval.ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * How long a producer blocks on a full queue before the row is dropped
+     */
+    @Value("${sensor.ingest.offer.timeout.ms:100}")
+    private long offerTimeoutMs;
+
+    /**
+     * How long a background producer of a whole batch (the scheduled ingest) waits on a full queue
+     * before the rest of the batch is dropped.
+     * Configurable via application.properties: sensor.ingest.batch.offer.timeout.ms
+     */
+    @Value("${sensor.ingest.batch.offer.timeout.ms:5000}")
+    private long batchOfferTimeoutMs;
+
+    private BlockingQueue<HiveSensorData> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Counter writtenRows;
+    private Counter droppedRows;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("sensor.ingest.queue.depth", queue, BlockingQueue::size)
+            .description("Hive sensor data rows waiting to be written")
+            .register(meterRegistry);
+        writtenRows = Counter.builder("sensor.ingest.rows.written")
+            .description("Hive sensor data rows written to the database")
+            .register(meterRegistry);
+        droppedRows = Counter.builder("sensor.ingest.rows.dropped")
+            .description("Hive sensor data rows dropped because the queue was full or the write failed")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("sensor.ingest.flush")
+            .description("Latency of writing one batch of hive sensor data")
+            .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "hive-sensor-data-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher after writing everything that is still queued
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(flushIntervalMs * 2 + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a row for writing. Blocks for at most the offer timeout when the queue is full.
+     *
+     * @param sensorData The row to write
+     * @return true if the row was queued, false if it was dropped
+     */
+    public boolean enqueue(HiveSensorData sensorData) {
+        try {
+            if (queue.offer(sensorData, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedRows.increment();
+        logger.debug("Hive sensor data queue is full, dropping row for hive {}",
+            sensorData.getHive() != null ? sensorData.getHive().getId() : null);
+        return false;
+    }
+
+    /**
+     * Queues a batch of rows for writing. Unlike {@link #enqueue(HiveSensorData)}, which is called on request
+     * threads, this is meant for background producers: it waits up to the batch offer timeout in total for
+     * space in the queue, so a slow database slows the producer down instead of losing its rows.
+     *
+     * @param rows The rows to write
+     * @return Number of rows queued; the remaining rows were dropped
+     */
+    public int enqueueAll(List<HiveSensorData> rows) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchOfferTimeoutMs);
+        int queued = 0;
+        try {
+            for (HiveSensorData row : rows) {
+                long remaining = deadline - System.nanoTime();
+                if (!queue.offer(row, Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                queued++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (queued < rows.size()) {
+            droppedRows.increment(rows.size() - queued);
+            logger.warn("Hive sensor data queue is full, dropped {} of {} ingested rows", rows.size() - queued, rows.size());
+        }
+        return queued;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        // Keep going after stop() until the queue has been drained
+        while (running || !queue.isEmpty()) {
+            List<HiveSensorData> batch = new ArrayList<>(batchSize);
+            try {
+                HiveSensorData first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    HiveSensorData next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeBatch(batch);
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in hive sensor data writer: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes rows synchronously in a single transaction, bypassing the queue.
+     * Used by the flusher for every batch taken from the queue.
+     * Written rows are then added to the rollups used by the charts.
+     *
+     * @param batch The rows to write
+     * @return Number of rows written (0 if the write failed)
+     */
+    public int writeBatch(List<HiveSensorData> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (blockService.isEnabled()) {
+                blockService.append(batch);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> hiveSensorDataRepository.saveAll(batch));
+            }
+            writtenRows.increment(batch.size());
+        } catch (Exception e) {
+            droppedRows.increment(batch.size());
+            logger.error("Failed to write batch of {} hive sensor data rows: {}", batch.size(), e.getMessage(), e);
+            return 0;
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        rollupService.apply(batch);
+        return batch.size();
+    }
+}
@@ -0,0 +1,362 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.entity.HiveSensorRollupBackfill;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import com.beehivemonitor.repository.HiveSensorRollupBackfillRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the 5-minute, hourly and daily rollups of historical hive sensor data
+ * and serves charts from them.
+ * Every written batch is aggregated in memory per (hive, resolution, bucket) and merged into
+ * the existing buckets with one read query per resolution and one batched write.
+ * Batches of different hives are merged in parallel; batches sharing a hive take turns.
+ */
+@Service
+public class HiveSensorRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorRollupService.class);
+
+    private static final int BACKFILL_PAGE_SIZE = 5000;
+    private static final int BACKFILL_MAX_FAILURES = 3;
+    private static final int HIVE_LOCK_STRIPES = 64;
+
+    @Autowired
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Autowired
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Autowired
+    private HiveSensorRollupBackfillRepository backfillRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Maximum number of points returned for one chart; the finest resolution staying
+     * within this limit is used.
+     * Configurable via application.properties: graphics.max.points
+     */
+    @Value("${graphics.max.points:500}")
+    private int maxPoints;
+
+    /**
+     * Maximum number of rows loaded for a chart that the caller downsamples to its own point count;
+     * the finest resolution staying within this limit is used.
+     * Configurable via application.properties: graphics.downsample.max.rows
+     */
+    @Value("${graphics.downsample.max.rows:5000}")
+    private int maxDownsampleRows;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter failedBatches;
+
+    // Lock stripes by hive id; a batch locks the stripes of its hives in ascending order
+    private final ReentrantLock[] hiveLocks = new ReentrantLock[HIVE_LOCK_STRIPES];
+
+    // Raw data older than this existed before rollups were introduced and is rolled up on startup
+    private boolean backfillPending;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        failedBatches = Counter.builder("sensor.rollup.failures")
+            .description("Write batches whose rollups could not be updated")
+            .register(meterRegistry);
+        for (int i = 0; i < hiveLocks.length; i++) {
+            hiveLocks[i] = new ReentrantLock();
+        }
+        backfillPending = initBackfill();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillPending) {
+            return;
+        }
+        Thread thread = new Thread(this::backfill, "hive-sensor-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts the backfill when raw data exists but no rollups yet, and resumes an unfinished one
+     *
+     * @return Whether there is raw data left to backfill
+     */
+    private boolean initBackfill() {
+        HiveSensorRollupBackfill state = backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID).orElse(null);
+        if (state == null) {
+            if (rollupRepository.count() > 0 || hiveSensorDataRepository.count() == 0) {
+                return false;
+            }
+            try {
+                state = backfillRepository.save(new HiveSensorRollupBackfill(LocalDateTime.now()));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance started the backfill at the same time
+                state = backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID).orElseThrow();
+            }
+        }
+        return state.getCompletedAt() == null;
+    }
+
+    /**
+     * Adds written samples to their buckets. Failures are logged and counted, never thrown,
+     * because the raw data has already been stored.
+     */
+    public void apply(List<HiveSensorData> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, HiveSensorRollup> aggregated = aggregate(samples);
+        try {
+            merge(aggregated);
+        } catch (RuntimeException first) {
+            // A concurrent writer created or updated one of the buckets; retry once against fresh rows
+            logger.debug("Retrying rollup update after conflict: {}", first.getMessage());
+            try {
+                merge(aggregate(samples));
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                logger.error("Failed to update rollups for {} hive sensor data rows: {}", samples.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return The finest resolution giving at most the configured number of points for the period
+     */
+    public HiveSensorRollup.Resolution selectResolution(LocalDateTime startDate, LocalDateTime endDate) {
+        return selectResolution(startDate, endDate, maxPoints);
+    }
+
+    /**
+     * @return The finest resolution giving at most the configured number of rows to downsample for the period
+     */
+    public HiveSensorRollup.Resolution selectDownsamplingResolution(LocalDateTime startDate, LocalDateTime endDate) {
+        return selectResolution(startDate, endDate, maxDownsampleRows);
+    }
+
+    public List<HiveSensorRollup> getRollups(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getRollups(hiveId, selectResolution(startDate, endDate), startDate, endDate);
+    }
+
+    /**
+     * Rollups for a chart the caller downsamples itself (e.g. with LTTB), at a finer resolution than
+     * {@link #getRollups} so that the downsampled series can have more points than the plain chart
+     */
+    public List<HiveSensorRollup> getRollupsForDownsampling(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getRollups(hiveId, selectDownsamplingResolution(startDate, endDate), startDate, endDate);
+    }
+
+    private HiveSensorRollup.Resolution selectResolution(LocalDateTime startDate, LocalDateTime endDate, int maxRows) {
+        long minutes = Duration.between(startDate, endDate).toMinutes();
+        for (HiveSensorRollup.Resolution resolution : HiveSensorRollup.Resolution.values()) {
+            if (minutes / resolution.getMinutes() <= maxRows) {
+                return resolution;
+            }
+        }
+        return HiveSensorRollup.Resolution.DAILY;
+    }
+
+    private List<HiveSensorRollup> getRollups(UUID hiveId, HiveSensorRollup.Resolution resolution,
+                                              LocalDateTime startDate, LocalDateTime endDate) {
+        return rollupRepository.findForChart(hiveId, resolution, resolution.bucketStart(startDate), endDate);
+    }
+
+    private Map<BucketKey, HiveSensorRollup> aggregate(List<HiveSensorData> samples) {
+        Map<BucketKey, HiveSensorRollup> aggregated = new HashMap<>();
+        for (HiveSensorData sample : samples) {
+            UUID hiveId = sample.getHive().getId();
+            for (HiveSensorRollup.Resolution resolution : HiveSensorRollup.Resolution.values()) {
+                BucketKey key = new BucketKey(hiveId, resolution, resolution.bucketStart(sample.getTimestamp()));
+                HiveSensorRollup rollup = aggregated.get(key);
+                if (rollup == null) {
+                    aggregated.put(key, HiveSensorRollup.of(hiveId, resolution, sample));
+                } else {
+                    rollup.add(sample);
+                }
+            }
+        }
+        return aggregated;
+    }
+
+    private void merge(Map<BucketKey, HiveSensorRollup> aggregated) {
+        Set<UUID> hiveIds = new HashSet<>();
+        aggregated.keySet().forEach(key -> hiveIds.add(key.hiveId()));
+        withHiveLocks(hiveIds, () -> transactionTemplate.executeWithoutResult(status -> mergeRows(aggregated)));
+    }
+
+    /**
+     * Merges aggregated buckets into the stored ones in the current transaction
+     */
+    private void mergeRows(Map<BucketKey, HiveSensorRollup> aggregated) {
+        List<HiveSensorRollup> toSave = new ArrayList<>(aggregated.size());
+        Map<BucketKey, HiveSensorRollup> pending = new HashMap<>(aggregated);
+        for (HiveSensorRollup.Resolution resolution : HiveSensorRollup.Resolution.values()) {
+            Set<UUID> hiveIds = new HashSet<>();
+            Set<LocalDateTime> bucketStarts = new HashSet<>();
+            aggregated.keySet().stream()
+                .filter(key -> key.resolution() == resolution)
+                .forEach(key -> {
+                    hiveIds.add(key.hiveId());
+                    bucketStarts.add(key.bucketStart());
+                });
+            for (HiveSensorRollup existing : rollupRepository.findBuckets(resolution, hiveIds, bucketStarts)) {
+                HiveSensorRollup delta = pending.remove(
+                    new BucketKey(existing.getHiveId(), resolution, existing.getBucketStart()));
+                if (delta != null) {
+                    existing.merge(delta);
+                    toSave.add(existing);
+                }
+            }
+        }
+        toSave.addAll(pending.values());
+        rollupRepository.saveAll(toSave);
+    }
+
+    /**
+     * Runs the action while holding the locks of the given hives, so that concurrent batches
+     * of the same hive do not read and update a bucket at the same time
+     */
+    private void withHiveLocks(Set<UUID> hiveIds, Runnable action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (UUID hiveId : hiveIds) {
+            stripes.add(Math.floorMod(hiveId.hashCode(), HIVE_LOCK_STRIPES));
+        }
+        List<ReentrantLock> locked = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = hiveLocks[stripe];
+                lock.lock();
+                locked.add(lock);
+            }
+            action.run();
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Rolls up the raw data written before the backfill cutoff, hive by hive in pages.
+     * Each page and the advanced cursor are committed together; on repeated failures the backfill
+     * stops and resumes from the cursor on the next startup.
+     */
+    void backfill() {
+        List<UUID> hiveIds = new ArrayList<>(new TreeSet<>(hiveSensorDataRepository.findDistinctHiveIds()));
+        logger.info("Backfilling hive sensor rollups for {} hives", hiveIds.size());
+        long rows = 0;
+        int failures = 0;
+        while (true) {
+            HiveSensorRollupBackfill peek = backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID).orElse(null);
+            if (peek == null || peek.getCompletedAt() != null) {
+                break;
+            }
+            UUID hiveId = peek.getHiveId() != null ? peek.getHiveId() : (hiveIds.isEmpty() ? null : hiveIds.get(0));
+            try {
+                int[] pageRows = new int[1];
+                withHiveLocks(hiveId != null ? Set.of(hiveId) : Set.of(),
+                    () -> pageRows[0] = transactionTemplate.execute(status -> backfillPage(hiveIds)));
+                rows += pageRows[0];
+                failures = 0;
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                if (++failures >= BACKFILL_MAX_FAILURES) {
+                    logger.error("Hive sensor rollup backfill stopped after {} rows, resuming on next startup: {}",
+                        rows, e.getMessage(), e);
+                    return;
+                }
+                logger.warn("Retrying hive sensor rollup backfill page: {}", e.getMessage());
+            }
+        }
+        logger.info("Hive sensor rollup backfill completed for {} rows", rows);
+    }
+
+    /**
+     * Rolls up the page after the stored cursor and advances the cursor, in the caller's transaction
+     *
+     * @param hiveIds Hives with raw data, in ascending order
+     * @return Number of rows rolled up
+     */
+    private int backfillPage(List<UUID> hiveIds) {
+        HiveSensorRollupBackfill state = backfillRepository.findByIdForUpdate(HiveSensorRollupBackfill.SINGLETON_ID)
+            .orElseThrow(() -> new RuntimeException("Rollup backfill state not found"));
+        if (state.getCompletedAt() != null) {
+            return 0;
+        }
+        if (state.getHiveId() == null) {
+            if (hiveIds.isEmpty()) {
+                state.setCompletedAt(LocalDateTime.now());
+                return 0;
+            }
+            state.setHiveId(hiveIds.get(0));
+        }
+
+        PageRequest page = PageRequest.of(0, BACKFILL_PAGE_SIZE);
+        List<HiveSensorData> rows = state.getLastTimestamp() == null
+            ? hiveSensorDataRepository.findByHiveIdAndTimestampBefore(state.getHiveId(), state.getCutoff(), page)
+            : hiveSensorDataRepository.findByHiveIdAndTimestampBeforeAfter(
+                state.getHiveId(), state.getCutoff(), state.getLastTimestamp(), state.getLastId(), page);
+        if (!rows.isEmpty()) {
+            mergeRows(aggregate(rows));
+            HiveSensorData last = rows.get(rows.size() - 1);
+            state.setLastTimestamp(last.getTimestamp());
+            state.setLastId(last.getId());
+        }
+        if (rows.size() < BACKFILL_PAGE_SIZE) {
+            // Hive done; continue with the next hive in id order
+            UUID next = null;
+            for (UUID hiveId : hiveIds) {
+                if (hiveId.compareTo(state.getHiveId()) > 0) {
+                    next = hiveId;
+                    break;
+                }
+            }
+            state.setHiveId(next);
+            state.setLastTimestamp(null);
+            state.setLastId(null);
+            if (next == null) {
+                state.setCompletedAt(LocalDateTime.now());
+            }
+        }
+        backfillRepository.save(state);
+        return rows.size();
+    }
+
+    private record BucketKey(UUID hiveId, HiveSensorRollup.Resolution resolution, LocalDateTime bucketStart) {
+    }
+}
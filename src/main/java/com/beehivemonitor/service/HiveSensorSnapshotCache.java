@@ -0,0 +1,200 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store of the latest realtime sensor snapshot per hive.
+ * Filled by the ingest path and by realtime fetches, read by the realtime endpoints
+ * and alert evaluation so that repeated reads need no DB query or microservice call.
+ *
+ * Snapshots older than the configured maximum age are treated as missing.
+ * The full-map view is only served once a refresh has covered every hive;
+ * creating a hive invalidates it until the next full refresh.
+ *
+ * A full refresh reads the hives before it stores their snapshots, so it is started with
+ * {@link #startRefresh()}: a refresh that overlaps an invalidation or eviction is not stored,
+ * as it may have read the hives before the change, and snapshots put after the refresh
+ * started are kept.
+ */
+@Service
+public class HiveSensorSnapshotCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Maximum age of a snapshot before it is considered stale. 0 disables the cache.
+     * Configurable via application.properties: sensor.snapshot.max-age.seconds
+     */
+    @Value("${sensor.snapshot.max-age.seconds:120}")
+    private long maxAgeSeconds;
+
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Whether the map holds an entry for every hive (set by a full refresh)
+    private volatile boolean complete;
+
+    // Incremented on every invalidation and eviction; a refresh that overlaps one is discarded
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("sensor.snapshot.cache.hits")
+            .description("Realtime sensor reads served from the snapshot cache")
+            .register(meterRegistry);
+        misses = Counter.builder("sensor.snapshot.cache.misses")
+            .description("Realtime sensor reads that needed a fetch")
+            .register(meterRegistry);
+        Gauge.builder("sensor.snapshot.cache.size", snapshots, Map::size)
+            .description("Hives with a cached sensor snapshot")
+            .register(meterRegistry);
+        Gauge.builder("sensor.snapshot.cache.oldest.age.seconds", this, HiveSensorSnapshotCache::getOldestAgeSeconds)
+            .description("Age of the oldest cached sensor snapshot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stores the latest snapshot for a hive
+     */
+    public void put(UUID hiveId, SensorController.HiveSensorData sensorData) {
+        snapshots.put(hiveId, new Snapshot(sensorData, System.currentTimeMillis()));
+    }
+
+    /**
+     * Starts a full refresh; call before reading the hives whose snapshots are passed to {@link #putAll}
+     */
+    public Refresh startRefresh() {
+        return new Refresh(generation.get(), System.currentTimeMillis());
+    }
+
+    /**
+     * Replaces the cache contents with a snapshot of every hive.
+     * Hives missing from the map (e.g. deleted) are evicted. Nothing is stored if a hive was created
+     * or deleted since the refresh started, and snapshots put since then are not overwritten.
+     */
+    public synchronized void putAll(Refresh refresh, Map<UUID, SensorController.HiveSensorData> sensorData) {
+        if (refresh == null || refresh.generation() != generation.get()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        sensorData.forEach((hiveId, data) -> snapshots.compute(hiveId, (id, current) ->
+            current != null && current.capturedAtMillis() > refresh.startedAtMillis() ? current : new Snapshot(data, now)));
+        snapshots.entrySet().removeIf(entry ->
+            !sensorData.containsKey(entry.getKey()) && entry.getValue().capturedAtMillis() <= refresh.startedAtMillis());
+        complete = true;
+    }
+
+    /**
+     * @return The fresh snapshot for the hive, or null if missing or stale
+     */
+    public SensorController.HiveSensorData get(UUID hiveId) {
+        Snapshot snapshot = snapshots.get(hiveId);
+        if (snapshot == null || isStale(snapshot, System.currentTimeMillis())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return snapshot.data();
+    }
+
+    /**
+     * @return Fresh snapshots of every hive, or null if the cache is incomplete or any entry is stale
+     */
+    public Map<UUID, SensorController.HiveSensorData> getAll() {
+        if (!complete || snapshots.isEmpty()) {
+            misses.increment();
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, SensorController.HiveSensorData> result = new HashMap<>(snapshots.size() * 2);
+        for (Map.Entry<UUID, Snapshot> entry : snapshots.entrySet()) {
+            if (isStale(entry.getValue(), now)) {
+                misses.increment();
+                return null;
+            }
+            result.put(entry.getKey(), entry.getValue().data());
+        }
+        hits.increment();
+        return result;
+    }
+
+    /**
+     * Removes a hive's snapshot (e.g. when the hive is deleted).
+     * Inside a transaction it is removed again after commit, so a refresh that read the hive
+     * before the commit cannot put it back.
+     */
+    public void evict(UUID hiveId) {
+        discard(hiveId);
+        afterCommit(() -> discard(hiveId));
+    }
+
+    /**
+     * Marks the full-map view incomplete (e.g. when a hive is created)
+     * so that the next read of all hives triggers a fetch; again after commit inside a transaction
+     */
+    public void invalidate() {
+        discard(null);
+        afterCommit(() -> discard(null));
+    }
+
+    double getOldestAgeSeconds() {
+        long now = System.currentTimeMillis();
+        long oldest = snapshots.values().stream()
+            .mapToLong(Snapshot::capturedAtMillis)
+            .min()
+            .orElse(now);
+        return (now - oldest) / 1000.0;
+    }
+
+    private synchronized void discard(UUID hiveId) {
+        generation.incrementAndGet();
+        if (hiveId != null) {
+            snapshots.remove(hiveId);
+        } else {
+            complete = false;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private boolean isStale(Snapshot snapshot, long now) {
+        return now - snapshot.capturedAtMillis() >= maxAgeSeconds * 1000;
+    }
+
+    /**
+     * Generation and start time of a full refresh
+     */
+    public record Refresh(long generation, long startedAtMillis) {
+    }
+
+    private record Snapshot(SensorController.HiveSensorData data, long capturedAtMillis) {
+    }
+}
@@ -3,6 +3,9 @@ package com.beehivemonitor.service;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
 import com.beehivemonitor.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,6 +23,24 @@ public class HiveService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Autowired
+    private HiveSensorBlockRepository blockRepository;
+
+    @Autowired
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    @Autowired
+    private SensorArchiveStore archiveStore;
+
+    @Autowired
+    private HiveSensorSnapshotCache snapshotCache;
+
+    @Autowired
+    private AlertIndex alertIndex;
+
     public List<Hive> getAllHives() {
         // Return all hives - all users can view all hives
         return hiveRepository.findAll();
@@ -41,7 +62,10 @@ public class HiveService {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         hive.setUser(user);
-        return hiveRepository.save(hive);
+        Hive savedHive = hiveRepository.save(hive);
+        // The cached all-hives snapshot no longer covers every hive
+        snapshotCache.invalidate();
+        return savedHive;
     }
 
     @Transactional
@@ -67,6 +91,12 @@ public class HiveService {
         
         Hive hive = getHiveById(id);
         hiveRepository.delete(hive);
+        rollupRepository.deleteByHiveId(id);
+        blockRepository.deleteByHiveId(id);
+        latestReadingRepository.deleteByHiveId(id);
+        archiveStore.deleteHive(id);
+        snapshotCache.evict(id);
+        alertIndex.invalidate();
     }
 }
 
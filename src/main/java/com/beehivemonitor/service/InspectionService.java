@@ -5,7 +5,6 @@ import com.beehivemonitor.entity.Inspection;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.HiveRepository;
 import com.beehivemonitor.repository.InspectionRepository;
-import com.beehivemonitor.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,10 +22,10 @@ public class InspectionService {
     private HiveRepository hiveRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     public List<Inspection> getAllInspectionsByUser(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         return inspectionRepository.findByUserId(user.getId());
     }
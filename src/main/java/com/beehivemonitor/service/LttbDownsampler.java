@@ -0,0 +1,78 @@
+package com.beehivemonitor.service;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a time series.
+ * Keeps the first and last point and, from each of the remaining buckets, the point forming
+ * the largest triangle with the previously kept point and the average of the next bucket.
+ * Works on primitive arrays in a single pass, without allocating per point.
+ */
+public final class LttbDownsampler {
+
+    private LttbDownsampler() {
+    }
+
+    /**
+     * @param x         Point times, ascending
+     * @param y         Point values
+     * @param threshold Maximum number of points to keep (at least 3)
+     * @return Indices of the kept points, ascending; all indices if the series is not longer than the threshold
+     */
+    public static int[] select(long[] x, double[] y, int threshold) {
+        int length = x.length;
+        if (threshold < 3) {
+            throw new IllegalArgumentException("LTTB threshold must be at least 3");
+        }
+        if (length <= threshold) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        // Buckets for everything except the first and last point
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double previousX = x[previous];
+            double previousY = y[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previousX - averageX) * (y[i] - previousY)
+                    - (previousX - x[i]) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            selected[count++] = chosen;
+            previous = chosen;
+        }
+
+        selected[count] = length - 1;
+        return selected;
+    }
+}
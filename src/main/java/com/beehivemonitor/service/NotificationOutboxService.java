@@ -0,0 +1,263 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.client.NotificationMicroserviceClient;
+import com.beehivemonitor.dto.NotificationRequest;
+import com.beehivemonitor.dto.NotificationResponse;
+import com.beehivemonitor.entity.NotificationOutbox;
+import com.beehivemonitor.repository.NotificationOutboxRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Durable, asynchronous delivery of notifications to the notification microservice.
+ * {@link #enqueue(NotificationRequest)} only inserts a notification_outbox row, joining the caller's
+ * transaction, so a notification exists exactly when the change that caused it is committed and
+ * a slow mail server never blocks alert evaluation, scheduler runs or HTTP requests.
+ *
+ * A scheduled dispatcher claims due rows with a conditional update (safe across application instances)
+ * and delivers them on a bounded thread pool. Failed deliveries are retried with exponential backoff;
+ * rows that fail permanently or run out of attempts are kept as DEAD. Each delivery carries the row id
+ * as idempotency key, so a notification whose acknowledgement was lost is not sent again on retry.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationMicroserviceClient notificationMicroserviceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of notifications delivered in parallel.
+     * Configurable via application.properties: notification.dispatch.concurrency
+     */
+    @Value("${notification.dispatch.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * Maximum number of notifications claimed per dispatcher run.
+     * Configurable via application.properties: notification.dispatch.batch.size
+     */
+    @Value("${notification.dispatch.batch.size:100}")
+    private int batchSize;
+
+    /**
+     * Time a claimed notification is reserved for its dispatcher before another run may pick it up.
+     * Configurable via application.properties: notification.dispatch.lease.seconds
+     */
+    @Value("${notification.dispatch.lease.seconds:300}")
+    private long leaseSeconds;
+
+    /**
+     * Delivery attempts before a notification is dead-lettered.
+     * Configurable via application.properties: notification.dispatch.max-attempts
+     */
+    @Value("${notification.dispatch.max-attempts:8}")
+    private int maxAttempts;
+
+    /**
+     * Delay before the first retry; doubled after every further failure up to the maximum.
+     * Configurable via application.properties: notification.dispatch.backoff.ms, notification.dispatch.max-backoff.ms
+     */
+    @Value("${notification.dispatch.backoff.ms:5000}")
+    private long backoffMs;
+
+    @Value("${notification.dispatch.max-backoff.ms:600000}")
+    private long maxBackoffMs;
+
+    private ExecutorService executor;
+    private Counter sent;
+    private Counter retried;
+    private Counter deadLettered;
+    private Timer deliveryTimer;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sent = outcomeCounter("sent");
+        retried = outcomeCounter("retried");
+        deadLettered = outcomeCounter("dead");
+        for (NotificationOutbox.Status status : NotificationOutbox.Status.values()) {
+            Gauge.builder("notification.outbox.size", outboxRepository, repository -> repository.countByStatus(status))
+                .description("Notifications in the outbox by status")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+        deliveryTimer = Timer.builder("notification.outbox.delivery")
+            .description("Latency of one notification microservice call")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Queues the notification in the caller's transaction (or its own if there is none).
+     * Subject and message longer than their columns are truncated.
+     */
+    @Transactional
+    public NotificationOutbox enqueue(NotificationRequest request) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setRecipientEmail(request.getRecipientEmail());
+        notification.setSubject(truncate(request.getSubject(), NotificationOutbox.MAX_SUBJECT_LENGTH));
+        notification.setMessage(truncate(request.getMessage(), NotificationOutbox.MAX_MESSAGE_LENGTH));
+        notification.setChannel(request.getChannel());
+        notification.setAlertId(request.getAlertId());
+        notification.setNextAttemptAt(LocalDateTime.now());
+        return outboxRepository.save(notification);
+    }
+
+    /**
+     * Claims the due notifications and delivers them.
+     * Runs with a fixed delay, so runs never overlap on one instance.
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.poll.ms:1000}")
+    public void dispatchDue() {
+        try {
+            int delivered;
+            do {
+                delivered = dispatchBatch();
+            } while (delivered >= batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            logger.error("Error dispatching notifications: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return Number of notifications claimed and attempted
+     */
+    int dispatchBatch() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+        String claim = UUID.randomUUID().toString();
+        if (outboxRepository.claim(dueIds, claim, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return 0;
+        }
+
+        List<NotificationOutbox> claimed = outboxRepository.findByClaim(claim);
+        List<Callable<Void>> tasks = new ArrayList<>(claimed.size());
+        for (NotificationOutbox notification : claimed) {
+            tasks.add(() -> {
+                deliver(notification);
+                return null;
+            });
+        }
+        for (Future<Void> result : executor.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (Exception e) {
+                // The row stays claimed and is retried once its lease ends
+                logger.error("Notification delivery task failed: {}", e.getMessage(), e);
+            }
+        }
+        return claimed.size();
+    }
+
+    private void deliver(NotificationOutbox notification) {
+        String error;
+        boolean permanent = false;
+        try {
+            NotificationResponse response = deliveryTimer.recordCallable(() ->
+                notificationMicroserviceClient.sendNotification(toRequest(notification), notification.getId().toString()));
+            if (response == null || !Boolean.FALSE.equals(response.getSuccess())) {
+                outboxRepository.deleteById(notification.getId());
+                sent.increment();
+                logger.debug("Notification {} sent to {}", notification.getId(), notification.getRecipientEmail());
+                return;
+            }
+            error = "Rejected: " + response.getMessage();
+        } catch (FeignException e) {
+            error = e.getMessage();
+            permanent = isPermanent(e.status());
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        recordFailure(notification, error, permanent);
+    }
+
+    private void recordFailure(NotificationOutbox notification, String error, boolean permanent) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setLastError(truncate(error, NotificationOutbox.MAX_ERROR_LENGTH));
+        if (permanent || attempts >= maxAttempts) {
+            notification.setStatus(NotificationOutbox.Status.DEAD);
+            deadLettered.increment();
+            logger.error("Notification {} to {} dead-lettered after {} attempts: {}",
+                notification.getId(), notification.getRecipientEmail(), attempts, error);
+        } else {
+            notification.setNextAttemptAt(LocalDateTime.now().plus(backoffMs(attempts), ChronoUnit.MILLIS));
+            retried.increment();
+            logger.warn("Notification {} to {} failed (attempt {}), retrying: {}",
+                notification.getId(), notification.getRecipientEmail(), attempts, error);
+        }
+        outboxRepository.save(notification);
+    }
+
+    /**
+     * @return Delay before the next attempt after the given number of failed attempts
+     */
+    long backoffMs(int attempts) {
+        return Math.min(backoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+    }
+
+    // Client errors other than timeouts and throttling fail the same way on every attempt
+    private static boolean isPermanent(int status) {
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static NotificationRequest toRequest(NotificationOutbox notification) {
+        return new NotificationRequest(notification.getRecipientEmail(), notification.getSubject(),
+            notification.getMessage(), notification.getChannel(), notification.getAlertId());
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("notification.outbox.deliveries")
+            .description("Notification delivery attempts by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
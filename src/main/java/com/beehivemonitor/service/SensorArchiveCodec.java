@@ -0,0 +1,284 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Columnar encoding of archived hive sensor samples.
+ * Timestamps (epoch milliseconds, UTC) are stored as delta-of-delta zigzag varints, which is about one
+ * byte per sample for a regular measurement interval; every metric is a separate column of Gorilla
+ * XOR-compressed doubles, which takes a few bits for repeated or slowly changing values.
+ *
+ * Layout: magic, sample count, byte offset of each of the 7 columns, then the columns.
+ */
+public final class SensorArchiveCodec {
+
+    static final int MAGIC = 0x48534131; // "HSA1"
+    private static final int COLUMNS = 7;
+    private static final int HEADER_SIZE = 8 + COLUMNS * 4;
+
+    static final List<ToDoubleFunction<HiveSensorSample>> METRICS = List.of(
+        HiveSensorSample::temperature,
+        HiveSensorSample::externalTemperature,
+        HiveSensorSample::humidity,
+        HiveSensorSample::co2,
+        HiveSensorSample::soundLevel,
+        HiveSensorSample::weight);
+
+    private SensorArchiveCodec() {
+    }
+
+    /**
+     * @param samples Samples in timestamp order
+     */
+    public static byte[] encode(List<HiveSensorSample> samples) {
+        byte[][] columns = new byte[COLUMNS][];
+        columns[0] = encodeTimestamps(samples);
+        for (int metric = 0; metric < METRICS.size(); metric++) {
+            columns[metric + 1] = encodeDoubles(samples, METRICS.get(metric));
+        }
+
+        int size = HEADER_SIZE;
+        for (byte[] column : columns) {
+            size += column.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(samples.size());
+        int offset = HEADER_SIZE;
+        for (byte[] column : columns) {
+            buffer.putInt(offset);
+            offset += column.length;
+        }
+        for (byte[] column : columns) {
+            buffer.put(column);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the samples with a timestamp in [startDate, endDate] and passes them on in timestamp order
+     *
+     * @return Number of samples passed to the consumer
+     */
+    public static long decode(ByteBuffer buffer, LocalDateTime startDate, LocalDateTime endDate,
+                              Consumer<HiveSensorSample> consumer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a hive sensor archive");
+        }
+        int count = buffer.getInt(4);
+        ByteBuffer timestamps = column(buffer, 0);
+        BitReader[] metrics = new BitReader[METRICS.size()];
+        for (int metric = 0; metric < metrics.length; metric++) {
+            metrics[metric] = new BitReader(column(buffer, metric + 1));
+        }
+
+        long start = toMillis(startDate);
+        long end = toMillis(endDate);
+        long timestamp = 0;
+        long delta = 0;
+        long[] previousBits = new long[metrics.length];
+        int[] leading = new int[metrics.length];
+        int[] trailing = new int[metrics.length];
+        double[] values = new double[metrics.length];
+        long passed = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamp = timestamps.getLong();
+            } else {
+                delta += unzigzag(readVarLong(timestamps));
+                timestamp += delta;
+            }
+            // Every column has to be decoded up to the end of the range, in or out of it
+            for (int metric = 0; metric < metrics.length; metric++) {
+                BitReader reader = metrics[metric];
+                if (i == 0) {
+                    previousBits[metric] = reader.read(64);
+                    leading[metric] = -1;
+                } else if (reader.read(1) == 1) {
+                    if (reader.read(1) == 1) {
+                        leading[metric] = (int) reader.read(5);
+                        int meaningful = (int) reader.read(6) + 1;
+                        trailing[metric] = 64 - leading[metric] - meaningful;
+                    }
+                    int meaningful = 64 - leading[metric] - trailing[metric];
+                    previousBits[metric] ^= reader.read(meaningful) << trailing[metric];
+                }
+                values[metric] = Double.longBitsToDouble(previousBits[metric]);
+            }
+            if (timestamp > end) {
+                break;
+            }
+            if (timestamp >= start) {
+                consumer.accept(new HiveSensorSample(toDateTime(timestamp),
+                    values[0], values[1], values[2], values[3], values[4], values[5]));
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static ByteBuffer column(ByteBuffer buffer, int column) {
+        int offset = buffer.getInt(8 + column * 4);
+        return buffer.duplicate().position(offset).slice();
+    }
+
+    private static byte[] encodeTimestamps(List<HiveSensorSample> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples.size() + 8);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            long timestamp = toMillis(samples.get(i).timestamp());
+            if (i == 0) {
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) (timestamp >>> shift));
+                }
+            } else {
+                long delta = timestamp - previous;
+                writeVarLong(out, zigzag(delta - previousDelta));
+                previousDelta = delta;
+            }
+            previous = timestamp;
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeDoubles(List<HiveSensorSample> samples, ToDoubleFunction<HiveSensorSample> metric) {
+        BitWriter writer = new BitWriter(samples.size());
+        long previous = 0;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            long bits = Double.doubleToRawLongBits(metric.applyAsDouble(samples.get(i)));
+            if (i == 0) {
+                writer.write(bits, 64);
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    writer.write(0, 1);
+                } else {
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    writer.write(1, 1);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        // Meaningful bits fit in the previous window
+                        writer.write(0, 1);
+                        writer.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int meaningful = 64 - leading - trailing;
+                        writer.write(1, 1);
+                        writer.write(leading, 5);
+                        writer.write(meaningful - 1, 6);
+                        writer.write(xor >>> trailing, meaningful);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = bits;
+        }
+        return writer.toByteArray();
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static final class BitWriter {
+
+        private final ByteArrayOutputStream out;
+        private int current;
+        private int used;
+
+        BitWriter(int expectedValues) {
+            out = new ByteArrayOutputStream(Math.max(16, expectedValues * 2));
+        }
+
+        /**
+         * Writes the lowest {@code bits} bits of the value, most significant first
+         */
+        void write(long value, int bits) {
+            for (int bit = bits - 1; bit >= 0; bit--) {
+                current = (current << 1) | (int) ((value >>> bit) & 1);
+                if (++used == 8) {
+                    out.write(current);
+                    current = 0;
+                    used = 0;
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            if (used > 0) {
+                out.write(current << (8 - used));
+                current = 0;
+                used = 0;
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static final class BitReader {
+
+        private final ByteBuffer buffer;
+        private int current;
+        private int remaining;
+
+        BitReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            for (int bit = 0; bit < bits; bit++) {
+                if (remaining == 0) {
+                    current = buffer.get() & 0xFF;
+                    remaining = 8;
+                }
+                remaining--;
+                value = (value << 1) | ((current >>> remaining) & 1);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local file store for archived hive sensor data.
+ * Every hive and month is one file encoded with {@link SensorArchiveCodec} ({hiveId}/{yyyy-MM}.hsa);
+ * a small JSON manifest lists the files with their time range, so reads only open the months they need.
+ * Files are read through memory-mapped I/O and replaced atomically, so readers never see a partial file.
+ */
+@Service
+public class SensorArchiveStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorArchiveStore.class);
+
+    static final String MANIFEST = "manifest.json";
+    private static final String EXTENSION = ".hsa";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Directory holding the archive files and the manifest.
+     * Configurable via application.properties: sensor.archive.dir
+     */
+    @Value("${sensor.archive.dir:data/archive}")
+    private String archiveDir;
+
+    private Path root;
+    private final Map<UUID, NavigableMap<YearMonth, Entry>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * One archived month of one hive
+     */
+    public record Entry(UUID hiveId, YearMonth month, String file, int samples,
+                        LocalDateTime from, LocalDateTime to, long bytes) {
+    }
+
+    record Manifest(List<Entry> entries) {
+    }
+
+    @PostConstruct
+    public void start() {
+        root = Paths.get(archiveDir);
+        Path manifest = root.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return;
+        }
+        try {
+            for (Entry entry : objectMapper.readValue(manifest.toFile(), Manifest.class).entries()) {
+                entries.computeIfAbsent(entry.hiveId(), id -> new ConcurrentSkipListMap<>()).put(entry.month(), entry);
+            }
+            logger.info("Loaded sensor archive manifest with {} hives", entries.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read sensor archive manifest " + manifest, e);
+        }
+    }
+
+    /**
+     * Writes (or replaces) the archive of one hive and month and records it in the manifest
+     *
+     * @param samples Samples of the month in timestamp order
+     */
+    public synchronized Entry write(UUID hiveId, YearMonth month, List<HiveSensorSample> samples) throws IOException {
+        String file = hiveId + "/" + month + EXTENSION;
+        Path target = root.resolve(file);
+        Files.createDirectories(target.getParent());
+        byte[] encoded = SensorArchiveCodec.encode(samples);
+        Path temp = Files.createTempFile(target.getParent(), month.toString(), ".tmp");
+        Files.write(temp, encoded);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Entry entry = new Entry(hiveId, month, file, samples.size(), samples.get(0).timestamp(),
+            samples.get(samples.size() - 1).timestamp(), encoded.length);
+        entries.computeIfAbsent(hiveId, id -> new ConcurrentSkipListMap<>()).put(month, entry);
+        saveManifest();
+        return entry;
+    }
+
+    /**
+     * Passes the archived samples of the hive in [startDate, endDate] to the consumer, in timestamp order
+     *
+     * @return Number of samples passed to the consumer
+     */
+    public long read(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate, Consumer<HiveSensorSample> consumer) {
+        NavigableMap<YearMonth, Entry> months = entries.get(hiveId);
+        if (months == null) {
+            return 0;
+        }
+        long count = 0;
+        for (Entry entry : months.subMap(YearMonth.from(startDate), true, YearMonth.from(endDate), true).values()) {
+            if (entry.to().isBefore(startDate) || entry.from().isAfter(endDate)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(root.resolve(entry.file()), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                count += SensorArchiveCodec.decode(buffer, startDate, endDate, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read sensor archive " + entry.file(), e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decodes a whole archived month, e.g. to merge late samples into it
+     */
+    public List<HiveSensorSample> readMonth(UUID hiveId, YearMonth month) {
+        List<HiveSensorSample> samples = new ArrayList<>();
+        read(hiveId, month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(23, 59, 59, 999_999_999), samples::add);
+        return samples;
+    }
+
+    /**
+     * @return The first instant after the hive's newest archived month; live data is read from here on.
+     *         Null when nothing is archived.
+     */
+    public LocalDateTime getArchivedUntil(UUID hiveId) {
+        NavigableMap<YearMonth, Entry> months = entries.get(hiveId);
+        if (months == null || months.isEmpty()) {
+            return null;
+        }
+        return months.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    public boolean isArchived(UUID hiveId, YearMonth month) {
+        NavigableMap<YearMonth, Entry> months = entries.get(hiveId);
+        return months != null && months.containsKey(month);
+    }
+
+    /**
+     * Removes every archived month of a deleted hive
+     */
+    public synchronized void deleteHive(UUID hiveId) {
+        if (entries.remove(hiveId) == null) {
+            return;
+        }
+        Path directory = root.resolve(hiveId.toString());
+        try {
+            if (Files.exists(directory)) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+            saveManifest();
+        } catch (IOException e) {
+            logger.error("Error deleting sensor archive of hive {}: {}", hiveId, e.getMessage(), e);
+        }
+    }
+
+    private void saveManifest() throws IOException {
+        List<Entry> all = new ArrayList<>();
+        entries.values().forEach(months -> all.addAll(months.values()));
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "manifest", ".tmp");
+        objectMapper.writeValue(temp.toFile(), new Manifest(all));
+        Files.move(temp, root.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
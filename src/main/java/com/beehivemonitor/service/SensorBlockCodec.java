@@ -0,0 +1,85 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.beehivemonitor.service.SensorArchiveCodec.METRICS;
+import static com.beehivemonitor.service.SensorArchiveCodec.readVarLong;
+import static com.beehivemonitor.service.SensorArchiveCodec.toMillis;
+import static com.beehivemonitor.service.SensorArchiveCodec.unzigzag;
+import static com.beehivemonitor.service.SensorArchiveCodec.writeVarLong;
+import static com.beehivemonitor.service.SensorArchiveCodec.zigzag;
+
+/**
+ * Encoding of the samples of one HiveSensorBlock.
+ * Values are stored as fixed-point integers with one decimal (the precision of the sensors), timestamps as
+ * millisecond offsets from the block start; every column is delta-encoded with zigzag varints, so a sample
+ * of slowly changing readings takes about 10 bytes instead of a 100+ byte row.
+ * Values with more than one decimal are rounded, timestamps are truncated to milliseconds.
+ *
+ * Layout: sample count, timestamp column, then one column per metric.
+ */
+public final class SensorBlockCodec {
+
+    static final double SCALE = 10.0;
+
+    private SensorBlockCodec() {
+    }
+
+    /**
+     * @param samples Samples of the block in timestamp order
+     */
+    public static byte[] encode(LocalDateTime blockStart, List<HiveSensorSample> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples.size() * 10 + 4);
+        writeVarLong(out, samples.size());
+
+        long start = toMillis(blockStart);
+        long previous = 0;
+        for (HiveSensorSample sample : samples) {
+            long offset = toMillis(sample.timestamp()) - start;
+            writeVarLong(out, zigzag(offset - previous));
+            previous = offset;
+        }
+        for (var metric : METRICS) {
+            previous = 0;
+            for (HiveSensorSample sample : samples) {
+                long value = Math.round(metric.applyAsDouble(sample) * SCALE);
+                writeVarLong(out, zigzag(value - previous));
+                previous = value;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<HiveSensorSample> decode(LocalDateTime blockStart, byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int count = (int) readVarLong(buffer);
+
+        long[] timestamps = new long[count];
+        long previous = toMillis(blockStart);
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(buffer));
+            timestamps[i] = previous;
+        }
+        double[][] values = new double[METRICS.size()][count];
+        for (double[] column : values) {
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                value += unzigzag(readVarLong(buffer));
+                column[i] = value / SCALE;
+            }
+        }
+
+        List<HiveSensorSample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new HiveSensorSample(SensorArchiveCodec.toDateTime(timestamps[i]),
+                values[0][i], values[1][i], values[2][i], values[3][i], values[4][i], values[5][i]));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,148 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Moves cold hive sensor data out of the database into the {@link SensorArchiveStore}.
+ * Every complete month older than the archive age is exported per hive, and the exported rows are
+ * then deleted with the chunked retention delete. Rows that arrive late for an archived month are
+ * merged into its file on the next run.
+ */
+@Service
+public class SensorDataArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorDataArchiveScheduler.class);
+
+    @Autowired
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Autowired
+    private SensorArchiveStore archiveStore;
+
+    @Autowired
+    private DataRetentionService dataRetentionService;
+
+    @Autowired
+    private HiveSensorBlockService blockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Whether cold data is archived.
+     * Configurable via application.properties: sensor.archive.enabled
+     */
+    @Value("${sensor.archive.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Months whose data is entirely older than this many days are archived.
+     * Configurable via application.properties: sensor.archive.after.days
+     */
+    @Value("${sensor.archive.after.days:90}")
+    private int archiveAfterDays;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void start() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${sensor.archive.cron:0 0 3 * * ?}")
+    public void archiveColdData() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = YearMonth.from(LocalDateTime.now().minusDays(archiveAfterDays)).atDay(1).atStartOfDay();
+        logger.info("Starting archival of hive sensor data before {}...", cutoff);
+        long archived = 0;
+        for (UUID hiveId : dataRetentionService.findHiveIds()) {
+            try {
+                archived += archiveHive(hiveId, cutoff);
+            } catch (Exception e) {
+                logger.error("Error archiving sensor data of hive {}: {}", hiveId, e.getMessage(), e);
+            }
+        }
+        logger.info("Archival completed. Archived {} hive sensor data rows", archived);
+    }
+
+    /**
+     * Archives the hive's rows before the cutoff (the first day of a month), month by month,
+     * and deletes them from the database once all months are written
+     *
+     * @return Number of archived rows
+     */
+    long archiveHive(UUID hiveId, LocalDateTime cutoff) {
+        Long archived = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            List<HiveSensorSample> month = new ArrayList<>();
+            try (Stream<HiveSensorSample> samples =
+                     hiveSensorDataRepository.streamByHiveIdAndTimestampBefore(hiveId, cutoff);
+                 Stream<HiveSensorSample> blockSamples = blockService.stream(hiveId, null, cutoff.minusNanos(1))) {
+                Iterator<HiveSensorSample> iterator =
+                    HiveSensorBlockService.mergeByTimestamp(samples.iterator(), blockSamples.iterator());
+                while (iterator.hasNext()) {
+                    HiveSensorSample sample = iterator.next();
+                    if (!month.isEmpty() && !YearMonth.from(month.get(0).timestamp()).equals(YearMonth.from(sample.timestamp()))) {
+                        rows += writeMonth(hiveId, month);
+                        month = new ArrayList<>();
+                    }
+                    month.add(sample);
+                }
+            }
+            if (!month.isEmpty()) {
+                rows += writeMonth(hiveId, month);
+            }
+            return rows;
+        });
+        if (archived > 0) {
+            // Same cutoff as the export above; new rows are never that old
+            dataRetentionService.purgeHiveSensorData(hiveId, cutoff);
+        }
+        return archived;
+    }
+
+    private int writeMonth(UUID hiveId, List<HiveSensorSample> samples) {
+        YearMonth month = YearMonth.from(samples.get(0).timestamp());
+        List<HiveSensorSample> merged = samples;
+        if (archiveStore.isArchived(hiveId, month)) {
+            // Archived timestamps have millisecond precision; a row already in the file (archived
+            // before an interrupted delete) is not added twice
+            Map<LocalDateTime, HiveSensorSample> byTimestamp = new TreeMap<>();
+            archiveStore.readMonth(hiveId, month).forEach(sample -> byTimestamp.put(sample.timestamp(), sample));
+            samples.forEach(sample -> byTimestamp.putIfAbsent(sample.timestamp().truncatedTo(ChronoUnit.MILLIS), sample));
+            merged = new ArrayList<>(byTimestamp.values());
+        }
+        try {
+            archiveStore.write(hiveId, month, merged);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return samples.size();
+    }
+}
@@ -0,0 +1,23 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published after new historical sensor samples have been written,
+ * carrying the sampled values per hive
+ */
+public class SensorDataIngestedEvent {
+
+    private final Map<UUID, SensorController.HiveSensorData> sensorData;
+
+    public SensorDataIngestedEvent(Map<UUID, SensorController.HiveSensorData> sensorData) {
+        this.sensorData = Map.copyOf(sensorData);
+    }
+
+    public Map<UUID, SensorController.HiveSensorData> getSensorData() {
+        return sensorData;
+    }
+}
@@ -0,0 +1,222 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveIngestTarget;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.entity.UserSettings;
+import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.UserRepository;
+import com.beehivemonitor.repository.UserSettingsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single scheduled ingest of historical sensor data for all hives.
+ * The next due time of every user is stored in user_settings.next_due_at and advanced by
+ * UserSettings.measurementIntervalMinutes. On every tick the due users are claimed with one
+ * conditional update, so several application instances can run this scheduler without
+ * ingesting the same user twice, and a restart does not make every user due at once.
+ *
+ * The hives of the claimed users are loaded with a single projection query, split into chunks
+ * that run in parallel; each chunk does one batched microservice call and queues its rows
+ * on the bounded HiveSensorDataWriter queue, which writes them in batches.
+ * Users with a hive in a failed chunk are released from the claim and due again on the next tick.
+ */
+@Service
+public class SensorIngestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorIngestScheduler.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Autowired
+    private HiveRepository hiveRepository;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of hives ingested per chunk (one microservice call each).
+     * Configurable via application.properties: sensor.ingest.chunk.size
+     */
+    @Value("${sensor.ingest.chunk.size:200}")
+    private int chunkSize;
+
+    /**
+     * Number of chunks processed in parallel
+     */
+    @Value("${sensor.ingest.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executor;
+    private Timer runTimer;
+    private Counter rowsWritten;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "sensor-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runTimer = Timer.builder("sensor.ingest.run")
+            .description("Duration of one scheduled sensor ingest run")
+            .register(meterRegistry);
+        rowsWritten = Counter.builder("sensor.ingest.run.rows")
+            .description("Historical rows written by the scheduled sensor ingest")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Ingests sensor data for every hive whose owner's measurement interval has elapsed.
+     * Runs every minute (the smallest supported interval).
+     */
+    @Scheduled(fixedRateString = "${sensor.ingest.tick.ms:60000}")
+    public void ingestDueHives() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        String claim = null;
+
+        try {
+            createMissingSettings();
+
+            // Small tolerance so that tick jitter does not push a user to the following tick
+            claim = UUID.randomUUID().toString();
+            int dueUsers = userSettingsRepository.claimDueUsers(claim, now, now.plusSeconds(1));
+            if (dueUsers == 0) {
+                logger.debug("Sensor ingest: no users due");
+                return;
+            }
+
+            List<HiveIngestTarget> targets = hiveRepository.findIngestTargetsByClaim(claim);
+            List<List<HiveIngestTarget>> chunks = partition(targets, Math.max(1, chunkSize));
+
+            List<Callable<Integer>> tasks = new ArrayList<>(chunks.size());
+            for (List<HiveIngestTarget> chunk : chunks) {
+                tasks.add(() -> sensorService.ingestHives(toHives(chunk)));
+            }
+
+            int rows = 0;
+            Set<UUID> failedUsers = new HashSet<>();
+            List<Future<Integer>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    rows += results.get(i).get();
+                } catch (Exception e) {
+                    for (HiveIngestTarget target : chunks.get(i)) {
+                        failedUsers.add(target.getUserId());
+                    }
+                    logger.error("Sensor ingest chunk failed: {}", e.getMessage(), e);
+                }
+            }
+            rowsWritten.increment(rows);
+
+            if (!failedUsers.isEmpty()) {
+                // Retry on the next tick instead of skipping a whole measurement interval
+                userSettingsRepository.releaseClaim(claim, failedUsers, now);
+            }
+
+            logger.info("Sensor ingest completed in {} ms. Users due: {}, hives: {}, chunks: {}, rows written: {}, users to retry: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                dueUsers, targets.size(), chunks.size(), rows, failedUsers.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error in scheduled sensor ingest: {}", e.getMessage(), e);
+            releaseAll(claim, now);
+        } finally {
+            runTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void releaseAll(String claim, LocalDateTime dueAt) {
+        if (claim == null) {
+            return;
+        }
+        try {
+            userSettingsRepository.releaseClaim(claim, dueAt);
+        } catch (Exception e) {
+            logger.error("Could not release sensor ingest claim {}: {}", claim, e.getMessage(), e);
+        }
+    }
+
+    private static List<Hive> toHives(List<HiveIngestTarget> targets) {
+        List<Hive> hives = new ArrayList<>(targets.size());
+        for (HiveIngestTarget target : targets) {
+            // Only the id is needed to reference the hive from the written rows
+            Hive hive = new Hive();
+            hive.setId(target.getHiveId());
+            hives.add(hive);
+        }
+        return hives;
+    }
+
+    /**
+     * Creates default settings (1 minute) for users that have none yet,
+     * so that every user has a next_due_at row that can be claimed
+     */
+    private void createMissingSettings() {
+        List<User> users = userRepository.findUsersWithoutSettings();
+        if (users.isEmpty()) {
+            return;
+        }
+
+        List<UserSettings> defaults = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserSettings settings = new UserSettings();
+            settings.setUser(user);
+            settings.setMeasurementIntervalMinutes(1);
+            defaults.add(settings);
+        }
+        try {
+            userSettingsRepository.saveAll(defaults);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created them concurrently (user_id is unique)
+            logger.debug("Default user settings already created: {}", e.getMessage());
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+}
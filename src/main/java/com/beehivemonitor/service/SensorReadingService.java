@@ -0,0 +1,133 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.LatestSensorReading;
+import com.beehivemonitor.entity.SensorReading;
+import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
+import com.beehivemonitor.repository.SensorReadingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes sensor readings and maintains latest_sensor_readings, the newest reading per hive and sensor type.
+ * Readings must be saved through this service for the last readings of a hive to stay current.
+ */
+@Service
+public class SensorReadingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorReadingService.class);
+
+    @Autowired
+    private SensorReadingRepository sensorReadingRepository;
+
+    @Autowired
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    @Autowired
+    private HiveRepository hiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Saves the readings and updates the latest reading of their hive and type in the same transaction,
+     * retrying once when a concurrent writer updated the same latest reading
+     */
+    public List<SensorReading> saveReadings(List<SensorReading> readings) {
+        try {
+            return transactionTemplate.execute(status -> saveWithLatest(readings));
+        } catch (RuntimeException first) {
+            // A concurrent writer created or updated one of the latest readings; retry once against fresh rows
+            logger.debug("Retrying sensor reading save after conflict: {}", first.getMessage());
+            return transactionTemplate.execute(status -> saveWithLatest(readings));
+        }
+    }
+
+    /**
+     * Fills latest_sensor_readings from sensor_readings when it is empty (first start after the upgrade)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLatestReadings() {
+        if (latestReadingRepository.count() > 0 || sensorReadingRepository.count() == 0) {
+            return;
+        }
+        logger.info("Filling latest sensor readings from existing readings...");
+        int hives = 0;
+        for (UUID hiveId : hiveRepository.findAllIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    updateLatest(sensorReadingRepository.findLatestReadingsByHiveId(hiveId)));
+                hives++;
+            } catch (Exception e) {
+                logger.error("Error filling latest sensor readings of hive {}: {}", hiveId, e.getMessage(), e);
+            }
+        }
+        logger.info("Latest sensor readings filled for {} hives", hives);
+    }
+
+    private List<SensorReading> saveWithLatest(List<SensorReading> readings) {
+        List<SensorReading> saved = sensorReadingRepository.saveAll(readings);
+        updateLatest(saved);
+        return saved;
+    }
+
+    private void updateLatest(List<SensorReading> readings) {
+        // Newest reading per key within the batch first, then one lookup for all keys
+        Map<LatestSensorReading.Key, SensorReading> newest = new LinkedHashMap<>();
+        for (SensorReading reading : readings) {
+            LatestSensorReading.Key key =
+                new LatestSensorReading.Key(reading.getSensor().getHive().getId(), reading.getType());
+            SensorReading current = newest.get(key);
+            if (current == null || isNewer(reading, current.getTimestamp(), current.getId())) {
+                newest.put(key, reading);
+            }
+        }
+
+        Map<LatestSensorReading.Key, LatestSensorReading> existing = new HashMap<>();
+        for (LatestSensorReading latest : latestReadingRepository.findAllById(newest.keySet())) {
+            existing.put(new LatestSensorReading.Key(latest.getHiveId(), latest.getType()), latest);
+        }
+
+        for (Map.Entry<LatestSensorReading.Key, SensorReading> entry : newest.entrySet()) {
+            LatestSensorReading latest = existing.get(entry.getKey());
+            if (latest == null) {
+                latest = new LatestSensorReading();
+                latest.setHiveId(entry.getKey().getHiveId());
+                latest.setType(entry.getKey().getType());
+            } else if (!isNewer(entry.getValue(), latest.getTimestamp(), latest.getReadingId())) {
+                continue;
+            }
+            latest.update(entry.getValue());
+            latestReadingRepository.save(latest);
+        }
+    }
+
+    /**
+     * @return Whether the reading is newer than the other one; the later id wins on equal timestamps
+     */
+    private static boolean isNewer(SensorReading reading, LocalDateTime timestamp, UUID id) {
+        int compared = reading.getTimestamp().compareTo(timestamp);
+        return compared > 0 || (compared == 0 && reading.getId().compareTo(id) > 0);
+    }
+}
@@ -5,57 +5,78 @@ import com.beehivemonitor.controller.SensorController;
 import com.beehivemonitor.dto.MicroserviceRealtimeRequest;
 import com.beehivemonitor.dto.MicroserviceRealtimeResponse;
 import com.beehivemonitor.dto.MicroserviceSensorDataDTO;
+import com.beehivemonitor.dto.HiveSensorSample;
 import com.beehivemonitor.dto.SensorReadingDTO;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.HiveSensorData;
-import com.beehivemonitor.entity.User;
-import com.beehivemonitor.entity.UserSettings;
+import com.beehivemonitor.entity.HiveSensorRollup;
 import com.beehivemonitor.repository.HiveRepository;
 import com.beehivemonitor.repository.HiveSensorDataRepository;
-import com.beehivemonitor.repository.SensorReadingRepository;
-import com.beehivemonitor.repository.UserRepository;
-import com.beehivemonitor.repository.UserSettingsRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
 import feign.FeignException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@EnableScheduling
 public class SensorService {
 
     @Autowired
-    private SensorReadingRepository sensorReadingRepository;
+    private HiveRepository hiveRepository;
 
     @Autowired
-    private HiveRepository hiveRepository;
+    private HiveSensorDataRepository hiveSensorDataRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private SensorMicroserviceClient sensorMicroserviceClient;
 
     @Autowired
-    private HiveSensorDataRepository hiveSensorDataRepository;
+    private HiveSensorDataWriter hiveSensorDataWriter;
 
     @Autowired
-    private UserSettingsRepository userSettingsRepository;
+    private HiveSensorSnapshotCache snapshotCache;
 
     @Autowired
-    private SensorMicroserviceClient sensorMicroserviceClient;
+    private HiveSensorRollupService rollupService;
+
+    @Autowired
+    private SensorArchiveStore archiveStore;
+
+    @Autowired
+    private HiveSensorBlockService blockService;
+
+    @Autowired
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Whether realtime reads also persist a historical row per hive (legacy behavior).
+     * When false, realtime endpoints are read-only and historical data is written
+     * only by the scheduled ingest and explicit updates.
+     * Configurable via application.properties: sensor.realtime.persist-on-read
+     */
+    @Value("${sensor.realtime.persist-on-read:false}")
+    private boolean persistOnRead;
 
     private final Random random = new Random(); // Fallback if microservice is unavailable
-    
-    // Track last save time per user
-    private final Map<UUID, LocalDateTime> lastSaveTime = new HashMap<>();
 
     public List<SensorReadingDTO> getLatestReadingsByHiveId(UUID hiveId, String email) {
         Hive hive = hiveRepository.findById(hiveId)
@@ -66,20 +87,27 @@ public class SensorService {
             throw new RuntimeException("Unauthorized access to hive");
         }
         
-        return sensorReadingRepository.findLatestReadingsByHiveId(hiveId).stream()
-            .map(reading -> new SensorReadingDTO(reading.getType(), reading.getValue(), reading.getUnit()))
+        return latestReadingRepository.findByHiveIdOrderByTypeAsc(hiveId).stream()
+            .map(latest -> new SensorReadingDTO(latest.getType(), latest.getValue(), latest.getUnit()))
             .collect(Collectors.toList());
     }
 
     /**
      * Get real-time sensor data for a single hive using GET endpoint
-     * Falls back to local generation if microservice is unavailable
+     * Falls back to local generation if microservice is unavailable.
+     * Served from the snapshot cache when a fresh snapshot exists.
+     * Read-only unless sensor.realtime.persist-on-read is enabled
      * 
      * @param hiveId The ID of the hive
      * @param email The email of the user requesting the data (for authorization)
      * @return Sensor data for the hive
      */
     public SensorController.HiveSensorData getRealtimeSensorDataForHive(UUID hiveId, String email) {
+        SensorController.HiveSensorData cached = snapshotCache.get(hiveId);
+        if (cached != null) {
+            return cached;
+        }
+        
         Hive hive = hiveRepository.findById(hiveId)
             .orElseThrow(() -> new RuntimeException("Hive not found"));
         
@@ -100,15 +128,18 @@ public class SensorService {
                     microserviceData.getWeight()
                 );
                 
-                // Save historical data
-                saveHistoricalData(hive,
-                    microserviceData.getTemperature(),
-                    microserviceData.getExternalTemperature(),
-                    microserviceData.getHumidity(),
-                    microserviceData.getCo2(),
-                    microserviceData.getSoundLevel(),
-                    microserviceData.getWeight()
-                );
+                snapshotCache.put(hiveId, hiveSensorData);
+                
+                if (persistOnRead) {
+                    saveHistoricalData(hive,
+                        microserviceData.getTemperature(),
+                        microserviceData.getExternalTemperature(),
+                        microserviceData.getHumidity(),
+                        microserviceData.getCo2(),
+                        microserviceData.getSoundLevel(),
+                        microserviceData.getWeight()
+                    );
+                }
                 
                 return hiveSensorData;
             }
@@ -118,16 +149,61 @@ public class SensorService {
         }
         
         // Fallback: Generate locally if microservice is unavailable
-        return generateSensorDataLocallyForSingleHive(hive);
+        SensorController.HiveSensorData generated = generateSensorDataLocallyForSingleHive(hive, persistOnRead);
+        snapshotCache.put(hiveId, generated);
+        return generated;
     }
 
     /**
      * Calls the sensor microservice to get real-time sensor data for all hives
-     * Falls back to local generation if microservice is unavailable
+     * Falls back to local generation if microservice is unavailable.
+     * Served from the snapshot cache when every hive has a fresh snapshot.
+     * Read-only unless sensor.realtime.persist-on-read is enabled
      */
     public Map<UUID, SensorController.HiveSensorData> getRealtimeDataForAllHives(String email) {
+        Map<UUID, SensorController.HiveSensorData> cached = snapshotCache.getAll();
+        if (cached != null) {
+            return cached;
+        }
+        
         // Return sensor data for ALL hives - all users can view all hives
-        List<Hive> hives = hiveRepository.findAll();
+        HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+        Map<UUID, SensorController.HiveSensorData> sensorData = fetchRealtimeData(hiveRepository.findAll(), persistOnRead);
+        snapshotCache.putAll(refresh, sensorData);
+        return sensorData;
+    }
+
+    /**
+     * Returns real-time sensor data for the given hives.
+     * Hives with a fresh snapshot are served from the cache; the rest are fetched
+     * with a single batched microservice call.
+     * Read-only unless sensor.realtime.persist-on-read is enabled
+     */
+    public Map<UUID, SensorController.HiveSensorData> getRealtimeDataForHives(Collection<Hive> hives) {
+        Map<UUID, SensorController.HiveSensorData> result = new HashMap<>(hives.size() * 2);
+        List<Hive> missing = new ArrayList<>();
+        for (Hive hive : hives) {
+            SensorController.HiveSensorData cached = snapshotCache.get(hive.getId());
+            if (cached != null) {
+                result.put(hive.getId(), cached);
+            } else {
+                missing.add(hive);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            Map<UUID, SensorController.HiveSensorData> fetched = fetchRealtimeData(missing, persistOnRead);
+            fetched.forEach(snapshotCache::put);
+            result.putAll(fetched);
+        }
+        return result;
+    }
+
+    /**
+     * Fetches real-time sensor data for the given hives from the microservice
+     * (or the local fallback) and optionally queues a historical row per hive
+     */
+    private Map<UUID, SensorController.HiveSensorData> fetchRealtimeData(List<Hive> hives, boolean persist) {
         List<UUID> hiveIds = hives.stream().map(Hive::getId).collect(Collectors.toList());
         
         if (hiveIds.isEmpty()) {
@@ -141,6 +217,9 @@ public class SensorService {
             
             if (response != null && response.getSensorData() != null) {
                 Map<UUID, SensorController.HiveSensorData> sensorDataMap = new HashMap<>();
+                Map<UUID, Hive> hivesById = persist
+                    ? hives.stream().collect(Collectors.toMap(Hive::getId, hive -> hive))
+                    : Collections.emptyMap();
                 
                 for (Map.Entry<UUID, MicroserviceSensorDataDTO> entry : response.getSensorData().entrySet()) {
                     UUID hiveId = entry.getKey();
@@ -158,8 +237,13 @@ public class SensorService {
                     
                     sensorDataMap.put(hiveId, hiveSensorData);
                     
+                    if (!persist) {
+                        continue;
+                    }
+                    
                     // Save historical data
-                    hives.stream().filter(h -> h.getId().equals(hiveId)).findFirst().ifPresent(hive ->
+                    Hive hive = hivesById.get(hiveId);
+                    if (hive != null) {
                         saveHistoricalData(hive,
                             microserviceData.getTemperature(),
                             microserviceData.getExternalTemperature(),
@@ -167,8 +251,8 @@ public class SensorService {
                             microserviceData.getCo2(),
                             microserviceData.getSoundLevel(),
                             microserviceData.getWeight()
-                        )
-                    );
+                        );
+                    }
                 }
                 
                 return sensorDataMap;
@@ -179,13 +263,13 @@ public class SensorService {
         }
         
         // Fallback: Generate locally if microservice is unavailable
-        return generateSensorDataLocally(hives);
+        return generateSensorDataLocally(hives, persist);
     }
     
     /**
      * Fallback method to generate sensor data locally if microservice is unavailable
      */
-    private Map<UUID, SensorController.HiveSensorData> generateSensorDataLocally(List<Hive> hives) {
+    private Map<UUID, SensorController.HiveSensorData> generateSensorDataLocally(List<Hive> hives, boolean persist) {
         Map<UUID, SensorController.HiveSensorData> sensorDataMap = new HashMap<>();
         
         for (Hive hive : hives) {
@@ -213,8 +297,9 @@ public class SensorService {
                 roundedWeight
             ));
             
-            // Save historical data
-            saveHistoricalData(hive, roundedTemp, roundedExtTemp, roundedHumidity, roundedCo2, roundedSound, roundedWeight);
+            if (persist) {
+                saveHistoricalData(hive, roundedTemp, roundedExtTemp, roundedHumidity, roundedCo2, roundedSound, roundedWeight);
+            }
         }
         
         return sensorDataMap;
@@ -223,7 +308,7 @@ public class SensorService {
     /**
      * Fallback method to generate sensor data locally for a single hive
      */
-    private SensorController.HiveSensorData generateSensorDataLocallyForSingleHive(Hive hive) {
+    private SensorController.HiveSensorData generateSensorDataLocallyForSingleHive(Hive hive, boolean persist) {
         // Generate random values within specified ranges
         double temperature = 15 + (30 - 15) * random.nextDouble();
         double externalTemperature = 15 + (30 - 15) * random.nextDouble();
@@ -248,118 +333,80 @@ public class SensorService {
             roundedWeight
         );
         
-        // Save historical data
-        saveHistoricalData(hive, roundedTemp, roundedExtTemp, roundedHumidity, roundedCo2, roundedSound, roundedWeight);
+        if (persist) {
+            saveHistoricalData(hive, roundedTemp, roundedExtTemp, roundedHumidity, roundedCo2, roundedSound, roundedWeight);
+        }
         
         return sensorData;
     }
 
     /**
      * Update all sensor data for all user's beehives by calling the sensor microservice
-     * This method explicitly triggers a refresh and saves the data
+     * This method explicitly triggers a refresh, saves the data and replaces the snapshot cache
      * 
      * @param email The email of the user
      * @return Map of updated sensor data keyed by hive ID
      */
     public Map<UUID, SensorController.HiveSensorData> updateAllSensorData(String email) {
-        // This will call the microservice and save historical data
-        // The getRealtimeDataForAllHives method already handles FeignException and has fallback logic
-        Map<UUID, SensorController.HiveSensorData> result = getRealtimeDataForAllHives(email);
+        // This will call the microservice and save historical data regardless of sensor.realtime.persist-on-read
+        // fetchRealtimeData already handles FeignException and has fallback logic
+        HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+        Map<UUID, SensorController.HiveSensorData> result = fetchRealtimeData(hiveRepository.findAll(), true);
+        if (result != null) {
+            snapshotCache.putAll(refresh, result);
+            eventPublisher.publishEvent(new SensorDataIngestedEvent(result));
+        }
         // Ensure we always return a non-null map
         return result != null ? result : new HashMap<>();
     }
     
     /**
-     * Scheduled task that saves sensor data at configured intervals for each user
-     * Runs every minute and checks if enough time has passed based on user settings
+     * Fetches the current sensor values for a chunk of hives in one batched microservice call
+     * (or the local fallback) and queues one historical row per hive on {@link HiveSensorDataWriter},
+     * which writes them in batches like every other row. A full queue makes this wait (backpressure).
+     * Used by {@link SensorIngestScheduler}; also refreshes the hives' cached snapshots.
+     *
+     * @param hives The hives to ingest
+     * @return Number of rows queued
+     * @throws RuntimeException if none of the rows could be queued
      */
-    @Scheduled(fixedRate = 60000) // Run every minute
-    @Transactional
-    public void saveSensorDataScheduled() {
-        List<User> allUsers = userRepository.findAll();
+    public int ingestHives(List<Hive> hives) {
+        Map<UUID, SensorController.HiveSensorData> sensorData = fetchRealtimeData(hives, false);
+        LocalDateTime now = LocalDateTime.now();
         
-        for (User user : allUsers) {
-            UserSettings settings = userSettingsRepository.findByUser(user)
-                .orElseGet(() -> {
-                    UserSettings defaultSettings = new UserSettings();
-                    defaultSettings.setUser(user);
-                    defaultSettings.setMeasurementIntervalMinutes(1);
-                    return userSettingsRepository.save(defaultSettings);
-                });
-            
-            int intervalMinutes = settings.getMeasurementIntervalMinutes();
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime lastSave = lastSaveTime.get(user.getId());
-            
-            // Check if enough time has passed since last save
-            if (lastSave == null || lastSave.plusMinutes(intervalMinutes).isBefore(now) || 
-                lastSave.plusMinutes(intervalMinutes).isEqual(now)) {
-                
-                List<Hive> hives = hiveRepository.findByUser(user);
-                List<UUID> hiveIds = hives.stream().map(Hive::getId).collect(Collectors.toList());
-                
-                if (!hiveIds.isEmpty()) {
-                    // Try to call microservice for scheduled data
-                    try {
-                        MicroserviceRealtimeRequest request = new MicroserviceRealtimeRequest(hiveIds);
-                        MicroserviceRealtimeResponse response = sensorMicroserviceClient.getRealtimeSensorData(request);
-                        
-                        if (response != null && response.getSensorData() != null) {
-                            for (Map.Entry<UUID, MicroserviceSensorDataDTO> entry : response.getSensorData().entrySet()) {
-                                UUID hiveId = entry.getKey();
-                                MicroserviceSensorDataDTO microserviceData = entry.getValue();
-                                
-                                hives.stream().filter(h -> h.getId().equals(hiveId)).findFirst().ifPresent(hive ->
-                                    saveHistoricalData(hive,
-                                        microserviceData.getTemperature(),
-                                        microserviceData.getExternalTemperature(),
-                                        microserviceData.getHumidity(),
-                                        microserviceData.getCo2(),
-                                        microserviceData.getSoundLevel(),
-                                        microserviceData.getWeight()
-                                    )
-                                );
-                            }
-                        } else {
-                            // Fallback to local generation
-                            generateAndSaveSensorDataLocally(hives);
-                        }
-                    } catch (FeignException e) {
-                        // Microservice unavailable - fallback to local generation
-                        System.err.println("Warning: Sensor microservice unavailable for scheduled save, using fallback: " + e.getMessage());
-                        generateAndSaveSensorDataLocally(hives);
-                    }
-                }
-                
-                lastSaveTime.put(user.getId(), now);
+        List<HiveSensorData> rows = new ArrayList<>(hives.size());
+        Map<UUID, SensorController.HiveSensorData> sampled = new HashMap<>(hives.size() * 2);
+        for (Hive hive : hives) {
+            SensorController.HiveSensorData data = sensorData.get(hive.getId());
+            if (data == null) {
+                continue;
             }
+            HiveSensorData row = new HiveSensorData();
+            row.setHive(hive);
+            row.setTemperature(data.temperature);
+            row.setExternalTemperature(data.externalTemperature);
+            row.setHumidity(data.humidity);
+            row.setCo2(data.co2);
+            row.setSoundLevel(data.soundLevel);
+            row.setWeight(data.weight);
+            row.setTimestamp(now);
+            rows.add(row);
+            sampled.put(hive.getId(), data);
+            snapshotCache.put(hive.getId(), data);
+        }
+        
+        int queued = hiveSensorDataWriter.enqueueAll(rows);
+        if (queued == 0 && !rows.isEmpty()) {
+            throw new RuntimeException("Sensor data queue is full, no rows ingested for " + rows.size() + " hives");
         }
+        eventPublisher.publishEvent(new SensorDataIngestedEvent(sampled));
+        return queued;
     }
     
     /**
-     * Fallback method to generate and save sensor data locally
+     * Queues a historical sensor data row; it is written asynchronously in a batch
+     * by {@link HiveSensorDataWriter}. Also refreshes the hive's cached snapshot.
      */
-    private void generateAndSaveSensorDataLocally(List<Hive> hives) {
-        for (Hive hive : hives) {
-            double temperature = 15 + (30 - 15) * random.nextDouble();
-            double externalTemperature = 15 + (30 - 15) * random.nextDouble();
-            double humidity = 5 + (60 - 5) * random.nextDouble();
-            double co2 = 400 + (2000 - 400) * random.nextDouble();
-            double soundLevel = 40 + (100 - 40) * random.nextDouble();
-            double weight = 4 + (12 - 4) * random.nextDouble();
-            
-            double roundedTemp = Math.round(temperature * 10.0) / 10.0;
-            double roundedExtTemp = Math.round(externalTemperature * 10.0) / 10.0;
-            double roundedHumidity = Math.round(humidity * 10.0) / 10.0;
-            double roundedCo2 = Math.round(co2);
-            double roundedSound = Math.round(soundLevel * 10.0) / 10.0;
-            double roundedWeight = Math.round(weight * 10.0) / 10.0;
-            
-            saveHistoricalData(hive, roundedTemp, roundedExtTemp, roundedHumidity, roundedCo2, roundedSound, roundedWeight);
-        }
-    }
-    
-    @Transactional
     public void saveHistoricalData(Hive hive, double temperature, double externalTemperature, double humidity,
                                    double co2, double soundLevel, double weight) {
         HiveSensorData sensorData = new HiveSensorData();
@@ -371,10 +418,21 @@ public class SensorService {
         sensorData.setSoundLevel(soundLevel);
         sensorData.setWeight(weight);
         sensorData.setTimestamp(LocalDateTime.now());
-        hiveSensorDataRepository.save(sensorData);
+        hiveSensorDataWriter.enqueue(sensorData);
+        snapshotCache.put(hive.getId(), new SensorController.HiveSensorData(
+            temperature, externalTemperature, humidity, co2, soundLevel, weight));
     }
     
-    public List<HiveSensorData> getHistoricalData(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate, String email) {
+    /**
+     * Passes the hive's raw samples in the period to the consumer one by one, in timestamp order.
+     * Rows are read as projections with a database cursor, so memory use does not depend on the period length.
+     * Months moved to the archive are read from their files, the rest from the database.
+     *
+     * @return Number of samples passed to the consumer
+     */
+    @Transactional(readOnly = true)
+    public long streamHistoricalData(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate, String email,
+                                     Consumer<HiveSensorSample> consumer) {
         Hive hive = hiveRepository.findById(hiveId)
             .orElseThrow(() -> new RuntimeException("Hive not found"));
         
@@ -383,7 +441,53 @@ public class SensorService {
             throw new RuntimeException("Unauthorized access to hive");
         }
         
-        return hiveSensorDataRepository.findByHiveIdAndTimestampBetween(hiveId, startDate, endDate);
+        // Archived months first, then the live rows after them
+        long count = archiveStore.read(hiveId, startDate, endDate, consumer);
+        LocalDateTime archivedUntil = archiveStore.getArchivedUntil(hiveId);
+        LocalDateTime liveStart = archivedUntil != null && archivedUntil.isAfter(startDate) ? archivedUntil : startDate;
+        if (liveStart.isAfter(endDate)) {
+            return count;
+        }
+        // Rows and, in block storage mode, blocks; both hold samples written before and after the mode switch
+        try (Stream<HiveSensorSample> samples =
+                 hiveSensorDataRepository.streamByHiveIdAndTimestampBetween(hiveId, liveStart, endDate);
+             Stream<HiveSensorSample> blockSamples = blockService.stream(hiveId, liveStart, endDate)) {
+            Iterator<HiveSensorSample> iterator =
+                HiveSensorBlockService.mergeByTimestamp(samples.iterator(), blockSamples.iterator());
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get pre-aggregated historical data for charts, at a resolution that keeps the number of points bounded
+     */
+    public List<HiveSensorRollup> getHistoricalRollups(UUID hiveId, LocalDateTime startDate, LocalDateTime endDate, String email) {
+        verifyHiveOwnership(hiveId, email);
+        return rollupService.getRollups(hiveId, startDate, endDate);
+    }
+
+    /**
+     * Get pre-aggregated historical data for charts that are downsampled by the caller,
+     * at the finest resolution that keeps the number of rows within the downsampling limit
+     */
+    public List<HiveSensorRollup> getHistoricalRollupsForDownsampling(UUID hiveId, LocalDateTime startDate,
+                                                                      LocalDateTime endDate, String email) {
+        verifyHiveOwnership(hiveId, email);
+        return rollupService.getRollupsForDownsampling(hiveId, startDate, endDate);
+    }
+
+    private void verifyHiveOwnership(UUID hiveId, String email) {
+        Hive hive = hiveRepository.findById(hiveId)
+            .orElseThrow(() -> new RuntimeException("Hive not found"));
+        
+        // Verify ownership
+        if (!hive.getUser().getEmail().equals(email)) {
+            throw new RuntimeException("Unauthorized access to hive");
+        }
     }
 }
 
@@ -0,0 +1,179 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes ingested sensor snapshots and alert state changes to the open {@code /api/sensors/stream} connections.
+ * Sensor snapshots go to every connection, as all users can view all hives (see HiveService.getAllHives);
+ * alert state changes go to the connections of the alert's owner.
+ * Work is done once per change and per connection, independent of how often clients would poll.
+ */
+@Service
+public class SensorStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorStreamService.class);
+
+    static final String SENSOR_DATA_EVENT = "sensor-data";
+    static final String ALERT_EVENT = "alert";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Maximum number of events buffered per connection before the oldest is dropped.
+     * Configurable via application.properties: sensor.stream.buffer.size
+     */
+    @Value("${sensor.stream.buffer.size:100}")
+    private int bufferSize;
+
+    /**
+     * Time after which a stream is closed; the browser reconnects automatically.
+     * Configurable via application.properties: sensor.stream.timeout.ms
+     */
+    @Value("${sensor.stream.timeout.ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * Number of threads writing buffered events to the connections.
+     * Configurable via application.properties: sensor.stream.delivery.threads
+     */
+    @Value("${sensor.stream.delivery.threads:2}")
+    private int deliveryThreads;
+
+    private final Map<UUID, Set<SensorStreamSubscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private ExecutorService deliveryExecutor;
+    private Counter droppedEvents;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sensor-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("sensor.stream.connections", connections, AtomicInteger::get)
+            .description("Open realtime push stream connections")
+            .register(meterRegistry);
+        droppedEvents = Counter.builder("sensor.stream.events.dropped")
+            .description("Stream events dropped because a client was not keeping up")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (deliveryExecutor != null) {
+            deliveryExecutor.shutdownNow();
+        }
+        subscriptionsByUser.values().forEach(subscriptions ->
+            subscriptions.forEach(subscription -> subscription.getEmitter().complete()));
+    }
+
+    /**
+     * Opens a push stream for the user
+     */
+    public SseEmitter subscribe(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(user.getId(), emitter);
+        return emitter;
+    }
+
+    SensorStreamSubscription register(UUID userId, SseEmitter emitter) {
+        SensorStreamSubscription subscription = new SensorStreamSubscription(userId, emitter, bufferSize);
+        subscriptionsByUser.compute(userId, (id, subscriptions) -> {
+            Set<SensorStreamSubscription> updated = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(e -> unregister(subscription));
+        logger.debug("Push stream opened for user {}", userId);
+        return subscription;
+    }
+
+    private void unregister(SensorStreamSubscription subscription) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscriptionsByUser.computeIfPresent(subscription.getUserId(), (id, subscriptions) -> {
+            removed.set(subscriptions.remove(subscription));
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        if (removed.get()) {
+            connections.decrementAndGet();
+            logger.debug("Push stream closed for user {}", subscription.getUserId());
+        }
+    }
+
+    @EventListener
+    public void onSensorDataIngested(SensorDataIngestedEvent event) {
+        if (event.getSensorData().isEmpty()) {
+            return;
+        }
+        for (UUID userId : subscriptionsByUser.keySet()) {
+            publish(userId, SENSOR_DATA_EVENT, event.getSensorData());
+        }
+    }
+
+    /**
+     * Sent only once the alert change is committed (the monitoring run publishes inside its transaction),
+     * so that clients never see a change that is rolled back; events published outside a transaction
+     * are sent immediately
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertStateChanged(AlertStateChangedEvent event) {
+        if (event.getUserId() != null) {
+            publish(event.getUserId(), ALERT_EVENT, event);
+        }
+    }
+
+    private void publish(UUID userId, String name, Object data) {
+        Set<SensorStreamSubscription> subscriptions = subscriptionsByUser.get(userId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (SensorStreamSubscription subscription : subscriptions) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+            if (subscription.offer(event)) {
+                droppedEvents.increment();
+            }
+            subscription.scheduleDrain(deliveryExecutor, () -> {
+                unregister(subscription);
+                subscription.getEmitter().complete();
+            });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.beehivemonitor.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open push stream of a user.
+ * Events are buffered in a bounded queue and sent by at most one delivery task at a time;
+ * when the client cannot keep up, the oldest buffered event is dropped.
+ */
+class SensorStreamSubscription {
+
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final ArrayDeque<SseEmitter.SseEventBuilder> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    SensorStreamSubscription(UUID userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    UUID getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Adds an event to the buffer, dropping the oldest one if the buffer is full
+     *
+     * @return true if an older event was dropped
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        synchronized (buffer) {
+            boolean dropped = false;
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                dropped = true;
+            }
+            buffer.addLast(event);
+            return dropped;
+        }
+    }
+
+    int size() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    /**
+     * Starts a delivery task on the executor unless one is already running
+     */
+    void scheduleDrain(Executor executor, Runnable onFailure) {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(onFailure));
+        }
+    }
+
+    private void drain(Runnable onFailure) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (buffer) {
+                event = buffer.pollFirst();
+                if (event == null) {
+                    draining.set(false);
+                    return;
+                }
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                synchronized (buffer) {
+                    buffer.clear();
+                }
+                draining.set(false);
+                onFailure.run();
+                return;
+            }
+        }
+    }
+}
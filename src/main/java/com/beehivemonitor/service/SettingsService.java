@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+
 @Service
 public class SettingsService {
 
@@ -17,15 +19,18 @@ public class SettingsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     public UserSettings getSettingsByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         return userSettingsRepository.findByUser(user)
             .orElseGet(() -> {
                 // Create default settings if not exists
                 UserSettings settings = new UserSettings();
-                settings.setUser(user);
+                settings.setUser(userRepository.getReferenceById(user.getId()));
                 settings.setMeasurementIntervalMinutes(1);
                 return userSettingsRepository.save(settings);
             });
@@ -33,16 +38,20 @@ public class SettingsService {
 
     @Transactional
     public UserSettings updateMeasurementInterval(String email, Integer intervalMinutes) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         UserSettings settings = userSettingsRepository.findByUser(user)
             .orElseGet(() -> {
                 UserSettings newSettings = new UserSettings();
-                newSettings.setUser(user);
+                newSettings.setUser(userRepository.getReferenceById(user.getId()));
                 return newSettings;
             });
         
+        if (!Objects.equals(intervalMinutes, settings.getMeasurementIntervalMinutes())) {
+            // Let the scheduled ingest pick up the new interval on its next tick
+            settings.setNextDueAt(null);
+        }
         settings.setMeasurementIntervalMinutes(intervalMinutes);
         return userSettingsRepository.save(settings);
     }
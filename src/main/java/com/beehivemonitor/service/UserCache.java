@@ -0,0 +1,190 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of users by email, in two layers.
+ * The request layer keeps every user looked up during the current HTTP request, so the authentication
+ * filter and the services behind it share one lookup. The shared layer keeps users for a short time
+ * across requests.
+ *
+ * Cached users are detached snapshots for reads only: writes that reference the user (e.g. as owner of a
+ * new entity) use {@code UserRepository.getReferenceById}, and writes to the user load it from the
+ * repository and call {@link #invalidate(String)}. Registration invalidates the email too, and deleted
+ * users are evicted by {@link UserCacheEvictionListener}.
+ * Invalidation only reaches this instance; other instances see the change once their entry expires.
+ * Unknown emails are not cached.
+ */
+@Service
+public class UserCache {
+
+    static final String REQUEST_ATTRIBUTE = UserCache.class.getName() + ".users";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Time a user stays in the shared layer. 0 disables the shared layer.
+     * Configurable via application.properties: user.cache.ttl.seconds
+     */
+    @Value("${user.cache.ttl.seconds:30}")
+    private long ttlSeconds;
+
+    /**
+     * Maximum number of users in the shared layer; when full, further users are not cached.
+     * Configurable via application.properties: user.cache.max-size
+     */
+    @Value("${user.cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> users = new ConcurrentHashMap<>();
+
+    // Incremented on every invalidation; a load that overlaps one is not cached, as it may have read the old row
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Counter requestHits;
+    private Counter sharedHits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        requestHits = hitCounter("request");
+        sharedHits = hitCounter("shared");
+        misses = Counter.builder("user.cache.misses")
+            .description("User lookups that queried the database")
+            .register(meterRegistry);
+        Gauge.builder("user.cache.size", users, Map::size)
+            .description("Users in the shared user cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Looks the user up in the request layer, then the shared layer, then the database
+     */
+    public Optional<User> findByEmail(String email) {
+        Map<String, User> requestUsers = requestUsers();
+        if (requestUsers != null) {
+            User user = requestUsers.get(email);
+            if (user != null) {
+                requestHits.increment();
+                return Optional.of(user);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = users.get(email);
+        User user;
+        if (entry != null && entry.expiresAt() > now) {
+            sharedHits.increment();
+            user = entry.user();
+        } else {
+            misses.increment();
+            long invalidationsBefore = invalidations.get();
+            Optional<User> loaded = userRepository.findByEmail(email);
+            if (loaded.isEmpty()) {
+                users.remove(email);
+                return Optional.empty();
+            }
+            user = loaded.get();
+            if (invalidations.get() == invalidationsBefore) {
+                store(email, user, now);
+            }
+        }
+
+        if (requestUsers != null) {
+            requestUsers.put(email, user);
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Drops the user from both layers. Inside a transaction the user is dropped again after commit,
+     * so a lookup running before the commit cannot keep the old row cached.
+     */
+    public void invalidate(String email) {
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    int getCachedUserCount() {
+        return users.size();
+    }
+
+    private void evict(String email) {
+        invalidations.incrementAndGet();
+        users.remove(email);
+        Map<String, User> requestUsers = requestUsers();
+        if (requestUsers != null) {
+            requestUsers.remove(email);
+        }
+    }
+
+    private void store(String email, User user, long now) {
+        if (ttlSeconds <= 0) {
+            return;
+        }
+        if (users.size() >= maxSize) {
+            users.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (users.size() >= maxSize) {
+                return;
+            }
+        }
+        users.put(email, new Entry(user, now + ttlSeconds * 1000));
+    }
+
+    /**
+     * @return The users looked up during the current request, or null outside a request
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, User> requestUsers() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, User> requestUsers =
+            (Map<String, User>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestUsers == null) {
+            requestUsers = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, requestUsers, RequestAttributes.SCOPE_REQUEST);
+        }
+        return requestUsers;
+    }
+
+    private Counter hitCounter(String layer) {
+        return Counter.builder("user.cache.hits")
+            .description("User lookups served from the user cache")
+            .tag("layer", layer)
+            .register(meterRegistry);
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
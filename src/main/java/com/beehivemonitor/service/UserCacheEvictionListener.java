@@ -0,0 +1,23 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.User;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Evicts deleted users from the {@link UserCache}, however they are deleted (repository, cascade),
+ * so a deleted user can no longer authenticate from a cached entry.
+ * Instantiated by Hibernate through the Spring bean container; the cache is optional so that
+ * JPA test slices without it still start.
+ */
+public class UserCacheEvictionListener {
+
+    @Autowired
+    private ObjectProvider<UserCache> userCache;
+
+    @PostRemove
+    public void userRemoved(User user) {
+        userCache.ifAvailable(cache -> cache.invalidate(user.getEmail()));
+    }
+}
@@ -21,8 +21,14 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AlertIndex alertIndex;
+
+    @Autowired
+    private UserCache userCache;
+
     public AuthResponse.UserResponse getCurrentUser(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         return AuthResponse.UserResponse.fromUser(user);
     }
@@ -48,6 +54,8 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setEmailNotificationEnabled(enabled);
         userRepository.save(user);
+        alertIndex.invalidate();
+        userCache.invalidate(email);
     }
 
     public AuthResponse.UserResponse updateUserRole(UUID userId, User.Role newRole, String adminEmail) {
@@ -64,6 +72,7 @@ public class UserService {
         
         user.setRole(newRole);
         user = userRepository.save(user);
+        userCache.invalidate(user.getEmail());
         return AuthResponse.UserResponse.fromUser(user);
     }
 
@@ -106,6 +115,7 @@ public class UserService {
         // Set new password
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userCache.invalidate(email);
     }
 }
 
@@ -17,15 +17,18 @@ public class UserSettingsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     public UserSettings getSettingsByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         return userSettingsRepository.findByUser(user)
             .orElseGet(() -> {
                 // Create default settings if not exists
                 UserSettings settings = new UserSettings();
-                settings.setUser(user);
+                settings.setUser(userRepository.getReferenceById(user.getId()));
                 settings.setMeasurementIntervalMinutes(1);
                 return userSettingsRepository.save(settings);
             });
@@ -33,13 +36,16 @@ public class UserSettingsService {
 
     @Transactional
     public UserSettings updateMeasurementInterval(String email, Integer intervalMinutes) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         UserSettings settings = userSettingsRepository.findByUser(user)
-            .orElse(new UserSettings());
+            .orElseGet(() -> {
+                UserSettings newSettings = new UserSettings();
+                newSettings.setUser(userRepository.getReferenceById(user.getId()));
+                return newSettings;
+            });
         
-        settings.setUser(user);
         settings.setMeasurementIntervalMinutes(intervalMinutes);
         
         return userSettingsRepository.save(settings);
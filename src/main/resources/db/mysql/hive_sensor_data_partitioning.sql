@@ -0,0 +1,33 @@
+-- Migration for hive_sensor_data (MySQL 8)
+--
+-- Step 1 - composite index, required.
+-- Hibernate (ddl-auto=update) creates it on new databases; run this once on existing ones.
+-- MySQL then drops the implicit single-column index it created for the hive_id foreign key.
+
+CREATE INDEX idx_hive_sensor_data_hive_timestamp ON hive_sensor_data (hive_id, timestamp);
+
+-- Step 2 - monthly RANGE partitioning, optional.
+-- Lets retention drop a whole month with ALTER TABLE ... DROP PARTITION instead of deleting rows.
+-- MySQL restrictions on partitioned tables:
+--   * every unique key must contain the partitioning column, so the primary key becomes (id, timestamp)
+--   * foreign keys are not supported, so the hive_id foreign key is dropped
+--     (ownership is still enforced by the application; set spring.jpa.hibernate.ddl-auto=validate or none
+--      afterwards, otherwise Hibernate tries to re-create the foreign key on every start)
+-- The table is rebuilt, so run it in a maintenance window. Adjust the first partitions to the oldest
+-- data that is kept (SELECT MIN(timestamp) FROM hive_sensor_data); older rows end up in the first one.
+-- Then set sensor.data.partitioning.enabled=true: the application adds the partitions of the coming
+-- months by splitting pmax, and retention drops the expired ones.
+
+-- SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+--     WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'hive_sensor_data';
+-- ALTER TABLE hive_sensor_data DROP FOREIGN KEY <constraint name from the query above>;
+--
+-- ALTER TABLE hive_sensor_data DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp);
+--
+-- ALTER TABLE hive_sensor_data
+--     PARTITION BY RANGE COLUMNS (timestamp) (
+--         PARTITION p202609 VALUES LESS THAN ('2026-10-01 00:00:00'),
+--         PARTITION p202610 VALUES LESS THAN ('2026-11-01 00:00:00'),
+--         PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'),
+--         PARTITION pmax VALUES LESS THAN (MAXVALUE)
+--     );
@@ -0,0 +1,27 @@
+-- Migration to time-ordered (UUIDv7) ids for hive_sensor_data, sensor_readings and alerts (MySQL 8)
+--
+-- No schema change is needed: Hibernate already maps UUID ids to BINARY(16), and the application
+-- generates UUIDv7 values for new rows (@TimeOrderedUuid). New rows are appended at the end of the
+-- primary key from the first insert on; existing random (v4) ids stay valid and can be mixed with them.
+--
+-- Optional: rewrite the existing ids as UUIDv7 derived from the row timestamp, so that the whole
+-- clustered index is in time order (and can be rebuilt compactly). Nothing references these ids by
+-- foreign key. The statements rewrite every row, so run them in a maintenance window; afterwards
+-- OPTIMIZE TABLE rebuilds the index without the half-empty pages left by random inserts.
+-- alerts is left out on purpose: it is small, and its ids are used in API URLs.
+--
+-- Layout: 48 bit epoch milliseconds | version 7 | 12 random bits | variant 10 | 62 random bits
+
+-- UPDATE hive_sensor_data SET id = UNHEX(CONCAT(
+--     LPAD(HEX(FLOOR(UNIX_TIMESTAMP(`timestamp`) * 1000)), 12, '0'),
+--     '7', SUBSTR(HEX(RANDOM_BYTES(2)), 2),
+--     HEX(128 | (ASCII(RANDOM_BYTES(1)) & 63)),
+--     HEX(RANDOM_BYTES(7))));
+-- OPTIMIZE TABLE hive_sensor_data;
+--
+-- UPDATE sensor_readings SET id = UNHEX(CONCAT(
+--     LPAD(HEX(FLOOR(UNIX_TIMESTAMP(`timestamp`) * 1000)), 12, '0'),
+--     '7', SUBSTR(HEX(RANDOM_BYTES(2)), 2),
+--     HEX(128 | (ASCII(RANDOM_BYTES(1)) & 63)),
+--     HEX(RANDOM_BYTES(7))));
+-- OPTIMIZE TABLE sensor_readings;
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from "react";
 import axios from "axios";
 import { Link } from "react-router-dom";
+import { openSensorStream } from "../sensorStream";
 
 export default function AlertsPage() {
   const [alerts, setAlerts] = useState([]);
@@ -24,13 +25,18 @@ export default function AlertsPage() {
 
   useEffect(() => {
     fetchAlerts();
-    
-    // Auto-refresh alerts every 1 minute to update trigger status
-    const interval = setInterval(() => {
-      fetchAlerts();
-    }, 60000);
 
-    return () => clearInterval(interval);
+    // Update trigger status when the server pushes an alert state change
+    const closeStream = openSensorStream({
+      alert: (change) =>
+        setAlerts((current) =>
+          current.map((alert) =>
+            alert.id === change.alertId ? { ...alert, isTriggered: change.triggered } : alert
+          )
+        ),
+    });
+
+    return closeStream;
   }, []);
 
   const handleDelete = async (alertId, alertName) => {
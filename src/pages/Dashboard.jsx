@@ -2,6 +2,7 @@ import React, { useEffect, useState } from "react";
 import axios from "axios";
 import { Link } from "react-router-dom";
 import { useAuth } from "../contexts/AuthContext";
+import { openSensorStream } from "../sensorStream";
 
 export default function Dashboard() {
   const [hives, setHives] = useState([]);
@@ -87,13 +88,13 @@ export default function Dashboard() {
   useEffect(() => {
     fetchHives();
     fetchSensorData(); // Initial fetch
-    
-    // Set up auto-refresh every 1 minute (60000 ms)
-    const interval = setInterval(() => {
-      fetchSensorData();
-    }, 60000);
 
-    return () => clearInterval(interval); // Cleanup on unmount
+    // Receive new samples as they are ingested instead of polling
+    const closeStream = openSensorStream({
+      "sensor-data": (update) => setSensorData((current) => ({ ...current, ...update })),
+    });
+
+    return closeStream; // Cleanup on unmount
   }, []);
 
   const handleUpdateSensors = async () => {
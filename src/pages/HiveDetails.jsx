@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from "react";
 import { useParams } from "react-router-dom";
 import axios from "axios";
+import { openSensorStream } from "../sensorStream";
 
 export default function HiveDetails() {
   const { hiveId } = useParams();
@@ -42,6 +43,17 @@ export default function HiveDetails() {
       console.error("Error fetching realtime data:", err);
       setRealtimeData(null);
     });
+
+    // Keep the current sensor data up to date with pushed samples
+    const closeStream = openSensorStream({
+      "sensor-data": (update) => {
+        if (update[hiveId]) {
+          setRealtimeData(update[hiveId]);
+        }
+      },
+    });
+
+    return closeStream;
   }, [hiveId]);
 
   return loading || !hive ? (
@@ -0,0 +1,51 @@
+import axios from "axios";
+
+const API = "http://localhost:8080/api/sensors";
+const RECONNECT_DELAY_MS = 5000;
+
+// Opens the server push stream and keeps it open until the returned function is called.
+// EventSource cannot send the Authorization header, so every connection uses a fresh
+// single-use ticket; when the browser gives up on a connection a new ticket is fetched.
+export function openSensorStream(listeners) {
+  let stream = null;
+  let retryTimer = null;
+  let closed = false;
+
+  const scheduleReconnect = () => {
+    if (!closed) {
+      retryTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+    }
+  };
+
+  const connect = () => {
+    const token = localStorage.getItem("token");
+    if (!token || closed) return;
+
+    axios
+      .post(`${API}/stream/ticket`, {}, { headers: { Authorization: `Bearer ${token}` } })
+      .then((res) => {
+        if (closed) return;
+        stream = new EventSource(`${API}/stream?ticket=${encodeURIComponent(res.data.ticket)}`);
+        Object.entries(listeners).forEach(([name, listener]) => {
+          stream.addEventListener(name, (event) => listener(JSON.parse(event.data)));
+        });
+        stream.onerror = () => {
+          // A ticket is used up once the stream is open, so the browser's own retry fails
+          stream.close();
+          scheduleReconnect();
+        };
+      })
+      .catch((err) => {
+        console.error("Error opening sensor stream:", err);
+        scheduleReconnect();
+      });
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (stream) stream.close();
+  };
+}
@@ -16,6 +16,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -57,6 +60,9 @@ class AlertControllerApiTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
     private String validToken;
     private String testEmail;
     private User testUser;
@@ -105,6 +111,26 @@ class AlertControllerApiTest {
                 .andExpect(jsonPath("$[0].hiveName").value("Test Hive"));
     }
 
+    @Test
+    void testGetAllAlerts_UnchangedListReturnsNotModified() throws Exception {
+        // Arrange
+        when(alertService.getAllAlertsByUser(testEmail)).thenReturn(List.of(testAlert));
+        MockMvc etagMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+            .addFilters(new ShallowEtagHeaderFilter())
+            .build();
+        String etag = etagMockMvc.perform(get("/api/alerts")
+                .header("Authorization", validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        etagMockMvc.perform(get("/api/alerts")
+                .header("Authorization", validToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void testGetAlertById_Success() throws Exception {
         // Arrange
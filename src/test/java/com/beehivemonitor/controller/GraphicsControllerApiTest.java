@@ -1,12 +1,15 @@
 package com.beehivemonitor.controller;
 
+import com.beehivemonitor.dto.HiveSensorSample;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.UserRepository;
 import com.beehivemonitor.security.CustomUserDetailsService;
 import com.beehivemonitor.security.JwtAuthenticationFilter;
 import com.beehivemonitor.security.JwtTokenProvider;
+import com.beehivemonitor.service.HiveSensorRollupService;
 import com.beehivemonitor.service.SensorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,17 +18,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -100,8 +107,9 @@ class GraphicsControllerApiTest {
     @Test
     void testGetHistoricalData_Success() throws Exception {
         // Arrange
-        List<HiveSensorData> historicalData = Arrays.asList(testHiveSensorData);
-        when(sensorService.getHistoricalData(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+        List<HiveSensorRollup> historicalData = Arrays.asList(
+                HiveSensorRollup.of(testHiveId, HiveSensorRollup.Resolution.HOURLY, testHiveSensorData));
+        when(sensorService.getHistoricalRollups(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
                 .thenReturn(historicalData);
 
         // Act & Assert
@@ -142,8 +150,10 @@ class GraphicsControllerApiTest {
         data2.setWeight(21.0);
         data2.setTimestamp(LocalDateTime.now());
 
-        List<HiveSensorData> historicalData = Arrays.asList(data1, data2);
-        when(sensorService.getHistoricalData(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+        List<HiveSensorRollup> historicalData = Arrays.asList(
+                HiveSensorRollup.of(testHiveId, HiveSensorRollup.Resolution.FIVE_MINUTES, data1),
+                HiveSensorRollup.of(testHiveId, HiveSensorRollup.Resolution.FIVE_MINUTES, data2));
+        when(sensorService.getHistoricalRollups(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
                 .thenReturn(historicalData);
 
         // Act & Assert
@@ -159,11 +169,137 @@ class GraphicsControllerApiTest {
                 .andExpect(jsonPath("$[1].temperature").value(36.0));
     }
 
+    @Test
+    void testGetHistoricalData_MaxPoints_DownsamplesEachMetric() throws Exception {
+        // Arrange
+        List<HiveSensorRollup> historicalData = new java.util.ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withSecond(0).withNano(0);
+        for (int i = 0; i < 50; i++) {
+            testHiveSensorData.setTimestamp(start.plusMinutes(5L * i));
+            testHiveSensorData.setTemperature(i == 20 ? 45.0 : 35.0);
+            historicalData.add(HiveSensorRollup.of(testHiveId, HiveSensorRollup.Resolution.FIVE_MINUTES, testHiveSensorData));
+        }
+        when(sensorService.getHistoricalRollupsForDownsampling(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+                .thenReturn(historicalData);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/graphics/historical-data")
+                .param("hiveId", testHiveId.toString())
+                .param("days", "1")
+                .param("maxPoints", "5")
+                .header("Authorization", validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temperature.length()").value(5))
+                .andExpect(jsonPath("$.temperature[0].value").value(35.0))
+                .andExpect(jsonPath("$.temperature[?(@.value == 45.0)]").exists())
+                .andExpect(jsonPath("$.humidity.length()").value(5))
+                .andExpect(jsonPath("$.weight.length()").value(5));
+    }
+
+    @Test
+    void testGetHistoricalData_MaxPointsOverThirtyDays_ReturnsMaxPointsPerMetric() throws Exception {
+        // Arrange - The rows come at the resolution the rollup service would choose for downsampling
+        HiveSensorRollupService rollupService = new HiveSensorRollupService();
+        ReflectionTestUtils.setField(rollupService, "maxPoints", 500);
+        ReflectionTestUtils.setField(rollupService, "maxDownsampleRows", 5000);
+        when(sensorService.getHistoricalRollupsForDownsampling(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime start = invocation.getArgument(1);
+                    LocalDateTime end = invocation.getArgument(2);
+                    HiveSensorRollup.Resolution resolution = rollupService.selectDownsamplingResolution(start, end);
+                    List<HiveSensorRollup> rows = new java.util.ArrayList<>();
+                    int i = 0;
+                    for (LocalDateTime bucket = resolution.bucketStart(start); !bucket.isAfter(end);
+                            bucket = bucket.plusMinutes(resolution.getMinutes()), i++) {
+                        testHiveSensorData.setTimestamp(bucket);
+                        testHiveSensorData.setTemperature(35.0 + Math.sin(i / 12.0));
+                        rows.add(HiveSensorRollup.of(testHiveId, resolution, testHiveSensorData));
+                    }
+                    return rows;
+                });
+
+        // Act & Assert
+        mockMvc.perform(get("/api/graphics/historical-data")
+                .param("hiveId", testHiveId.toString())
+                .param("days", "30")
+                .param("maxPoints", "300")
+                .header("Authorization", validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temperature.length()").value(300))
+                .andExpect(jsonPath("$.externalTemperature.length()").value(300))
+                .andExpect(jsonPath("$.humidity.length()").value(300))
+                .andExpect(jsonPath("$.co2.length()").value(300))
+                .andExpect(jsonPath("$.soundLevel.length()").value(300))
+                .andExpect(jsonPath("$.weight.length()").value(300));
+    }
+
+    @Test
+    void testGetHistoricalData_MaxPointsWithoutSamples_ReturnsEmptySeries() throws Exception {
+        // Arrange
+        when(sensorService.getHistoricalRollupsForDownsampling(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/graphics/historical-data")
+                .param("hiveId", testHiveId.toString())
+                .param("days", "1")
+                .param("maxPoints", "5")
+                .header("Authorization", validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temperature").isArray())
+                .andExpect(jsonPath("$.temperature").isEmpty())
+                .andExpect(jsonPath("$.externalTemperature").isEmpty())
+                .andExpect(jsonPath("$.humidity").isEmpty())
+                .andExpect(jsonPath("$.co2").isEmpty())
+                .andExpect(jsonPath("$.soundLevel").isEmpty())
+                .andExpect(jsonPath("$.weight").isEmpty());
+    }
+
+    @Test
+    void testGetHistoricalData_MaxPointsBelowThree_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/graphics/historical-data")
+                .param("hiveId", testHiveId.toString())
+                .param("days", "1")
+                .param("maxPoints", "2")
+                .header("Authorization", validToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportHistoricalData_StreamsJsonArray() throws Exception {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.of(2024, 6, 1, 10, 0);
+        when(sensorService.streamHistoricalData(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                anyString(), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<HiveSensorSample> consumer = invocation.getArgument(4);
+            consumer.accept(new HiveSensorSample(timestamp, 35.5, 25.0, 60.0, 500.0, 70.0, 20.5));
+            consumer.accept(new HiveSensorSample(timestamp.plusMinutes(1), 36.0, 25.0, 61.0, 510.0, 71.0, 20.5));
+            return 2L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/graphics/historical-data/export")
+                .param("hiveId", testHiveId.toString())
+                .param("days", "90")
+                .header("Authorization", validToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].timestamp").value("2024-06-01T10:00"))
+                .andExpect(jsonPath("$[1].temperature").value(36.0));
+    }
+
     @Test
     void testGetHistoricalData_EmptyResult_Success() throws Exception {
         // Arrange
-        List<HiveSensorData> emptyData = Arrays.asList();
-        when(sensorService.getHistoricalData(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+        List<HiveSensorRollup> emptyData = Arrays.asList();
+        when(sensorService.getHistoricalRollups(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
                 .thenReturn(emptyData);
 
         // Act & Assert
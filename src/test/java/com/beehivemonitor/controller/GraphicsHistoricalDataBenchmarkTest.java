@@ -0,0 +1,171 @@
+package com.beehivemonitor.controller;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.repository.UserRepository;
+import com.beehivemonitor.security.CustomUserDetailsService;
+import com.beehivemonitor.security.JwtAuthenticationFilter;
+import com.beehivemonitor.security.JwtTokenProvider;
+import com.beehivemonitor.service.HiveSensorRollupService;
+import com.beehivemonitor.service.LttbDownsampler;
+import com.beehivemonitor.service.SensorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark for GET /api/graphics/historical-data
+ * Reports response size and latency for 1, 7, 30 and 365 days, from the rollups with and without
+ * LTTB downsampling, and the cost of downsampling the equivalent raw one-minute series.
+ * Run with: mvn test -Dtest=GraphicsHistoricalDataBenchmarkTest -Dbenchmark=true
+ */
+@WebMvcTest(controllers = GraphicsController.class, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+})
+@AutoConfigureMockMvc(addFilters = false)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GraphicsHistoricalDataBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphicsHistoricalDataBenchmarkTest.class);
+
+    private static final int[] PERIODS_DAYS = {1, 7, 30, 365};
+    private static final int MAX_POINTS = 100;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SensorService sensorService;
+
+    @MockBean
+    private JwtTokenProvider tokenProvider;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @Test
+    void benchmarkHistoricalData() throws Exception {
+        HiveSensorRollupService rollupService = new HiveSensorRollupService();
+        ReflectionTestUtils.setField(rollupService, "maxPoints", 500);
+        ReflectionTestUtils.setField(rollupService, "maxDownsampleRows", 5000);
+        when(tokenProvider.getEmailFromToken(anyString())).thenReturn("test@example.com");
+        UUID hiveId = UUID.randomUUID();
+
+        logger.info(String.format("%-6s %-13s %8s %12s %12s %12s %12s %14s",
+            "days", "resolution", "rows", "bytes", "latency ms", "bytes@" + MAX_POINTS, "latency ms", "raw LTTB ms"));
+        for (int days : PERIODS_DAYS) {
+            LocalDateTime end = LocalDateTime.now();
+            LocalDateTime start = end.minusDays(days);
+            HiveSensorRollup.Resolution resolution = rollupService.selectResolution(start, end);
+            List<HiveSensorRollup> rollups = syntheticRollups(hiveId, resolution, start, end);
+            when(sensorService.getHistoricalRollups(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+                .thenReturn(rollups);
+
+            HiveSensorRollup.Resolution downsamplingResolution = rollupService.selectDownsamplingResolution(start, end);
+            when(sensorService.getHistoricalRollupsForDownsampling(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+                .thenReturn(syntheticRollups(hiveId, downsamplingResolution, start, end));
+
+            Result full = measure(hiveId, days, null);
+            Result downsampled = measure(hiveId, days, MAX_POINTS);
+            double rawLttbMs = measureRawLttb(days * 24 * 60);
+
+            logger.info(String.format("%-6d %-13s %8d %12d %12.3f %12d %12.3f %14.3f",
+                days, resolution, rollups.size(), full.bytes, full.latencyMs,
+                downsampled.bytes, downsampled.latencyMs, rawLttbMs));
+        }
+    }
+
+    private Result measure(UUID hiveId, int days, Integer maxPoints) throws Exception {
+        int bytes = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = perform(hiveId, days, maxPoints).getResponse().getContentLength();
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = perform(hiveId, days, maxPoints).getResponse().getContentAsByteArray().length;
+        }
+        return new Result(bytes, (System.nanoTime() - startNanos) / 1_000_000.0 / ITERATIONS);
+    }
+
+    private MvcResult perform(UUID hiveId, int days, Integer maxPoints) throws Exception {
+        var request = get("/api/graphics/historical-data")
+            .param("hiveId", hiveId.toString())
+            .param("days", String.valueOf(days))
+            .header("Authorization", "Bearer token");
+        if (maxPoints != null) {
+            request.param("maxPoints", maxPoints.toString());
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+    }
+
+    private double measureRawLttb(int length) {
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i * 60L;
+            y[i] = 35.0 + Math.sin(i / 90.0) + (i % 17) * 0.01;
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            LttbDownsampler.select(x, y, MAX_POINTS);
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            LttbDownsampler.select(x, y, MAX_POINTS);
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private List<HiveSensorRollup> syntheticRollups(UUID hiveId, HiveSensorRollup.Resolution resolution,
+                                                    LocalDateTime start, LocalDateTime end) {
+        Hive hive = new Hive();
+        hive.setId(hiveId);
+        List<HiveSensorRollup> rollups = new ArrayList<>();
+        int i = 0;
+        for (LocalDateTime bucket = resolution.bucketStart(start); !bucket.isAfter(end);
+                bucket = bucket.plusMinutes(resolution.getMinutes()), i++) {
+            HiveSensorData sample = new HiveSensorData();
+            sample.setHive(hive);
+            sample.setTemperature(35.0 + Math.sin(i / 12.0));
+            sample.setExternalTemperature(20.0 + Math.cos(i / 12.0));
+            sample.setHumidity(55.0 + (i % 7));
+            sample.setCo2(800.0 + (i % 11) * 5);
+            sample.setSoundLevel(60.0 + (i % 5));
+            sample.setWeight(40.0 + i * 0.001);
+            sample.setTimestamp(bucket);
+            rollups.add(HiveSensorRollup.of(hiveId, resolution, sample));
+        }
+        return rollups;
+    }
+
+    private record Result(int bytes, double latencyMs) {
+    }
+}
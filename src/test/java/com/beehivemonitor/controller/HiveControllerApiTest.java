@@ -2,11 +2,11 @@ package com.beehivemonitor.controller;
 
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
-import com.beehivemonitor.repository.UserRepository;
 import com.beehivemonitor.security.CustomUserDetailsService;
 import com.beehivemonitor.security.JwtAuthenticationFilter;
 import com.beehivemonitor.security.JwtTokenProvider;
 import com.beehivemonitor.service.HiveService;
+import com.beehivemonitor.service.UserCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,7 +55,7 @@ class HiveControllerApiTest {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @MockBean
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -84,7 +84,7 @@ class HiveControllerApiTest {
 
         // Mock JWT token provider
         when(tokenProvider.getEmailFromToken(anyString())).thenReturn(testEmail);
-        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
     }
 
     @Test
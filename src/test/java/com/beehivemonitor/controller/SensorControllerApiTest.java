@@ -6,7 +6,9 @@ import com.beehivemonitor.entity.User;
 import com.beehivemonitor.security.CustomUserDetailsService;
 import com.beehivemonitor.security.JwtAuthenticationFilter;
 import com.beehivemonitor.security.JwtTokenProvider;
+import com.beehivemonitor.security.StreamTicketProvider;
 import com.beehivemonitor.service.SensorService;
+import com.beehivemonitor.service.SensorStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -45,9 +48,15 @@ class SensorControllerApiTest {
     @MockBean
     private SensorService sensorService;
 
+    @MockBean
+    private SensorStreamService sensorStreamService;
+
     @MockBean
     private JwtTokenProvider tokenProvider;
 
+    @MockBean
+    private StreamTicketProvider streamTicketProvider;
+
     @MockBean
     private CustomUserDetailsService customUserDetailsService;
 
@@ -97,6 +106,33 @@ class SensorControllerApiTest {
                 .andExpect(jsonPath("$[0].value").value(35.5));
     }
 
+    @Test
+    void testStreamSensorData_OpensEventStream() throws Exception {
+        // Arrange
+        when(sensorStreamService.subscribe(testEmail)).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/sensors/stream")
+                .principal(() -> testEmail)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testCreateStreamTicket_ReturnsTicket() throws Exception {
+        // Arrange
+        when(streamTicketProvider.issue(testEmail)).thenReturn("stream-ticket");
+        when(streamTicketProvider.getTtlSeconds()).thenReturn(30L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/sensors/stream/ticket")
+                .principal(() -> testEmail))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ticket").value("stream-ticket"))
+                .andExpect(jsonPath("$.expiresInSeconds").value(30));
+    }
+
     @Test
     void testGetRealtimeDataForAllHives_Success() throws Exception {
         // Arrange
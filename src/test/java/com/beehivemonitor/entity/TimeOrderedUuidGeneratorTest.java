@@ -0,0 +1,72 @@
+package com.beehivemonitor.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for TimeOrderedUuidGenerator
+ * Tests the UUIDv7 layout, strict ordering and the embedded timestamp
+ */
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void testNext_IsVersion7WithRfcVariant() {
+        // Act
+        UUID uuid = TimeOrderedUuidGenerator.next();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testNext_IsStrictlyIncreasingInByteOrder() {
+        // Arrange - far more ids than fit into one millisecond's counter
+        List<UUID> ids = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        // Assert - BINARY(16) columns compare unsigned, byte by byte
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0, "Not increasing at " + i);
+        }
+        Set<UUID> unique = new HashSet<>(ids);
+        assertEquals(ids.size(), unique.size());
+    }
+
+    @Test
+    void testTimestampOf_ReturnsCreationTime() {
+        // Arrange
+        Instant before = Instant.now();
+
+        // Act
+        Instant timestamp = TimeOrderedUuidGenerator.timestampOf(TimeOrderedUuidGenerator.next());
+
+        // Assert - a millisecond may be borrowed when the counter is exhausted
+        assertFalse(timestamp.isBefore(before.minusMillis(1)));
+        assertTrue(Duration.between(before, timestamp).toSeconds() < 5);
+    }
+
+    @Test
+    void testTimestampOf_RejectsRandomUuid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedUuidGenerator.timestampOf(UUID.randomUUID()));
+    }
+
+    private int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -3,6 +3,7 @@ package com.beehivemonitor.repository;
 import com.beehivemonitor.entity.Alert;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -57,6 +58,26 @@ class AlertRepositoryIntegrationTest {
         testHive = entityManager.persistAndFlush(testHive);
     }
 
+    @Test
+    void testFindAllWithHiveAndUser_FetchesHiveAndOwner() {
+        // Arrange
+        Alert alert = new Alert();
+        alert.setName("Alert 1");
+        alert.setHive(testHive);
+        alert.setTriggerConditions("[]");
+        entityManager.persistAndFlush(alert);
+        entityManager.clear();
+
+        // Act
+        List<Alert> alerts = alertRepository.findAllWithHiveAndUser();
+
+        // Assert
+        assertEquals(1, alerts.size());
+        assertTrue(Hibernate.isInitialized(alerts.get(0).getHive()));
+        assertTrue(Hibernate.isInitialized(alerts.get(0).getHive().getUser()));
+        assertEquals("test@example.com", alerts.get(0).getHive().getUser().getEmail());
+    }
+
     @Test
     void testFindByUserId_ReturnsUserAlerts() {
         // Arrange - Create multiple alerts
@@ -73,6 +94,7 @@ class AlertRepositoryIntegrationTest {
         alert2.setTriggerConditions("[{\"parameter\":\"humidity\",\"operator\":\">\",\"value\":80}]");
         alert2.setIsTriggered(true);
         entityManager.persistAndFlush(alert2);
+        entityManager.clear();
 
         // Act
         List<Alert> alerts = alertRepository.findByUserId(testUser.getId());
@@ -80,6 +102,7 @@ class AlertRepositoryIntegrationTest {
         // Assert
         assertNotNull(alerts);
         assertTrue(alerts.size() >= 2);
+        assertTrue(alerts.stream().allMatch(a -> Hibernate.isInitialized(a.getHive())));
         assertTrue(alerts.stream().anyMatch(a -> a.getName().equals("Alert 1")));
         assertTrue(alerts.stream().anyMatch(a -> a.getName().equals("Alert 2")));
     }
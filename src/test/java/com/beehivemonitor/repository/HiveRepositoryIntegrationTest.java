@@ -0,0 +1,131 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.dto.HiveIngestTarget;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.entity.UserSettings;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for HiveRepository
+ * Tests the scheduled ingest claim and projection and guards their query count with Hibernate statistics
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class HiveRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HiveRepository hiveRepository;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindIngestTargetsByClaim_ReturnsHivesOfClaimedUsers() {
+        // Arrange
+        User claimed = persistUser("claimed@example.com", 5, null);
+        User notDue = persistUser("not-due@example.com", 5, LocalDateTime.now().plusMinutes(3));
+        Hive hive1 = persistHive(claimed, "Hive 1");
+        Hive hive2 = persistHive(claimed, "Hive 2");
+        persistHive(notDue, "Hive 3");
+        entityManager.clear();
+
+        // Act
+        int claimedUsers = userSettingsRepository.claimDueUsers("claim-1", LocalDateTime.now(), LocalDateTime.now());
+        List<HiveIngestTarget> targets = hiveRepository.findIngestTargetsByClaim("claim-1");
+
+        // Assert
+        assertEquals(1, claimedUsers);
+        assertEquals(2, targets.size());
+        Map<UUID, HiveIngestTarget> byHive = targets.stream()
+                .collect(Collectors.toMap(HiveIngestTarget::getHiveId, target -> target));
+        assertEquals(claimed.getId(), byHive.get(hive1.getId()).getUserId());
+        assertEquals(5, byHive.get(hive1.getId()).getMeasurementIntervalMinutes());
+        assertTrue(byHive.containsKey(hive2.getId()));
+        assertTrue(hiveRepository.findIngestTargetsByClaim("other-claim").isEmpty());
+    }
+
+    @Test
+    void testIngestClaim_QueryCountDoesNotGrowWithUsers() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            persistHive(persistUser("user" + i + "@example.com", i + 1, null), "Hive " + i);
+        }
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        userSettingsRepository.claimDueUsers("claim-1", LocalDateTime.now(), LocalDateTime.now());
+        hiveRepository.findIngestTargetsByClaim("claim-1");
+        long queriesForFewUsers = statistics.getPrepareStatementCount();
+
+        for (int i = 3; i < 30; i++) {
+            persistHive(persistUser("user" + i + "@example.com", i % 2 == 0 ? 1 : 10, null), "Hive " + i);
+        }
+        entityManager.clear();
+        statistics.clear();
+        userSettingsRepository.claimDueUsers("claim-2", LocalDateTime.now(), LocalDateTime.now());
+        List<HiveIngestTarget> targets = hiveRepository.findIngestTargetsByClaim("claim-2");
+        long queriesForManyUsers = statistics.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(27, targets.size());
+        assertEquals(2, queriesForFewUsers);
+        assertEquals(2, queriesForManyUsers);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private User persistUser(String email, int measurementIntervalMinutes, LocalDateTime nextDueAt) {
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(email);
+        user.setPassword("encodedPassword");
+        user.setRole(User.Role.USER);
+        user.setEmailNotificationEnabled(false);
+        user = entityManager.persistAndFlush(user);
+
+        UserSettings settings = new UserSettings();
+        settings.setUser(user);
+        settings.setMeasurementIntervalMinutes(measurementIntervalMinutes);
+        settings.setNextDueAt(nextDueAt);
+        entityManager.persistAndFlush(settings);
+        return user;
+    }
+
+    private Hive persistHive(User user, String name) {
+        Hive hive = new Hive();
+        hive.setName(name);
+        hive.setLocation("Test Location");
+        hive.setUser(user);
+        return entityManager.persistAndFlush(hive);
+    }
+}
@@ -0,0 +1,105 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.entity.HiveSensorBlock;
+import com.beehivemonitor.service.SensorBlockCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for HiveSensorBlockRepository
+ * Tests block persistence and block range queries using H2 in-memory database
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class HiveSensorBlockRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HiveSensorBlockRepository blockRepository;
+
+    private UUID hiveId;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        hiveId = UUID.randomUUID();
+        base = LocalDateTime.of(2024, 6, 1, 10, 0);
+    }
+
+    @Test
+    void testSave_RoundTripsEncodedSamples() {
+        // Arrange
+        List<HiveSensorSample> samples = List.of(
+            new HiveSensorSample(base.plusMinutes(1), 34.5, 18.0, 55.0, 800.0, 60.0, 6.5),
+            new HiveSensorSample(base.plusMinutes(2), 34.6, 18.1, 55.2, 805.0, 61.0, 6.5));
+        persist(hiveId, base, samples);
+        entityManager.clear();
+
+        // Act
+        HiveSensorBlock block = blockRepository.findBlocks(Set.of(hiveId), Set.of(base)).get(0);
+
+        // Assert
+        assertEquals(2, block.getSampleCount());
+        assertEquals(samples, SensorBlockCodec.decode(block.getBlockStart(), block.getData()));
+    }
+
+    @Test
+    void testFindRange_ReturnsHiveBlocksInOrder() {
+        // Arrange
+        persist(hiveId, base.plusHours(2), List.of());
+        persist(hiveId, base, List.of());
+        persist(hiveId, base.plusHours(1), List.of());
+        persist(hiveId, base.plusHours(3), List.of());
+        persist(UUID.randomUUID(), base.plusHours(1), List.of());
+
+        // Act
+        List<HiveSensorBlock> blocks = blockRepository.findRange(hiveId, base.plusHours(1), base.plusHours(2),
+            PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(base.plusHours(1), base.plusHours(2)),
+            blocks.stream().map(HiveSensorBlock::getBlockStart).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFindIdsUpTo_And_DeleteByHiveId() {
+        // Arrange
+        HiveSensorBlock old = persist(hiveId, base, List.of());
+        persist(hiveId, base.plusHours(1), List.of());
+        persist(UUID.randomUUID(), base, List.of());
+
+        // Act
+        List<UUID> ids = blockRepository.findIdsUpTo(hiveId, base, PageRequest.of(0, 10));
+        int deleted = blockRepository.deleteByHiveId(hiveId);
+
+        // Assert
+        assertEquals(List.of(old.getId()), ids);
+        assertEquals(2, deleted);
+        assertEquals(1, blockRepository.findDistinctHiveIds().size());
+    }
+
+    private HiveSensorBlock persist(UUID hive, LocalDateTime blockStart, List<HiveSensorSample> samples) {
+        HiveSensorBlock block = new HiveSensorBlock();
+        block.setHiveId(hive);
+        block.setBlockStart(blockStart);
+        block.setSampleCount(samples.size());
+        block.setData(SensorBlockCodec.encode(blockStart, samples));
+        return entityManager.persistAndFlush(block);
+    }
+}
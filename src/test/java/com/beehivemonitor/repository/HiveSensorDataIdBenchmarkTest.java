@@ -0,0 +1,109 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.TimeOrderedUuidGenerator;
+import com.beehivemonitor.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark for the primary key of hive_sensor_data
+ * Inserts the same rows with random (v4) and time-ordered (v7) ids and compares the insert throughput
+ * once the primary key index no longer fits in the cache (H2 in-memory).
+ * Rows are committed in batches (no test transaction) so that the load fits in the test heap.
+ * Run with: mvn test -Dtest=HiveSensorDataIdBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HiveSensorDataIdBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorDataIdBenchmarkTest.class);
+
+    private static final int HIVES = 200;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HiveRepository hiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmarkInsertThroughput() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        List<UUID> hiveIds = createHives();
+        try {
+            // Warm-up run, then each key type on an empty table
+            load("warm-up", UUID::randomUUID, hiveIds, rows / 10);
+            load("random UUID (v4)", UUID::randomUUID, hiveIds, rows);
+            load("time-ordered UUID (v7)", TimeOrderedUuidGenerator::next, hiveIds, rows);
+        } finally {
+            jdbcTemplate.execute("TRUNCATE TABLE hive_sensor_data");
+            hiveRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    private void load(String label, Supplier<UUID> ids, List<UUID> hiveIds, int rows) {
+        jdbcTemplate.execute("TRUNCATE TABLE hive_sensor_data");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        long loadStart = System.nanoTime();
+        for (int row = 0; row < rows; row++) {
+            Timestamp timestamp = Timestamp.valueOf(start.plusMinutes(row / HIVES));
+            batch.add(new Object[]{ids.get(), hiveIds.get(row % HIVES), timestamp, 30.0, 20.0, 50.0, 800.0, 60.0, 6.5});
+            if (batch.size() == INSERT_BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        long millis = (System.nanoTime() - loadStart) / 1_000_000;
+        logger.info("{}: {} rows in {} ms ({} rows/s)", label, rows, millis, rows * 1000L / Math.max(1, millis));
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO hive_sensor_data (id, hive_id, timestamp, temperature, "
+            + "external_temperature, humidity, co2, sound_level, weight) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private List<UUID> createHives() {
+        User user = new User();
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user.setPassword("encodedPassword");
+        user.setRole(User.Role.USER);
+        user.setEmailNotificationEnabled(false);
+        user = userRepository.save(user);
+
+        List<UUID> hiveIds = new ArrayList<>();
+        for (int i = 0; i < HIVES; i++) {
+            Hive hive = new Hive();
+            hive.setName("Hive " + i);
+            hive.setLocation("Benchmark");
+            hive.setUser(user);
+            hiveIds.add(hiveRepository.save(hive).getId());
+        }
+        return hiveIds;
+    }
+}
@@ -0,0 +1,134 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Benchmark for the (hive_id, timestamp) index of hive_sensor_data
+ * Loads one row per hive per minute and compares the "one hive, one day" chart query using the
+ * composite index with a full table scan (H2 in-memory).
+ * Rows are committed in batches (no test transaction) so that the load fits in the test heap.
+ * Run with: mvn test -Dtest=HiveSensorDataIndexBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HiveSensorDataIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiveSensorDataIndexBenchmarkTest.class);
+
+    private static final int HIVES = 200;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private static final String QUERY = "SELECT timestamp, temperature FROM hive_sensor_data %s "
+        + "WHERE hive_id = ? AND timestamp BETWEEN ? AND ? ORDER BY timestamp";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HiveRepository hiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmarkHiveTimeRangeQuery() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        int minutesPerHive = rows / HIVES;
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<UUID> hiveIds = createHives();
+        try {
+            run(hiveIds, minutesPerHive, start);
+        } finally {
+            jdbcTemplate.execute("TRUNCATE TABLE hive_sensor_data");
+            hiveRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    private void run(List<UUID> hiveIds, int minutesPerHive, LocalDateTime start) {
+        long loadStart = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int minute = 0; minute < minutesPerHive; minute++) {
+            Timestamp timestamp = Timestamp.valueOf(start.plusMinutes(minute));
+            for (UUID hiveId : hiveIds) {
+                batch.add(new Object[]{UUID.randomUUID(), hiveId, timestamp, 30.0, 20.0, 50.0, 800.0, 60.0, 6.5});
+                if (batch.size() == INSERT_BATCH) {
+                    insert(batch);
+                }
+            }
+        }
+        insert(batch);
+        logger.info("Loaded {} rows ({} hives x {} minutes) in {} ms", minutesPerHive * HIVES, HIVES, minutesPerHive,
+            (System.nanoTime() - loadStart) / 1_000_000);
+
+        UUID hiveId = hiveIds.get(HIVES / 2);
+        LocalDateTime from = start.plusMinutes(minutesPerHive / 2);
+        LocalDateTime to = from.plusDays(1);
+        measure("composite index", String.format(QUERY, "USE INDEX (idx_hive_sensor_data_hive_timestamp)"),
+            hiveId, from, to);
+        measure("full scan", String.format(QUERY, "USE INDEX ()"), hiveId, from, to);
+    }
+
+    private void measure(String label, String sql, UUID hiveId, LocalDateTime from, LocalDateTime to) {
+        Object[] args = {hiveId, Timestamp.valueOf(from), Timestamp.valueOf(to)};
+        for (int i = 0; i < WARMUP; i++) {
+            jdbcTemplate.queryForList(sql, args);
+        }
+        int resultRows = 0;
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            resultRows = jdbcTemplate.queryForList(sql, args).size();
+            total += System.nanoTime() - begin;
+        }
+        logger.info("{}: {} rows, {} ms per query", label, resultRows, String.format("%.2f", total / 1e6 / ITERATIONS));
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO hive_sensor_data (id, hive_id, timestamp, temperature, "
+            + "external_temperature, humidity, co2, sound_level, weight) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private List<UUID> createHives() {
+        User user = new User();
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user.setPassword("encodedPassword");
+        user.setRole(User.Role.USER);
+        user.setEmailNotificationEnabled(false);
+        user = userRepository.save(user);
+
+        List<UUID> hiveIds = new ArrayList<>();
+        for (int i = 0; i < HIVES; i++) {
+            Hive hive = new Hive();
+            hive.setName("Hive " + i);
+            hive.setLocation("Benchmark");
+            hive.setUser(user);
+            hiveIds.add(hiveRepository.save(hive).getId());
+        }
+        return hiveIds;
+    }
+}
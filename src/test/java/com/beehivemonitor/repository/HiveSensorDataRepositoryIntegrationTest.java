@@ -0,0 +1,183 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for HiveSensorDataRepository
+ * Tests the streaming projection query, the retention queries and the declared indexes using H2 in-memory database
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class HiveSensorDataRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Hive testHive;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(User.Role.USER);
+        testUser.setEmailNotificationEnabled(false);
+        testUser = entityManager.persistAndFlush(testUser);
+
+        testHive = new Hive();
+        testHive.setName("Test Hive");
+        testHive.setLocation("Test Location");
+        testHive.setUser(testUser);
+        testHive = entityManager.persistAndFlush(testHive);
+
+        base = LocalDateTime.of(2024, 6, 1, 10, 0);
+    }
+
+    @Test
+    void testStreamByHiveIdAndTimestampBetween_ProjectsRowsInOrder() {
+        // Arrange
+        persistSample(base.plusMinutes(2), 32.0);
+        persistSample(base, 30.0);
+        persistSample(base.plusMinutes(1), 31.0);
+        persistSample(base.minusDays(1), 20.0);
+        entityManager.clear();
+
+        // Act
+        List<HiveSensorSample> samples;
+        try (Stream<HiveSensorSample> stream = hiveSensorDataRepository.streamByHiveIdAndTimestampBetween(
+                testHive.getId(), base, base.plusHours(1))) {
+            samples = stream.collect(Collectors.toList());
+        }
+
+        // Assert
+        assertEquals(3, samples.size());
+        assertEquals(base, samples.get(0).timestamp());
+        assertEquals(30.0, samples.get(0).temperature());
+        assertEquals(32.0, samples.get(2).temperature());
+        // Projections are not added to the persistence context
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testFindByHiveIdAndTimestampBefore_ReturnsOldestChunk() {
+        // Arrange
+        persistSample(base.minusDays(1), 20.0);
+        persistSample(base.minusDays(3), 18.0);
+        persistSample(base.minusDays(2), 19.0);
+        persistSample(base, 30.0);
+        entityManager.clear();
+
+        // Act
+        List<HiveSensorData> chunk = hiveSensorDataRepository.findByHiveIdAndTimestampBefore(
+            testHive.getId(), base, PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(2, chunk.size());
+        assertEquals(base.minusDays(3), chunk.get(0).getTimestamp());
+        assertEquals(base.minusDays(2), chunk.get(1).getTimestamp());
+    }
+
+    @Test
+    void testFindByHiveIdAndTimestampBeforeAfter_PagesByTimestampAndId() {
+        // Arrange - three samples share a timestamp, so paging must continue within it by id
+        persistSample(base.minusDays(2), 18.0);
+        persistSample(base.minusDays(1), 19.0);
+        persistSample(base.minusDays(1), 20.0);
+        persistSample(base.minusDays(1), 21.0);
+        persistSample(base, 30.0);
+        entityManager.clear();
+
+        // Act
+        List<HiveSensorData> first = hiveSensorDataRepository.findByHiveIdAndTimestampBefore(
+            testHive.getId(), base, PageRequest.of(0, 2));
+        HiveSensorData last = first.get(1);
+        List<HiveSensorData> rest = hiveSensorDataRepository.findByHiveIdAndTimestampBeforeAfter(
+            testHive.getId(), base, last.getTimestamp(), last.getId(), PageRequest.of(0, 10));
+
+        // Assert - every sample before the cutoff exactly once
+        assertEquals(2, rest.size());
+        assertTrue(rest.stream().allMatch(sample -> sample.getTimestamp().equals(base.minusDays(1))));
+        assertTrue(rest.stream().noneMatch(sample -> sample.getId().equals(last.getId())));
+        assertEquals(Set.of(19.0, 20.0, 21.0), Set.of(
+            last.getTemperature(), rest.get(0).getTemperature(), rest.get(1).getTemperature()));
+    }
+
+    @Test
+    void testFindDistinctHiveIds() {
+        // Arrange
+        persistSample(base, 30.0);
+        persistSample(base.plusMinutes(1), 31.0);
+
+        // Act
+        List<UUID> hiveIds = hiveSensorDataRepository.findDistinctHiveIds();
+
+        // Assert
+        assertEquals(List.of(testHive.getId()), hiveIds);
+    }
+
+    @Test
+    void testSchema_DeclaresHiveTimestampIndex() {
+        // Act
+        List<String> columns = jdbcTemplate.queryForList(
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE INDEX_NAME = 'IDX_HIVE_SENSOR_DATA_HIVE_TIMESTAMP' ORDER BY ORDINAL_POSITION",
+            String.class);
+
+        // Assert
+        assertEquals(List.of("HIVE_ID", "TIMESTAMP"), columns);
+    }
+
+    @Test
+    void testSave_GeneratesTimeOrderedIds() {
+        // Act
+        HiveSensorData first = persistSample(base, 30.0);
+        HiveSensorData second = persistSample(base, 31.0);
+
+        // Assert - the database orders the ids by insertion
+        assertEquals(7, first.getId().version());
+        List<UUID> ids = jdbcTemplate.queryForList("SELECT id FROM hive_sensor_data ORDER BY id", UUID.class);
+        assertEquals(List.of(first.getId(), second.getId()), ids);
+    }
+
+    private HiveSensorData persistSample(LocalDateTime timestamp, double temperature) {
+        HiveSensorData sample = new HiveSensorData();
+        sample.setHive(testHive);
+        sample.setTemperature(temperature);
+        sample.setExternalTemperature(20.0);
+        sample.setHumidity(50.0);
+        sample.setCo2(800.0);
+        sample.setSoundLevel(60.0);
+        sample.setWeight(6.5);
+        sample.setTimestamp(timestamp);
+        return entityManager.persistAndFlush(sample);
+    }
+}
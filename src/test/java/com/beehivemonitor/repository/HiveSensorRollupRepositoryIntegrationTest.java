@@ -0,0 +1,105 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for HiveSensorRollupRepository
+ * Tests rollup persistence and bucket queries using H2 in-memory database
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class HiveSensorRollupRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HiveSensorRollupRepository rollupRepository;
+
+    private UUID hiveId;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        hiveId = UUID.randomUUID();
+        base = LocalDateTime.of(2024, 6, 1, 10, 0);
+    }
+
+    @Test
+    void testFindBuckets_ReturnsOnlyRequestedBuckets() {
+        // Arrange
+        persist(HiveSensorRollup.Resolution.FIVE_MINUTES, base, 30.0);
+        persist(HiveSensorRollup.Resolution.FIVE_MINUTES, base.plusMinutes(5), 31.0);
+        persist(HiveSensorRollup.Resolution.HOURLY, base, 30.5);
+        entityManager.clear();
+
+        // Act
+        List<HiveSensorRollup> buckets = rollupRepository.findBuckets(
+            HiveSensorRollup.Resolution.FIVE_MINUTES, Set.of(hiveId), Set.of(base));
+
+        // Assert
+        assertEquals(1, buckets.size());
+        assertEquals(base, buckets.get(0).getBucketStart());
+        assertEquals(30.0, buckets.get(0).getTemperature().getMax());
+    }
+
+    @Test
+    void testFindForChart_OrdersByBucketWithinRange() {
+        // Arrange
+        persist(HiveSensorRollup.Resolution.HOURLY, base.plusHours(2), 32.0);
+        persist(HiveSensorRollup.Resolution.HOURLY, base, 30.0);
+        persist(HiveSensorRollup.Resolution.HOURLY, base.minusDays(2), 20.0);
+        entityManager.clear();
+
+        // Act
+        List<HiveSensorRollup> rollups = rollupRepository.findForChart(
+            hiveId, HiveSensorRollup.Resolution.HOURLY, base.minusDays(1), base.plusDays(1));
+
+        // Assert
+        assertEquals(2, rollups.size());
+        assertEquals(base, rollups.get(0).getBucketStart());
+        assertEquals(base.plusHours(2), rollups.get(1).getBucketStart());
+    }
+
+    @Test
+    void testDeleteByHiveId_RemovesHiveRollups() {
+        // Arrange
+        persist(HiveSensorRollup.Resolution.DAILY, base, 30.0);
+
+        // Act
+        int deleted = rollupRepository.deleteByHiveId(hiveId);
+
+        // Assert
+        assertEquals(1, deleted);
+    }
+
+    private void persist(HiveSensorRollup.Resolution resolution, LocalDateTime timestamp, double temperature) {
+        Hive hive = new Hive();
+        hive.setId(hiveId);
+        HiveSensorData sample = new HiveSensorData();
+        sample.setHive(hive);
+        sample.setTemperature(temperature);
+        sample.setExternalTemperature(20.0);
+        sample.setHumidity(50.0);
+        sample.setCo2(800.0);
+        sample.setSoundLevel(60.0);
+        sample.setWeight(6.5);
+        sample.setTimestamp(timestamp);
+        entityManager.persistAndFlush(HiveSensorRollup.of(hiveId, resolution, sample));
+    }
+}
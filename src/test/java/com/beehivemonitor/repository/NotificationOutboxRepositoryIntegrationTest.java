@@ -0,0 +1,97 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.NotificationOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for NotificationOutboxRepository
+ * Tests selection of due notifications and their atomic claim by a dispatcher run
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class NotificationOutboxRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2024, 6, 1, 12, 0);
+    }
+
+    @Test
+    void testFindDueIds_ReturnsPendingDueRowsOldestFirst() {
+        // Arrange
+        NotificationOutbox later = persist(now.minusMinutes(1), NotificationOutbox.Status.PENDING);
+        NotificationOutbox earlier = persist(now.minusMinutes(5), NotificationOutbox.Status.PENDING);
+        persist(now.plusMinutes(1), NotificationOutbox.Status.PENDING);
+        persist(now.minusMinutes(10), NotificationOutbox.Status.DEAD);
+
+        // Act
+        List<UUID> ids = outboxRepository.findDueIds(now, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(earlier.getId(), later.getId()), ids);
+    }
+
+    @Test
+    void testClaim_ClaimedRowsAreNotDueForOtherRuns() {
+        // Arrange
+        NotificationOutbox due = persist(now.minusMinutes(1), NotificationOutbox.Status.PENDING);
+        List<UUID> ids = List.of(due.getId());
+
+        // Act
+        int claimed = outboxRepository.claim(ids, "run-a", now, now.plusMinutes(5));
+        int claimedByOtherRun = outboxRepository.claim(ids, "run-b", now, now.plusMinutes(5));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, claimed);
+        assertEquals(0, claimedByOtherRun);
+        List<NotificationOutbox> rows = outboxRepository.findByClaim("run-a");
+        assertEquals(1, rows.size());
+        assertEquals(now.plusMinutes(5), rows.get(0).getNextAttemptAt());
+        assertTrue(outboxRepository.findDueIds(now.plusMinutes(4), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(ids, outboxRepository.findDueIds(now.plusMinutes(5), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testCountByStatus() {
+        // Arrange
+        persist(now, NotificationOutbox.Status.PENDING);
+        persist(now, NotificationOutbox.Status.DEAD);
+        persist(now, NotificationOutbox.Status.DEAD);
+
+        // Act & Assert
+        assertEquals(1, outboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+        assertEquals(2, outboxRepository.countByStatus(NotificationOutbox.Status.DEAD));
+    }
+
+    private NotificationOutbox persist(LocalDateTime nextAttemptAt, NotificationOutbox.Status status) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setRecipientEmail("test@example.com");
+        notification.setSubject("Alert Triggered");
+        notification.setMessage("Alert triggered: Test Alert");
+        notification.setChannel("EMAIL");
+        notification.setStatus(status);
+        notification.setNextAttemptAt(nextAttemptAt);
+        return entityManager.persistAndFlush(notification);
+    }
+}
@@ -0,0 +1,128 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.LatestSensorReading;
+import com.beehivemonitor.entity.Sensor;
+import com.beehivemonitor.entity.SensorReading;
+import com.beehivemonitor.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for SensorReadingRepository and LatestSensorReadingRepository
+ * Tests the latest reading per sensor type queries using H2 in-memory database
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SensorReadingRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SensorReadingRepository sensorReadingRepository;
+
+    @Autowired
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    private Hive testHive;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(User.Role.USER);
+        testUser.setEmailNotificationEnabled(false);
+        testUser = entityManager.persistAndFlush(testUser);
+
+        testHive = new Hive();
+        testHive.setName("Test Hive");
+        testHive.setLocation("Test Location");
+        testHive.setUser(testUser);
+        testHive = entityManager.persistAndFlush(testHive);
+        base = LocalDateTime.of(2024, 6, 1, 12, 0);
+    }
+
+    @Test
+    void testFindLatestReadingsByHiveId_ReturnsNewestPerType() {
+        // Arrange - the newest temperature is inserted first
+        Sensor temperature = persistSensor("Temperature");
+        Sensor humidity = persistSensor("Humidity");
+        persistReading(temperature, base.plusMinutes(10), 31.0);
+        persistReading(temperature, base, 30.0);
+        persistReading(humidity, base.plusMinutes(5), 55.0);
+        persistReading(humidity, base.minusMinutes(5), 50.0);
+        entityManager.clear();
+
+        // Act
+        List<SensorReading> latest = sensorReadingRepository.findLatestReadingsByHiveId(testHive.getId());
+
+        // Assert
+        List<Double> values = latest.stream()
+            .sorted(Comparator.comparing(SensorReading::getType))
+            .map(SensorReading::getValue)
+            .collect(Collectors.toList());
+        assertEquals(List.of(55.0, 31.0), values);
+    }
+
+    @Test
+    void testFindByHiveIdOrderByType_ReturnsOnlyTheHive() {
+        // Arrange
+        persistLatest(testHive.getId(), "Temperature", 31.0);
+        persistLatest(testHive.getId(), "Humidity", 55.0);
+        persistLatest(UUID.randomUUID(), "Temperature", 20.0);
+        entityManager.clear();
+
+        // Act
+        List<LatestSensorReading> latest = latestReadingRepository.findByHiveIdOrderByTypeAsc(testHive.getId());
+
+        // Assert
+        assertEquals(List.of("Humidity", "Temperature"),
+            latest.stream().map(LatestSensorReading::getType).collect(Collectors.toList()));
+        assertEquals(31.0, latestReadingRepository.findById(
+            new LatestSensorReading.Key(testHive.getId(), "Temperature")).orElseThrow().getValue());
+    }
+
+    private Sensor persistSensor(String type) {
+        Sensor sensor = new Sensor();
+        sensor.setType(type);
+        sensor.setHive(testHive);
+        return entityManager.persistAndFlush(sensor);
+    }
+
+    private void persistReading(Sensor sensor, LocalDateTime timestamp, double value) {
+        SensorReading reading = new SensorReading();
+        reading.setSensor(sensor);
+        reading.setType(sensor.getType());
+        reading.setValue(value);
+        reading.setUnit("unit");
+        reading.setTimestamp(timestamp);
+        entityManager.persistAndFlush(reading);
+    }
+
+    private void persistLatest(UUID hiveId, String type, double value) {
+        LatestSensorReading latest = new LatestSensorReading();
+        latest.setHiveId(hiveId);
+        latest.setType(type);
+        latest.setReadingId(UUID.randomUUID());
+        latest.setValue(value);
+        latest.setUnit("unit");
+        latest.setTimestamp(base);
+        entityManager.persistAndFlush(latest);
+    }
+}
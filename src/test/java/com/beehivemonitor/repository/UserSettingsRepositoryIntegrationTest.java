@@ -0,0 +1,133 @@
+package com.beehivemonitor.repository;
+
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.entity.UserSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for UserSettingsRepository
+ * Tests the atomic claim of due users used by the scheduled sensor ingest
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class UserSettingsRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+    private UserSettings testSettings;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(User.Role.USER);
+        testUser.setEmailNotificationEnabled(false);
+        testUser = entityManager.persistAndFlush(testUser);
+
+        testSettings = new UserSettings();
+        testSettings.setUser(testUser);
+        testSettings.setMeasurementIntervalMinutes(5);
+        testSettings = entityManager.persistAndFlush(testSettings);
+        entityManager.clear();
+    }
+
+    @Test
+    void testClaimDueUsers_AdvancesNextDueByInterval() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        // Act
+        int claimed = userSettingsRepository.claimDueUsers("claim-1", now, now);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, claimed);
+        UserSettings settings = userSettingsRepository.findById(testSettings.getId()).orElseThrow();
+        assertEquals(now.plusMinutes(5), settings.getNextDueAt());
+        assertEquals("claim-1", settings.getIngestClaim());
+    }
+
+    @Test
+    void testClaimDueUsers_ClaimedUserIsNotDueForOtherRuns() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        userSettingsRepository.claimDueUsers("node-a", now, now);
+
+        // Act
+        int claimedByOtherNode = userSettingsRepository.claimDueUsers("node-b", now, now);
+        int claimedBeforeInterval = userSettingsRepository.claimDueUsers("node-b", now.plusMinutes(4), now.plusMinutes(4));
+        int claimedAfterInterval = userSettingsRepository.claimDueUsers("node-b", now.plusMinutes(5), now.plusMinutes(5));
+
+        // Assert
+        assertEquals(0, claimedByOtherNode);
+        assertEquals(0, claimedBeforeInterval);
+        assertEquals(1, claimedAfterInterval);
+    }
+
+    @Test
+    void testReleaseClaim_MakesUserDueAgain() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        userSettingsRepository.claimDueUsers("node-a", now, now);
+
+        // Act
+        int released = userSettingsRepository.releaseClaim("node-a", List.of(testUser.getId()), now);
+        int claimedAgain = userSettingsRepository.claimDueUsers("node-a", now.plusMinutes(1), now.plusMinutes(1));
+
+        // Assert
+        assertEquals(1, released);
+        assertEquals(1, claimedAgain);
+    }
+
+    @Test
+    void testReleaseClaim_IgnoresRowsOfOtherClaims() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        userSettingsRepository.claimDueUsers("node-b", now, now);
+
+        // Act
+        int released = userSettingsRepository.releaseClaim("node-a", now);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0, released);
+        UserSettings settings = userSettingsRepository.findById(testSettings.getId()).orElseThrow();
+        assertEquals(now.plusMinutes(5), settings.getNextDueAt());
+    }
+
+    @Test
+    void testFindUsersWithoutSettings_ReturnsOnlyUsersMissingSettings() {
+        // Arrange
+        User withoutSettings = new User();
+        withoutSettings.setName("New User");
+        withoutSettings.setEmail("new@example.com");
+        withoutSettings.setPassword("encodedPassword");
+        withoutSettings.setRole(User.Role.USER);
+        withoutSettings.setEmailNotificationEnabled(false);
+        entityManager.persistAndFlush(withoutSettings);
+
+        // Act & Assert
+        assertEquals(1, userRepository.findUsersWithoutSettings().size());
+        assertEquals("new@example.com", userRepository.findUsersWithoutSettings().get(0).getEmail());
+    }
+}
@@ -0,0 +1,94 @@
+package com.beehivemonitor.security;
+
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.UserRepository;
+import com.beehivemonitor.service.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration Test for CustomUserDetailsService
+ * Tests that users served from the user cache stop authenticating once deleted
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserCache.class, CustomUserDetailsService.class, CustomUserDetailsServiceIntegrationTest.Metrics.class})
+class CustomUserDetailsServiceIntegrationTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(User.Role.USER);
+        testUser.setEmailNotificationEnabled(false);
+        testUser = entityManager.persistAndFlush(testUser);
+    }
+
+    @Test
+    void testLoadUserByUsername_DeletedUser_ThrowsException() {
+        // Arrange - The first lookup puts the user in the cache
+        assertEquals("test@example.com", customUserDetailsService.loadUserByUsername("test@example.com").getUsername());
+
+        // Act
+        userRepository.delete(testUser);
+        userRepository.flush();
+
+        // Assert
+        assertThrows(UsernameNotFoundException.class,
+            () -> customUserDetailsService.loadUserByUsername("test@example.com"));
+    }
+
+    @Test
+    void testLoadUserByUsername_RegisteredAfterFailedLookup_ReturnsUser() {
+        // Arrange
+        assertThrows(UsernameNotFoundException.class,
+            () -> customUserDetailsService.loadUserByUsername("new@example.com"));
+
+        User newUser = new User();
+        newUser.setName("New User");
+        newUser.setEmail("new@example.com");
+        newUser.setPassword("encodedPassword");
+        newUser.setRole(User.Role.USER);
+        newUser.setEmailNotificationEnabled(false);
+        entityManager.persistAndFlush(newUser);
+
+        // Act
+        CustomUserDetails details = customUserDetailsService.loadUserByUsername("new@example.com");
+
+        // Assert
+        assertEquals("new@example.com", details.getUsername());
+    }
+}
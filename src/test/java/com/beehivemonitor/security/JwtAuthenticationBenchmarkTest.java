@@ -0,0 +1,66 @@
+package com.beehivemonitor.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Consumer;
+
+/**
+ * Benchmark for the token verification cost of one authenticated request
+ * Compares the previous flow (filter validates and parses, controller parses again, key and parser
+ * rebuilt every time) with a single verification on a reusable parser and with a cached token.
+ * Run with: mvn test -Dtest=JwtAuthenticationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtAuthenticationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationBenchmarkTest.class);
+
+    private static final String SECRET = "testSecretKeyForBeehiveMonitorApplicationThatIsAtLeast256BitsLong123456789012345678901234567890";
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void benchmarkAuthenticationPerRequest() {
+        JwtTokenProvider cached = provider(10_000);
+        JwtTokenProvider uncached = provider(0);
+        String token = cached.generateToken("benchmark@example.com");
+
+        measure("previous flow (3 parses)", token, this::legacyRequest);
+        measure("single parse", token, uncached::authenticate);
+        measure("cached token", token, cached::authenticate);
+    }
+
+    private void legacyRequest(String token) {
+        // validateToken, getEmailFromToken in the filter, getEmailFromToken in the controller
+        for (int i = 0; i < 3; i++) {
+            Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseSignedClaims(token);
+        }
+    }
+
+    private void measure(String label, String token, Consumer<String> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            request.accept(token);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.accept(token);
+        }
+        double micros = (System.nanoTime() - begin) / 1e3 / ITERATIONS;
+        logger.info("{}: {} us per request", label, String.format("%.2f", micros));
+    }
+
+    private JwtTokenProvider provider(int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.start();
+        return provider;
+    }
+}
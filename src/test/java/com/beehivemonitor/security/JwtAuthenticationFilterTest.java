@@ -0,0 +1,145 @@
+package com.beehivemonitor.security;
+
+import com.beehivemonitor.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for JwtAuthenticationFilter and CurrentUser
+ * Tests that a request is verified once and its user is available to controllers
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private StreamTicketProvider streamTicketProvider;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setEmail("test@example.com");
+        testUser.setRole(User.Role.USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_VerifiesTokenOnceAndSetsUser() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hives");
+        request.addHeader("Authorization", "Bearer valid-jwt-token");
+        when(tokenProvider.authenticate("valid-jwt-token")).thenReturn("test@example.com");
+        when(customUserDetailsService.loadUserByUsername("test@example.com")).thenReturn(new CustomUserDetails(testUser));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        verify(tokenProvider, times(1)).authenticate("valid-jwt-token");
+        verifyNoMoreInteractions(tokenProvider);
+        assertEquals("test@example.com", CurrentUser.getEmail());
+        assertEquals("test@example.com", CurrentUser.getEmail("Bearer valid-jwt-token", tokenProvider));
+        verify(tokenProvider, never()).getEmailFromToken(anyString());
+    }
+
+    @Test
+    void testDoFilter_InvalidTokenLeavesRequestUnauthenticated() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hives");
+        request.addHeader("Authorization", "Bearer invalid-token");
+        when(tokenProvider.authenticate("invalid-token")).thenReturn(null);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(CurrentUser.getEmail());
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    void testDoFilter_StreamIsAuthenticatedWithTicket() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sensors/stream");
+        request.setParameter("ticket", "stream-ticket");
+        when(streamTicketProvider.redeem("stream-ticket")).thenReturn("test@example.com");
+        when(customUserDetailsService.loadUserByUsername("test@example.com")).thenReturn(new CustomUserDetails(testUser));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertEquals("test@example.com", CurrentUser.getEmail());
+        assertNotNull(request.getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME));
+        verifyNoInteractions(tokenProvider);
+    }
+
+    @Test
+    void testDoFilter_JwtInQueryStringIsNotAccepted() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sensors/stream");
+        request.setParameter("token", "valid-jwt-token");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(CurrentUser.getEmail());
+        verifyNoInteractions(tokenProvider);
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    void testDoFilter_TicketOnlyAcceptedForStream() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hives");
+        request.setParameter("ticket", "stream-ticket");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(CurrentUser.getEmail());
+        verifyNoInteractions(streamTicketProvider);
+    }
+
+    @Test
+    void testCurrentUser_FallsBackToTokenWhenNotAuthenticated() {
+        // Arrange
+        when(tokenProvider.getEmailFromToken("valid-jwt-token")).thenReturn("test@example.com");
+
+        // Act
+        String email = CurrentUser.getEmail("Bearer valid-jwt-token", tokenProvider);
+
+        // Assert
+        assertEquals("test@example.com", email);
+    }
+}
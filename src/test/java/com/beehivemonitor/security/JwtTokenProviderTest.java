@@ -27,6 +27,8 @@ class JwtTokenProviderTest {
     void setUp() {
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", TEST_SECRET);
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", TEST_EXPIRATION);
+        ReflectionTestUtils.setField(jwtTokenProvider, "cacheMaxSize", 2);
+        jwtTokenProvider.start();
     }
 
     @Test
@@ -121,5 +123,94 @@ class JwtTokenProviderTest {
         assertEquals(email2, extractedEmail2);
         assertNotEquals(extractedEmail1, extractedEmail2);
     }
-}
 
+    @Test
+    void testAuthenticate_CachesVerifiedToken() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken("test@example.com");
+
+        // Act
+        String first = jwtTokenProvider.authenticate(token);
+        String second = jwtTokenProvider.authenticate(token);
+
+        // Assert
+        assertEquals("test@example.com", first);
+        assertEquals("test@example.com", second);
+        assertEquals(1, jwtTokenProvider.getCachedTokenCount());
+    }
+
+    @Test
+    void testAuthenticate_InvalidTokenIsNotCached() {
+        // Arrange - valid token with a tampered signature
+        String token = jwtTokenProvider.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act
+        String email = jwtTokenProvider.authenticate(tampered);
+
+        // Assert
+        assertNull(email);
+        assertEquals(0, jwtTokenProvider.getCachedTokenCount());
+        assertThrows(JwtException.class, () -> jwtTokenProvider.getEmailFromToken(tampered));
+    }
+
+    @Test
+    void testAuthenticate_ExpiredTokenIsRejected() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", -1000L);
+        String token = jwtTokenProvider.generateToken("test@example.com");
+
+        // Act & Assert
+        assertNull(jwtTokenProvider.authenticate(token));
+        assertFalse(jwtTokenProvider.validateToken(token));
+    }
+
+    @Test
+    void testAuthenticate_CacheIsBounded() {
+        // Arrange
+        String token1 = jwtTokenProvider.generateToken("user1@example.com");
+        String token2 = jwtTokenProvider.generateToken("user2@example.com");
+        String token3 = jwtTokenProvider.generateToken("user3@example.com");
+
+        // Act
+        jwtTokenProvider.authenticate(token1);
+        jwtTokenProvider.authenticate(token2);
+        String email = jwtTokenProvider.authenticate(token3);
+
+        // Assert - a batch is evicted to make room, so the cache never grows past its limit
+        assertEquals("user3@example.com", email);
+        assertEquals(2, jwtTokenProvider.getCachedTokenCount());
+    }
+
+    @Test
+    void testAuthenticate_FullCacheKeepsCachingNewTokens() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtTokenProvider, "cacheMaxSize", 20);
+        for (int i = 0; i < 20; i++) {
+            jwtTokenProvider.authenticate(jwtTokenProvider.generateToken("user" + i + "@example.com"));
+        }
+        String token = jwtTokenProvider.generateToken("new@example.com");
+
+        // Act
+        jwtTokenProvider.authenticate(token);
+
+        // Assert - 10% of the entries were evicted in one batch and the new token was cached
+        assertEquals(19, jwtTokenProvider.getCachedTokenCount());
+        ReflectionTestUtils.setField(jwtTokenProvider, "parser", null);
+        assertEquals("new@example.com", jwtTokenProvider.authenticate(token));
+    }
+
+    @Test
+    void testAuthenticate_CacheDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtTokenProvider, "cacheMaxSize", 0);
+        String token = jwtTokenProvider.generateToken("test@example.com");
+
+        // Act
+        String email = jwtTokenProvider.authenticate(token);
+
+        // Assert
+        assertEquals("test@example.com", email);
+        assertEquals(0, jwtTokenProvider.getCachedTokenCount());
+    }
+}
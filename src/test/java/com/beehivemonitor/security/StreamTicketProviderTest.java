@@ -0,0 +1,83 @@
+package com.beehivemonitor.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for StreamTicketProvider
+ * Tests issuing, single use and expiry of stream tickets
+ */
+class StreamTicketProviderTest {
+
+    private StreamTicketProvider streamTicketProvider;
+
+    @BeforeEach
+    void setUp() {
+        streamTicketProvider = new StreamTicketProvider();
+        ReflectionTestUtils.setField(streamTicketProvider, "ttlSeconds", 30L);
+    }
+
+    @Test
+    void testRedeem_ReturnsEmailOnce() {
+        // Arrange
+        String ticket = streamTicketProvider.issue("test@example.com");
+
+        // Act
+        String first = streamTicketProvider.redeem(ticket);
+        String second = streamTicketProvider.redeem(ticket);
+
+        // Assert
+        assertEquals("test@example.com", first);
+        assertNull(second);
+        assertEquals(0, streamTicketProvider.getPendingTicketCount());
+    }
+
+    @Test
+    void testIssue_TicketsAreUnique() {
+        // Act
+        String first = streamTicketProvider.issue("test@example.com");
+        String second = streamTicketProvider.issue("test@example.com");
+
+        // Assert
+        assertNotEquals(first, second);
+        assertTrue(first.length() >= 40);
+    }
+
+    @Test
+    void testRedeem_UnknownOrMissingTicket_ReturnsNull() {
+        // Act & Assert
+        assertNull(streamTicketProvider.redeem("unknown"));
+        assertNull(streamTicketProvider.redeem(""));
+        assertNull(streamTicketProvider.redeem(null));
+    }
+
+    @Test
+    void testRedeem_ExpiredTicket_ReturnsNull() {
+        // Arrange
+        ReflectionTestUtils.setField(streamTicketProvider, "ttlSeconds", 0L);
+        String ticket = streamTicketProvider.issue("test@example.com");
+
+        // Act
+        String email = streamTicketProvider.redeem(ticket);
+
+        // Assert
+        assertNull(email);
+    }
+
+    @Test
+    void testIssue_PurgesExpiredTickets() {
+        // Arrange
+        ReflectionTestUtils.setField(streamTicketProvider, "ttlSeconds", 0L);
+        streamTicketProvider.issue("first@example.com");
+        streamTicketProvider.issue("second@example.com");
+
+        // Act
+        streamTicketProvider.issue("third@example.com");
+
+        // Assert - Only the ticket just issued is left
+        assertEquals(1, streamTicketProvider.getPendingTicketCount());
+    }
+}
@@ -0,0 +1,137 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.client.NotificationMicroserviceClient;
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.NotificationOutbox;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.AlertRepository;
+import com.beehivemonitor.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration Test for AlertEvaluationService
+ * Tests that ingest-time evaluation and the monitoring run notify an alert change only once,
+ * and that stream clients only see changes that are committed
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AlertEvaluationService.class, AlertMonitoringScheduler.class, AlertService.class, AlertIndex.class,
+    AlertRuleCache.class, UserCache.class, NotificationOutboxService.class, SensorStreamService.class,
+    AlertEvaluationServiceIntegrationTest.Metrics.class})
+class AlertEvaluationServiceIntegrationTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private AlertEvaluationService alertEvaluationService;
+
+    @Autowired
+    private AlertMonitoringScheduler alertMonitoringScheduler;
+
+    @MockBean
+    private SensorService sensorService;
+
+    @SpyBean
+    private SensorStreamService sensorStreamService;
+
+    @MockBean
+    private NotificationMicroserviceClient notificationMicroserviceClient;
+
+    private Hive testHive;
+    private Alert testAlert;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(User.Role.USER);
+        testUser.setEmailNotificationEnabled(true);
+        testUser = entityManager.persistAndFlush(testUser);
+
+        testHive = new Hive();
+        testHive.setName("Test Hive");
+        testHive.setLocation("Test Location");
+        testHive.setUser(testUser);
+        testHive = entityManager.persistAndFlush(testHive);
+
+        testAlert = new Alert();
+        testAlert.setName("High Temperature");
+        testAlert.setHive(testHive);
+        testAlert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":30}]");
+        testAlert.setIsTriggered(false);
+        testAlert = entityManager.persistAndFlush(testAlert);
+    }
+
+    @Test
+    void testMonitoringRunAndIngestEvaluation_SameFlip_QueueOneNotification() {
+        // Arrange - Both paths load the alert while it is still stored as not triggered
+        SensorController.HiveSensorData sensorData = new SensorController.HiveSensorData(35.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Map.of(testHive.getId(), sensorData));
+
+        // Act
+        alertMonitoringScheduler.monitorAlerts();
+        int changedOnIngest = alertEvaluationService.evaluate(Map.of(testHive.getId(), sensorData));
+
+        // Assert
+        assertEquals(0, changedOnIngest);
+        assertEquals(1, outboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+        entityManager.clear();
+        assertTrue(alertRepository.findById(testAlert.getId()).orElseThrow().getIsTriggered());
+    }
+
+    @Test
+    void testMonitoringRun_RolledBack_StreamNotNotified() {
+        // Arrange
+        SensorController.HiveSensorData sensorData = new SensorController.HiveSensorData(35.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Map.of(testHive.getId(), sensorData));
+
+        // Act
+        alertMonitoringScheduler.monitorAlerts();
+
+        // Assert - Nothing is pushed before the commit, nor after the rollback
+        verify(sensorStreamService, never()).onAlertStateChanged(any());
+        TestTransaction.end();
+        verify(sensorStreamService, never()).onAlertStateChanged(any());
+    }
+}
@@ -0,0 +1,170 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.AlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for AlertEvaluationService
+ * Tests that ingest events evaluate only the alerts of the sampled hives
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertEvaluationServiceTest {
+
+    @Mock
+    private AlertIndex alertIndex;
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AlertEvaluationService alertEvaluationService;
+
+    private User testUser;
+    private Hive testHive;
+    private Alert testAlert;
+    private SensorController.HiveSensorData sensorData;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertEvaluationService, "queueCapacity", 10);
+        alertEvaluationService.start();
+
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setEmail("test@example.com");
+        testUser.setEmailNotificationEnabled(true);
+
+        testHive = new Hive();
+        testHive.setId(UUID.randomUUID());
+        testHive.setUser(testUser);
+
+        testAlert = new Alert();
+        testAlert.setId(UUID.randomUUID());
+        testAlert.setName("Test Alert");
+        testAlert.setHive(testHive);
+        testAlert.setIsTriggered(false);
+
+        sensorData = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        alertEvaluationService.stop();
+    }
+
+    @Test
+    void testEvaluate_NewlyTriggeredAlertIsPersistedAndNotified() {
+        // Arrange
+        when(alertIndex.getAlertsForHive(testHive.getId())).thenReturn(List.of(testAlert));
+        when(alertService.checkAlertTriggered(testAlert, sensorData)).thenReturn(true);
+        when(alertRepository.updateTriggered(testAlert.getId(), true)).thenReturn(1);
+
+        // Act
+        int changed = alertEvaluationService.evaluate(Map.of(testHive.getId(), sensorData));
+
+        // Assert
+        assertEquals(1, changed);
+        assertTrue(testAlert.getIsTriggered());
+        verify(alertRepository).updateTriggered(testAlert.getId(), true);
+        verify(alertService).queueEmailNotification(testUser, testAlert);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AlertStateChangedEvent changedEvent
+            && changedEvent.getAlertId().equals(testAlert.getId()) && changedEvent.isTriggered()));
+    }
+
+    @Test
+    void testEvaluate_UnchangedAlertIsNotWritten() {
+        // Arrange
+        when(alertIndex.getAlertsForHive(testHive.getId())).thenReturn(List.of(testAlert));
+        when(alertService.checkAlertTriggered(testAlert, sensorData)).thenReturn(false);
+
+        // Act
+        int changed = alertEvaluationService.evaluate(Map.of(testHive.getId(), sensorData));
+
+        // Assert
+        assertEquals(0, changed);
+        verify(alertRepository, never()).updateTriggered(any(), any());
+        verify(alertService, never()).queueEmailNotification(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testEvaluate_ClearedAlertIsNotNotified() {
+        // Arrange
+        testAlert.setIsTriggered(true);
+        when(alertIndex.getAlertsForHive(testHive.getId())).thenReturn(List.of(testAlert));
+        when(alertService.checkAlertTriggered(testAlert, sensorData)).thenReturn(false);
+        when(alertRepository.updateTriggered(testAlert.getId(), false)).thenReturn(1);
+
+        // Act
+        alertEvaluationService.evaluate(Map.of(testHive.getId(), sensorData));
+
+        // Assert
+        verify(alertRepository).updateTriggered(testAlert.getId(), false);
+        verify(alertService, never()).queueEmailNotification(any(), any());
+    }
+
+    @Test
+    void testEvaluate_ChangeAlreadyAppliedIsNotNotified() {
+        // Arrange - The monitoring run stored the same change first
+        when(alertIndex.getAlertsForHive(testHive.getId())).thenReturn(List.of(testAlert));
+        when(alertService.checkAlertTriggered(testAlert, sensorData)).thenReturn(true);
+        when(alertRepository.updateTriggered(testAlert.getId(), true)).thenReturn(0);
+
+        // Act
+        int changed = alertEvaluationService.evaluate(Map.of(testHive.getId(), sensorData));
+
+        // Assert
+        assertEquals(0, changed);
+        assertTrue(testAlert.getIsTriggered());
+        verify(alertService, never()).queueEmailNotification(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testOnSensorDataIngested_EvaluatesOnlySampledHivesAsynchronously() {
+        // Arrange
+        when(alertIndex.getAlertsForHive(testHive.getId())).thenReturn(List.of(testAlert));
+        when(alertService.checkAlertTriggered(testAlert, sensorData)).thenReturn(true);
+        when(alertRepository.updateTriggered(testAlert.getId(), true)).thenReturn(1);
+
+        // Act
+        alertEvaluationService.onSensorDataIngested(new SensorDataIngestedEvent(Map.of(testHive.getId(), sensorData)));
+
+        // Assert
+        verify(alertRepository, timeout(2000)).updateTriggered(testAlert.getId(), true);
+        verify(alertIndex, times(1)).getAlertsForHive(any());
+    }
+}
@@ -0,0 +1,112 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.repository.AlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for AlertIndex
+ * Tests lazy building, lookup by hive and invalidation, including invalidation after commit
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertIndexTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @InjectMocks
+    private AlertIndex alertIndex;
+
+    private Hive hive1;
+    private Hive hive2;
+
+    @BeforeEach
+    void setUp() {
+        hive1 = new Hive();
+        hive1.setId(UUID.randomUUID());
+        hive2 = new Hive();
+        hive2.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void testGetAlertsForHive_BuildsIndexOnce() {
+        // Arrange
+        Alert alert1 = newAlert(hive1);
+        Alert alert2 = newAlert(hive1);
+        Alert alert3 = newAlert(hive2);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of(alert1, alert2, alert3));
+
+        // Act
+        List<Alert> hive1Alerts = alertIndex.getAlertsForHive(hive1.getId());
+        List<Alert> hive2Alerts = alertIndex.getAlertsForHive(hive2.getId());
+        List<Alert> unknown = alertIndex.getAlertsForHive(UUID.randomUUID());
+
+        // Assert
+        assertEquals(List.of(alert1, alert2), hive1Alerts);
+        assertEquals(List.of(alert3), hive2Alerts);
+        assertTrue(unknown.isEmpty());
+        verify(alertRepository, times(1)).findAllWithHiveAndUser();
+    }
+
+    @Test
+    void testInvalidate_RebuildsOnNextLookup() {
+        // Arrange
+        Alert alert = newAlert(hive1);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of()).thenReturn(List.of(alert));
+        assertTrue(alertIndex.getAlertsForHive(hive1.getId()).isEmpty());
+
+        // Act
+        alertIndex.invalidate();
+        List<Alert> alerts = alertIndex.getAlertsForHive(hive1.getId());
+
+        // Assert
+        assertEquals(List.of(alert), alerts);
+        verify(alertRepository, times(2)).findAllWithHiveAndUser();
+    }
+
+    @Test
+    void testInvalidate_RebuildBeforeCommitIsDiscardedAfterCommit() {
+        // Arrange - Rows as committed before and after the update
+        Alert committed = newAlert(hive1);
+        Alert updated = newAlert(hive1);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of(committed)).thenReturn(List.of(updated));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act - Update invalidates inside its transaction, another thread rebuilds before the commit
+            alertIndex.invalidate();
+            List<Alert> beforeCommit = alertIndex.getAlertsForHive(hive1.getId());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            List<Alert> afterCommit = alertIndex.getAlertsForHive(hive1.getId());
+
+            // Assert
+            assertEquals(List.of(committed), beforeCommit);
+            assertEquals(List.of(updated), afterCommit);
+            verify(alertRepository, times(2)).findAllWithHiveAndUser();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Alert newAlert(Hive hive) {
+        Alert alert = new Alert();
+        alert.setId(UUID.randomUUID());
+        alert.setHive(hive);
+        return alert;
+    }
+}
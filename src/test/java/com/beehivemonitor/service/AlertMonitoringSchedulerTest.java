@@ -0,0 +1,164 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.AlertRepository;
+import com.beehivemonitor.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for AlertMonitoringScheduler
+ * Tests that a monitoring run uses one sensor snapshot for all alerts
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertMonitoringSchedulerTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private SensorService sensorService;
+
+    @Mock
+    private AlertIndex alertIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AlertMonitoringScheduler scheduler;
+
+    private User testUser;
+    private Hive hive1;
+    private Hive hive2;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setEmail("test@example.com");
+        testUser.setEmailNotificationEnabled(true);
+
+        hive1 = new Hive();
+        hive1.setId(UUID.randomUUID());
+        hive1.setUser(testUser);
+
+        hive2 = new Hive();
+        hive2.setId(UUID.randomUUID());
+        hive2.setUser(testUser);
+    }
+
+    @Test
+    void testMonitorAlerts_FetchesOneSnapshotForAllAlerts() {
+        // Arrange
+        List<Alert> alerts = List.of(newAlert(hive1, false), newAlert(hive1, false), newAlert(hive2, false));
+        SensorController.HiveSensorData data = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(alerts);
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Map.of(hive1.getId(), data, hive2.getId(), data));
+        when(alertService.checkAlertTriggered(any(Alert.class), eq(data))).thenReturn(false);
+
+        // Act
+        scheduler.monitorAlerts();
+
+        // Assert
+        verify(sensorService, times(1)).getRealtimeDataForHives(argThat(hives -> hives.size() == 2));
+        verify(sensorService, never()).getRealtimeDataForAllHives(anyString());
+        verify(alertService, times(3)).checkAlertTriggered(any(Alert.class), eq(data));
+        verify(alertRepository, never()).updateTriggered(any(), any());
+    }
+
+    @Test
+    void testMonitorAlerts_UpdatesChangedAlertsAndNotifies() {
+        // Arrange
+        Alert newlyTriggered = newAlert(hive1, false);
+        Alert cleared = newAlert(hive1, true);
+        SensorController.HiveSensorData data = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of(newlyTriggered, cleared));
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Map.of(hive1.getId(), data));
+        when(alertService.checkAlertTriggered(newlyTriggered, data)).thenReturn(true);
+        when(alertService.checkAlertTriggered(cleared, data)).thenReturn(false);
+        when(alertRepository.updateTriggered(newlyTriggered.getId(), true)).thenReturn(1);
+        when(alertRepository.updateTriggered(cleared.getId(), false)).thenReturn(1);
+
+        // Act
+        scheduler.monitorAlerts();
+
+        // Assert
+        verify(alertRepository, never()).saveAll(anyList());
+        verify(alertService, times(1)).queueEmailNotification(testUser, newlyTriggered);
+        verify(eventPublisher, times(2)).publishEvent(any(AlertStateChangedEvent.class));
+        verify(alertIndex).invalidate();
+    }
+
+    @Test
+    void testMonitorAlerts_ChangeAlreadyAppliedIsNotNotified() {
+        // Arrange - Ingest-time evaluation stored the same change first
+        Alert alert = newAlert(hive1, false);
+        SensorController.HiveSensorData data = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of(alert));
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Map.of(hive1.getId(), data));
+        when(alertService.checkAlertTriggered(alert, data)).thenReturn(true);
+        when(alertRepository.updateTriggered(alert.getId(), true)).thenReturn(0);
+
+        // Act
+        scheduler.monitorAlerts();
+
+        // Assert
+        verify(alertService, never()).queueEmailNotification(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testMonitorAlerts_HiveWithoutSensorDataIsSkipped() {
+        // Arrange
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(List.of(newAlert(hive1, false)));
+        when(sensorService.getRealtimeDataForHives(anyCollection())).thenReturn(Collections.emptyMap());
+
+        // Act
+        scheduler.monitorAlerts();
+
+        // Assert
+        verify(alertService, never()).checkAlertTriggered(any(Alert.class), any());
+    }
+
+    @Test
+    void testMonitorAlerts_NoAlerts() {
+        // Arrange
+        when(alertRepository.findAllWithHiveAndUser()).thenReturn(Collections.emptyList());
+
+        // Act
+        scheduler.monitorAlerts();
+
+        // Assert
+        verifyNoInteractions(sensorService);
+    }
+
+    private Alert newAlert(Hive hive, boolean triggered) {
+        Alert alert = new Alert();
+        alert.setId(UUID.randomUUID());
+        alert.setName("Alert");
+        alert.setHive(hive);
+        alert.setIsTriggered(triggered);
+        return alert;
+    }
+}
@@ -0,0 +1,141 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark for evaluating the trigger conditions of every alert against one sensor reading
+ * Compares the previous flow (trigger conditions JSON parsed into maps on every check) with
+ * compiled rules taken from the AlertRuleCache.
+ * Run with: mvn test -Dtest=AlertRuleEvaluationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AlertRuleEvaluationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertRuleEvaluationBenchmarkTest.class);
+
+    private static final int ALERTS = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    private static final String[] CONDITIONS = {
+        "[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":35}]",
+        "[{\"parameter\":\"Int. Temperature\",\"operator\":\"<\",\"value\":10}]",
+        "[{\"parameter\":\"humidity\",\"operator\":\">=\",\"value\":80},{\"parameter\":\"co2\",\"operator\":\">\",\"value\":1000}]",
+        "[{\"parameter\":\"weight\",\"operator\":\"<=\",\"value\":20},{\"parameter\":\"sound\",\"operator\":\">\",\"value\":70},"
+            + "{\"parameter\":\"externalTemperature\",\"operator\":\"<\",\"value\":0}]"
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void benchmarkEvaluateAllAlerts() {
+        List<Alert> alerts = new ArrayList<>(ALERTS);
+        for (int i = 0; i < ALERTS; i++) {
+            Alert alert = new Alert();
+            alert.setId(UUID.randomUUID());
+            alert.setTriggerConditions(CONDITIONS[i % CONDITIONS.length]);
+            alerts.add(alert);
+        }
+        SensorController.HiveSensorData sensorData = new SensorController.HiveSensorData(36, -2, 85, 1200, 75, 18);
+        AlertRuleCache cache = new AlertRuleCache();
+
+        int legacyMatches = measure("JSON parse per check", alerts, alert -> legacyCheck(alert, sensorData));
+        int compiledMatches = measure("compiled rules (cached)", alerts, alert -> cache.get(alert).matches(sensorData));
+
+        assertEquals(legacyMatches, compiledMatches);
+    }
+
+    private int measure(String label, List<Alert> alerts, Predicate<Alert> check) {
+        int matches = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            matches = evaluate(alerts, check);
+        }
+        long begin = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            matches = evaluate(alerts, check);
+        }
+        double millis = (System.nanoTime() - begin) / 1e6 / ROUNDS;
+        logger.info("{}: {} ms per {} alerts ({} matching)", label, String.format("%.3f", millis), alerts.size(), matches);
+        return matches;
+    }
+
+    private static int evaluate(List<Alert> alerts, Predicate<Alert> check) {
+        int matches = 0;
+        for (Alert alert : alerts) {
+            if (check.test(alert)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The evaluation AlertService used before rules were compiled
+     */
+    private boolean legacyCheck(Alert alert, SensorController.HiveSensorData sensorData) {
+        if (sensorData == null || alert.getTriggerConditions() == null || alert.getTriggerConditions().isEmpty()) {
+            return false;
+        }
+
+        try {
+            List<Map<String, Object>> conditions = objectMapper.readValue(
+                alert.getTriggerConditions(),
+                new TypeReference<>() {}
+            );
+
+            for (Map<String, Object> condition : conditions) {
+                String parameter = (String) condition.get("parameter");
+                String operator = (String) condition.get("operator");
+                Double threshold = ((Number) condition.get("value")).doubleValue();
+                Double currentValue = legacyParameterValue(sensorData, parameter);
+
+                if (currentValue == null) {
+                    return false;
+                }
+
+                boolean conditionMet = switch (operator) {
+                    case ">" -> currentValue > threshold;
+                    case ">=" -> currentValue >= threshold;
+                    case "<" -> currentValue < threshold;
+                    case "<=" -> currentValue <= threshold;
+                    default -> false;
+                };
+
+                if (!conditionMet) {
+                    return false;
+                }
+            }
+
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Double legacyParameterValue(SensorController.HiveSensorData sensorData, String parameter) {
+        return switch (parameter.toLowerCase()) {
+            case "temperature", "int. temperature", "int temperature" -> sensorData.temperature;
+            case "externaltemperature", "ext. temperature", "ext temperature" -> sensorData.externalTemperature;
+            case "humidity" -> sensorData.humidity;
+            case "co2" -> sensorData.co2;
+            case "sound", "soundlevel" -> sensorData.soundLevel;
+            case "weight" -> sensorData.weight;
+            default -> null;
+        };
+    }
+}
@@ -1,6 +1,5 @@
 package com.beehivemonitor.service;
 
-import com.beehivemonitor.client.NotificationMicroserviceClient;
 import com.beehivemonitor.controller.SensorController;
 import com.beehivemonitor.dto.NotificationRequest;
 import com.beehivemonitor.entity.Alert;
@@ -8,13 +7,13 @@ import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.AlertRepository;
 import com.beehivemonitor.repository.HiveRepository;
-import com.beehivemonitor.repository.UserRepository;
-import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
@@ -35,7 +34,7 @@ class AlertServiceTest {
     private AlertRepository alertRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private HiveRepository hiveRepository;
@@ -44,7 +43,13 @@ class AlertServiceTest {
     private SensorService sensorService;
 
     @Mock
-    private NotificationMicroserviceClient notificationMicroserviceClient;
+    private NotificationOutboxService notificationOutbox;
+
+    @Spy
+    private AlertRuleCache alertRuleCache = new AlertRuleCache();
+
+    @Mock
+    private AlertIndex alertIndex;
 
     @InjectMocks
     private AlertService alertService;
@@ -88,12 +93,9 @@ class AlertServiceTest {
     void testGetAllAlertsByUser_Success() {
         // Arrange
         List<Alert> alerts = Arrays.asList(testAlert);
-        Map<UUID, SensorController.HiveSensorData> sensorDataMap = new HashMap<>();
-        sensorDataMap.put(hiveId, sensorData);
 
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(alertRepository.findByUserId(userId)).thenReturn(alerts);
-        when(sensorService.getRealtimeDataForAllHives("test@example.com")).thenReturn(sensorDataMap);
 
         // Act
         List<Alert> result = alertService.getAllAlertsByUser("test@example.com");
@@ -101,15 +103,17 @@ class AlertServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        verify(userCache, times(1)).findByEmail("test@example.com");
         verify(alertRepository, times(1)).findByUserId(userId);
-        verify(sensorService, times(1)).getRealtimeDataForAllHives("test@example.com");
+        // Listing is read-only: no sensor fetch, no writes, no notifications
+        verifyNoInteractions(sensorService, notificationOutbox);
+        verify(alertRepository, never()).save(any(Alert.class));
     }
 
     @Test
     void testGetAllAlertsByUser_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userCache.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -184,6 +188,31 @@ class AlertServiceTest {
         assertEquals(testHive, newAlert.getHive());
         verify(hiveRepository, times(1)).findById(hiveId);
         verify(alertRepository, times(1)).save(newAlert);
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    void testCreateAlert_Triggered_QueuesNotification() {
+        // Arrange
+        Alert newAlert = new Alert();
+        newAlert.setId(alertId);
+        newAlert.setName("Hot Hive");
+        newAlert.setHive(testHive);
+        newAlert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":20}]");
+
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+        when(sensorService.getRealtimeDataForAllHives("test@example.com")).thenReturn(Map.of(hiveId, sensorData));
+        when(alertRepository.save(any(Alert.class))).thenReturn(newAlert);
+
+        // Act
+        alertService.createAlert(newAlert, "test@example.com");
+
+        // Assert
+        ArgumentCaptor<NotificationRequest> captor = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationOutbox).enqueue(captor.capture());
+        assertEquals("test@example.com", captor.getValue().getRecipientEmail());
+        assertEquals("Alert triggered: Hot Hive", captor.getValue().getMessage());
+        assertEquals(alertId, captor.getValue().getAlertId());
     }
 
     @Test
@@ -225,6 +254,32 @@ class AlertServiceTest {
         assertNotNull(result);
         assertEquals("Updated Alert", testAlert.getName());
         verify(alertRepository, times(1)).save(testAlert);
+        verify(alertRuleCache).evict(alertId);
+    }
+
+    @Test
+    void testUpdateAlert_UsesNewConditions() {
+        // Arrange - Compile and cache the old rule first
+        testAlert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":100}]");
+        assertFalse(alertService.checkAlertTriggered(testAlert, sensorData));
+
+        Alert updatedAlert = new Alert();
+        updatedAlert.setName("Updated Alert");
+        updatedAlert.setHive(testHive);
+        updatedAlert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":0}]");
+
+        Map<UUID, SensorController.HiveSensorData> sensorDataMap = new HashMap<>();
+        sensorDataMap.put(hiveId, sensorData);
+
+        when(alertRepository.findById(alertId)).thenReturn(Optional.of(testAlert));
+        when(sensorService.getRealtimeDataForAllHives("test@example.com")).thenReturn(sensorDataMap);
+        when(alertRepository.save(any(Alert.class))).thenReturn(testAlert);
+
+        // Act
+        alertService.updateAlert(alertId, updatedAlert, "test@example.com");
+
+        // Assert
+        assertTrue(testAlert.getIsTriggered());
     }
 
     @Test
@@ -239,6 +294,8 @@ class AlertServiceTest {
         // Assert
         verify(alertRepository, times(1)).findById(alertId);
         verify(alertRepository, times(1)).delete(testAlert);
+        verify(alertRuleCache).evict(alertId);
+        verify(alertIndex).invalidate();
     }
 
     @Test
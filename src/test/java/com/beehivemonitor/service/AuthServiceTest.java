@@ -46,6 +46,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private Authentication authentication;
 
@@ -109,6 +112,7 @@ class AuthServiceTest {
         verify(passwordEncoder).encode(registerRequest.getPassword());
         verify(userRepository).save(any(User.class));
         verify(tokenProvider).generateToken(testUser.getEmail());
+        verify(userCache).invalidate(testUser.getEmail());
     }
 
     @Test
@@ -0,0 +1,118 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.entity.Alert;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for CompiledAlertRule and AlertRuleCache
+ * Tests compilation of trigger conditions, evaluation and cache invalidation
+ */
+class CompiledAlertRuleTest {
+
+    private ObjectMapper objectMapper;
+    private SensorController.HiveSensorData sensorData;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        sensorData = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+    }
+
+    @Test
+    void testMatches_AllConditionsMustBeMet() {
+        // Arrange
+        CompiledAlertRule rule = CompiledAlertRule.compile(
+                "[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":20}," +
+                "{\"parameter\":\"humidity\",\"operator\":\"<=\",\"value\":50}]", objectMapper);
+        CompiledAlertRule failing = CompiledAlertRule.compile(
+                "[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":20}," +
+                "{\"parameter\":\"co2\",\"operator\":\"<\",\"value\":500}]", objectMapper);
+
+        // Act & Assert
+        assertTrue(rule.isValid());
+        assertEquals(2, rule.getConditionCount());
+        assertTrue(rule.matches(sensorData));
+        assertFalse(failing.matches(sensorData));
+    }
+
+    @Test
+    void testCompile_ParameterAliasesAreResolved() {
+        // Arrange & Act & Assert
+        assertTrue(CompiledAlertRule.compile("[{\"parameter\":\"Int. Temperature\",\"operator\":\">=\",\"value\":25}]", objectMapper).matches(sensorData));
+        assertTrue(CompiledAlertRule.compile("[{\"parameter\":\"ext temperature\",\"operator\":\"<\",\"value\":21}]", objectMapper).matches(sensorData));
+        assertTrue(CompiledAlertRule.compile("[{\"parameter\":\"sound\",\"operator\":\">\",\"value\":59.5}]", objectMapper).matches(sensorData));
+        assertTrue(CompiledAlertRule.compile("[{\"parameter\":\"WEIGHT\",\"operator\":\"<=\",\"value\":6.5}]", objectMapper).matches(sensorData));
+    }
+
+    @Test
+    void testCompile_InvalidConditionsNeverMatch() {
+        // Arrange & Act & Assert
+        assertFalse(CompiledAlertRule.compile(null, objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("", objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("not json", objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("[{\"parameter\":\"pressure\",\"operator\":\">\",\"value\":1}]", objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("[{\"parameter\":\"temperature\",\"operator\":\"==\",\"value\":25}]", objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("[{\"parameter\":\"temperature\",\"operator\":\">\"}]", objectMapper).matches(sensorData));
+        assertFalse(CompiledAlertRule.compile("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":\"1\"}]", objectMapper).isValid());
+    }
+
+    @Test
+    void testMatches_NullSensorData() {
+        // Arrange
+        CompiledAlertRule rule = CompiledAlertRule.compile("[]", objectMapper);
+
+        // Act & Assert
+        assertFalse(rule.matches(null));
+        assertTrue(rule.matches(sensorData));
+    }
+
+    @Test
+    void testAlertRuleCache_ReusesRuleUntilConditionsChange() {
+        // Arrange
+        AlertRuleCache cache = new AlertRuleCache();
+        Alert alert = new Alert();
+        alert.setId(UUID.randomUUID());
+        alert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":20}]");
+
+        // Act
+        CompiledAlertRule first = cache.get(alert);
+        CompiledAlertRule second = cache.get(alert);
+        alert.setTriggerConditions("[{\"parameter\":\"temperature\",\"operator\":\">\",\"value\":30}]");
+        CompiledAlertRule changed = cache.get(alert);
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, changed);
+        assertTrue(first.matches(sensorData));
+        assertFalse(changed.matches(sensorData));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testAlertRuleCache_EvictAndUnsavedAlerts() {
+        // Arrange
+        AlertRuleCache cache = new AlertRuleCache();
+        Alert saved = new Alert();
+        saved.setId(UUID.randomUUID());
+        saved.setTriggerConditions("[]");
+        Alert unsaved = new Alert();
+        unsaved.setTriggerConditions("[]");
+
+        // Act
+        cache.get(saved);
+        cache.get(unsaved);
+        int sizeBeforeEvict = cache.size();
+        cache.evict(saved.getId());
+
+        // Assert
+        assertEquals(1, sizeBeforeEvict);
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,214 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import com.beehivemonitor.repository.SensorReadingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for DataRetentionService
+ * Tests chunked deletion, rolling up before deletion and the retention metrics
+ */
+@ExtendWith(MockitoExtension.class)
+class DataRetentionServiceTest {
+
+    @Mock
+    private SensorReadingRepository sensorReadingRepository;
+
+    @Mock
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Mock
+    private HiveSensorBlockRepository blockRepository;
+
+    @Mock
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Mock
+    private HiveSensorRollupService rollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DataRetentionService dataRetentionService;
+
+    private Hive testHive;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dataRetentionService, "chunkSize", 2);
+        ReflectionTestUtils.setField(dataRetentionService, "chunkPauseMs", 0L);
+        ReflectionTestUtils.setField(dataRetentionService, "rollupBeforeDelete", true);
+        dataRetentionService.start();
+
+        testHive = new Hive();
+        testHive.setId(UUID.randomUUID());
+        cutoff = LocalDateTime.of(2024, 6, 1, 0, 0);
+    }
+
+    @Test
+    void testPurgeSensorReadings_DeletesInChunksUntilShortChunk() {
+        // Arrange
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        when(sensorReadingRepository.findIdsByTimestampBefore(cutoff, PageRequest.of(0, 2)))
+            .thenReturn(first).thenReturn(second);
+
+        // Act
+        long deleted = dataRetentionService.purgeSensorReadings(cutoff);
+
+        // Assert
+        assertEquals(3, deleted);
+        verify(sensorReadingRepository).deleteAllByIdInBatch(first);
+        verify(sensorReadingRepository).deleteAllByIdInBatch(second);
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.get("data.retention.rows.deleted")
+            .tag("table", DataRetentionService.SENSOR_READINGS).counter().count());
+        assertEquals(1, meterRegistry.get("data.retention.run")
+            .tag("table", DataRetentionService.SENSOR_READINGS).timer().count());
+    }
+
+    @Test
+    void testPurgeHiveSensorData_DeletesEachHiveInChunks() {
+        // Arrange - every day already has a rollup
+        when(rollupRepository.findBuckets(eq(HiveSensorRollup.Resolution.DAILY), anyCollection(), anyCollection()))
+            .thenAnswer(invocation -> existingDays(invocation.getArgument(2)));
+        List<HiveSensorData> first = List.of(newSample(cutoff.minusDays(3)), newSample(cutoff.minusDays(2)));
+        List<HiveSensorData> second = List.of(newSample(cutoff.minusDays(1)));
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBefore(testHive.getId(), cutoff, PageRequest.of(0, 2)))
+            .thenReturn(first).thenReturn(second);
+
+        // Act
+        long deleted = dataRetentionService.purgeHiveSensorData(cutoff);
+
+        // Assert
+        assertEquals(3, deleted);
+        verify(hiveSensorDataRepository).deleteAllByIdInBatch(ids(first));
+        verify(hiveSensorDataRepository).deleteAllByIdInBatch(ids(second));
+        verifyNoInteractions(rollupService);
+        assertEquals(3.0, meterRegistry.get("data.retention.rows.deleted")
+            .tag("table", DataRetentionService.HIVE_SENSOR_DATA).counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPurgeHiveSensorData_RollsUpDaysWithoutRollupAcrossChunks() {
+        // Arrange - the day is split over two chunks and has no rollup at first
+        LocalDateTime day = cutoff.minusDays(10);
+        List<HiveSensorData> first = List.of(newSample(day.plusHours(1)), newSample(day.plusHours(2)));
+        List<HiveSensorData> second = List.of(newSample(day.plusHours(3)));
+        when(rollupRepository.findBuckets(eq(HiveSensorRollup.Resolution.DAILY), anyCollection(), anyCollection()))
+            .thenReturn(List.of());
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBefore(testHive.getId(), cutoff, PageRequest.of(0, 2)))
+            .thenReturn(first).thenReturn(second);
+
+        // Act
+        dataRetentionService.purgeHiveSensorData(cutoff);
+
+        // Assert - the second chunk is rolled up without asking again, so its rows are not lost
+        ArgumentCaptor<List<HiveSensorData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupService, times(2)).apply(captor.capture());
+        assertEquals(first, captor.getAllValues().get(0));
+        assertEquals(second, captor.getAllValues().get(1));
+        verify(rollupRepository, times(1)).findBuckets(any(), anyCollection(), anyCollection());
+        assertEquals(3.0, meterRegistry.get("data.retention.rows.rolled.up").counter().count());
+    }
+
+    @Test
+    void testPurgeHiveSensorData_RollupDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(dataRetentionService, "rollupBeforeDelete", false);
+        List<HiveSensorData> chunk = List.of(newSample(cutoff.minusDays(1)));
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBefore(testHive.getId(), cutoff, PageRequest.of(0, 2)))
+            .thenReturn(chunk);
+
+        // Act
+        long deleted = dataRetentionService.purgeHiveSensorData(cutoff);
+
+        // Assert
+        assertEquals(1, deleted);
+        verifyNoInteractions(rollupRepository, rollupService);
+    }
+
+    @Test
+    void testPurgeHiveSensorData_DeletesBlocksEndingBeforeCutoff() {
+        // Arrange - the hive only has blocks
+        UUID blockA = UUID.randomUUID();
+        UUID blockB = UUID.randomUUID();
+        UUID blockC = UUID.randomUUID();
+        LocalDateTime lastBlockStart = cutoff.minusHours(1);
+        when(blockRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(blockRepository.findIdsUpTo(testHive.getId(), lastBlockStart, PageRequest.of(0, 2)))
+            .thenReturn(List.of(blockA, blockB)).thenReturn(List.of(blockC));
+
+        // Act
+        long deleted = dataRetentionService.purgeHiveSensorData(cutoff);
+
+        // Assert
+        assertEquals(0, deleted);
+        verify(blockRepository).deleteAllByIdInBatch(List.of(blockA, blockB));
+        verify(blockRepository).deleteAllByIdInBatch(List.of(blockC));
+        verify(hiveSensorDataRepository, never()).deleteAllByIdInBatch(anyCollection());
+        assertEquals(3.0, meterRegistry.get("data.retention.rows.deleted")
+            .tag("table", DataRetentionService.HIVE_SENSOR_BLOCK).counter().count());
+    }
+
+    private List<HiveSensorRollup> existingDays(Iterable<LocalDateTime> days) {
+        List<HiveSensorRollup> rollups = new ArrayList<>();
+        for (LocalDateTime day : days) {
+            rollups.add(HiveSensorRollup.of(testHive.getId(), HiveSensorRollup.Resolution.DAILY, newSample(day)));
+        }
+        return rollups;
+    }
+
+    private List<UUID> ids(List<HiveSensorData> samples) {
+        return samples.stream().map(HiveSensorData::getId).collect(Collectors.toList());
+    }
+
+    private HiveSensorData newSample(LocalDateTime timestamp) {
+        HiveSensorData sample = new HiveSensorData();
+        sample.setId(UUID.randomUUID());
+        sample.setHive(testHive);
+        sample.setTemperature(30.0);
+        sample.setExternalTemperature(20.0);
+        sample.setHumidity(50.0);
+        sample.setCo2(800.0);
+        sample.setSoundLevel(60.0);
+        sample.setWeight(6.5);
+        sample.setTimestamp(timestamp);
+        return sample;
+    }
+}
@@ -0,0 +1,200 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorBlock;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for HiveSensorBlockService
+ * Tests grouping written samples into hourly blocks, merging into existing blocks and range reads
+ */
+@ExtendWith(MockitoExtension.class)
+class HiveSensorBlockServiceTest {
+
+    @Mock
+    private HiveSensorBlockRepository blockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private HiveSensorBlockService blockService;
+
+    private Hive testHive;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        testHive = new Hive();
+        testHive.setId(UUID.randomUUID());
+        base = LocalDateTime.of(2024, 6, 1, 10, 0);
+        blockService.start();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppend_GroupsSamplesIntoHourlyBlocks() {
+        // Arrange
+        when(blockRepository.findBlocks(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        // Act
+        blockService.append(List.of(newData(base.plusMinutes(1), 34.1), newData(base.plusMinutes(59), 34.2),
+            newData(base.plusMinutes(61), 34.3)));
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorBlock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(blockRepository).saveAll(captor.capture());
+        List<HiveSensorBlock> blocks = captor.getValue().stream()
+            .sorted(Comparator.comparing(HiveSensorBlock::getBlockStart))
+            .collect(Collectors.toList());
+        assertEquals(2, blocks.size());
+        assertEquals(base, blocks.get(0).getBlockStart());
+        assertEquals(2, blocks.get(0).getSampleCount());
+        assertEquals(testHive.getId(), blocks.get(0).getHiveId());
+        assertEquals(base.plusHours(1), blocks.get(1).getBlockStart());
+        assertEquals(List.of(34.1, 34.2), temperatures(SensorBlockCodec.decode(base, blocks.get(0).getData())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppend_MergesIntoExistingBlockInTimestampOrder() {
+        // Arrange - a late sample between two stored ones
+        HiveSensorBlock existing = block(base, sample(base.plusMinutes(10), 30.0), sample(base.plusMinutes(30), 31.0));
+        when(blockRepository.findBlocks(anyCollection(), anyCollection())).thenReturn(List.of(existing));
+
+        // Act
+        blockService.append(List.of(newData(base.plusMinutes(20), 30.5)));
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorBlock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(blockRepository).saveAll(captor.capture());
+        assertSame(existing, captor.getValue().get(0));
+        assertEquals(3, existing.getSampleCount());
+        assertEquals(List.of(30.0, 30.5, 31.0), temperatures(SensorBlockCodec.decode(base, existing.getData())));
+    }
+
+    @Test
+    void testAppend_RetriesOnceAfterConflict() {
+        // Arrange
+        when(blockRepository.findBlocks(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(blockRepository.saveAll(anyList()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(HiveSensorBlock.class, UUID.randomUUID()))
+            .thenReturn(List.of());
+
+        // Act
+        blockService.append(List.of(newData(base, 34.0)));
+
+        // Assert
+        verify(blockRepository, times(2)).findBlocks(anyCollection(), anyCollection());
+        verify(blockRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void testAppend_EmptyBatch() {
+        // Act
+        blockService.append(List.of());
+
+        // Assert
+        verifyNoInteractions(blockRepository);
+    }
+
+    @Test
+    void testStream_DecodesBlocksAndFiltersRange() {
+        // Arrange
+        HiveSensorBlock first = block(base, sample(base.plusMinutes(10), 30.0), sample(base.plusMinutes(50), 31.0));
+        HiveSensorBlock second = block(base.plusHours(1),
+            sample(base.plusMinutes(70), 32.0), sample(base.plusMinutes(110), 33.0));
+        when(blockRepository.findRange(testHive.getId(), base, base.plusHours(1), PageRequest.of(0, 168)))
+            .thenReturn(List.of(first, second));
+
+        // Act
+        List<HiveSensorSample> samples = blockService.stream(testHive.getId(), base.plusMinutes(30), base.plusMinutes(90))
+            .collect(Collectors.toList());
+
+        // Assert
+        assertEquals(List.of(31.0, 32.0), temperatures(samples));
+    }
+
+    @Test
+    void testStream_WithoutStartDateReadsFromFirstBlock() {
+        // Arrange
+        HiveSensorBlock first = block(base, sample(base.plusMinutes(10), 30.0));
+        when(blockRepository.findUpTo(testHive.getId(), base, PageRequest.of(0, 168))).thenReturn(List.of(first));
+
+        // Act
+        List<HiveSensorSample> samples = blockService.stream(testHive.getId(), null, base.plusMinutes(59))
+            .collect(Collectors.toList());
+
+        // Assert
+        assertEquals(List.of(30.0), temperatures(samples));
+    }
+
+    @Test
+    void testMergeByTimestamp_InterleavesSortedInputs() {
+        // Arrange
+        List<HiveSensorSample> rows = List.of(sample(base.plusMinutes(1), 1.0), sample(base.plusMinutes(4), 4.0));
+        List<HiveSensorSample> blocks = List.of(sample(base.plusMinutes(2), 2.0), sample(base.plusMinutes(3), 3.0),
+            sample(base.plusMinutes(5), 5.0));
+
+        // Act
+        List<HiveSensorSample> merged = new ArrayList<>();
+        HiveSensorBlockService.mergeByTimestamp(rows.iterator(), blocks.iterator()).forEachRemaining(merged::add);
+
+        // Assert
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 5.0), temperatures(merged));
+    }
+
+    private HiveSensorBlock block(LocalDateTime blockStart, HiveSensorSample... samples) {
+        HiveSensorBlock block = new HiveSensorBlock();
+        block.setId(UUID.randomUUID());
+        block.setHiveId(testHive.getId());
+        block.setBlockStart(blockStart);
+        block.setSampleCount(samples.length);
+        block.setData(SensorBlockCodec.encode(blockStart, List.of(samples)));
+        return block;
+    }
+
+    private HiveSensorSample sample(LocalDateTime timestamp, double temperature) {
+        return new HiveSensorSample(timestamp, temperature, 18.0, 55.0, 800.0, 60.0, 6.5);
+    }
+
+    private HiveSensorData newData(LocalDateTime timestamp, double temperature) {
+        HiveSensorData data = new HiveSensorData();
+        data.setHive(testHive);
+        data.setTimestamp(timestamp);
+        data.setTemperature(temperature);
+        data.setExternalTemperature(18.0);
+        data.setHumidity(55.0);
+        data.setCo2(800.0);
+        data.setSoundLevel(60.0);
+        data.setWeight(6.5);
+        return data;
+    }
+
+    private List<Double> temperatures(List<HiveSensorSample> samples) {
+        return samples.stream().map(HiveSensorSample::temperature).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.beehivemonitor.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for HiveSensorDataPartitionManager
+ * Tests creation of upcoming monthly partitions and dropping of expired ones
+ */
+@ExtendWith(MockitoExtension.class)
+class HiveSensorDataPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HiveSensorDataPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionManager, "enabled", true);
+        ReflectionTestUtils.setField(partitionManager, "monthsAhead", 2);
+    }
+
+    @Test
+    void testCreateUpcomingPartitions_SplitsMaxPartition() {
+        // Arrange
+        mockPartitions("p202609", "p202610", "pmax");
+
+        // Act
+        int created = partitionManager.createUpcomingPartitions(YearMonth.of(2026, 10));
+
+        // Assert
+        assertEquals(2, created);
+        verify(jdbcTemplate).execute("ALTER TABLE hive_sensor_data REORGANIZE PARTITION pmax INTO ("
+            + "PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'), "
+            + "PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'), "
+            + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    @Test
+    void testCreateUpcomingPartitions_NothingMissing() {
+        // Arrange
+        mockPartitions("p202610", "p202611", "p202612", "pmax");
+
+        // Act
+        int created = partitionManager.createUpcomingPartitions(YearMonth.of(2026, 10));
+
+        // Assert
+        assertEquals(0, created);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testCreateUpcomingPartitions_TableNotPartitioned() {
+        // Arrange
+        mockPartitions();
+
+        // Act
+        int created = partitionManager.createUpcomingPartitions(YearMonth.of(2026, 10));
+
+        // Assert
+        assertEquals(0, created);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testDropPartitionsBefore_DropsOnlyFullyExpiredMonths() {
+        // Arrange
+        mockPartitions("p202607", "p202608", "p202609", "pmax");
+
+        // Act - August ends before the cutoff, September does not
+        int dropped = partitionManager.dropPartitionsBefore(LocalDateTime.of(2026, 9, 1, 0, 0));
+
+        // Assert
+        assertEquals(2, dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE hive_sensor_data DROP PARTITION p202607, p202608");
+    }
+
+    @Test
+    void testDropPartitionsBefore_DisabledDoesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(partitionManager, "enabled", false);
+
+        // Act
+        int dropped = partitionManager.dropPartitionsBefore(LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, dropped);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void mockPartitions(String... names) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("hive_sensor_data")))
+            .thenReturn(List.of(names));
+    }
+}
@@ -0,0 +1,228 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for HiveSensorDataWriter
+ * Tests batching, flush triggers, backpressure and metrics of the asynchronous write pipeline
+ */
+@ExtendWith(MockitoExtension.class)
+class HiveSensorDataWriterTest {
+
+    @Mock
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Mock
+    private HiveSensorRollupService rollupService;
+
+    @Mock
+    private HiveSensorBlockService blockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HiveSensorDataWriter writer;
+
+    private Hive testHive;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 200L);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(writer, "batchOfferTimeoutMs", 50L);
+
+        testHive = new Hive();
+        testHive.setId(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEnqueue_FullBatchesAreWrittenTogether() {
+        // Act
+        writer.start();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(writer.enqueue(newRow()));
+        }
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(hiveSensorDataRepository, timeout(2000).times(2)).saveAll(captor.capture());
+        captor.getAllValues().forEach(batch -> assertEquals(3, batch.size()));
+        assertEquals(6.0, meterRegistry.get("sensor.ingest.rows.written").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEnqueue_PartialBatchIsFlushedAfterInterval() {
+        // Act
+        writer.start();
+        writer.enqueue(newRow());
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(hiveSensorDataRepository, timeout(2000)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(1L, meterRegistry.get("sensor.ingest.flush").timer().count());
+    }
+
+    @Test
+    void testEnqueue_DropsRowsWhenQueueIsFull() throws Exception {
+        // Arrange - Block the flusher inside the first write so the queue fills up
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(hiveSensorDataRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        writer.start();
+
+        // Act
+        writer.enqueue(newRow());
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+        assertTrue(writer.enqueue(newRow()));
+        boolean accepted = writer.enqueue(newRow());
+        release.countDown();
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(1.0, meterRegistry.get("sensor.ingest.rows.dropped").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEnqueueAll_RowsAreWrittenByFlusher() {
+        // Act
+        writer.start();
+        int queued = writer.enqueueAll(List.of(newRow(), newRow(), newRow()));
+
+        // Assert
+        assertEquals(3, queued);
+        ArgumentCaptor<List<HiveSensorData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(hiveSensorDataRepository, timeout(2000)).saveAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        verify(rollupService, timeout(2000)).apply(anyList());
+    }
+
+    @Test
+    void testEnqueueAll_DropsRestOfBatchAfterTimeout() throws Exception {
+        // Arrange - Block the flusher inside the first write so the queue fills up
+        ReflectionTestUtils.setField(writer, "queueCapacity", 2);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(hiveSensorDataRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        writer.start();
+        writer.enqueue(newRow());
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+
+        // Act
+        int queued = writer.enqueueAll(List.of(newRow(), newRow(), newRow(), newRow()));
+        release.countDown();
+
+        // Assert
+        assertEquals(2, queued);
+        assertEquals(2.0, meterRegistry.get("sensor.ingest.rows.dropped").counter().count());
+    }
+
+    @Test
+    void testEnqueue_FailedWriteIsCountedAsDropped() {
+        // Arrange
+        when(hiveSensorDataRepository.saveAll(anyList())).thenThrow(new RuntimeException("DB down"));
+        writer.start();
+
+        // Act
+        writer.enqueue(newRow());
+
+        // Assert
+        verify(hiveSensorDataRepository, timeout(2000)).saveAll(anyList());
+        verify(transactionManager, timeout(2000)).rollback(any());
+        assertEquals(0.0, meterRegistry.get("sensor.ingest.rows.written").counter().count());
+    }
+
+    @Test
+    void testStop_DrainsQueuedRows() {
+        // Arrange
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 1000L);
+        writer.start();
+        writer.enqueue(newRow());
+        writer.enqueue(newRow());
+
+        // Act
+        writer.stop();
+
+        // Assert
+        verify(hiveSensorDataRepository, atLeastOnce()).saveAll(anyList());
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(2.0, meterRegistry.get("sensor.ingest.rows.written").counter().count());
+    }
+
+    @Test
+    void testWriteBatch_BlockModeAppendsBlocksInsteadOfRows() {
+        // Arrange
+        when(blockService.isEnabled()).thenReturn(true);
+        writer.start();
+        List<HiveSensorData> batch = List.of(newRow(), newRow());
+
+        // Act
+        int written = writer.writeBatch(batch);
+
+        // Assert
+        assertEquals(2, written);
+        verify(blockService).append(batch);
+        verify(hiveSensorDataRepository, never()).saveAll(anyList());
+        verify(rollupService).apply(batch);
+    }
+
+    private HiveSensorData newRow() {
+        HiveSensorData data = new HiveSensorData();
+        data.setHive(testHive);
+        data.setTemperature(25.0);
+        data.setExternalTemperature(20.0);
+        data.setHumidity(50.0);
+        data.setCo2(800.0);
+        data.setSoundLevel(50.0);
+        data.setWeight(6.5);
+        return data;
+    }
+}
@@ -0,0 +1,320 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.HiveSensorData;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.entity.HiveSensorRollupBackfill;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import com.beehivemonitor.repository.HiveSensorRollupBackfillRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for HiveSensorRollupService
+ * Tests bucket aggregation, merging into existing buckets, per-hive locking, the resumable backfill
+ * and resolution selection
+ */
+@ExtendWith(MockitoExtension.class)
+class HiveSensorRollupServiceTest {
+
+    @Mock
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Mock
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Mock
+    private HiveSensorRollupBackfillRepository backfillRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HiveSensorRollupService rollupService;
+
+    private Hive testHive;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rollupService, "maxPoints", 500);
+        ReflectionTestUtils.setField(rollupService, "maxDownsampleRows", 5000);
+        rollupService.start();
+
+        testHive = new Hive();
+        testHive.setId(UUID.randomUUID());
+        base = LocalDateTime.of(2024, 6, 1, 10, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApply_AggregatesSamplesPerBucket() {
+        // Arrange - two samples in the same 5-minute bucket, one in the next
+        List<HiveSensorData> samples = List.of(
+            newSample(base.plusMinutes(1), 30.0),
+            newSample(base.plusMinutes(3), 34.0),
+            newSample(base.plusMinutes(6), 40.0));
+
+        // Act
+        rollupService.apply(samples);
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        List<HiveSensorRollup> saved = captor.getValue();
+        assertEquals(4, saved.size()); // two 5-minute buckets, one hourly, one daily
+
+        HiveSensorRollup firstBucket = find(saved, HiveSensorRollup.Resolution.FIVE_MINUTES, base);
+        assertEquals(2L, firstBucket.getSampleCount());
+        assertEquals(30.0, firstBucket.getTemperature().getMin());
+        assertEquals(34.0, firstBucket.getTemperature().getMax());
+        assertEquals(32.0, firstBucket.average(firstBucket.getTemperature()));
+
+        HiveSensorRollup hourly = find(saved, HiveSensorRollup.Resolution.HOURLY, base);
+        assertEquals(3L, hourly.getSampleCount());
+        assertEquals(40.0, hourly.getTemperature().getMax());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApply_MergesIntoExistingBucket() {
+        // Arrange
+        HiveSensorRollup existing = HiveSensorRollup.of(testHive.getId(), HiveSensorRollup.Resolution.DAILY,
+            newSample(base.minusHours(2), 20.0));
+        when(rollupRepository.findBuckets(any(), anyCollection(), anyCollection())).thenAnswer(invocation ->
+            invocation.getArgument(0) == HiveSensorRollup.Resolution.DAILY ? List.of(existing) : List.of());
+
+        // Act
+        rollupService.apply(List.of(newSample(base, 30.0)));
+
+        // Assert
+        ArgumentCaptor<List<HiveSensorRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        assertTrue(captor.getValue().contains(existing));
+        assertEquals(3, captor.getValue().size());
+        assertEquals(2L, existing.getSampleCount());
+        assertEquals(20.0, existing.getTemperature().getMin());
+        assertEquals(30.0, existing.getTemperature().getMax());
+    }
+
+    @Test
+    void testApply_FailureIsCountedNotThrown() {
+        // Arrange
+        when(rollupRepository.saveAll(anyList())).thenThrow(new RuntimeException("Duplicate entry"));
+
+        // Act
+        assertDoesNotThrow(() -> rollupService.apply(List.of(newSample(base, 30.0))));
+
+        // Assert - one retry, then counted
+        verify(rollupRepository, times(2)).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("sensor.rollup.failures").counter().count());
+    }
+
+    @Test
+    void testApply_BatchesOfDifferentHivesAreMergedConcurrently() throws Exception {
+        // Arrange - the first hive's merge blocks until the second hive's merge has finished
+        Hive otherHive = new Hive();
+        do {
+            otherHive.setId(UUID.randomUUID());
+        } while (Math.floorMod(otherHive.getId().hashCode(), 64) == Math.floorMod(testHive.getId().hashCode(), 64));
+        CountDownLatch otherMerged = new CountDownLatch(1);
+        when(rollupRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<HiveSensorRollup> rollups = invocation.getArgument(0);
+            if (rollups.get(0).getHiveId().equals(testHive.getId())) {
+                assertTrue(otherMerged.await(5, TimeUnit.SECONDS));
+            } else {
+                otherMerged.countDown();
+            }
+            return rollups;
+        });
+        HiveSensorData otherSample = newSample(base, 30.0);
+        otherSample.setHive(otherHive);
+
+        // Act
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> rollupService.apply(List.of(newSample(base, 30.0))));
+        rollupService.apply(List.of(otherSample));
+        first.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, otherMerged.getCount());
+        assertEquals(0.0, meterRegistry.get("sensor.rollup.failures").counter().count());
+    }
+
+    @Test
+    void testStart_RawDataWithoutRollups_StartsBackfill() {
+        // Arrange
+        when(rollupRepository.count()).thenReturn(0L);
+        when(hiveSensorDataRepository.count()).thenReturn(10L);
+        when(backfillRepository.save(any(HiveSensorRollupBackfill.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        rollupService.start();
+
+        // Assert
+        verify(backfillRepository).save(argThat(state -> state.getCutoff() != null && state.getCompletedAt() == null));
+        assertTrue((Boolean) ReflectionTestUtils.getField(rollupService, "backfillPending"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfill_WalksHivesAndCompletes() {
+        // Arrange
+        Hive otherHive = new Hive();
+        otherHive.setId(UUID.randomUUID());
+        HiveSensorRollupBackfill state = new HiveSensorRollupBackfill(base.plusDays(1));
+        when(backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(backfillRepository.findByIdForUpdate(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId(), otherHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBefore(any(UUID.class), eq(base.plusDays(1)), any()))
+            .thenAnswer(invocation -> {
+                HiveSensorData sample = newSample(base, 30.0);
+                sample.setHive(invocation.getArgument(0).equals(testHive.getId()) ? testHive : otherHive);
+                return List.of(sample);
+            });
+
+        // Act
+        rollupService.backfill();
+
+        // Assert
+        verify(hiveSensorDataRepository).findByHiveIdAndTimestampBefore(eq(testHive.getId()), any(), any());
+        verify(hiveSensorDataRepository).findByHiveIdAndTimestampBefore(eq(otherHive.getId()), any(), any());
+        verify(rollupRepository, times(2)).saveAll(anyList());
+        assertNotNull(state.getCompletedAt());
+        assertNull(state.getHiveId());
+    }
+
+    @Test
+    void testBackfill_ResumesAfterStoredCursor() {
+        // Arrange - a previous run stopped after the first page of the hive
+        UUID lastId = UUID.randomUUID();
+        HiveSensorRollupBackfill state = new HiveSensorRollupBackfill(base.plusDays(1));
+        state.setHiveId(testHive.getId());
+        state.setLastTimestamp(base);
+        state.setLastId(lastId);
+        when(backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(backfillRepository.findByIdForUpdate(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBeforeAfter(
+            eq(testHive.getId()), eq(base.plusDays(1)), eq(base), eq(lastId), any()))
+            .thenReturn(List.of(newSample(base.plusMinutes(1), 30.0)));
+
+        // Act
+        rollupService.backfill();
+
+        // Assert
+        verify(hiveSensorDataRepository, never()).findByHiveIdAndTimestampBefore(any(UUID.class), any(), any());
+        verify(rollupRepository).saveAll(anyList());
+        assertNotNull(state.getCompletedAt());
+    }
+
+    @Test
+    void testBackfill_StopsAfterRepeatedFailuresWithoutCompleting() {
+        // Arrange
+        HiveSensorRollupBackfill state = new HiveSensorRollupBackfill(base.plusDays(1));
+        when(backfillRepository.findById(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(backfillRepository.findByIdForUpdate(HiveSensorRollupBackfill.SINGLETON_ID)).thenReturn(Optional.of(state));
+        when(hiveSensorDataRepository.findDistinctHiveIds()).thenReturn(List.of(testHive.getId()));
+        when(hiveSensorDataRepository.findByHiveIdAndTimestampBefore(any(UUID.class), any(), any()))
+            .thenReturn(List.of(newSample(base, 30.0)));
+        when(rollupRepository.saveAll(anyList())).thenThrow(new RuntimeException("Lock wait timeout"));
+
+        // Act
+        rollupService.backfill();
+
+        // Assert
+        verify(rollupRepository, times(3)).saveAll(anyList());
+        assertNull(state.getCompletedAt());
+        assertEquals(3.0, meterRegistry.get("sensor.rollup.failures").counter().count());
+    }
+
+    @Test
+    void testSelectResolution_KeepsPointsBounded() {
+        // Act & Assert
+        assertEquals(HiveSensorRollup.Resolution.FIVE_MINUTES,
+            rollupService.selectResolution(base.minusDays(1), base));
+        assertEquals(HiveSensorRollup.Resolution.HOURLY,
+            rollupService.selectResolution(base.minusDays(7), base));
+        assertEquals(HiveSensorRollup.Resolution.DAILY,
+            rollupService.selectResolution(base.minusDays(30), base));
+    }
+
+    @Test
+    void testSelectDownsamplingResolution_KeepsRowsBounded() {
+        // Act & Assert
+        assertEquals(HiveSensorRollup.Resolution.FIVE_MINUTES,
+            rollupService.selectDownsamplingResolution(base.minusDays(7), base));
+        assertEquals(HiveSensorRollup.Resolution.HOURLY,
+            rollupService.selectDownsamplingResolution(base.minusDays(30), base));
+        assertEquals(HiveSensorRollup.Resolution.DAILY,
+            rollupService.selectDownsamplingResolution(base.minusDays(365), base));
+    }
+
+    @Test
+    void testGetRollupsForDownsampling_UsesFinerResolutionThanChart() {
+        // Act
+        rollupService.getRollupsForDownsampling(testHive.getId(), base.minusDays(30), base);
+
+        // Assert
+        verify(rollupRepository).findForChart(testHive.getId(), HiveSensorRollup.Resolution.HOURLY,
+            base.minusDays(30), base);
+    }
+
+    @Test
+    void testGetRollups_QueriesFromBucketContainingStart() {
+        // Arrange
+        LocalDateTime start = base.minusDays(7).plusMinutes(17);
+
+        // Act
+        rollupService.getRollups(testHive.getId(), start, base);
+
+        // Assert
+        verify(rollupRepository).findForChart(testHive.getId(), HiveSensorRollup.Resolution.HOURLY,
+            base.minusDays(7), base);
+    }
+
+    private HiveSensorRollup find(List<HiveSensorRollup> rollups, HiveSensorRollup.Resolution resolution,
+                                  LocalDateTime bucketStart) {
+        return rollups.stream()
+            .filter(r -> r.getResolution() == resolution && r.getBucketStart().equals(bucketStart))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private HiveSensorData newSample(LocalDateTime timestamp, double temperature) {
+        HiveSensorData sample = new HiveSensorData();
+        sample.setHive(testHive);
+        sample.setTemperature(temperature);
+        sample.setExternalTemperature(20.0);
+        sample.setHumidity(50.0);
+        sample.setCo2(800.0);
+        sample.setSoundLevel(60.0);
+        sample.setWeight(6.5);
+        sample.setTimestamp(timestamp);
+        return sample;
+    }
+}
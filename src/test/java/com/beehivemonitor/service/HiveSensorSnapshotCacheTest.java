@@ -0,0 +1,205 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for HiveSensorSnapshotCache
+ * Tests freshness, completeness and hit/miss accounting of the latest-snapshot store
+ */
+@ExtendWith(MockitoExtension.class)
+class HiveSensorSnapshotCacheTest {
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HiveSensorSnapshotCache snapshotCache;
+
+    private UUID hiveId1;
+    private UUID hiveId2;
+    private SensorController.HiveSensorData sensorData;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(snapshotCache, "maxAgeSeconds", 60L);
+        snapshotCache.registerMetrics();
+
+        hiveId1 = UUID.randomUUID();
+        hiveId2 = UUID.randomUUID();
+        sensorData = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 50.0, 6.5);
+    }
+
+    @Test
+    void testGet_ReturnsFreshSnapshot() {
+        // Arrange
+        snapshotCache.put(hiveId1, sensorData);
+
+        // Act & Assert
+        assertSame(sensorData, snapshotCache.get(hiveId1));
+        assertNull(snapshotCache.get(hiveId2));
+        assertEquals(1.0, meterRegistry.get("sensor.snapshot.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("sensor.snapshot.cache.misses").counter().count());
+    }
+
+    @Test
+    void testGet_StaleSnapshotIsMiss() {
+        // Arrange - A max age of 0 makes every snapshot stale
+        ReflectionTestUtils.setField(snapshotCache, "maxAgeSeconds", 0L);
+        snapshotCache.put(hiveId1, sensorData);
+
+        // Act & Assert
+        assertNull(snapshotCache.get(hiveId1));
+        assertNull(snapshotCache.getAll());
+    }
+
+    @Test
+    void testGetAll_IncompleteUntilFullRefresh() {
+        // Arrange - Single-hive puts do not prove every hive is covered
+        snapshotCache.put(hiveId1, sensorData);
+        assertNull(snapshotCache.getAll());
+
+        Map<UUID, SensorController.HiveSensorData> all = new HashMap<>();
+        all.put(hiveId1, sensorData);
+        all.put(hiveId2, sensorData);
+
+        // Act
+        snapshotCache.putAll(snapshotCache.startRefresh(), all);
+
+        // Assert
+        assertEquals(all, snapshotCache.getAll());
+    }
+
+    @Test
+    void testPutAll_EvictsHivesNoLongerPresent() {
+        // Arrange
+        snapshotCache.put(hiveId1, sensorData);
+        snapshotCache.put(hiveId2, sensorData);
+
+        // Act
+        snapshotCache.putAll(snapshotCache.startRefresh(), Map.of(hiveId2, sensorData));
+
+        // Assert
+        assertNull(snapshotCache.get(hiveId1));
+        assertEquals(1, snapshotCache.getAll().size());
+    }
+
+    @Test
+    void testInvalidate_ForcesFetchOfAllHives() {
+        // Arrange
+        snapshotCache.putAll(snapshotCache.startRefresh(), Map.of(hiveId1, sensorData));
+
+        // Act
+        snapshotCache.invalidate();
+
+        // Assert - Full view is a miss, single-hive snapshot is still served
+        assertNull(snapshotCache.getAll());
+        assertSame(sensorData, snapshotCache.get(hiveId1));
+    }
+
+    @Test
+    void testEvict_RemovesSnapshot() {
+        // Arrange
+        snapshotCache.putAll(snapshotCache.startRefresh(), Map.of(hiveId1, sensorData, hiveId2, sensorData));
+
+        // Act
+        snapshotCache.evict(hiveId1);
+
+        // Assert
+        assertNull(snapshotCache.get(hiveId1));
+        assertEquals(Map.of(hiveId2, sensorData), snapshotCache.getAll());
+    }
+
+    @Test
+    void testPutAll_RefreshStartedBeforeHiveCreation_IsDiscarded() {
+        // Arrange - The refresh read the hives, then a hive was created
+        HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+        snapshotCache.invalidate();
+
+        // Act
+        snapshotCache.putAll(refresh, Map.of(hiveId1, sensorData));
+
+        // Assert - The full view stays incomplete, so the new hive is fetched on the next read
+        assertNull(snapshotCache.getAll());
+        assertNull(snapshotCache.get(hiveId1));
+    }
+
+    @Test
+    void testPutAll_RefreshStartedBeforeHiveDeletion_DoesNotRestoreHive() {
+        // Arrange
+        snapshotCache.putAll(snapshotCache.startRefresh(), Map.of(hiveId1, sensorData, hiveId2, sensorData));
+        HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+        snapshotCache.evict(hiveId1);
+
+        // Act
+        snapshotCache.putAll(refresh, Map.of(hiveId1, sensorData, hiveId2, sensorData));
+
+        // Assert
+        assertNull(snapshotCache.get(hiveId1));
+        assertEquals(Map.of(hiveId2, sensorData), snapshotCache.getAll());
+    }
+
+    @Test
+    void testPutAll_KeepsSnapshotPutAfterRefreshStarted() throws InterruptedException {
+        // Arrange
+        HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+        Thread.sleep(5);
+        SensorController.HiveSensorData newer = new SensorController.HiveSensorData(30.0, 20.0, 50.0, 800.0, 50.0, 6.5);
+        snapshotCache.put(hiveId1, newer);
+        snapshotCache.put(hiveId2, newer);
+
+        // Act - hive 2 was created after the refresh read the hives
+        snapshotCache.putAll(refresh, Map.of(hiveId1, sensorData));
+
+        // Assert
+        assertSame(newer, snapshotCache.get(hiveId1));
+        assertSame(newer, snapshotCache.get(hiveId2));
+    }
+
+    @Test
+    void testEvict_InTransaction_IsRepeatedAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            snapshotCache.evict(hiveId1);
+            HiveSensorSnapshotCache.Refresh refresh = snapshotCache.startRefresh();
+            // A refresh before the commit still sees the hive
+            snapshotCache.putAll(refresh, Map.of(hiveId1, sensorData));
+            assertSame(sensorData, snapshotCache.get(hiveId1));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertNull(snapshotCache.get(hiveId1));
+    }
+
+    @Test
+    void testOldestAgeGauge_IsRegistered() {
+        // Arrange
+        snapshotCache.put(hiveId1, sensorData);
+
+        // Act & Assert
+        double age = meterRegistry.get("sensor.snapshot.cache.oldest.age.seconds").gauge().value();
+        assertTrue(age >= 0.0 && age < 60.0);
+        assertEquals(1.0, meterRegistry.get("sensor.snapshot.cache.size").gauge().value());
+    }
+}
@@ -3,6 +3,9 @@ package com.beehivemonitor.service;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.HiveSensorBlockRepository;
+import com.beehivemonitor.repository.HiveSensorRollupRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
 import com.beehivemonitor.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +36,24 @@ class HiveServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private HiveSensorSnapshotCache snapshotCache;
+
+    @Mock
+    private AlertIndex alertIndex;
+
+    @Mock
+    private HiveSensorRollupRepository rollupRepository;
+
+    @Mock
+    private HiveSensorBlockRepository blockRepository;
+
+    @Mock
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    @Mock
+    private SensorArchiveStore archiveStore;
+
     @InjectMocks
     private HiveService hiveService;
 
@@ -125,6 +146,7 @@ class HiveServiceTest {
         assertEquals(testUser, newHive.getUser());
         verify(userRepository, times(1)).findByEmail("admin@example.com");
         verify(hiveRepository, times(1)).save(newHive);
+        verify(snapshotCache, times(1)).invalidate();
     }
 
     @Test
@@ -209,6 +231,12 @@ class HiveServiceTest {
         // Assert
         verify(hiveRepository, times(1)).findById(hiveId);
         verify(hiveRepository, times(1)).delete(testHive);
+        verify(snapshotCache, times(1)).evict(hiveId);
+        verify(alertIndex, times(1)).invalidate();
+        verify(rollupRepository, times(1)).deleteByHiveId(hiveId);
+        verify(blockRepository, times(1)).deleteByHiveId(hiveId);
+        verify(latestReadingRepository, times(1)).deleteByHiveId(hiveId);
+        verify(archiveStore, times(1)).deleteHive(hiveId);
     }
 
     @Test
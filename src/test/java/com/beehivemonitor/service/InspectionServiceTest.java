@@ -5,7 +5,6 @@ import com.beehivemonitor.entity.Inspection;
 import com.beehivemonitor.entity.User;
 import com.beehivemonitor.repository.HiveRepository;
 import com.beehivemonitor.repository.InspectionRepository;
-import com.beehivemonitor.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,7 +36,7 @@ class InspectionServiceTest {
     private HiveRepository hiveRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @InjectMocks
     private InspectionService inspectionService;
@@ -87,7 +86,7 @@ class InspectionServiceTest {
         inspection2.setHive(testHive);
         List<Inspection> inspections = Arrays.asList(testInspection, inspection2);
         
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(inspectionRepository.findByUserId(userId)).thenReturn(inspections);
 
         // Act
@@ -96,14 +95,14 @@ class InspectionServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        verify(userCache, times(1)).findByEmail("test@example.com");
         verify(inspectionRepository, times(1)).findByUserId(userId);
     }
 
     @Test
     void testGetAllInspectionsByUser_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userCache.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
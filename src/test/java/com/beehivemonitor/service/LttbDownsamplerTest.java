@@ -0,0 +1,76 @@
+package com.beehivemonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for LttbDownsampler
+ * Tests point budget, end points and preservation of peaks
+ */
+class LttbDownsamplerTest {
+
+    @Test
+    void testSelect_ShortSeriesIsKept() {
+        // Arrange
+        long[] x = {0, 60, 120};
+        double[] y = {1.0, 2.0, 3.0};
+
+        // Act
+        int[] selected = LttbDownsampler.select(x, y, 5);
+
+        // Assert
+        assertArrayEquals(new int[]{0, 1, 2}, selected);
+    }
+
+    @Test
+    void testSelect_KeepsBudgetAndEndPoints() {
+        // Arrange
+        int length = 10_000;
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i * 60L;
+            y[i] = Math.sin(i / 100.0);
+        }
+
+        // Act
+        int[] selected = LttbDownsampler.select(x, y, 100);
+
+        // Assert
+        assertEquals(100, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(length - 1, selected[99]);
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue(selected[i] > selected[i - 1]);
+        }
+    }
+
+    @Test
+    void testSelect_PreservesSpike() {
+        // Arrange
+        int length = 1000;
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 20.0;
+        }
+        y[437] = 45.0;
+
+        // Act
+        int[] selected = LttbDownsampler.select(x, y, 20);
+
+        // Assert
+        assertTrue(Arrays.stream(selected).anyMatch(index -> index == 437));
+    }
+
+    @Test
+    void testSelect_ThresholdBelowThreeThrows() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> LttbDownsampler.select(new long[10], new double[10], 2));
+    }
+}
@@ -0,0 +1,224 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.client.NotificationMicroserviceClient;
+import com.beehivemonitor.dto.NotificationRequest;
+import com.beehivemonitor.dto.NotificationResponse;
+import com.beehivemonitor.entity.NotificationOutbox;
+import com.beehivemonitor.repository.NotificationOutboxRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for NotificationOutboxService
+ * Tests queuing, claiming and delivery of outbox rows with retries, backoff and dead-lettering
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationMicroserviceClient notificationMicroserviceClient;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private NotificationOutboxService outboxService;
+
+    private NotificationOutbox notification;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "concurrency", 2);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxService, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "backoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 5000L);
+        outboxService.start();
+
+        notification = new NotificationOutbox();
+        notification.setId(UUID.randomUUID());
+        notification.setRecipientEmail("test@example.com");
+        notification.setSubject("Alert Triggered");
+        notification.setMessage("Alert triggered: Test Alert");
+        notification.setChannel("EMAIL");
+        notification.setAlertId(UUID.randomUUID());
+        notification.setNextAttemptAt(LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.stop();
+    }
+
+    @Test
+    void testEnqueue_SavesPendingRowDueNow() {
+        // Arrange
+        when(outboxRepository.save(any(NotificationOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UUID alertId = UUID.randomUUID();
+
+        // Act
+        NotificationOutbox queued = outboxService.enqueue(
+            new NotificationRequest("test@example.com", "Alert Triggered", "Alert triggered: Test", "EMAIL", alertId));
+
+        // Assert
+        assertEquals(NotificationOutbox.Status.PENDING, queued.getStatus());
+        assertEquals(0, queued.getAttempts());
+        assertEquals(alertId, queued.getAlertId());
+        assertFalse(queued.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verifyNoInteractions(notificationMicroserviceClient);
+    }
+
+    @Test
+    void testEnqueue_TruncatesLongMessage() {
+        // Arrange
+        when(outboxRepository.save(any(NotificationOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String message = "x".repeat(NotificationOutbox.MAX_MESSAGE_LENGTH + 100);
+
+        // Act
+        NotificationOutbox queued = outboxService.enqueue(
+            new NotificationRequest("test@example.com", "Alert Triggered", message, "EMAIL", null));
+
+        // Assert
+        assertEquals(NotificationOutbox.MAX_MESSAGE_LENGTH, queued.getMessage().length());
+    }
+
+    @Test
+    void testDispatchBatch_DeliversAndDeletesClaimedRows() throws Exception {
+        // Arrange
+        claim(notification);
+        when(notificationMicroserviceClient.sendNotification(any(), anyString()))
+            .thenReturn(new NotificationResponse(1L, true, "Sent", "SENT"));
+
+        // Act
+        int attempted = outboxService.dispatchBatch();
+
+        // Assert
+        assertEquals(1, attempted);
+        ArgumentCaptor<NotificationRequest> captor = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationMicroserviceClient).sendNotification(captor.capture(), eq(notification.getId().toString()));
+        assertEquals("test@example.com", captor.getValue().getRecipientEmail());
+        assertEquals(notification.getAlertId(), captor.getValue().getAlertId());
+        verify(outboxRepository).deleteById(notification.getId());
+        assertEquals(1.0, meterRegistry.get("notification.outbox.deliveries").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void testDispatchBatch_FailureIsRetriedWithBackoff() throws Exception {
+        // Arrange
+        claim(notification);
+        when(notificationMicroserviceClient.sendNotification(any(), anyString())).thenThrow(new RuntimeException("Connection refused"));
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.dispatchBatch();
+
+        // Assert
+        verify(outboxRepository).save(notification);
+        verify(outboxRepository, never()).deleteById(any());
+        assertEquals(NotificationOutbox.Status.PENDING, notification.getStatus());
+        assertEquals(1, notification.getAttempts());
+        assertEquals("Connection refused", notification.getLastError());
+        assertFalse(notification.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+    }
+
+    @Test
+    void testDispatchBatch_LastAttemptIsDeadLettered() throws Exception {
+        // Arrange
+        notification.setAttempts(2);
+        claim(notification);
+        when(notificationMicroserviceClient.sendNotification(any(), anyString()))
+            .thenReturn(new NotificationResponse(1L, false, "Mailbox unavailable", "FAILED"));
+
+        // Act
+        outboxService.dispatchBatch();
+
+        // Assert
+        assertEquals(NotificationOutbox.Status.DEAD, notification.getStatus());
+        assertEquals(3, notification.getAttempts());
+        assertEquals("Rejected: Mailbox unavailable", notification.getLastError());
+        assertEquals(1.0, meterRegistry.get("notification.outbox.deliveries").tag("outcome", "dead").counter().count());
+    }
+
+    @Test
+    void testDispatchBatch_ClientErrorIsDeadLetteredImmediately() throws Exception {
+        // Arrange
+        claim(notification);
+        FeignException badRequest = mock(FeignException.class);
+        when(badRequest.status()).thenReturn(400);
+        when(notificationMicroserviceClient.sendNotification(any(), anyString())).thenThrow(badRequest);
+
+        // Act
+        outboxService.dispatchBatch();
+
+        // Assert
+        assertEquals(NotificationOutbox.Status.DEAD, notification.getStatus());
+        assertEquals(1, notification.getAttempts());
+    }
+
+    @Test
+    void testDispatchBatch_NothingDue() throws Exception {
+        // Arrange
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any())).thenReturn(List.of());
+
+        // Act
+        int attempted = outboxService.dispatchBatch();
+
+        // Assert
+        assertEquals(0, attempted);
+        verify(outboxRepository, never()).claim(anyCollection(), anyString(), any(), any());
+        verifyNoInteractions(notificationMicroserviceClient);
+    }
+
+    @Test
+    void testDispatchBatch_RowsClaimedElsewhereAreSkipped() throws Exception {
+        // Arrange
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any())).thenReturn(List.of(notification.getId()));
+        when(outboxRepository.claim(anyCollection(), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        int attempted = outboxService.dispatchBatch();
+
+        // Assert
+        assertEquals(0, attempted);
+        verify(outboxRepository, never()).findByClaim(anyString());
+        verifyNoInteractions(notificationMicroserviceClient);
+    }
+
+    @Test
+    void testBackoffMs_DoublesUpToMaximum() {
+        // Act & Assert
+        assertEquals(1000, outboxService.backoffMs(1));
+        assertEquals(2000, outboxService.backoffMs(2));
+        assertEquals(4000, outboxService.backoffMs(3));
+        assertEquals(5000, outboxService.backoffMs(4));
+        assertEquals(5000, outboxService.backoffMs(40));
+    }
+
+    private void claim(NotificationOutbox row) {
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any())).thenReturn(List.of(row.getId()));
+        when(outboxRepository.claim(anyCollection(), anyString(), any(), any())).thenReturn(1);
+        when(outboxRepository.findByClaim(anyString())).thenReturn(List.of(row));
+    }
+}
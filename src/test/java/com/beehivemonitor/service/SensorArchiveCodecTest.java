@@ -0,0 +1,91 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for SensorArchiveCodec
+ * Tests lossless round trips, range filtering and the compression ratio
+ */
+class SensorArchiveCodecTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    @Test
+    void testRoundTrip_IsLossless() {
+        // Arrange - irregular intervals, negative values and arbitrary doubles
+        Random random = new Random(42);
+        List<HiveSensorSample> samples = new ArrayList<>();
+        LocalDateTime timestamp = BASE.plusNanos(123_000_000);
+        for (int i = 0; i < 1000; i++) {
+            timestamp = timestamp.plusSeconds(30 + random.nextInt(60)).plusNanos(random.nextInt(1000) * 1_000_000L);
+            samples.add(new HiveSensorSample(timestamp, random.nextGaussian() * 10, -5.5, 50.0 + i % 3,
+                800.0 + random.nextInt(400), Double.MAX_VALUE, i == 500 ? 0.0 : 6.5));
+        }
+
+        // Act
+        List<HiveSensorSample> decoded = decodeAll(SensorArchiveCodec.encode(samples));
+
+        // Assert
+        assertEquals(samples, decoded);
+    }
+
+    @Test
+    void testDecode_OnlyPassesSamplesInRange() {
+        // Arrange
+        List<HiveSensorSample> samples = minuteSeries(100);
+        ByteBuffer buffer = ByteBuffer.wrap(SensorArchiveCodec.encode(samples));
+
+        // Act
+        List<HiveSensorSample> decoded = new ArrayList<>();
+        long count = SensorArchiveCodec.decode(buffer, BASE.plusMinutes(10), BASE.plusMinutes(19), decoded::add);
+
+        // Assert
+        assertEquals(10, count);
+        assertEquals(samples.subList(10, 20), decoded);
+    }
+
+    @Test
+    void testEncode_CompressesRegularSeries() {
+        // Arrange - one month of one-minute samples rounded to 0.1, like the generator produces
+        List<HiveSensorSample> samples = minuteSeries(31 * 24 * 60);
+
+        // Act
+        byte[] encoded = SensorArchiveCodec.encode(samples);
+
+        // Assert - a database row takes more than 100 bytes
+        assertTrue(encoded.length < samples.size() * 10,
+            "Expected under 10 bytes per sample, got " + (double) encoded.length / samples.size());
+    }
+
+    @Test
+    void testDecode_RejectsOtherFiles() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+            SensorArchiveCodec.decode(ByteBuffer.allocate(64), BASE, BASE, sample -> { }));
+    }
+
+    private List<HiveSensorSample> minuteSeries(int count) {
+        List<HiveSensorSample> samples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double drift = Math.round(Math.sin(i / 120.0) * 30) / 10.0;
+            samples.add(new HiveSensorSample(BASE.plusMinutes(i), 34.0 + drift, 18.0 + drift, 55.0,
+                800.0 + Math.round(drift * 10), 60.0, 6.5));
+        }
+        return samples;
+    }
+
+    private List<HiveSensorSample> decodeAll(byte[] encoded) {
+        List<HiveSensorSample> decoded = new ArrayList<>();
+        SensorArchiveCodec.decode(ByteBuffer.wrap(encoded), BASE.minusYears(1), BASE.plusYears(1), decoded::add);
+        return decoded;
+    }
+}
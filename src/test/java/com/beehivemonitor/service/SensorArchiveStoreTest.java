@@ -0,0 +1,107 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for SensorArchiveStore
+ * Tests writing months, reading ranges across files, the manifest and hive deletion
+ */
+class SensorArchiveStoreTest {
+
+    @TempDir
+    Path archiveDir;
+
+    private SensorArchiveStore archiveStore;
+    private UUID hiveId;
+
+    @BeforeEach
+    void setUp() {
+        archiveStore = newStore();
+        hiveId = UUID.randomUUID();
+    }
+
+    @Test
+    void testRead_SpansArchivedMonths() throws Exception {
+        // Arrange
+        archiveStore.write(hiveId, YearMonth.of(2024, 4), hourly(LocalDateTime.of(2024, 4, 30, 20, 0), 4));
+        archiveStore.write(hiveId, YearMonth.of(2024, 5), hourly(LocalDateTime.of(2024, 5, 1, 0, 0), 4));
+
+        // Act
+        List<HiveSensorSample> samples = new ArrayList<>();
+        long count = archiveStore.read(hiveId, LocalDateTime.of(2024, 4, 30, 22, 0),
+            LocalDateTime.of(2024, 5, 1, 1, 0), samples::add);
+
+        // Assert
+        assertEquals(4, count);
+        assertEquals(LocalDateTime.of(2024, 4, 30, 22, 0), samples.get(0).timestamp());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 1, 0), samples.get(3).timestamp());
+        assertEquals(LocalDateTime.of(2024, 6, 1, 0, 0), archiveStore.getArchivedUntil(hiveId));
+    }
+
+    @Test
+    void testStart_LoadsManifest() throws Exception {
+        // Arrange
+        archiveStore.write(hiveId, YearMonth.of(2024, 5), hourly(LocalDateTime.of(2024, 5, 1, 0, 0), 3));
+
+        // Act
+        SensorArchiveStore reloaded = newStore();
+
+        // Assert
+        assertTrue(Files.exists(archiveDir.resolve(SensorArchiveStore.MANIFEST)));
+        assertTrue(reloaded.isArchived(hiveId, YearMonth.of(2024, 5)));
+        assertEquals(3, reloaded.readMonth(hiveId, YearMonth.of(2024, 5)).size());
+    }
+
+    @Test
+    void testDeleteHive_RemovesFilesAndEntries() throws Exception {
+        // Arrange
+        archiveStore.write(hiveId, YearMonth.of(2024, 5), hourly(LocalDateTime.of(2024, 5, 1, 0, 0), 3));
+
+        // Act
+        archiveStore.deleteHive(hiveId);
+
+        // Assert
+        assertFalse(Files.exists(archiveDir.resolve(hiveId.toString())));
+        assertNull(archiveStore.getArchivedUntil(hiveId));
+        assertFalse(newStore().isArchived(hiveId, YearMonth.of(2024, 5)));
+    }
+
+    @Test
+    void testRead_UnknownHive() {
+        // Act & Assert
+        assertEquals(0, archiveStore.read(hiveId, LocalDateTime.MIN, LocalDateTime.MAX, sample -> fail()));
+    }
+
+    private SensorArchiveStore newStore() {
+        SensorArchiveStore store = new SensorArchiveStore();
+        ReflectionTestUtils.setField(store, "objectMapper",
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        ReflectionTestUtils.setField(store, "archiveDir", archiveDir.toString());
+        store.start();
+        return store;
+    }
+
+    private List<HiveSensorSample> hourly(LocalDateTime start, int count) {
+        List<HiveSensorSample> samples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            samples.add(new HiveSensorSample(start.plusHours(i), 34.0 + i, 18.0, 55.0, 800.0, 60.0, 6.5));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,91 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for SensorBlockCodec
+ * Tests round trips at sensor precision, rounding and the encoded size
+ */
+class SensorBlockCodecTest {
+
+    private static final LocalDateTime BLOCK_START = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Test
+    void testRoundTrip_KeepsValuesWithOneDecimal() {
+        // Arrange - one-minute samples rounded to 0.1, like the generator produces, and negative values
+        List<HiveSensorSample> samples = hourSeries(new Random(7));
+
+        // Act
+        List<HiveSensorSample> decoded = SensorBlockCodec.decode(BLOCK_START, SensorBlockCodec.encode(BLOCK_START, samples));
+
+        // Assert
+        assertEquals(samples, decoded);
+    }
+
+    @Test
+    void testRoundTrip_RoundsToSensorPrecision() {
+        // Arrange
+        LocalDateTime timestamp = BLOCK_START.plusSeconds(90).plusNanos(123_456_789);
+        List<HiveSensorSample> samples = List.of(new HiveSensorSample(timestamp, 34.56, 18.04, 55.0, 812.0, 60.0, 6.549));
+
+        // Act
+        HiveSensorSample decoded = SensorBlockCodec.decode(BLOCK_START, SensorBlockCodec.encode(BLOCK_START, samples)).get(0);
+
+        // Assert
+        assertEquals(BLOCK_START.plusSeconds(90).plusNanos(123_000_000), decoded.timestamp());
+        assertEquals(34.6, decoded.temperature());
+        assertEquals(18.0, decoded.externalTemperature());
+        assertEquals(6.5, decoded.weight());
+    }
+
+    @Test
+    void testEncode_EmptyBlock() {
+        // Act
+        byte[] encoded = SensorBlockCodec.encode(BLOCK_START, List.of());
+
+        // Assert
+        assertEquals(1, encoded.length);
+        assertTrue(SensorBlockCodec.decode(BLOCK_START, encoded).isEmpty());
+    }
+
+    @Test
+    void testEncode_IsCompact() {
+        // Arrange
+        List<HiveSensorSample> samples = hourSeries(new Random(42));
+
+        // Act
+        byte[] encoded = SensorBlockCodec.encode(BLOCK_START, samples);
+
+        // Assert - a hive_sensor_data row takes more than 100 bytes
+        double bytesPerSample = (double) encoded.length / samples.size();
+        assertTrue(bytesPerSample < 12, "Expected less than 12 bytes per sample but was " + bytesPerSample);
+    }
+
+    private List<HiveSensorSample> hourSeries(Random random) {
+        List<HiveSensorSample> samples = new ArrayList<>();
+        double temperature = 34.0;
+        double externalTemperature = -2.0;
+        double weight = 45.0;
+        for (int i = 0; i < 60; i++) {
+            temperature += random.nextGaussian() * 0.2;
+            externalTemperature += random.nextGaussian() * 0.3;
+            weight += random.nextGaussian() * 0.05;
+            samples.add(new HiveSensorSample(BLOCK_START.plusMinutes(i).plusSeconds(random.nextInt(3)),
+                round(temperature), round(externalTemperature), round(55 + random.nextGaussian()),
+                Math.round(800 + random.nextGaussian() * 20), round(60 + random.nextGaussian() * 2), round(weight)));
+        }
+        return samples;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
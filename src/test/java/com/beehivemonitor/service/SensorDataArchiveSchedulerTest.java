@@ -0,0 +1,127 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveSensorSample;
+import com.beehivemonitor.repository.HiveSensorDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for SensorDataArchiveScheduler
+ * Tests export per month, merging into archived months and deletion of exported rows
+ */
+@ExtendWith(MockitoExtension.class)
+class SensorDataArchiveSchedulerTest {
+
+    @Mock
+    private HiveSensorDataRepository hiveSensorDataRepository;
+
+    @Mock
+    private SensorArchiveStore archiveStore;
+
+    @Mock
+    private DataRetentionService dataRetentionService;
+
+    @Mock
+    private HiveSensorBlockService blockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SensorDataArchiveScheduler archiveScheduler;
+
+    private UUID hiveId;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiveScheduler, "enabled", true);
+        ReflectionTestUtils.setField(archiveScheduler, "archiveAfterDays", 90);
+        archiveScheduler.start();
+
+        hiveId = UUID.randomUUID();
+        cutoff = LocalDateTime.of(2024, 6, 1, 0, 0);
+    }
+
+    @Test
+    void testArchiveHive_WritesOneFilePerMonthThenDeletes() throws Exception {
+        // Arrange
+        HiveSensorSample april = sample(LocalDateTime.of(2024, 4, 30, 23, 59));
+        HiveSensorSample may1 = sample(LocalDateTime.of(2024, 5, 1, 0, 0));
+        HiveSensorSample may2 = sample(LocalDateTime.of(2024, 5, 31, 23, 59));
+        when(hiveSensorDataRepository.streamByHiveIdAndTimestampBefore(hiveId, cutoff))
+            .thenReturn(Stream.of(april, may1, may2));
+
+        // Act
+        long archived = archiveScheduler.archiveHive(hiveId, cutoff);
+
+        // Assert
+        assertEquals(3, archived);
+        verify(archiveStore).write(hiveId, YearMonth.of(2024, 4), List.of(april));
+        verify(archiveStore).write(hiveId, YearMonth.of(2024, 5), List.of(may1, may2));
+        verify(dataRetentionService).purgeHiveSensorData(hiveId, cutoff);
+    }
+
+    @Test
+    void testArchiveHive_MergesLateRowsWithoutDuplicates() throws Exception {
+        // Arrange - one row was archived before, but its delete did not happen
+        HiveSensorSample archived = sample(LocalDateTime.of(2024, 5, 1, 0, 0));
+        HiveSensorSample late = sample(LocalDateTime.of(2024, 5, 2, 0, 0));
+        when(archiveStore.isArchived(hiveId, YearMonth.of(2024, 5))).thenReturn(true);
+        when(archiveStore.readMonth(hiveId, YearMonth.of(2024, 5))).thenReturn(List.of(archived));
+        when(hiveSensorDataRepository.streamByHiveIdAndTimestampBefore(hiveId, cutoff))
+            .thenReturn(Stream.of(archived, late));
+
+        // Act
+        archiveScheduler.archiveHive(hiveId, cutoff);
+
+        // Assert
+        verify(archiveStore).write(hiveId, YearMonth.of(2024, 5), List.of(archived, late));
+    }
+
+    @Test
+    void testArchiveHive_NothingToArchive() throws Exception {
+        // Arrange
+        when(hiveSensorDataRepository.streamByHiveIdAndTimestampBefore(hiveId, cutoff)).thenReturn(Stream.empty());
+
+        // Act
+        long archived = archiveScheduler.archiveHive(hiveId, cutoff);
+
+        // Assert
+        assertEquals(0, archived);
+        verify(archiveStore, never()).write(any(), any(), anyList());
+        verifyNoInteractions(dataRetentionService);
+    }
+
+    @Test
+    void testArchiveColdData_DisabledDoesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(archiveScheduler, "enabled", false);
+
+        // Act
+        archiveScheduler.archiveColdData();
+
+        // Assert
+        verifyNoInteractions(hiveSensorDataRepository, archiveStore, dataRetentionService);
+    }
+
+    private HiveSensorSample sample(LocalDateTime timestamp) {
+        return new HiveSensorSample(timestamp, 34.0, 18.0, 55.0, 800.0, 60.0, 6.5);
+    }
+}
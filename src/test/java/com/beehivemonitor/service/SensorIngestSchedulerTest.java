@@ -0,0 +1,240 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.dto.HiveIngestTarget;
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.entity.UserSettings;
+import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.UserRepository;
+import com.beehivemonitor.repository.UserSettingsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for SensorIngestScheduler
+ * Tests claiming of due users and chunked ingest
+ */
+@ExtendWith(MockitoExtension.class)
+class SensorIngestSchedulerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSettingsRepository userSettingsRepository;
+
+    @Mock
+    private HiveRepository hiveRepository;
+
+    @Mock
+    private SensorService sensorService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private SensorIngestScheduler scheduler;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 2);
+        ReflectionTestUtils.setField(scheduler, "parallelism", 2);
+        scheduler.start();
+
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void testIngestDueHives_IngestsHivesOfClaimedUsersInChunks() {
+        // Arrange
+        List<HiveIngestTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            targets.add(new HiveIngestTarget(userId, 5, UUID.randomUUID()));
+        }
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(1);
+        when(hiveRepository.findIngestTargetsByClaim(anyString())).thenReturn(targets);
+        when(sensorService.ingestHives(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(sensorService, times(3)).ingestHives(anyList());
+        verify(userSettingsRepository, never()).saveAll(anyList());
+        assertEquals(5.0, meterRegistry.get("sensor.ingest.run.rows").counter().count());
+        assertEquals(1L, meterRegistry.get("sensor.ingest.run").timer().count());
+    }
+
+    @Test
+    void testIngestDueHives_ProjectionUsesTheSameClaimToken() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(1);
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(userSettingsRepository).claimDueUsers(claim.capture(), any(), any());
+        verify(hiveRepository).findIngestTargetsByClaim(claim.getValue());
+    }
+
+    @Test
+    void testIngestDueHives_NothingDue() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(hiveRepository, never()).findIngestTargetsByClaim(anyString());
+        verify(sensorService, never()).ingestHives(anyList());
+    }
+
+    @Test
+    void testIngestDueHives_FailedChunkDoesNotStopOthers() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(1);
+        when(hiveRepository.findIngestTargetsByClaim(anyString())).thenReturn(List.of(
+                new HiveIngestTarget(userId, 5, UUID.randomUUID()),
+                new HiveIngestTarget(userId, 5, UUID.randomUUID()),
+                new HiveIngestTarget(userId, 5, UUID.randomUUID())));
+        when(sensorService.ingestHives(anyList())).thenAnswer(invocation -> {
+            List<?> chunk = invocation.getArgument(0);
+            if (chunk.size() == 2) {
+                throw new RuntimeException("Microservice down");
+            }
+            return chunk.size();
+        });
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(sensorService, times(2)).ingestHives(anyList());
+        assertEquals(1.0, meterRegistry.get("sensor.ingest.run.rows").counter().count());
+    }
+
+    @Test
+    void testIngestDueHives_UsersOfFailedChunkAreDueAgain() {
+        // Arrange
+        UUID otherUserId = UUID.randomUUID();
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(2);
+        when(hiveRepository.findIngestTargetsByClaim(anyString())).thenReturn(List.of(
+                new HiveIngestTarget(userId, 5, UUID.randomUUID()),
+                new HiveIngestTarget(userId, 5, UUID.randomUUID()),
+                new HiveIngestTarget(otherUserId, 5, UUID.randomUUID())));
+        when(sensorService.ingestHives(anyList())).thenAnswer(invocation -> {
+            List<?> chunk = invocation.getArgument(0);
+            if (chunk.size() == 2) {
+                throw new RuntimeException("Sensor data queue is full");
+            }
+            return chunk.size();
+        });
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(userSettingsRepository).claimDueUsers(claim.capture(), any(), any());
+        verify(userSettingsRepository).releaseClaim(eq(claim.getValue()), eq(Set.of(userId)), any());
+    }
+
+    @Test
+    void testIngestDueHives_AllChunksSucceed_NothingReleased() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(1);
+        when(hiveRepository.findIngestTargetsByClaim(anyString())).thenReturn(List.of(
+                new HiveIngestTarget(userId, 5, UUID.randomUUID())));
+        when(sensorService.ingestHives(anyList())).thenReturn(1);
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(userSettingsRepository, never()).releaseClaim(anyString(), anyCollection(), any());
+        verify(userSettingsRepository, never()).releaseClaim(anyString(), any());
+    }
+
+    @Test
+    void testIngestDueHives_RunFailsAfterClaim_ReleasesWholeClaim() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(Collections.emptyList());
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(1);
+        when(hiveRepository.findIngestTargetsByClaim(anyString())).thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(userSettingsRepository).claimDueUsers(claim.capture(), any(), any());
+        verify(userSettingsRepository).releaseClaim(eq(claim.getValue()), any());
+        verify(sensorService, never()).ingestHives(anyList());
+    }
+
+    @Test
+    void testIngestDueHives_CreatesDefaultSettingsForUsersWithoutSettings() {
+        // Arrange
+        User newUser = new User();
+        newUser.setId(userId);
+        when(userRepository.findUsersWithoutSettings()).thenReturn(List.of(newUser));
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(userSettingsRepository).saveAll(argThat(settings -> {
+            Iterator<UserSettings> iterator = settings.iterator();
+            UserSettings created = iterator.next();
+            return created.getUser() == newUser
+                    && created.getMeasurementIntervalMinutes() == 1
+                    && !iterator.hasNext();
+        }));
+    }
+
+    @Test
+    void testIngestDueHives_ConcurrentlyCreatedSettingsAreIgnored() {
+        // Arrange
+        when(userRepository.findUsersWithoutSettings()).thenReturn(List.of(new User()));
+        when(userSettingsRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate user_id"));
+        when(userSettingsRepository.claimDueUsers(anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        scheduler.ingestDueHives();
+
+        // Assert
+        verify(userSettingsRepository).claimDueUsers(anyString(), any(), any());
+    }
+}
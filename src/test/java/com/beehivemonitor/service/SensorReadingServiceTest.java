@@ -0,0 +1,187 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.Hive;
+import com.beehivemonitor.entity.LatestSensorReading;
+import com.beehivemonitor.entity.Sensor;
+import com.beehivemonitor.entity.SensorReading;
+import com.beehivemonitor.entity.TimeOrderedUuidGenerator;
+import com.beehivemonitor.repository.HiveRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
+import com.beehivemonitor.repository.SensorReadingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for SensorReadingService
+ * Tests maintaining the latest reading per hive and sensor type on save and the initial backfill
+ */
+@ExtendWith(MockitoExtension.class)
+class SensorReadingServiceTest {
+
+    @Mock
+    private SensorReadingRepository sensorReadingRepository;
+
+    @Mock
+    private LatestSensorReadingRepository latestReadingRepository;
+
+    @Mock
+    private HiveRepository hiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SensorReadingService sensorReadingService;
+
+    private Sensor temperatureSensor;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        Hive hive = new Hive();
+        hive.setId(UUID.randomUUID());
+        temperatureSensor = new Sensor();
+        temperatureSensor.setType("Temperature");
+        temperatureSensor.setHive(hive);
+        now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        sensorReadingService.start();
+    }
+
+    @Test
+    void testSaveReadings_CreatesLatestWithNewestOfBatch() {
+        // Arrange
+        SensorReading older = reading(now.minusMinutes(1), 30.0);
+        SensorReading newer = reading(now, 31.0);
+        when(sensorReadingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(latestReadingRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        sensorReadingService.saveReadings(List.of(newer, older));
+
+        // Assert
+        ArgumentCaptor<LatestSensorReading> captor = ArgumentCaptor.forClass(LatestSensorReading.class);
+        verify(latestReadingRepository, times(1)).save(captor.capture());
+        LatestSensorReading latest = captor.getValue();
+        assertEquals(temperatureSensor.getHive().getId(), latest.getHiveId());
+        assertEquals("Temperature", latest.getType());
+        assertEquals(31.0, latest.getValue());
+        assertEquals(newer.getId(), latest.getReadingId());
+    }
+
+    @Test
+    void testSaveReadings_KeepsNewerStoredLatest() {
+        // Arrange - a late reading older than the stored latest one
+        LatestSensorReading stored = latest(now, 31.0);
+        when(sensorReadingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(latestReadingRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+
+        // Act
+        sensorReadingService.saveReadings(List.of(reading(now.minusMinutes(5), 29.0)));
+
+        // Assert
+        verify(latestReadingRepository, never()).save(any());
+        assertEquals(31.0, stored.getValue());
+    }
+
+    @Test
+    void testSaveReadings_UpdatesOlderStoredLatest() {
+        // Arrange
+        LatestSensorReading stored = latest(now.minusMinutes(5), 29.0);
+        SensorReading reading = reading(now, 31.0);
+        when(sensorReadingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(latestReadingRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+
+        // Act
+        sensorReadingService.saveReadings(List.of(reading));
+
+        // Assert
+        verify(latestReadingRepository).save(stored);
+        assertEquals(31.0, stored.getValue());
+        assertEquals(now, stored.getTimestamp());
+        assertEquals(reading.getId(), stored.getReadingId());
+    }
+
+    @Test
+    void testSaveReadings_RetriesOnceAfterConflict() {
+        // Arrange
+        when(sensorReadingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(latestReadingRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(latestReadingRepository.save(any()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        sensorReadingService.saveReadings(List.of(reading(now, 31.0)));
+
+        // Assert
+        verify(sensorReadingRepository, times(2)).saveAll(anyList());
+        verify(latestReadingRepository, times(2)).save(any());
+    }
+
+    @Test
+    void testBackfillLatestReadings_FillsEachHiveWhenEmpty() {
+        // Arrange
+        UUID hiveId = temperatureSensor.getHive().getId();
+        when(latestReadingRepository.count()).thenReturn(0L);
+        when(sensorReadingRepository.count()).thenReturn(10L);
+        when(hiveRepository.findAllIds()).thenReturn(List.of(hiveId));
+        when(sensorReadingRepository.findLatestReadingsByHiveId(hiveId)).thenReturn(List.of(reading(now, 31.0)));
+        when(latestReadingRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        sensorReadingService.backfillLatestReadings();
+
+        // Assert
+        verify(latestReadingRepository, times(1)).save(any(LatestSensorReading.class));
+    }
+
+    @Test
+    void testBackfillLatestReadings_SkipsWhenAlreadyFilled() {
+        // Arrange
+        when(latestReadingRepository.count()).thenReturn(3L);
+
+        // Act
+        sensorReadingService.backfillLatestReadings();
+
+        // Assert
+        verifyNoInteractions(hiveRepository);
+        verify(sensorReadingRepository, never()).findLatestReadingsByHiveId(any());
+    }
+
+    private SensorReading reading(LocalDateTime timestamp, double value) {
+        SensorReading reading = new SensorReading();
+        reading.setId(TimeOrderedUuidGenerator.next());
+        reading.setSensor(temperatureSensor);
+        reading.setType("Temperature");
+        reading.setValue(value);
+        reading.setUnit("°C");
+        reading.setTimestamp(timestamp);
+        return reading;
+    }
+
+    private LatestSensorReading latest(LocalDateTime timestamp, double value) {
+        LatestSensorReading latest = new LatestSensorReading();
+        latest.setHiveId(temperatureSensor.getHive().getId());
+        latest.setType("Temperature");
+        latest.setReadingId(TimeOrderedUuidGenerator.next());
+        latest.setValue(value);
+        latest.setUnit("°C");
+        latest.setTimestamp(timestamp);
+        return latest;
+    }
+}
@@ -2,20 +2,19 @@ package com.beehivemonitor.service;
 
 import com.beehivemonitor.client.SensorMicroserviceClient;
 import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.dto.HiveSensorSample;
 import com.beehivemonitor.dto.MicroserviceRealtimeRequest;
 import com.beehivemonitor.dto.MicroserviceRealtimeResponse;
 import com.beehivemonitor.dto.MicroserviceSensorDataDTO;
 import com.beehivemonitor.dto.SensorReadingDTO;
 import com.beehivemonitor.entity.Hive;
 import com.beehivemonitor.entity.HiveSensorData;
-import com.beehivemonitor.entity.SensorReading;
+import com.beehivemonitor.entity.HiveSensorRollup;
+import com.beehivemonitor.entity.LatestSensorReading;
 import com.beehivemonitor.entity.User;
-import com.beehivemonitor.entity.UserSettings;
 import com.beehivemonitor.repository.HiveRepository;
 import com.beehivemonitor.repository.HiveSensorDataRepository;
-import com.beehivemonitor.repository.SensorReadingRepository;
-import com.beehivemonitor.repository.UserRepository;
-import com.beehivemonitor.repository.UserSettingsRepository;
+import com.beehivemonitor.repository.LatestSensorReadingRepository;
 import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,9 +22,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,22 +43,34 @@ import static org.mockito.Mockito.*;
 class SensorServiceTest {
 
     @Mock
-    private SensorReadingRepository sensorReadingRepository;
+    private LatestSensorReadingRepository latestReadingRepository;
 
     @Mock
     private HiveRepository hiveRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private HiveSensorDataRepository hiveSensorDataRepository;
 
     @Mock
-    private HiveSensorDataRepository hiveSensorDataRepository;
+    private SensorMicroserviceClient sensorMicroserviceClient;
 
     @Mock
-    private UserSettingsRepository userSettingsRepository;
+    private HiveSensorDataWriter hiveSensorDataWriter;
 
     @Mock
-    private SensorMicroserviceClient sensorMicroserviceClient;
+    private HiveSensorSnapshotCache snapshotCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HiveSensorRollupService rollupService;
+
+    @Mock
+    private SensorArchiveStore archiveStore;
+
+    @Mock
+    private HiveSensorBlockService blockService;
 
     @InjectMocks
     private SensorService sensorService;
@@ -81,6 +97,9 @@ class SensorServiceTest {
         testHive.setId(hiveId);
         testHive.setName("Test Hive");
         testHive.setUser(testUser);
+
+        // Snapshot cache starts empty, so realtime reads fall through to a fetch
+        lenient().when(snapshotCache.getAll()).thenReturn(null);
     }
 
     @Test
@@ -88,18 +107,17 @@ class SensorServiceTest {
         // Arrange
         when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
 
-        SensorReading reading1 = new SensorReading();
-        reading1.setType("Temperature");
-        reading1.setValue(25.5);
-        reading1.setUnit("°C");
+        LatestSensorReading humidity = new LatestSensorReading();
+        humidity.setType("Humidity");
+        humidity.setValue(60.0);
+        humidity.setUnit("%");
 
-        SensorReading reading2 = new SensorReading();
-        reading2.setType("Humidity");
-        reading2.setValue(60.0);
-        reading2.setUnit("%");
+        LatestSensorReading temperature = new LatestSensorReading();
+        temperature.setType("Temperature");
+        temperature.setValue(25.5);
+        temperature.setUnit("°C");
 
-        List<SensorReading> readings = Arrays.asList(reading1, reading2);
-        when(sensorReadingRepository.findLatestReadingsByHiveId(hiveId)).thenReturn(readings);
+        when(latestReadingRepository.findByHiveIdOrderByTypeAsc(hiveId)).thenReturn(Arrays.asList(humidity, temperature));
 
         // Act
         List<SensorReadingDTO> result = sensorService.getLatestReadingsByHiveId(hiveId, userEmail);
@@ -107,11 +125,12 @@ class SensorServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("Temperature", result.get(0).getType());
-        assertEquals(25.5, result.get(0).getValue());
-        assertEquals("°C", result.get(0).getUnit());
+        assertEquals("Humidity", result.get(0).getType());
+        assertEquals("Temperature", result.get(1).getType());
+        assertEquals(25.5, result.get(1).getValue());
+        assertEquals("°C", result.get(1).getUnit());
         verify(hiveRepository).findById(hiveId);
-        verify(sensorReadingRepository).findLatestReadingsByHiveId(hiveId);
+        verify(latestReadingRepository).findByHiveIdOrderByTypeAsc(hiveId);
     }
 
     @Test
@@ -125,7 +144,7 @@ class SensorServiceTest {
 
         assertEquals("Hive not found", exception.getMessage());
         verify(hiveRepository).findById(hiveId);
-        verify(sensorReadingRepository, never()).findLatestReadingsByHiveId(any());
+        verify(latestReadingRepository, never()).findByHiveIdOrderByTypeAsc(any());
     }
 
     @Test
@@ -139,7 +158,7 @@ class SensorServiceTest {
 
         assertEquals("Unauthorized access to hive", exception.getMessage());
         verify(hiveRepository).findById(hiveId);
-        verify(sensorReadingRepository, never()).findLatestReadingsByHiveId(any());
+        verify(latestReadingRepository, never()).findByHiveIdOrderByTypeAsc(any());
     }
 
     @Test
@@ -171,7 +190,7 @@ class SensorServiceTest {
 
         verify(hiveRepository).findById(hiveId);
         verify(sensorMicroserviceClient).getSensorDataForHive(hiveId);
-        verify(hiveSensorDataRepository).save(any(HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
     }
 
     @Test
@@ -195,7 +214,7 @@ class SensorServiceTest {
 
         verify(hiveRepository).findById(hiveId);
         verify(sensorMicroserviceClient).getSensorDataForHive(hiveId);
-        verify(hiveSensorDataRepository).save(any(HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
     }
 
     @Test
@@ -211,7 +230,7 @@ class SensorServiceTest {
         assertNotNull(result);
         verify(hiveRepository).findById(hiveId);
         verify(sensorMicroserviceClient).getSensorDataForHive(hiveId);
-        verify(hiveSensorDataRepository).save(any(HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
     }
 
     @Test
@@ -279,7 +298,7 @@ class SensorServiceTest {
 
         verify(hiveRepository).findAll();
         verify(sensorMicroserviceClient).getRealtimeSensorData(any(MicroserviceRealtimeRequest.class));
-        verify(hiveSensorDataRepository, times(2)).save(any(HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
     }
 
     @Test
@@ -317,7 +336,7 @@ class SensorServiceTest {
         
         verify(hiveRepository).findAll();
         verify(sensorMicroserviceClient).getRealtimeSensorData(any(MicroserviceRealtimeRequest.class));
-        verify(hiveSensorDataRepository).save(any(HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
     }
 
     @Test
@@ -402,13 +421,183 @@ class SensorServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testUpdateAllSensorData_PersistsHistoricalData() {
+        // Arrange - Explicit updates always persist, even with persist-on-read disabled
+        when(hiveRepository.findAll()).thenReturn(Collections.singletonList(testHive));
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenThrow(mock(FeignException.class));
+
+        // Act
+        sensorService.updateAllSensorData(userEmail);
+
+        // Assert
+        verify(hiveSensorDataWriter).enqueue(any(HiveSensorData.class));
+    }
+
+    @Test
+    void testGetRealtimeDataForHives_FetchesOnlyCacheMissesInOneCall() {
+        // Arrange
+        Hive cachedHive = new Hive();
+        cachedHive.setId(UUID.randomUUID());
+        SensorController.HiveSensorData cachedData = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 50.0, 6.5);
+        when(snapshotCache.get(cachedHive.getId())).thenReturn(cachedData);
+        when(snapshotCache.get(hiveId)).thenReturn(null);
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenThrow(mock(FeignException.class));
+
+        // Act
+        Map<UUID, SensorController.HiveSensorData> result =
+                sensorService.getRealtimeDataForHives(Arrays.asList(cachedHive, testHive));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(cachedData, result.get(cachedHive.getId()));
+        verify(sensorMicroserviceClient, times(1)).getRealtimeSensorData(
+                argThat(request -> request.getHiveIds().equals(List.of(hiveId))));
+        verify(snapshotCache).put(eq(hiveId), any(SensorController.HiveSensorData.class));
+        verify(hiveSensorDataWriter, never()).enqueue(any(HiveSensorData.class));
+    }
+
+    @Test
+    void testIngestHives_QueuesOneRowPerHiveOnWritePipeline() {
+        // Arrange
+        Hive secondHive = new Hive();
+        secondHive.setId(UUID.randomUUID());
+        secondHive.setUser(testUser);
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenThrow(mock(FeignException.class));
+        when(hiveSensorDataWriter.enqueueAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // Act
+        int queued = sensorService.ingestHives(Arrays.asList(testHive, secondHive));
+
+        // Assert
+        assertEquals(2, queued);
+        verify(sensorMicroserviceClient, times(1)).getRealtimeSensorData(any(MicroserviceRealtimeRequest.class));
+        verify(hiveSensorDataWriter).enqueueAll(argThat(rows -> rows.size() == 2
+                && rows.get(0).getTimestamp().equals(rows.get(1).getTimestamp())));
+        verify(hiveSensorDataWriter, never()).writeBatch(anyList());
+        verify(snapshotCache, times(2)).put(any(UUID.class), any(SensorController.HiveSensorData.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof SensorDataIngestedEvent
+                && ((SensorDataIngestedEvent) event).getSensorData().size() == 2));
+    }
+
+    @Test
+    void testIngestHives_QueueFull_ThrowsWithoutPublishing() {
+        // Arrange
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenThrow(mock(FeignException.class));
+        when(hiveSensorDataWriter.enqueueAll(anyList())).thenReturn(0);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> sensorService.ingestHives(List.of(testHive)));
+        assertTrue(exception.getMessage().contains("queue is full"));
+        verify(eventPublisher, never()).publishEvent(any(SensorDataIngestedEvent.class));
+    }
+
+    @Test
+    void testGetRealtimeDataForAllHives_PersistOnReadEnabled() {
+        // Arrange - Legacy behavior: every realtime read saves a historical row per hive
+        ReflectionTestUtils.setField(sensorService, "persistOnRead", true);
+        when(hiveRepository.findAll()).thenReturn(Collections.singletonList(testHive));
+
+        MicroserviceSensorDataDTO microserviceData = new MicroserviceSensorDataDTO();
+        microserviceData.setTemperature(25.5);
+        microserviceData.setExternalTemperature(20.0);
+        microserviceData.setHumidity(60.0);
+        microserviceData.setCo2(800.0);
+        microserviceData.setSoundLevel(50.0);
+        microserviceData.setWeight(6.5);
+
+        MicroserviceRealtimeResponse response = new MicroserviceRealtimeResponse();
+        response.setSensorData(Collections.singletonMap(hiveId, microserviceData));
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenReturn(response);
+
+        // Act
+        sensorService.getRealtimeDataForAllHives(userEmail);
+
+        // Assert
+        verify(hiveSensorDataWriter).enqueue(argThat(data -> data.getTemperature() == 25.5));
+    }
+
+    @Test
+    void testGetRealtimeSensorDataForHive_PersistOnReadEnabled() {
+        // Arrange
+        ReflectionTestUtils.setField(sensorService, "persistOnRead", true);
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+        when(sensorMicroserviceClient.getSensorDataForHive(hiveId)).thenThrow(mock(FeignException.class));
+
+        // Act
+        sensorService.getRealtimeSensorDataForHive(hiveId, userEmail);
+
+        // Assert
+        verify(hiveSensorDataWriter).enqueue(any(HiveSensorData.class));
+    }
+
+    @Test
+    void testGetRealtimeDataForAllHives_ServedFromSnapshotCache() {
+        // Arrange
+        Map<UUID, SensorController.HiveSensorData> cached = new HashMap<>();
+        cached.put(hiveId, new SensorController.HiveSensorData(25.5, 20.0, 60.0, 800.0, 50.0, 6.5));
+        when(snapshotCache.getAll()).thenReturn(cached);
+
+        // Act
+        Map<UUID, SensorController.HiveSensorData> result = sensorService.getRealtimeDataForAllHives(userEmail);
+
+        // Assert - No DB or microservice hop on a cache hit
+        assertEquals(cached, result);
+        verify(hiveRepository, never()).findAll();
+        verify(sensorMicroserviceClient, never()).getRealtimeSensorData(any());
+    }
+
+    @Test
+    void testGetRealtimeDataForAllHives_CacheMissFillsSnapshotCache() {
+        // Arrange
+        when(hiveRepository.findAll()).thenReturn(Collections.singletonList(testHive));
+        when(sensorMicroserviceClient.getRealtimeSensorData(any(MicroserviceRealtimeRequest.class)))
+                .thenThrow(mock(FeignException.class));
+
+        // Act
+        Map<UUID, SensorController.HiveSensorData> result = sensorService.getRealtimeDataForAllHives(userEmail);
+
+        // Assert
+        verify(snapshotCache).putAll(any(), eq(result));
+    }
+
+    @Test
+    void testGetRealtimeSensorDataForHive_ServedFromSnapshotCache() {
+        // Arrange
+        SensorController.HiveSensorData cached = new SensorController.HiveSensorData(25.5, 20.0, 60.0, 800.0, 50.0, 6.5);
+        when(snapshotCache.get(hiveId)).thenReturn(cached);
+
+        // Act
+        SensorController.HiveSensorData result = sensorService.getRealtimeSensorDataForHive(hiveId, userEmail);
+
+        // Assert
+        assertSame(cached, result);
+        verify(hiveRepository, never()).findById(any());
+        verify(sensorMicroserviceClient, never()).getSensorDataForHive(any());
+    }
+
+    @Test
+    void testSaveHistoricalData_UpdatesSnapshotCache() {
+        // Act
+        sensorService.saveHistoricalData(testHive, 25.5, 20.0, 60.0, 800.0, 50.0, 6.5);
+
+        // Assert
+        verify(snapshotCache).put(eq(hiveId), argThat(data -> data.temperature == 25.5 && data.weight == 6.5));
+    }
+
     @Test
     void testSaveHistoricalData_Success() {
         // Act
         sensorService.saveHistoricalData(testHive, 25.5, 20.0, 60.0, 800.0, 50.0, 6.5);
 
         // Assert
-        verify(hiveSensorDataRepository).save(argThat(sensorData -> {
+        verify(hiveSensorDataWriter).enqueue(argThat(sensorData -> {
             HiveSensorData data = (HiveSensorData) sensorData;
             return data.getHive().equals(testHive) &&
                    data.getTemperature() == 25.5 &&
@@ -422,37 +611,60 @@ class SensorServiceTest {
     }
 
     @Test
-    void testGetHistoricalData_Success() {
+    void testStreamHistoricalData_Success() {
         // Arrange
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
 
         when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
 
-        HiveSensorData historicalData1 = new HiveSensorData();
-        historicalData1.setTemperature(25.0);
-        historicalData1.setTimestamp(startDate.plusDays(1));
+        HiveSensorSample sample1 = new HiveSensorSample(startDate.plusDays(1), 25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        HiveSensorSample sample2 = new HiveSensorSample(startDate.plusDays(2), 26.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(hiveSensorDataRepository.streamByHiveIdAndTimestampBetween(hiveId, startDate, endDate))
+                .thenReturn(Stream.of(sample1, sample2).onClose(() -> closed.set(true)));
 
-        HiveSensorData historicalData2 = new HiveSensorData();
-        historicalData2.setTemperature(26.0);
-        historicalData2.setTimestamp(startDate.plusDays(2));
+        // Act
+        List<HiveSensorSample> result = new ArrayList<>();
+        long count = sensorService.streamHistoricalData(hiveId, startDate, endDate, userEmail, result::add);
 
-        List<HiveSensorData> historicalData = Arrays.asList(historicalData1, historicalData2);
-        when(hiveSensorDataRepository.findByHiveIdAndTimestampBetween(hiveId, startDate, endDate))
-                .thenReturn(historicalData);
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(sample1, sample2), result);
+        assertTrue(closed.get());
+        verify(hiveRepository).findById(hiveId);
+        verify(hiveSensorDataRepository).streamByHiveIdAndTimestampBetween(hiveId, startDate, endDate);
+    }
+
+    @Test
+    void testStreamHistoricalData_ReadsArchiveThenLiveRowsAfterIt() {
+        // Arrange - everything before archivedUntil is in the archive
+        LocalDateTime startDate = LocalDateTime.of(2024, 4, 15, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2024, 6, 15, 0, 0);
+        LocalDateTime archivedUntil = LocalDateTime.of(2024, 6, 1, 0, 0);
+        HiveSensorSample archived = new HiveSensorSample(startDate.plusDays(1), 25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+        HiveSensorSample live = new HiveSensorSample(archivedUntil.plusDays(1), 26.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+        when(archiveStore.read(eq(hiveId), eq(startDate), eq(endDate), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<HiveSensorSample>>getArgument(3).accept(archived);
+            return 1L;
+        });
+        when(archiveStore.getArchivedUntil(hiveId)).thenReturn(archivedUntil);
+        when(hiveSensorDataRepository.streamByHiveIdAndTimestampBetween(hiveId, archivedUntil, endDate))
+                .thenReturn(Stream.of(live));
 
         // Act
-        List<HiveSensorData> result = sensorService.getHistoricalData(hiveId, startDate, endDate, userEmail);
+        List<HiveSensorSample> result = new ArrayList<>();
+        long count = sensorService.streamHistoricalData(hiveId, startDate, endDate, userEmail, result::add);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(hiveRepository).findById(hiveId);
-        verify(hiveSensorDataRepository).findByHiveIdAndTimestampBetween(hiveId, startDate, endDate);
+        assertEquals(2, count);
+        assertEquals(List.of(archived, live), result);
     }
 
     @Test
-    void testGetHistoricalData_HiveNotFound() {
+    void testStreamHistoricalData_HiveNotFound() {
         // Arrange
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
@@ -461,15 +673,15 @@ class SensorServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                sensorService.getHistoricalData(hiveId, startDate, endDate, userEmail));
+                sensorService.streamHistoricalData(hiveId, startDate, endDate, userEmail, sample -> { }));
 
         assertEquals("Hive not found", exception.getMessage());
         verify(hiveRepository).findById(hiveId);
-        verify(hiveSensorDataRepository, never()).findByHiveIdAndTimestampBetween(any(), any(), any());
+        verify(hiveSensorDataRepository, never()).streamByHiveIdAndTimestampBetween(any(), any(), any());
     }
 
     @Test
-    void testGetHistoricalData_UnauthorizedAccess() {
+    void testStreamHistoricalData_UnauthorizedAccess() {
         // Arrange
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
@@ -478,11 +690,60 @@ class SensorServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                sensorService.getHistoricalData(hiveId, startDate, endDate, "other@example.com"));
+                sensorService.streamHistoricalData(hiveId, startDate, endDate, "other@example.com", sample -> { }));
 
         assertEquals("Unauthorized access to hive", exception.getMessage());
         verify(hiveRepository).findById(hiveId);
-        verify(hiveSensorDataRepository, never()).findByHiveIdAndTimestampBetween(any(), any(), any());
+        verify(hiveSensorDataRepository, never()).streamByHiveIdAndTimestampBetween(any(), any(), any());
+    }
+
+    @Test
+    void testGetHistoricalRollups_ReadsRollupsNotRawData() {
+        // Arrange
+        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
+        LocalDateTime endDate = LocalDateTime.now();
+        HiveSensorRollup rollup = new HiveSensorRollup();
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+        when(rollupService.getRollups(hiveId, startDate, endDate)).thenReturn(List.of(rollup));
+
+        // Act
+        List<HiveSensorRollup> result = sensorService.getHistoricalRollups(hiveId, startDate, endDate, userEmail);
+
+        // Assert
+        assertEquals(List.of(rollup), result);
+        verifyNoInteractions(hiveSensorDataRepository);
+    }
+
+    @Test
+    void testGetHistoricalRollupsForDownsampling_ReadsDownsamplingRollups() {
+        // Arrange
+        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
+        LocalDateTime endDate = LocalDateTime.now();
+        HiveSensorRollup rollup = new HiveSensorRollup();
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+        when(rollupService.getRollupsForDownsampling(hiveId, startDate, endDate)).thenReturn(List.of(rollup));
+
+        // Act
+        List<HiveSensorRollup> result = sensorService.getHistoricalRollupsForDownsampling(hiveId, startDate, endDate, userEmail);
+
+        // Assert
+        assertEquals(List.of(rollup), result);
+        verify(rollupService, never()).getRollups(any(), any(), any());
+    }
+
+    @Test
+    void testGetHistoricalRollups_UnauthorizedAccess() {
+        // Arrange
+        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
+        LocalDateTime endDate = LocalDateTime.now();
+        when(hiveRepository.findById(hiveId)).thenReturn(Optional.of(testHive));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                sensorService.getHistoricalRollups(hiveId, startDate, endDate, "other@example.com"));
+
+        assertEquals("Unauthorized access to hive", exception.getMessage());
+        verifyNoInteractions(rollupService);
     }
 
     @Test
@@ -542,7 +803,7 @@ class SensorServiceTest {
         sensorService.saveHistoricalData(testHive, 25.555, 20.123, 60.789, 800.456, 50.321, 6.987);
 
         // Assert - Values should be saved as-is (no rounding in saveHistoricalData, rounding happens before)
-        verify(hiveSensorDataRepository).save(argThat(sensorData -> {
+        verify(hiveSensorDataWriter).enqueue(argThat(sensorData -> {
             HiveSensorData data = (HiveSensorData) sensorData;
             return data.getTemperature() == 25.555 &&
                    data.getExternalTemperature() == 20.123 &&
@@ -0,0 +1,199 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.controller.SensorController;
+import com.beehivemonitor.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test for SensorStreamService
+ * Tests fan-out of sensor data to all streams and of alert changes to the owner's streams,
+ * drop-oldest buffering and the connection gauge
+ */
+@ExtendWith(MockitoExtension.class)
+class SensorStreamServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private SensorStreamService sensorStreamService;
+
+    private UUID ownerId;
+    private UUID otherUserId;
+    private UUID ownerHiveId;
+    private UUID otherHiveId;
+    private SensorController.HiveSensorData sensorData;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sensorStreamService, "bufferSize", 2);
+        ReflectionTestUtils.setField(sensorStreamService, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(sensorStreamService, "deliveryThreads", 1);
+        sensorStreamService.start();
+
+        ownerId = UUID.randomUUID();
+        otherUserId = UUID.randomUUID();
+        ownerHiveId = UUID.randomUUID();
+        otherHiveId = UUID.randomUUID();
+        sensorData = new SensorController.HiveSensorData(25.0, 20.0, 50.0, 800.0, 60.0, 6.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sensorStreamService.stop();
+    }
+
+    @Test
+    void testOnSensorDataIngested_SendsToEveryConnectedUser() {
+        // Arrange - All users can view all hives, not only their own
+        RecordingEmitter ownerEmitter = new RecordingEmitter();
+        RecordingEmitter otherEmitter = new RecordingEmitter();
+        sensorStreamService.register(ownerId, ownerEmitter);
+        sensorStreamService.register(otherUserId, otherEmitter);
+
+        // Act
+        sensorStreamService.onSensorDataIngested(new SensorDataIngestedEvent(Map.of(ownerHiveId, sensorData)));
+
+        // Assert
+        String sentToOwner = ownerEmitter.awaitEvents(1).get(0);
+        String sentToOther = otherEmitter.awaitEvents(1).get(0);
+        assertTrue(sentToOwner.contains("event:" + SensorStreamService.SENSOR_DATA_EVENT));
+        assertTrue(sentToOwner.contains(ownerHiveId.toString()));
+        assertTrue(sentToOther.contains("event:" + SensorStreamService.SENSOR_DATA_EVENT));
+        assertTrue(sentToOther.contains(ownerHiveId.toString()));
+    }
+
+    @Test
+    void testOnAlertStateChanged_NotSentToOtherUsers() {
+        // Arrange
+        RecordingEmitter otherEmitter = new RecordingEmitter();
+        sensorStreamService.register(otherUserId, otherEmitter);
+
+        // Act
+        sensorStreamService.onAlertStateChanged(
+            new AlertStateChangedEvent(ownerId, UUID.randomUUID(), ownerHiveId, "High temperature", true));
+        sensorStreamService.onSensorDataIngested(new SensorDataIngestedEvent(Map.of(ownerHiveId, sensorData)));
+
+        // Assert - Only the sensor data arrives
+        String sent = otherEmitter.awaitEvents(1).get(0);
+        assertTrue(sent.contains("event:" + SensorStreamService.SENSOR_DATA_EVENT));
+    }
+
+    @Test
+    void testOnAlertStateChanged_SendsToOwner() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        sensorStreamService.register(ownerId, emitter);
+        UUID alertId = UUID.randomUUID();
+
+        // Act
+        sensorStreamService.onAlertStateChanged(
+            new AlertStateChangedEvent(ownerId, alertId, ownerHiveId, "High temperature", true));
+
+        // Assert
+        String sent = emitter.awaitEvents(1).get(0);
+        assertTrue(sent.contains("event:" + SensorStreamService.ALERT_EVENT));
+        assertTrue(sent.contains(alertId.toString()));
+    }
+
+    @Test
+    void testSubscription_FullBufferDropsOldest() {
+        // Arrange
+        SensorStreamSubscription subscription = new SensorStreamSubscription(ownerId, new SseEmitter(), 2);
+
+        // Act
+        boolean firstDropped = subscription.offer(SseEmitter.event().name("1"));
+        boolean secondDropped = subscription.offer(SseEmitter.event().name("2"));
+        boolean thirdDropped = subscription.offer(SseEmitter.event().name("3"));
+
+        // Assert
+        assertFalse(firstDropped);
+        assertFalse(secondDropped);
+        assertTrue(thirdDropped);
+        assertEquals(2, subscription.size());
+    }
+
+    @Test
+    void testConnectionGauge_TracksOpenStreams() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        sensorStreamService.register(ownerId, emitter);
+        sensorStreamService.register(otherUserId, new RecordingEmitter());
+
+        // Act
+        double open = meterRegistry.get("sensor.stream.connections").gauge().value();
+        emitter.failNextSend();
+        sensorStreamService.onAlertStateChanged(
+            new AlertStateChangedEvent(ownerId, UUID.randomUUID(), ownerHiveId, "High temperature", true));
+
+        // Assert
+        assertEquals(2.0, open);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("sensor.stream.connections").gauge().value() != 1.0
+                && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(1.0, meterRegistry.get("sensor.stream.connections").gauge().value());
+    }
+
+    /**
+     * Emitter that records the text of each sent event instead of writing to a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean failNextSend;
+
+        void failNextSend() {
+            failNextSend = true;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failNextSend) {
+                failNextSend = false;
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            Set<DataWithMediaType> parts = builder.build();
+            for (DataWithMediaType part : parts) {
+                Object data = part.getData();
+                text.append(data instanceof String ? data : objectMapper.writeValueAsString(data));
+            }
+            events.add(text.toString());
+        }
+
+        List<String> awaitEvents(int count) {
+            long deadline = System.currentTimeMillis() + 2000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            assertEquals(count, events.size());
+            return events;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,6 +33,9 @@ class SettingsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private SettingsService settingsService;
 
@@ -58,7 +62,7 @@ class SettingsServiceTest {
     @Test
     void testGetSettingsByEmail_SettingsExist_ReturnsSettings() {
         // Arrange
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.of(testSettings));
 
         // Act
@@ -68,7 +72,7 @@ class SettingsServiceTest {
         assertNotNull(result);
         assertEquals(testSettings.getId(), result.getId());
         assertEquals(5, result.getMeasurementIntervalMinutes());
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        verify(userCache, times(1)).findByEmail("test@example.com");
         verify(userSettingsRepository, times(1)).findByUser(testUser);
         verify(userSettingsRepository, never()).save(any(UserSettings.class));
     }
@@ -80,8 +84,9 @@ class SettingsServiceTest {
         defaultSettings.setUser(testUser);
         defaultSettings.setMeasurementIntervalMinutes(1);
 
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(defaultSettings);
 
         // Act
@@ -96,7 +101,7 @@ class SettingsServiceTest {
     @Test
     void testGetSettingsByEmail_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userCache.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -110,7 +115,7 @@ class SettingsServiceTest {
     @Test
     void testUpdateMeasurementInterval_SettingsExist_UpdatesInterval() {
         // Arrange
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.of(testSettings));
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(testSettings);
 
@@ -123,6 +128,21 @@ class SettingsServiceTest {
         verify(userSettingsRepository, times(1)).save(testSettings);
     }
 
+    @Test
+    void testUpdateMeasurementInterval_ChangedInterval_ResetsNextDueTime() {
+        // Arrange
+        testSettings.setNextDueAt(LocalDateTime.now().plusMinutes(30));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.of(testSettings));
+        when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(testSettings);
+
+        // Act
+        settingsService.updateMeasurementInterval("test@example.com", 10);
+
+        // Assert
+        assertNull(testSettings.getNextDueAt());
+    }
+
     @Test
     void testUpdateMeasurementInterval_SettingsNotExist_CreatesNew() {
         // Arrange
@@ -130,8 +150,9 @@ class SettingsServiceTest {
         newSettings.setUser(testUser);
         newSettings.setMeasurementIntervalMinutes(15);
 
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(newSettings);
 
         // Act
@@ -146,7 +167,7 @@ class SettingsServiceTest {
     @Test
     void testUpdateMeasurementInterval_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userCache.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
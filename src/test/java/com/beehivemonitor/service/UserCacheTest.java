@@ -0,0 +1,165 @@
+package com.beehivemonitor.service;
+
+import com.beehivemonitor.entity.User;
+import com.beehivemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for UserCache
+ * Tests the request and shared layers, invalidation and hit/miss accounting
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private UserCache userCache;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(userCache, "maxSize", 2);
+        userCache.registerMetrics();
+
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setEmail("test@example.com");
+        testUser.setRole(User.Role.USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testFindByEmail_SecondLookupIsSharedHit() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<User> first = userCache.findByEmail("test@example.com");
+        Optional<User> second = userCache.findByEmail("test@example.com");
+
+        // Assert
+        assertSame(testUser, first.orElseThrow());
+        assertSame(testUser, second.orElseThrow());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+        assertEquals(1.0, meterRegistry.get("user.cache.hits").tag("layer", "shared").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.cache.misses").counter().count());
+    }
+
+    @Test
+    void testFindByEmail_RequestLayerWithoutSharedLayer() {
+        // Arrange - A TTL of 0 disables the shared layer
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        userCache.findByEmail("test@example.com");
+        userCache.findByEmail("test@example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        userCache.findByEmail("test@example.com");
+
+        // Assert - One query per request
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+        assertEquals(1.0, meterRegistry.get("user.cache.hits").tag("layer", "request").counter().count());
+        assertEquals(0, userCache.getCachedUserCount());
+    }
+
+    @Test
+    void testFindByEmail_UnknownEmailIsNotCached() {
+        // Arrange
+        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        assertTrue(userCache.findByEmail("nonexistent@example.com").isEmpty());
+        assertTrue(userCache.findByEmail("nonexistent@example.com").isEmpty());
+
+        // Assert
+        verify(userRepository, times(2)).findByEmail("nonexistent@example.com");
+        assertEquals(0, userCache.getCachedUserCount());
+    }
+
+    @Test
+    void testInvalidate_ReloadsFromBothLayers() {
+        // Arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        User updatedUser = new User();
+        updatedUser.setEmail("test@example.com");
+        updatedUser.setRole(User.Role.ADMIN);
+        when(userRepository.findByEmail("test@example.com"))
+            .thenReturn(Optional.of(testUser))
+            .thenReturn(Optional.of(updatedUser));
+        userCache.findByEmail("test@example.com");
+
+        // Act
+        userCache.invalidate("test@example.com");
+        User user = userCache.findByEmail("test@example.com").orElseThrow();
+
+        // Assert
+        assertEquals(User.Role.ADMIN, user.getRole());
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void testFindByEmail_LoadOverlappingInvalidationIsNotCached() {
+        // Arrange - The role changes while the old row is being read
+        when(userRepository.findByEmail("test@example.com")).thenAnswer(invocation -> {
+            userCache.invalidate("test@example.com");
+            return Optional.of(testUser);
+        });
+
+        // Act
+        userCache.findByEmail("test@example.com");
+
+        // Assert
+        assertEquals(0, userCache.getCachedUserCount());
+    }
+
+    @Test
+    void testFindByEmail_FullCacheSkipsNewUsers() {
+        // Arrange
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setEmail(invocation.getArgument(0));
+            return Optional.of(user);
+        });
+
+        // Act
+        userCache.findByEmail("a@example.com");
+        userCache.findByEmail("b@example.com");
+        userCache.findByEmail("c@example.com");
+
+        // Assert
+        assertEquals(2, userCache.getCachedUserCount());
+        assertTrue(userCache.findByEmail("c@example.com").isPresent());
+        verify(userRepository, times(2)).findByEmail("c@example.com");
+    }
+}
@@ -34,6 +34,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AlertIndex alertIndex;
+
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -67,7 +73,7 @@ class UserServiceTest {
     @Test
     void testGetCurrentUser_Success() {
         // Arrange
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
         // Act
         AuthResponse.UserResponse response = userService.getCurrentUser("test@example.com");
@@ -77,13 +83,13 @@ class UserServiceTest {
         assertEquals(testUser.getEmail(), response.getEmail());
         assertEquals(testUser.getName(), response.getName());
         assertEquals(testUser.getRole(), response.getRole());
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        verify(userCache, times(1)).findByEmail("test@example.com");
     }
 
     @Test
     void testGetCurrentUser_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userCache.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -91,7 +97,7 @@ class UserServiceTest {
         });
 
         assertEquals("User not found", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail("nonexistent@example.com");
+        verify(userCache, times(1)).findByEmail("nonexistent@example.com");
     }
 
     @Test
@@ -142,6 +148,8 @@ class UserServiceTest {
         assertTrue(testUser.getEmailNotificationEnabled());
         verify(userRepository, times(1)).findByEmail("test@example.com");
         verify(userRepository, times(1)).save(testUser);
+        verify(alertIndex, times(1)).invalidate();
+        verify(userCache).invalidate("test@example.com");
     }
 
     @Test
@@ -173,6 +181,7 @@ class UserServiceTest {
         assertEquals(User.Role.ADMIN, testUser.getRole());
         verify(userRepository, times(1)).findById(testUserId);
         verify(userRepository, times(1)).save(testUser);
+        verify(userCache).invalidate(testUser.getEmail());
     }
 
     @Test
@@ -188,6 +197,7 @@ class UserServiceTest {
 
         assertEquals("You cannot remove admin role from yourself. Please ask another admin to do it.", exception.getMessage());
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userCache);
     }
 
     @Test
@@ -221,6 +231,7 @@ class UserServiceTest {
         verify(passwordEncoder, times(1)).matches("oldPassword", "encodedPassword");
         verify(passwordEncoder, times(1)).encode("newPassword123");
         verify(userRepository, times(1)).save(testUser);
+        verify(userCache).invalidate("test@example.com");
     }
 
     @Test
@@ -31,6 +31,9 @@ class UserSettingsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserSettingsService userSettingsService;
 
@@ -54,7 +57,7 @@ class UserSettingsServiceTest {
     @Test
     void testGetSettingsByEmail_SettingsExist_ReturnsSettings() {
         // Arrange
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.of(testSettings));
 
         // Act
@@ -64,7 +67,7 @@ class UserSettingsServiceTest {
         assertNotNull(result);
         assertEquals(testSettings.getId(), result.getId());
         assertEquals(5, result.getMeasurementIntervalMinutes());
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        verify(userCache, times(1)).findByEmail("test@example.com");
         verify(userSettingsRepository, times(1)).findByUser(testUser);
     }
 
@@ -75,8 +78,9 @@ class UserSettingsServiceTest {
         defaultSettings.setUser(testUser);
         defaultSettings.setMeasurementIntervalMinutes(1);
 
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(defaultSettings);
 
         // Act
@@ -91,7 +95,7 @@ class UserSettingsServiceTest {
     @Test
     void testUpdateMeasurementInterval_SettingsExist_UpdatesInterval() {
         // Arrange
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.of(testSettings));
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(testSettings);
 
@@ -111,8 +115,9 @@ class UserSettingsServiceTest {
         newSettings.setUser(testUser);
         newSettings.setMeasurementIntervalMinutes(15);
 
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userCache.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(userSettingsRepository.findByUser(testUser)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
         when(userSettingsRepository.save(any(UserSettings.class))).thenReturn(newSettings);
 
         // Act